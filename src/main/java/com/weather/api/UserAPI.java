@@ -1,6 +1,8 @@
 package com.weather.api;
 
 import com.weather.model.User;
+import com.weather.security.JwtAuthenticationToken;
+import com.weather.security.TokenRevocationService;
 import com.weather.service.impl.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -10,9 +12,14 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 import reactor.core.publisher.Mono;
 
@@ -29,6 +36,7 @@ import reactor.core.publisher.Mono;
 public class UserAPI {
 
     private final UserService userService;
+    private final TokenRevocationService tokenRevocationService;
 
     /**
      * Activates a user account by their username.
@@ -63,4 +71,24 @@ public class UserAPI {
     public Mono<User> deactivateUser(@PathVariable String username) {
         return userService.deactivateUser(username);
     }
+
+    /**
+     * Revokes the token used to authenticate this request. The token is rejected
+     * by every instance from now until it expires.
+     *
+     * @return A {@link Mono} completing once the token is revoked.
+     */
+    @Operation(summary = "Log out", description = "Revokes the bearer token used for this request.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Token revoked successfully", content = @Content),
+            @ApiResponse(responseCode = "401", description = "Authentication failed", content = @Content) })
+    @PostMapping("/logout")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public Mono<Void> logout() {
+        return ReactiveSecurityContextHolder.getContext()
+                .map(SecurityContext::getAuthentication)
+                .cast(JwtAuthenticationToken.class)
+                .filter(token -> token.getTokenId() != null)
+                .flatMap(token -> tokenRevocationService.revokeToken(token.getTokenId(), token.getExpiresAt()));
+    }
 }
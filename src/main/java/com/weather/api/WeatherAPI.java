@@ -2,18 +2,39 @@ package com.weather.api;
 
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.function.Supplier;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
 
+import com.weather.cache.EncodedHistoryCache;
+import com.weather.cache.EncodedWeatherResponse;
 import com.weather.dto.WeatherRequest;
 import com.weather.dto.WeatherResponse;
+import com.weather.exception.ResourceNotFoundException;
+import com.weather.exception.handler.ErrorResponseWriter;
+import com.weather.idempotency.IdempotencyStore;
+import com.weather.idempotency.IdempotentResult;
+import com.weather.jobs.CollectionJob;
+import com.weather.jobs.CollectionJobQueue;
 import com.weather.model.WeatherData;
 import com.weather.service.impl.WeatherService;
+import com.weather.utils.HistoryETag;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -36,35 +57,99 @@ import reactor.core.publisher.Mono;
 @Tag(name = "Weather API", description = "Weather related operations")
 @RequiredArgsConstructor
 public class WeatherAPI {
+
+	/**
+	 * Set to {@code true} on collection responses served from a stored
+	 * observation because OpenWeather was unavailable.
+	 */
+	public static final String STALE_HEADER = "X-Weather-Stale";
+
+	/**
+	 * Set to {@code true} on collection responses answered with the result of
+	 * an earlier request with the same {@code Idempotency-Key}.
+	 */
+	public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+	private static final String PREFER_HEADER = "Prefer";
+	private static final String PREFERENCE_APPLIED_HEADER = "Preference-Applied";
+	private static final String RESPOND_ASYNC = "respond-async";
 	
 	private final WeatherService weatherService;
+	private final EncodedHistoryCache historyCache;
+	private final IdempotencyStore idempotencyStore;
+	private final CollectionJobQueue jobQueue;
 
 	/**
-     * Collects weather data based on the provided request.
+     * Collects weather data based on the provided request. Requests with an
+     * {@code Idempotency-Key} header are collected at most once per key by
+     * the {@link IdempotencyStore}; retries receive the first result. Requests
+     * with {@code Prefer: respond-async} are queued as a {@link CollectionJob}
+     * and answered with {@code 202 Accepted} right away.
      *
      * @param weatherRequest {@link WeatherRequest} containing details about the weather to be collected.
-     * @return A {@link Mono} emitting a {@link ResponseEntity} with the collected {@link WeatherData}.
+     * @param idempotencyKey optional key identifying retries of the same request.
+     * @param prefer         optional {@code Prefer} header.
+     * @param exchange       the current exchange, whose trace ID a queued job reports errors with.
+     * @return A {@link Mono} emitting a {@link ResponseEntity} with the collected {@link WeatherData}, or
+     *         with the queued {@link CollectionJob}.
      */
     @Operation(summary = "Collect weather data", description = "Collects weather data for the given parameters.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Weather data collected successfully", 
                          content = @Content(mediaType = "application/json", schema = @Schema(implementation = WeatherData.class))),
+            @ApiResponse(responseCode = "202", description = "Collection queued as a job, see the Location header",
+                         content = @Content(mediaType = "application/json", schema = @Schema(implementation = CollectionJob.class))),
             @ApiResponse(responseCode = "404", description = "No weather data found for the given postal code", content = @Content),
             @ApiResponse(responseCode = "400", description = "Invalid input data", content = @Content),
             @ApiResponse(responseCode = "403", description = "Authentication failed", content = @Content),
-            @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content)
+            @ApiResponse(responseCode = "422", description = "Idempotency key reused for a different request", content = @Content),
+            @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content),
+            @ApiResponse(responseCode = "503", description = "Collection job queue is full", content = @Content)
     })
 	@PostMapping("/info")
-	public Mono<ResponseEntity<WeatherData>> collectEvent(@Valid @RequestBody WeatherRequest weatherRequest) {
+	public Mono<ResponseEntity<?>> collectEvent(@Valid @RequestBody WeatherRequest weatherRequest,
+			@RequestHeader(name = IdempotencyStore.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+			@RequestHeader(name = PREFER_HEADER, required = false) String prefer, ServerWebExchange exchange) {
 	
 		log.debug("Raw request body: {}", weatherRequest);
-		return weatherService.getWeatherData(weatherRequest).map(ResponseEntity::ok);
+		if (respondAsync(prefer) && jobQueue.isEnabled()) {
+			return jobQueue.submit(collect(weatherRequest, idempotencyKey).map(IdempotentResult::weatherData),
+					ErrorResponseWriter.traceId(exchange))
+					.map(WeatherAPI::accepted);
+		}
+		return collect(weatherRequest, idempotencyKey).map(result -> collected(result.weatherData(), result.replayed()));
 	}
 
     /**
-     * Retrieves historical weather data by postal code.
+     * Retrieves the status of a collection job, and its result once done.
+     *
+     * @param id The ID of the job, as returned when it was queued.
+     * @return A {@link Mono} emitting a {@link ResponseEntity} containing the {@link CollectionJob}.
+     */
+    @Operation(summary = "Retrieve a collection job",
+               description = "Fetches the status and, once done, the result of a queued collection.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Job retrieved successfully",
+                         content = @Content(mediaType = "application/json", schema = @Schema(implementation = CollectionJob.class))),
+            @ApiResponse(responseCode = "404", description = "No job with the given ID, or it expired", content = @Content),
+            @ApiResponse(responseCode = "403", description = "Authentication failed", content = @Content)
+    })
+	@GetMapping("/jobs/{id}")
+	public Mono<ResponseEntity<CollectionJob>> getJob(@PathVariable String id) {
+		return jobQueue.find(id)
+				.switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Job", id)))
+				.map(job -> ResponseEntity.ok()
+						.cacheControl(CacheControl.noStore())
+						.body(job));
+	}
+
+    /**
+     * Retrieves historical weather data by postal code. JSON and CBOR
+     * responses are served from the {@link EncodedHistoryCache} while the
+     * history is unchanged.
      *
      * @param postalCode The postal code for which historical weather data is retrieved.
+     * @param exchange   The current exchange, used to evaluate {@code If-None-Match}.
      * @return A {@link Flux} emitting {@link ResponseEntity} containing the historical {@link WeatherData}.
      */
     @Operation(summary = "Retrieve weather history by postal code", 
@@ -72,19 +157,34 @@ public class WeatherAPI {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Weather history retrieved successfully", 
                          content = @Content(mediaType = "application/json", schema = @Schema(implementation = WeatherData.class))),
+            @ApiResponse(responseCode = "304", description = "History unchanged since the ETag in If-None-Match", content = @Content),
             @ApiResponse(responseCode = "404", description = "No weather data found for the given postal code", content = @Content),
             @ApiResponse(responseCode = "403", description = "Authentication failed", content = @Content),
             @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content)
     })
 	@GetMapping("/history/postal-code/{postalCode}")
-	public Mono<ResponseEntity<WeatherResponse>> getHistoryByPostalCode(@PathVariable String postalCode) {
-		return weatherService.getHistoryByPostalCode(postalCode).map(ResponseEntity::ok);
+	public Mono<ResponseEntity<WeatherResponse>> getHistoryByPostalCode(@PathVariable String postalCode,
+			ServerWebExchange exchange) {
+		Supplier<Mono<String>> eTag = () -> weatherService.getHistoryETagByPostalCode(postalCode);
+		Supplier<Mono<WeatherResponse>> history = () -> weatherService.getHistoryByPostalCode(postalCode);
+		MediaType representation = historyCache.representation(exchange.getRequest());
+		if (representation == null) {
+			return conditionalHistory(exchange, eTag, history);
+		}
+		return Mono.defer(eTag).flatMap(tag -> exchange.checkNotModified(tag)
+				? Mono.just(notModified(tag))
+				: historyCache.get(postalCode, representation, tag)
+						.map(Mono::just)
+						.orElseGet(() -> Mono.defer(history)
+								.map(response -> historyCache.put(postalCode, representation, response)))
+						.map(encoded -> encodedHistory(representation, encoded)));
 	}
 
     /**
      * Retrieves historical weather data by username.
      *
      * @param username The username for which historical weather data is retrieved.
+     * @param exchange The current exchange, used to evaluate {@code If-None-Match}.
      * @return A {@link Flux} emitting {@link ResponseEntity} containing the historical {@link WeatherData}.
      */
     @Operation(summary = "Retrieve weather history by username", 
@@ -92,12 +192,113 @@ public class WeatherAPI {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Weather history retrieved successfully", 
                          content = @Content(mediaType = "application/json", schema = @Schema(implementation = WeatherData.class))),
+            @ApiResponse(responseCode = "304", description = "History unchanged since the ETag in If-None-Match", content = @Content),
             @ApiResponse(responseCode = "404", description = "No weather data found for the given username", content = @Content),
             @ApiResponse(responseCode = "403", description = "Authentication failed", content = @Content),
             @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content)
     })
 	@GetMapping("/history/user/{username}")
-	public Mono<ResponseEntity<WeatherResponse>> getHistoryByUsername(@PathVariable String username) {
-		return weatherService.getHistoryByUsername(username).map(ResponseEntity::ok);
+	public Mono<ResponseEntity<WeatherResponse>> getHistoryByUsername(@PathVariable String username,
+			ServerWebExchange exchange) {
+		return conditionalHistory(exchange, () -> weatherService.getHistoryETagByUsername(username),
+				() -> weatherService.getHistoryByUsername(username));
+	}
+
+	/**
+	 * Answers a history request with a strong ETag. Without {@code If-None-Match}
+	 * the history is loaded and the tag derived from it. With the header, the tag
+	 * is first computed from the history indexes; if it matches, {@code 304} is
+	 * returned without reading, converting or serializing the history.
+	 *
+	 * @param exchange the current exchange
+	 * @param eTag     computes the tag without loading the history
+	 * @param history  loads the history
+	 * @return the response entity
+	 */
+	private Mono<ResponseEntity<WeatherResponse>> conditionalHistory(ServerWebExchange exchange,
+			Supplier<Mono<String>> eTag, Supplier<Mono<WeatherResponse>> history) {
+		Mono<ResponseEntity<WeatherResponse>> full = Mono.defer(history).map(response -> ResponseEntity.ok()
+				.eTag(HistoryETag.of(response.getHistory()))
+				.varyBy(HttpHeaders.ACCEPT)
+				.body(response));
+		if (exchange.getRequest().getHeaders().getIfNoneMatch().isEmpty()) {
+			return full;
+		}
+		return Mono.defer(eTag).flatMap(tag -> exchange.checkNotModified(tag) ? Mono.just(notModified(tag)) : full);
+	}
+
+	/**
+	 * Answers with a pre-encoded history. The content type is fixed to the
+	 * representation the bytes were encoded in, so content negotiation cannot
+	 * pick another encoder.
+	 *
+	 * @param representation the media type of the encoded bytes
+	 * @param encoded        the pre-encoded history
+	 * @return the response entity
+	 */
+	private static ResponseEntity<WeatherResponse> encodedHistory(MediaType representation,
+			EncodedWeatherResponse encoded) {
+		return ResponseEntity.ok()
+				.eTag(encoded.getVersion())
+				.varyBy(HttpHeaders.ACCEPT)
+				.contentType(representation)
+				.body(encoded);
+	}
+
+	/**
+	 * Collects the weather, once per key if an {@code Idempotency-Key} was sent.
+	 */
+	private Mono<IdempotentResult> collect(WeatherRequest weatherRequest, String idempotencyKey) {
+		if (idempotencyKey == null) {
+			return Mono.defer(() -> weatherService.getWeatherData(weatherRequest))
+					.map(weatherData -> new IdempotentResult(weatherData, false));
+		}
+		return idempotencyStore.execute(idempotencyKey, weatherRequest,
+				Mono.defer(() -> weatherService.getWeatherData(weatherRequest)));
+	}
+
+	/**
+	 * @param prefer the {@code Prefer} header, a list of preferences
+	 * @return {@code true} if the client prefers to be answered before the
+	 *         collection completes
+	 */
+	private static boolean respondAsync(String prefer) {
+		if (prefer == null) {
+			return false;
+		}
+		for (String preference : prefer.split(",")) {
+			String token = preference.split(";", 2)[0].trim();
+			if (RESPOND_ASYNC.equalsIgnoreCase(token)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static ResponseEntity<CollectionJob> accepted(CollectionJob job) {
+		return ResponseEntity.accepted()
+				.location(URI.create(CollectionJobQueue.JOBS_PATH + job.getId()))
+				.header(PREFERENCE_APPLIED_HEADER, RESPOND_ASYNC)
+				.body(job);
+	}
+
+	private static ResponseEntity<WeatherData> collected(WeatherData weatherData, boolean replayed) {
+		ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+		if (replayed) {
+			response.header(REPLAYED_HEADER, Boolean.TRUE.toString());
+		}
+		if (weatherData.isStale()) {
+			long age = Math.max(0, Duration.between(weatherData.getRequestTime(), LocalDateTime.now()).toSeconds());
+			response.header(STALE_HEADER, Boolean.TRUE.toString())
+					.header(HttpHeaders.AGE, Long.toString(age));
+		}
+		return response.body(weatherData);
+	}
+
+	private static ResponseEntity<WeatherResponse> notModified(String tag) {
+		return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+				.eTag(tag)
+				.varyBy(HttpHeaders.ACCEPT)
+				.build();
 	}
 }
@@ -0,0 +1,18 @@
+package com.weather.cache;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A postal-code history encoded once in one representation.
+ *
+ * @param version         the history entity tag the bytes were encoded from
+ * @param bytes           read-only direct buffer holding the encoded response
+ * @param timestampOffset offset of the response {@code timestamp} value, which
+ *                        is replaced on every write
+ */
+record EncodedHistory(String version, ByteBuffer bytes, int timestampOffset) {
+
+	int size() {
+		return bytes.capacity();
+	}
+}
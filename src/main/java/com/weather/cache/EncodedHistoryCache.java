@@ -0,0 +1,226 @@
+package com.weather.cache;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+import org.springframework.core.codec.EncodingException;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.weather.config.JacksonConfig;
+import com.weather.dto.WeatherResponse;
+import com.weather.utils.HistoryETag;
+import com.weather.utils.ResponseCacheProperties;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Pre-encoded postal-code history responses, keyed by postal code and
+ * representation and versioned by the {@link HistoryETag}.
+ *
+ * <p>
+ * A postal-code history is the same document for every caller, so popular
+ * locations are serialized over and over although nothing changed. This cache
+ * keeps the encoded JSON or CBOR bytes of the latest version of each location
+ * in a read-only direct buffer; a request whose entity tag matches the cached
+ * version is answered without reading, converting or serializing the
+ * history. The only per-request field, the response {@code timestamp}, is
+ * spliced in at write time: its value has a fixed width in both
+ * representations, and its offset is found by encoding the response with two
+ * different sentinel timestamps and locating the first differing byte.
+ * </p>
+ *
+ * <p>
+ * Each location holds at most one version per representation; a newer version
+ * replaces the older one. Memory is bounded by the total encoded size, evicting
+ * the least recently used entries. Evicted buffers are never released
+ * explicitly, because responses in flight may still wrap them; they are freed
+ * by the garbage collector once the last one is written. Smile responses
+ * are not cached, since Smile may encode repeated strings as back-references.
+ * </p>
+ *
+ * <p>
+ * Metrics: {@code weather.response.cache.requests} tagged with
+ * {@code result=hit|miss}, and {@code weather.response.cache.size}, the
+ * encoded bytes currently held.
+ * </p>
+ */
+@Slf4j
+@Component
+public class EncodedHistoryCache {
+
+	private static final String TIMESTAMP_PATTERN = "yyyy-MM-dd HH:mm:ss";
+	static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern(TIMESTAMP_PATTERN);
+	static final int TIMESTAMP_LENGTH = TIMESTAMP_PATTERN.length();
+
+	private static final LocalDateTime SENTINEL = LocalDateTime.of(1111, 11, 11, 11, 11, 11);
+	private static final LocalDateTime ALTERNATE_SENTINEL = LocalDateTime.of(2222, 12, 22, 22, 22, 22);
+	private static final byte[] SENTINEL_BYTES = TIMESTAMP_FORMAT.format(SENTINEL).getBytes(StandardCharsets.US_ASCII);
+
+	private final ResponseCacheProperties properties;
+	private final Map<MediaType, ObjectWriter> writers;
+	private final Map<Key, EncodedHistory> entries = new LinkedHashMap<>(16, 0.75f, true);
+	private final Counter hits;
+	private final Counter misses;
+	private long size;
+
+	public EncodedHistoryCache(ResponseCacheProperties properties, ObjectMapper objectMapper,
+			MeterRegistry meterRegistry) {
+		this.properties = properties;
+		this.writers = Map.of(MediaType.APPLICATION_JSON, objectMapper.writerFor(WeatherResponse.class),
+				MediaType.APPLICATION_CBOR, objectMapper.copyWith(new CBORFactory()).writerFor(WeatherResponse.class));
+		this.hits = requests(meterRegistry, "hit");
+		this.misses = requests(meterRegistry, "miss");
+		Gauge.builder("weather.response.cache.size", this, EncodedHistoryCache::size)
+				.description("Encoded bytes held by the history response cache")
+				.baseUnit("bytes")
+				.register(meterRegistry);
+	}
+
+	/**
+	 * Picks the representation the request will be answered in, following the
+	 * server's content negotiation: acceptable types in order of quality and
+	 * specificity, JSON before CBOR before Smile.
+	 *
+	 * @param request the current request
+	 * @return JSON or CBOR, or {@code null} if the response cannot be served
+	 *         from this cache
+	 */
+	public MediaType representation(ServerHttpRequest request) {
+		if (!properties.isEnabled()) {
+			return null;
+		}
+		List<MediaType> accepted = new ArrayList<>(request.getHeaders().getAccept());
+		if (accepted.isEmpty()) {
+			return MediaType.APPLICATION_JSON;
+		}
+		MimeTypeUtils.sortBySpecificity(accepted);
+		for (MediaType mediaType : accepted) {
+			if (mediaType.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+				return MediaType.APPLICATION_JSON;
+			}
+			if (mediaType.isCompatibleWith(MediaType.APPLICATION_CBOR)) {
+				return MediaType.APPLICATION_CBOR;
+			}
+			if (mediaType.isCompatibleWith(JacksonConfig.APPLICATION_SMILE)) {
+				return null;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Looks up the encoded history of a location.
+	 *
+	 * @param postalCode     the location
+	 * @param representation JSON or CBOR, see {@link #representation}
+	 * @param version        the current history entity tag
+	 * @return the cached response, timestamped now, if the cached version is
+	 *         current
+	 */
+	public Optional<EncodedWeatherResponse> get(String postalCode, MediaType representation, String version) {
+		EncodedHistory encoded;
+		synchronized (this) {
+			encoded = entries.get(new Key(postalCode, representation));
+		}
+		if (encoded == null || !encoded.version().equals(version)) {
+			misses.increment();
+			return Optional.empty();
+		}
+		hits.increment();
+		return Optional.of(new EncodedWeatherResponse(postalCode, encoded, LocalDateTime.now()));
+	}
+
+	/**
+	 * Encodes a freshly loaded history and caches the bytes, replacing older
+	 * versions of the same location and representation.
+	 *
+	 * @param postalCode     the location
+	 * @param representation JSON or CBOR, see {@link #representation}
+	 * @param response       the loaded history
+	 * @return the encoded response, carrying the loaded response's timestamp
+	 */
+	public EncodedWeatherResponse put(String postalCode, MediaType representation, WeatherResponse response) {
+		EncodedHistory encoded = encode(representation, response);
+		if (encoded.size() <= properties.getMaxEntrySize().toBytes()) {
+			store(new Key(postalCode, representation), encoded);
+		} else {
+			log.debug("History of {} encodes to {} bytes, too large to cache", postalCode, encoded.size());
+		}
+		return new EncodedWeatherResponse(postalCode, encoded,
+				Objects.requireNonNullElseGet(response.getTimestamp(), LocalDateTime::now));
+	}
+
+	/**
+	 * @return the encoded bytes currently held
+	 */
+	public synchronized long size() {
+		return size;
+	}
+
+	private synchronized void store(Key key, EncodedHistory encoded) {
+		EncodedHistory replaced = entries.put(key, encoded);
+		size += encoded.size() - (replaced != null ? replaced.size() : 0);
+		long maxSize = properties.getMaxSize().toBytes();
+		Iterator<EncodedHistory> eldest = entries.values().iterator();
+		while (size > maxSize && eldest.hasNext()) {
+			size -= eldest.next().size();
+			eldest.remove();
+		}
+	}
+
+	private EncodedHistory encode(MediaType representation, WeatherResponse response) {
+		ObjectWriter writer = writers.get(representation);
+		LocalDateTime timestamp = response.getTimestamp();
+		byte[] bytes;
+		byte[] alternate;
+		try {
+			response.setTimestamp(SENTINEL);
+			bytes = writer.writeValueAsBytes(response);
+			response.setTimestamp(ALTERNATE_SENTINEL);
+			alternate = writer.writeValueAsBytes(response);
+		} catch (JsonProcessingException ex) {
+			throw new EncodingException("History encoding error: " + ex.getOriginalMessage(), ex);
+		} finally {
+			response.setTimestamp(timestamp);
+		}
+		int offset = Arrays.mismatch(bytes, alternate);
+		int end = offset + TIMESTAMP_LENGTH;
+		if (offset < 0 || bytes.length != alternate.length || end > bytes.length
+				|| !Arrays.equals(bytes, offset, end, SENTINEL_BYTES, 0, TIMESTAMP_LENGTH)
+				|| Arrays.mismatch(bytes, end, bytes.length, alternate, end, alternate.length) >= 0) {
+			throw new EncodingException("Cannot locate the timestamp in the encoded " + representation + " history");
+		}
+		ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+		return new EncodedHistory(HistoryETag.of(response.getHistory()), buffer.asReadOnlyBuffer(), offset);
+	}
+
+	private static Counter requests(MeterRegistry meterRegistry, String result) {
+		return Counter.builder("weather.response.cache.requests")
+				.description("History requests looked up in the response cache")
+				.tag("result", result)
+				.register(meterRegistry);
+	}
+
+	private record Key(String postalCode, MediaType representation) {
+	}
+}
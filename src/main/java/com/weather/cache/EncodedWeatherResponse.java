@@ -0,0 +1,58 @@
+package com.weather.cache;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+
+import com.weather.dto.WeatherResponse;
+
+/**
+ * A {@link WeatherResponse} whose body is already encoded.
+ *
+ * <p>
+ * Returned by {@link EncodedHistoryCache} in place of the loaded history. The
+ * JSON and CBOR encoders recognise it and call {@link #write} instead of
+ * serializing its properties, which are left empty apart from the postal code
+ * and timestamp. The shared bytes are wrapped, not copied: on Netty the
+ * response is a composite of the cached direct buffer around a 19-byte
+ * timestamp written for this request.
+ * </p>
+ */
+public class EncodedWeatherResponse extends WeatherResponse {
+
+	private final EncodedHistory encoded;
+
+	EncodedWeatherResponse(String postalCode, EncodedHistory encoded, LocalDateTime timestamp) {
+		this.encoded = encoded;
+		setPostalCode(postalCode);
+		setTimestamp(timestamp);
+	}
+
+	/**
+	 * @return the history entity tag the body was encoded from
+	 */
+	public String getVersion() {
+		return encoded.version();
+	}
+
+	/**
+	 * Wraps the cached bytes, with this response's timestamp spliced in, into a
+	 * single buffer of the given factory.
+	 *
+	 * @param bufferFactory the factory of the response being written
+	 * @return the encoded body
+	 */
+	public DataBuffer write(DataBufferFactory bufferFactory) {
+		ByteBuffer bytes = encoded.bytes();
+		int timestampEnd = encoded.timestampOffset() + EncodedHistoryCache.TIMESTAMP_LENGTH;
+		DataBuffer head = bufferFactory.wrap(bytes.duplicate().limit(encoded.timestampOffset()));
+		DataBuffer timestamp = bufferFactory.wrap(EncodedHistoryCache.TIMESTAMP_FORMAT.format(getTimestamp())
+				.getBytes(StandardCharsets.US_ASCII));
+		DataBuffer tail = bufferFactory.wrap(bytes.duplicate().position(timestampEnd));
+		return bufferFactory.join(List.of(head, timestamp, tail));
+	}
+}
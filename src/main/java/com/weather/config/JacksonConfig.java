@@ -1,17 +1,76 @@
 package com.weather.config;
 
+import org.springframework.boot.web.codec.CodecCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
 
 @Configuration
 public class JacksonConfig {
+
+    /**
+     * Media type of the Smile encoding, see {@link Jackson2SmileEncoder}.
+     */
+    public static final MediaType APPLICATION_SMILE = MediaType.valueOf("application/x-jackson-smile");
+
+    /**
+     * The application mapper, shared by the server and {@code WebClient} codecs
+     * and the error writers. {@link BlackbirdModule} replaces reflective
+     * property access with generated lambdas.
+     *
+     * @return the application JSON mapper
+     */
     @Bean
     public ObjectMapper objectMapper() {
         ObjectMapper mapper = new ObjectMapper();
         mapper.registerModule(new JavaTimeModule());
+        mapper.registerModule(new BlackbirdModule());
         return mapper;
     }
+
+    @Bean
+    public JsonCodecs jsonCodecs(ObjectMapper objectMapper) {
+        return new JsonCodecs(objectMapper);
+    }
+
+    /**
+     * Installs the {@link JsonCodecs} JSON encoder and decoder and adds CBOR
+     * ({@code application/cbor}) and Smile
+     * ({@code application/x-jackson-smile}) next to JSON for request and
+     * response bodies. Clients opt in through {@code Accept} or
+     * {@code Content-Type}; JSON stays the default. Custom writers are
+     * consulted before the default ones, so a JSON encoder is registered ahead
+     * of CBOR: without it, {@code Accept: *}{@code /*} and {@code WebClient}
+     * bodies without a content type would be written as CBOR. Both binary
+     * mappers are copies of the JSON mapper, so modules and {@code @JsonFormat}
+     * patterns behave identically.
+     *
+     * @param objectMapper the application JSON mapper
+     * @param jsonCodecs   the JSON codecs with pre-built readers and writers
+     * @return the customizer applied to the server and {@code WebClient} codecs
+     */
+    @Bean
+    public CodecCustomizer codecCustomizer(ObjectMapper objectMapper, JsonCodecs jsonCodecs) {
+        ObjectMapper smileMapper = objectMapper.copyWith(new SmileFactory());
+        ObjectMapper cborMapper = objectMapper.copyWith(new CBORFactory());
+        return configurer -> {
+            configurer.defaultCodecs().jackson2JsonEncoder(jsonCodecs.encoder());
+            configurer.defaultCodecs().jackson2JsonDecoder(jsonCodecs.decoder());
+            configurer.defaultCodecs().jackson2SmileEncoder(new Jackson2SmileEncoder(smileMapper, APPLICATION_SMILE));
+            configurer.defaultCodecs().jackson2SmileDecoder(new Jackson2SmileDecoder(smileMapper, APPLICATION_SMILE));
+            configurer.customCodecs().registerWithDefaultConfig(jsonCodecs.encoder());
+            configurer.customCodecs().registerWithDefaultConfig(new SingleValueCborEncoder(cborMapper));
+            configurer.customCodecs().registerWithDefaultConfig(
+                    new Jackson2CborDecoder(cborMapper, MediaType.APPLICATION_CBOR));
+        };
+    }
 }
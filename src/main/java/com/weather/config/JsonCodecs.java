@@ -0,0 +1,174 @@
+package com.weather.config;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.CodecException;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.codec.EncodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.codec.json.Jackson2CodecSupport;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.util.MimeType;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.exc.InvalidDefinitionException;
+import com.weather.cache.EncodedWeatherResponse;
+import com.weather.dto.ApiError;
+import com.weather.dto.Coordinates;
+import com.weather.dto.WeatherResponse;
+import com.weather.model.WeatherData;
+
+/**
+ * Pre-built Jackson readers and writers for the types on the hot paths, and
+ * the JSON codecs that use them.
+ *
+ * <p>
+ * The Spring JSON codecs create an {@link ObjectReader} or {@link ObjectWriter}
+ * for every body they handle. For {@link WeatherData}, {@link WeatherResponse},
+ * {@link Coordinates} and {@link ApiError} the codecs returned by
+ * {@link #encoder()} and {@link #decoder()} reuse instances built once here.
+ * Encoded values are written straight into a buffer of the target
+ * {@link DataBufferFactory}, which on the server is Netty's pooled allocator,
+ * instead of going through an intermediate byte array. Jackson's own
+ * generator and parser buffers are recycled per thread, which suits the
+ * long-lived event-loop threads. Other types, non UTF-8 charsets and
+ * {@code @JsonView} bodies fall back to the regular Spring code path.
+ * {@link EncodedWeatherResponse} bodies are already encoded and are written
+ * as they are.
+ * </p>
+ */
+public class JsonCodecs {
+
+	private static final List<Class<?>> PREBUILT_TYPES = List.of(WeatherData.class, WeatherResponse.class,
+			Coordinates.class, ApiError.class);
+	private static final int INITIAL_BUFFER_SIZE = 1024;
+
+	private final ObjectMapper objectMapper;
+	private final Map<Class<?>, ObjectReader> readers;
+	private final Map<Class<?>, ObjectWriter> writers;
+
+	public JsonCodecs(ObjectMapper objectMapper) {
+		this.objectMapper = objectMapper;
+		this.readers = PREBUILT_TYPES.stream().collect(Collectors.toUnmodifiableMap(Function.identity(),
+				objectMapper::readerFor));
+		this.writers = PREBUILT_TYPES.stream().collect(Collectors.toUnmodifiableMap(Function.identity(),
+				objectMapper::writerFor));
+	}
+
+	/**
+	 * @return a JSON encoder that uses the pre-built writers
+	 */
+	public Jackson2JsonEncoder encoder() {
+		return new PrebuiltWriterEncoder();
+	}
+
+	/**
+	 * @return a JSON decoder that uses the pre-built readers
+	 */
+	public Jackson2JsonDecoder decoder() {
+		return new PrebuiltReaderDecoder();
+	}
+
+	/**
+	 * Serializes the value as JSON into a new buffer of the given factory.
+	 *
+	 * @param value         the value to write
+	 * @param type          the declared type of the value
+	 * @param bufferFactory the factory to allocate the buffer from
+	 * @return the buffer holding the JSON document
+	 * @throws IOException if the value cannot be serialized
+	 */
+	public DataBuffer write(Object value, Class<?> type, DataBufferFactory bufferFactory) throws IOException {
+		ObjectWriter writer = writers.get(type);
+		return write(writer != null ? writer : objectMapper.writerFor(type), value, bufferFactory);
+	}
+
+	private static DataBuffer write(ObjectWriter writer, Object value, DataBufferFactory bufferFactory)
+			throws IOException {
+		DataBuffer buffer = bufferFactory.allocateBuffer(INITIAL_BUFFER_SIZE);
+		boolean release = true;
+		try (OutputStream out = buffer.asOutputStream()) {
+			writer.writeValue(out, value);
+			release = false;
+			return buffer;
+		} finally {
+			if (release) {
+				DataBufferUtils.release(buffer);
+			}
+		}
+	}
+
+	private static boolean isPrebuiltApplicable(MimeType mimeType, Map<String, Object> hints) {
+		boolean utf8 = mimeType == null || mimeType.getCharset() == null
+				|| StandardCharsets.UTF_8.equals(mimeType.getCharset());
+		return utf8 && (hints == null || !hints.containsKey(Jackson2CodecSupport.JSON_VIEW_HINT));
+	}
+
+	private class PrebuiltWriterEncoder extends Jackson2JsonEncoder {
+
+		PrebuiltWriterEncoder() {
+			super(objectMapper);
+		}
+
+		@Override
+		public DataBuffer encodeValue(Object value, DataBufferFactory bufferFactory, ResolvableType valueType,
+				MimeType mimeType, Map<String, Object> hints) {
+			if (value instanceof EncodedWeatherResponse encoded) {
+				return encoded.write(bufferFactory);
+			}
+			ObjectWriter writer = writers.get(valueType.toClass());
+			if (writer == null || !isPrebuiltApplicable(mimeType, hints)) {
+				return super.encodeValue(value, bufferFactory, valueType, mimeType, hints);
+			}
+			try {
+				return write(writer, value, bufferFactory);
+			} catch (InvalidDefinitionException ex) {
+				throw new CodecException("Type definition error: " + ex.getType(), ex);
+			} catch (JsonProcessingException ex) {
+				throw new EncodingException("JSON encoding error: " + ex.getOriginalMessage(), ex);
+			} catch (IOException ex) {
+				throw new IllegalStateException("Unexpected I/O error while writing to data buffer", ex);
+			}
+		}
+	}
+
+	private class PrebuiltReaderDecoder extends Jackson2JsonDecoder {
+
+		PrebuiltReaderDecoder() {
+			super(objectMapper);
+		}
+
+		@Override
+		public Object decode(DataBuffer dataBuffer, ResolvableType targetType, MimeType mimeType,
+				Map<String, Object> hints) throws DecodingException {
+			ObjectReader reader = readers.get(targetType.toClass());
+			if (reader == null || !isPrebuiltApplicable(mimeType, hints)) {
+				return super.decode(dataBuffer, targetType, mimeType, hints);
+			}
+			try {
+				return reader.readValue(dataBuffer.asInputStream());
+			} catch (InvalidDefinitionException ex) {
+				throw new CodecException("Type definition error: " + ex.getType(), ex);
+			} catch (JsonProcessingException ex) {
+				throw new DecodingException("JSON decoding error: " + ex.getOriginalMessage(), ex);
+			} catch (IOException ex) {
+				throw new DecodingException("I/O error while parsing input stream", ex);
+			} finally {
+				DataBufferUtils.release(dataBuffer);
+			}
+		}
+	}
+}
@@ -0,0 +1,55 @@
+package com.weather.config;
+
+import java.util.Map;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.util.MimeType;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.weather.cache.EncodedWeatherResponse;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link Jackson2CborEncoder} usable by HTTP message writers.
+ *
+ * <p>
+ * The Spring encoder only implements {@code encodeValue} and rejects
+ * {@link #encode} outright, yet the server always writes bodies through
+ * {@code encode}. Single values are encoded the same way the JSON encoder
+ * handles a {@link Mono}; multi-value streams stay unsupported because CBOR
+ * has no line-delimited framing to stream them in.
+ * {@link EncodedWeatherResponse} bodies are already encoded and are written
+ * as they are.
+ * </p>
+ */
+class SingleValueCborEncoder extends Jackson2CborEncoder {
+
+	SingleValueCborEncoder(ObjectMapper cborMapper) {
+		super(cborMapper, MediaType.APPLICATION_CBOR);
+	}
+
+	@Override
+	public Flux<DataBuffer> encode(Publisher<?> inputStream, DataBufferFactory bufferFactory,
+			ResolvableType elementType, MimeType mimeType, Map<String, Object> hints) {
+		if (inputStream instanceof Mono<?> mono) {
+			return mono.map(value -> encodeValue(value, bufferFactory, elementType, mimeType, hints)).flux();
+		}
+		return super.encode(inputStream, bufferFactory, elementType, mimeType, hints);
+	}
+
+	@Override
+	public DataBuffer encodeValue(Object value, DataBufferFactory bufferFactory, ResolvableType valueType,
+			MimeType mimeType, Map<String, Object> hints) {
+		if (value instanceof EncodedWeatherResponse encoded) {
+			return encoded.write(bufferFactory);
+		}
+		return super.encodeValue(value, bufferFactory, valueType, mimeType, hints);
+	}
+}
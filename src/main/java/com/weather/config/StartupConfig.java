@@ -0,0 +1,44 @@
+package com.weather.config;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.weather.Application;
+import com.weather.utils.WarmupProperties;
+import com.weather.warmup.WarmupRunner;
+
+/**
+ * Startup behaviour: the Mongo pool size kept warm by the {@link WarmupRunner},
+ * and the beans the {@code faststart} profile, which turns on
+ * {@code spring.main.lazy-initialization}, still creates eagerly.
+ *
+ * <p>
+ * Lazy initialization defers beans nobody asks for at startup, such as the
+ * Springdoc and actuator endpoint infrastructure. The service's own beans are
+ * excluded: they are the request path (controllers, services, repositories,
+ * filters, limiters) or have to run from the start (event-loop lag monitor,
+ * revocation listener), and creating them on the first request would move the
+ * Mongo and Redis client setup into that request's latency.
+ * </p>
+ */
+@Configuration(proxyBeanMethods = false)
+public class StartupConfig {
+
+	@Bean
+	static LazyInitializationExcludeFilter requestPathBeans() {
+		String applicationPackage = Application.class.getPackageName() + ".";
+		return (beanName, beanDefinition, beanType) -> beanType.getName().startsWith(applicationPackage);
+	}
+
+	/**
+	 * Keeps the connections opened during warm-up in the Mongo pool, so idle
+	 * periods do not make the next burst pay for new connections again.
+	 */
+	@Bean
+	public MongoClientSettingsBuilderCustomizer mongoPoolMinSize(WarmupProperties warmupProperties) {
+		return builder -> builder.applyToConnectionPoolSettings(
+				pool -> pool.minSize(warmupProperties.getMongoConnections()));
+	}
+}
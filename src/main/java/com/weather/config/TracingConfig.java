@@ -0,0 +1,39 @@
+package com.weather.config;
+
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.observability.ContextProviderFactory;
+import org.springframework.data.mongodb.observability.MongoObservationCommandListener;
+
+import io.micrometer.observation.ObservationRegistry;
+
+/**
+ * Tracing wiring not covered by Spring Boot auto-configuration.
+ *
+ * <p>
+ * Incoming W3C {@code traceparent} headers are extracted by the WebFlux server
+ * observation and outgoing calls made through the Boot-managed
+ * {@code WebClient.Builder} carry the header automatically. The trace context
+ * travels through Reactor operators via automatic context propagation
+ * ({@code spring.reactor.context-propagation=auto}), which also keeps the
+ * {@code traceId}/{@code spanId} MDC entries in log lines. This class adds the
+ * missing piece: Mongo commands become child spans of the request that issued
+ * them.
+ * </p>
+ */
+@Configuration
+public class TracingConfig {
+
+	/**
+	 * Registers an observation command listener on the Mongo client. The context
+	 * provider reads the parent observation from the Reactor context of the
+	 * subscriber, so reactive repository calls join the current trace.
+	 */
+	@Bean
+	public MongoClientSettingsBuilderCustomizer mongoObservationCustomizer(ObservationRegistry observationRegistry) {
+		return builder -> builder
+				.contextProvider(ContextProviderFactory.create(observationRegistry))
+				.addCommandListener(new MongoObservationCommandListener(observationRegistry));
+	}
+}
@@ -0,0 +1,152 @@
+package com.weather.deadline;
+
+import java.time.Duration;
+import java.util.Map;
+
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
+
+/**
+ * Point in time by which a request has to be answered.
+ *
+ * <p>
+ * The {@link DeadlineFilter} puts the deadline of every request into the
+ * Reactor {@link reactor.util.context.Context Context}, keyed by this class,
+ * so it reaches each stage of the request without being passed through the
+ * method signatures. A stage wraps its work in {@link #bound}: the work is
+ * not started when the time left is below the stage's budget, and is
+ * cancelled when the deadline passes while it runs. Either way it fails with
+ * a {@link DeadlineExceededException} naming the stage.
+ * </p>
+ */
+public final class Deadline {
+
+	private final long expiresAtNanos;
+	private final Duration timeout;
+	private final Map<String, Duration> stageBudgets;
+
+	private Deadline(long expiresAtNanos, Duration timeout, Map<String, Duration> stageBudgets) {
+		this.expiresAtNanos = expiresAtNanos;
+		this.timeout = timeout;
+		this.stageBudgets = stageBudgets;
+	}
+
+	/**
+	 * @param timeout      time from now until the deadline
+	 * @param stageBudgets least remaining time each stage needs to be started
+	 * @return the deadline
+	 */
+	public static Deadline after(Duration timeout, Map<String, Duration> stageBudgets) {
+		return new Deadline(System.nanoTime() + timeout.toNanos(), timeout, stageBudgets);
+	}
+
+	/**
+	 * @param context the subscriber context
+	 * @return the deadline of the request, or {@code null} if it has none
+	 */
+	public static Deadline from(ContextView context) {
+		return context.getOrDefault(Deadline.class, null);
+	}
+
+	/**
+	 * Runs a stage within the deadline found in the subscriber context. Without
+	 * a deadline the stage runs unchanged.
+	 *
+	 * @param stage  the stage name, also used as metric tag
+	 * @param source the work of the stage
+	 * @param <T>    the element type
+	 * @return the bounded work
+	 */
+	public static <T> Mono<T> bound(String stage, Mono<T> source) {
+		return bound(stage, null, source);
+	}
+
+	/**
+	 * Runs a stage within the deadline found in the subscriber context, leaving
+	 * the budget of a later stage over, such as a fallback that runs if this
+	 * stage fails. Without a deadline the stage runs unchanged.
+	 *
+	 * @param stage    the stage name, also used as metric tag
+	 * @param reserved the stage whose budget is kept free, or {@code null}
+	 * @param source   the work of the stage
+	 * @param <T>      the element type
+	 * @return the bounded work
+	 */
+	public static <T> Mono<T> bound(String stage, String reserved, Mono<T> source) {
+		return Mono.deferContextual(context -> {
+			Deadline deadline = from(context);
+			if (deadline == null) {
+				return source;
+			}
+			Duration reserve = deadline.budget(reserved);
+			if (!deadline.covers(stage, reserve)) {
+				return Mono.error(deadline.exceeded(stage, null));
+			}
+			return source.timeout(deadline.remaining().minus(reserve),
+					Mono.error(() -> deadline.exceeded(stage, null)));
+		});
+	}
+
+	/**
+	 * Runs a stage whose budget an earlier stage left over with
+	 * {@link #bound(String, String, Mono)}. Its budget was already set aside, so
+	 * it is started as long as any time is left.
+	 *
+	 * @param stage  the stage name, also used as metric tag
+	 * @param source the work of the stage
+	 * @param <T>    the element type
+	 * @return the bounded work
+	 */
+	public static <T> Mono<T> boundReserved(String stage, Mono<T> source) {
+		return Mono.deferContextual(context -> {
+			Deadline deadline = from(context);
+			if (deadline == null) {
+				return source;
+			}
+			Duration remaining = deadline.remaining();
+			if (remaining.isNegative() || remaining.isZero()) {
+				return Mono.error(deadline.exceeded(stage, null));
+			}
+			return source.timeout(remaining, Mono.error(() -> deadline.exceeded(stage, null)));
+		});
+	}
+
+	/**
+	 * @return the time left, negative once the deadline has passed
+	 */
+	public Duration remaining() {
+		return Duration.ofNanos(expiresAtNanos - System.nanoTime());
+	}
+
+	/**
+	 * @return the timeout the deadline was set with
+	 */
+	public Duration timeout() {
+		return timeout;
+	}
+
+	/**
+	 * @param stage the stage to start
+	 * @param delay time that passes before the stage starts, such as a retry
+	 *              back-off
+	 * @return {@code true} if the time left after the delay covers the budget
+	 *         of the stage
+	 */
+	public boolean covers(String stage, Duration delay) {
+		long needed = delay.toNanos() + stageBudgets.getOrDefault(stage, Duration.ZERO).toNanos();
+		return expiresAtNanos - System.nanoTime() > needed;
+	}
+
+	private Duration budget(String stage) {
+		return stage == null ? Duration.ZERO : stageBudgets.getOrDefault(stage, Duration.ZERO);
+	}
+
+	/**
+	 * @param stage the stage that could not be completed in time
+	 * @param cause the failure that would otherwise have been retried, if any
+	 * @return the exception to fail the stage with
+	 */
+	public DeadlineExceededException exceeded(String stage, Throwable cause) {
+		return new DeadlineExceededException(stage, timeout, cause);
+	}
+}
@@ -0,0 +1,22 @@
+package com.weather.deadline;
+
+import java.time.Duration;
+
+import com.weather.exception.InfrastructureException;
+
+import lombok.Getter;
+
+/**
+ * Signals that the {@link Deadline} of a request left too little time for
+ * one of its stages.
+ */
+@Getter
+public class DeadlineExceededException extends InfrastructureException {
+
+	private final String stage;
+
+	public DeadlineExceededException(String stage, Duration timeout, Throwable cause) {
+		super("Request deadline of " + timeout.toMillis() + "ms exceeded at stage " + stage, cause);
+		this.stage = stage;
+	}
+}
@@ -0,0 +1,35 @@
+package com.weather.deadline;
+
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+/**
+ * {@link WebFilter} starting the {@link Deadline} of every request and
+ * putting it into the Reactor Context of the rest of the chain.
+ *
+ * <p>
+ * Requests failing with a {@link DeadlineExceededException} are counted
+ * here, once per request; the {@code GlobalExceptionHandler} answers them
+ * with {@code 504 Gateway Timeout}. {@code SecurityConfig} adds the filter
+ * first in the security chain, so time spent waiting for admission counts
+ * against the deadline too.
+ * </p>
+ */
+@RequiredArgsConstructor
+public class DeadlineFilter implements WebFilter {
+
+	private final RequestDeadlines requestDeadlines;
+
+	@Override
+	public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+		Deadline deadline = requestDeadlines.start(exchange.getRequest());
+		return chain.filter(exchange)
+				.doOnError(DeadlineExceededException.class, requestDeadlines::recordExceeded)
+				.contextWrite(Context.of(Deadline.class, deadline));
+	}
+}
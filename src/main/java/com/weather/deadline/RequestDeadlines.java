@@ -0,0 +1,102 @@
+package com.weather.deadline;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import com.weather.utils.DeadlineProperties;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Sets the {@link Deadline} of incoming requests and counts the ones that
+ * miss it.
+ *
+ * <p>
+ * The timeout comes from the configured request header, in milliseconds,
+ * capped at {@code max-timeout}. Without a valid header the first endpoint
+ * whose path patterns match supplies it, and {@code default-timeout} covers
+ * everything else.
+ * </p>
+ *
+ * <p>
+ * Metrics: {@code weather.deadline.exceeded}, tagged with the {@code stage}
+ * that could not be completed in time. Stage names are fixed in code, so the
+ * number of series is bounded.
+ * </p>
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "deadline", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class RequestDeadlines {
+
+	private final DeadlineProperties properties;
+	private final MeterRegistry meterRegistry;
+	private final List<EndpointTimeout> endpoints = new ArrayList<>();
+	private final Map<String, Counter> exceeded = new ConcurrentHashMap<>();
+
+	public RequestDeadlines(DeadlineProperties properties, MeterRegistry meterRegistry) {
+		this.properties = properties;
+		this.meterRegistry = meterRegistry;
+		properties.getEndpoints().values().forEach(endpoint -> endpoint.getPatterns().forEach(pattern -> endpoints
+				.add(new EndpointTimeout(PathPatternParser.defaultInstance.parse(pattern), endpoint.getTimeout()))));
+	}
+
+	/**
+	 * @param request the incoming request
+	 * @return the deadline of the request, starting now
+	 */
+	public Deadline start(ServerHttpRequest request) {
+		return Deadline.after(timeout(request), properties.getStageBudgets());
+	}
+
+	/**
+	 * Counts a request that missed its deadline.
+	 *
+	 * @param ex the failure naming the stage
+	 */
+	public void recordExceeded(DeadlineExceededException ex) {
+		exceeded.computeIfAbsent(ex.getStage(), stage -> Counter.builder("weather.deadline.exceeded")
+				.description("Requests cancelled because their deadline could not cover a stage")
+				.tag("stage", stage)
+				.register(meterRegistry))
+				.increment();
+	}
+
+	private Duration timeout(ServerHttpRequest request) {
+		String header = request.getHeaders().getFirst(properties.getHeader());
+		if (header != null) {
+			try {
+				long millis = Long.parseLong(header.trim());
+				if (millis > 0) {
+					Duration requested = Duration.ofMillis(millis);
+					return requested.compareTo(properties.getMaxTimeout()) < 0 ? requested : properties.getMaxTimeout();
+				}
+			} catch (NumberFormatException ex) {
+				// fall through to the endpoint default
+			}
+			log.debug("Ignoring invalid {} header: {}", properties.getHeader(), header);
+		}
+		PathContainer path = request.getPath().pathWithinApplication();
+		for (EndpointTimeout endpoint : endpoints) {
+			if (endpoint.pattern().matches(path)) {
+				return endpoint.timeout();
+			}
+		}
+		return properties.getDefaultTimeout();
+	}
+
+	private record EndpointTimeout(PathPattern pattern, Duration timeout) {
+	}
+}
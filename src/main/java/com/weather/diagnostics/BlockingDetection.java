@@ -0,0 +1,77 @@
+package com.weather.diagnostics;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.weather.utils.DiagnosticsProperties.Mode;
+
+import lombok.experimental.UtilityClass;
+import lombok.extern.slf4j.Slf4j;
+import reactor.blockhound.BlockHound;
+
+/**
+ * Installs BlockHound to detect blocking calls on non-blocking threads (Netty
+ * event loops and Reactor's parallel scheduler).
+ *
+ * <p>
+ * Besides the JDK calls BlockHound knows about ({@code Thread.sleep}, socket
+ * and file I/O, lock parking), BCrypt hashing is declared blocking: it is
+ * CPU-bound rather than I/O-bound, but at tens of milliseconds per call it
+ * starves an event loop just the same, and must stay on the dedicated hashing
+ * scheduler. Logging and one-time class and service loading are allowed to
+ * block, otherwise every log statement and every lazily initialized library
+ * on an event loop would be reported.
+ * </p>
+ *
+ * <p>
+ * In {@link Mode#FAIL} the blocking call throws; in {@link Mode#LOG} it is
+ * reported with the stack trace of the offending call and proceeds. Used by
+ * {@link BlockingDetectionEnvironmentPostProcessor} at application startup and
+ * by the test execution listener when the {@code blockhound} Maven profile is
+ * active. Requires the JVM flag {@code -XX:+AllowRedefinitionToAddDeleteMethods}.
+ * </p>
+ */
+@Slf4j
+@UtilityClass
+public class BlockingDetection {
+
+	private static final String BCRYPT = "org.springframework.security.crypto.bcrypt.BCrypt";
+	private static final AtomicBoolean INSTALLED = new AtomicBoolean();
+
+	/**
+	 * Installs BlockHound once per JVM; later calls are ignored.
+	 *
+	 * @param mode whether blocking calls fail or are logged
+	 * @return {@code true} if this call installed BlockHound
+	 */
+	public static boolean install(Mode mode) {
+		if (!INSTALLED.compareAndSet(false, true)) {
+			return false;
+		}
+		// install(...) also applies the Reactor and Netty integrations found on the classpath
+		BlockHound.install(builder -> {
+			builder.markAsBlocking(BCRYPT, "hashpw", "(Ljava/lang/String;Ljava/lang/String;)Ljava/lang/String;")
+					.markAsBlocking(BCRYPT, "checkpw", "(Ljava/lang/String;Ljava/lang/String;)Z")
+					.allowBlockingCallsInside("ch.qos.logback.classic.Logger", "callAppenders")
+					.allowBlockingCallsInside("java.lang.ClassLoader", "loadClass")
+					.allowBlockingCallsInside("java.util.ServiceLoader$LazyClassPathLookupIterator", "parse");
+			if (mode == Mode.LOG) {
+				builder.blockingMethodCallback(method -> log.warn("Blocking call {} on thread {}", method,
+						Thread.currentThread().getName(), new BlockingCallDetected(method.toString())));
+			}
+		});
+		log.info("BlockHound installed in {} mode", mode);
+		return true;
+	}
+
+	/**
+	 * Carries the stack trace of a blocking call reported in {@link Mode#LOG}.
+	 */
+	static final class BlockingCallDetected extends RuntimeException {
+
+		private static final long serialVersionUID = 1L;
+
+		BlockingCallDetected(String method) {
+			super("Blocking call: " + method);
+		}
+	}
+}
@@ -0,0 +1,29 @@
+package com.weather.diagnostics;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.env.ConfigurableEnvironment;
+
+import com.weather.utils.DiagnosticsProperties.Mode;
+
+/**
+ * Installs {@link BlockingDetection} when
+ * {@code diagnostics.blocking-detection.enabled=true}.
+ *
+ * <p>
+ * Runs once the environment is prepared and before any bean is created, so
+ * BlockHound instruments the Netty event loops before they start. The flag can
+ * be set in the profile yaml, or as {@code DIAGNOSTICS_BLOCKING_DETECTION_ENABLED}
+ * in staging.
+ * </p>
+ */
+public class BlockingDetectionEnvironmentPostProcessor implements EnvironmentPostProcessor {
+
+	@Override
+	public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+		if (environment.getProperty("diagnostics.blocking-detection.enabled", Boolean.class, false)) {
+			BlockingDetection.install(environment.getProperty("diagnostics.blocking-detection.mode", Mode.class,
+					Mode.LOG));
+		}
+	}
+}
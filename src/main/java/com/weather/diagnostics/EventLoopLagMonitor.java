@@ -0,0 +1,170 @@
+package com.weather.diagnostics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.client.ReactorResourceFactory;
+import org.springframework.stereotype.Component;
+
+import com.weather.utils.DiagnosticsProperties;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.netty.channel.EventLoopGroup;
+import io.netty.util.concurrent.EventExecutor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Samples how long a task waits before a Netty event loop gets to run it.
+ *
+ * <p>
+ * Every {@code diagnostics.event-loop-lag.interval} a no-op task is submitted to
+ * each server event loop and the time until it starts is recorded. A healthy
+ * loop picks it up within microseconds; a loop stuck in a blocking call or a
+ * long CPU burst shows the stall directly. The sampler runs on its own
+ * single-thread scheduler so it is not delayed by the loops it measures. A
+ * probe that is still queued at the next round is reported with the time it
+ * has waited so far, so a loop stuck for longer than the interval shows up
+ * without waiting for it to recover.
+ * </p>
+ *
+ * <p>
+ * Metrics:
+ * </p>
+ * <ul>
+ * <li>{@code weather.eventloop.lag} - gauge with the last sampled lag per loop,
+ * tagged {@code loop=<index>} (bounded by the number of loops).</li>
+ * <li>{@code weather.eventloop.lag.max} - gauge with the worst lag of the last
+ * sampling round across all loops, the value to alert on.</li>
+ * <li>{@code weather.eventloop.lag.distribution} - timer of all completed
+ * probes.</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "diagnostics.event-loop-lag", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class EventLoopLagMonitor implements DisposableBean {
+
+	private final ReactorResourceFactory resourceFactory;
+	private final DiagnosticsProperties properties;
+	private final MeterRegistry meterRegistry;
+	private final Timer lagDistribution;
+	private final AtomicLong maxLagNanos = new AtomicLong();
+	private final List<LoopProbe> probes = new ArrayList<>();
+	private Scheduler scheduler;
+	private Disposable sampling;
+
+	public EventLoopLagMonitor(ReactorResourceFactory resourceFactory, DiagnosticsProperties properties,
+			MeterRegistry meterRegistry) {
+		this.resourceFactory = resourceFactory;
+		this.properties = properties;
+		this.meterRegistry = meterRegistry;
+		this.lagDistribution = Timer.builder("weather.eventloop.lag.distribution")
+				.description("Time a task waited for a Netty event loop")
+				.publishPercentiles(0.5, 0.99)
+				.register(meterRegistry);
+		Gauge.builder("weather.eventloop.lag.max", maxLagNanos, lag -> lag.get() / 1e9)
+				.description("Worst event-loop lag of the last sampling round")
+				.baseUnit("seconds")
+				.register(meterRegistry);
+	}
+
+	/**
+	 * Starts sampling once the server event loops exist.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public synchronized void start() {
+		if (sampling != null) {
+			return;
+		}
+		EventLoopGroup group = resourceFactory.getLoopResources().onServer(true);
+		for (EventExecutor executor : group) {
+			LoopProbe probe = new LoopProbe(executor);
+			Gauge.builder("weather.eventloop.lag", probe.lastLagNanos, lag -> lag.get() / 1e9)
+					.description("Last sampled lag of a Netty event loop")
+					.baseUnit("seconds")
+					.tag("loop", Integer.toString(probes.size()))
+					.register(meterRegistry);
+			probes.add(probe);
+		}
+		long intervalMillis = properties.getEventLoopLag().getInterval().toMillis();
+		scheduler = Schedulers.newSingle("event-loop-lag", true);
+		sampling = scheduler.schedulePeriodically(this::sample, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+		log.info("Sampling lag of {} event loops every {} ms", probes.size(), intervalMillis);
+	}
+
+	/**
+	 * Runs one sampling round: updates the lag of loops whose probe is still
+	 * queued, publishes the worst lag and submits a new probe to every idle
+	 * loop.
+	 */
+	void sample() {
+		long now = System.nanoTime();
+		long max = 0;
+		for (LoopProbe probe : probes) {
+			max = Math.max(max, probe.sample(now));
+		}
+		maxLagNanos.set(max);
+	}
+
+	/**
+	 * @return the worst lag of the last sampling round, in nanoseconds
+	 */
+	public long maxLagNanos() {
+		return maxLagNanos.get();
+	}
+
+	@Override
+	public synchronized void destroy() {
+		if (sampling != null) {
+			sampling.dispose();
+			scheduler.dispose();
+			sampling = null;
+		}
+	}
+
+	private final class LoopProbe {
+
+		private final EventExecutor executor;
+		private final AtomicLong lastLagNanos = new AtomicLong();
+		/** Submission time of the queued probe, 0 when none is queued. */
+		private final AtomicLong pendingSince = new AtomicLong();
+		/** Set by a finished probe whose lag has not been recorded yet. */
+		private volatile boolean completed;
+
+		private LoopProbe(EventExecutor executor) {
+			this.executor = executor;
+		}
+
+		private long sample(long now) {
+			long since = pendingSince.get();
+			if (since != 0) {
+				lastLagNanos.set(now - since);
+				return now - since;
+			}
+			long lag = lastLagNanos.get();
+			if (completed) {
+				// Recorded here rather than on the loop to keep the probe task trivial
+				lagDistribution.record(lag, TimeUnit.NANOSECONDS);
+				completed = false;
+			}
+			pendingSince.set(now);
+			executor.execute(() -> {
+				lastLagNanos.set(System.nanoTime() - now);
+				completed = true;
+				pendingSince.set(0);
+			});
+			return lag;
+		}
+	}
+}
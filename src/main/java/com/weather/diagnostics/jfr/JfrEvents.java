@@ -0,0 +1,66 @@
+package com.weather.diagnostics.jfr;
+
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+import lombok.experimental.UtilityClass;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Times reactive operations as JFR events.
+ *
+ * <p>
+ * The event is created per subscription and committed when the {@link Mono}
+ * terminates or is cancelled. When no recording has the event enabled the
+ * source is returned unchanged, so the only cost outside a recording is the
+ * {@link jdk.jfr.Event#isEnabled()} check.
+ * </p>
+ */
+@UtilityClass
+public class JfrEvents {
+
+	/**
+	 * Records the subscription to {@code source} as an event.
+	 *
+	 * @param factory creates the event with its static fields set
+	 * @param source  the operation to time
+	 * @return the instrumented {@link Mono}
+	 */
+	public static <T, E extends WeatherEvent> Mono<T> record(Supplier<E> factory, Mono<T> source) {
+		return record(factory, source, null);
+	}
+
+	/**
+	 * Records the subscription to {@code source} as an event, letting the caller
+	 * copy fields from the emitted value.
+	 *
+	 * @param factory creates the event with its static fields set
+	 * @param source  the operation to time
+	 * @param onValue copies fields from the emitted value, may be {@code null}
+	 * @return the instrumented {@link Mono}
+	 */
+	public static <T, E extends WeatherEvent> Mono<T> record(Supplier<E> factory, Mono<T> source,
+			BiConsumer<E, ? super T> onValue) {
+		return Mono.defer(() -> {
+			E event = factory.get();
+			if (!event.isEnabled()) {
+				return source;
+			}
+			event.begin();
+			return source.doOnNext(value -> {
+				event.outcome = WeatherEvent.SUCCESS;
+				if (onValue != null) {
+					onValue.accept(event, value);
+				}
+			}).doOnError(event::failed).doFinally(signal -> {
+				if (signal == SignalType.ON_COMPLETE && event.outcome == null) {
+					event.outcome = WeatherEvent.SUCCESS;
+				} else if (signal == SignalType.CANCEL && event.outcome == null) {
+					event.outcome = WeatherEvent.CANCELLED;
+				}
+				event.commit();
+			});
+		});
+	}
+}
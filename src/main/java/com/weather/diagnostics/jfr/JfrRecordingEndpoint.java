@@ -0,0 +1,183 @@
+package com.weather.diagnostics.jfr;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import com.weather.utils.DiagnosticsProperties;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Actuator endpoint that runs one bounded JFR recording on demand.
+ *
+ * <ul>
+ * <li>{@code POST /actuator/jfr} starts a recording of the given
+ * {@code duration} (e.g. {@code "30s"}), capped at
+ * {@code diagnostics.jfr.max-duration}.</li>
+ * <li>{@code GET /actuator/jfr} reports the state of the current recording.</li>
+ * <li>{@code DELETE /actuator/jfr} stops the recording if it is still running
+ * and streams the {@code .jfr} file.</li>
+ * </ul>
+ *
+ * <p>
+ * The recording uses the configured JFR settings (the JDK {@code default}
+ * profile unless overridden) plus the application events in this package. The
+ * initial environment variable and system property events are switched off so
+ * a dump never contains secrets passed through the environment. Only one
+ * recording and one file exist at a time; the previous file is deleted when a
+ * new recording starts and on shutdown.
+ * </p>
+ *
+ * <p>
+ * Any registered user holds a valid JWT, so the endpoint is disabled unless
+ * {@code JFR_ENDPOINT_ENABLED=true}, in every profile.
+ * </p>
+ */
+@Slf4j
+@Component
+@WebEndpoint(id = "jfr", enableByDefault = false)
+@ConditionalOnAvailableEndpoint(endpoint = JfrRecordingEndpoint.class)
+public class JfrRecordingEndpoint implements DisposableBean {
+
+	private static final String RECORDING_NAME = "weather-on-demand";
+	private static final String[] DISABLED_EVENTS = { "jdk.InitialEnvironmentVariable", "jdk.InitialSystemProperty" };
+
+	private final DiagnosticsProperties.Jfr properties;
+	private Recording recording;
+	private Path destination;
+
+	public JfrRecordingEndpoint(DiagnosticsProperties properties) {
+		this.properties = properties.getJfr();
+	}
+
+	/**
+	 * @return the state of the current recording, or {@code NONE}
+	 */
+	@ReadOperation
+	public synchronized Map<String, Object> status() {
+		Map<String, Object> status = new LinkedHashMap<>();
+		if (recording == null) {
+			status.put("state", "NONE");
+			return status;
+		}
+		status.put("state", recording.getState());
+		status.put("startTime", recording.getStartTime());
+		status.put("duration", recording.getDuration());
+		status.put("size", recording.getSize());
+		return status;
+	}
+
+	/**
+	 * Starts a new recording, replacing a finished one.
+	 *
+	 * @param duration the requested length, capped at {@code max-duration};
+	 *                 {@code max-duration} when zero or negative
+	 * @return the new state, or {@code 429} if a recording is already running
+	 */
+	@WriteOperation
+	public synchronized WebEndpointResponse<Map<String, Object>> start(Duration duration) {
+		if (recording != null && recording.getState() == RecordingState.RUNNING) {
+			return new WebEndpointResponse<>(status(), WebEndpointResponse.STATUS_TOO_MANY_REQUESTS);
+		}
+		discard();
+		try {
+			Recording created = new Recording(settings());
+			created.setName(RECORDING_NAME);
+			created.setToDisk(true);
+			created.setMaxSize(properties.getMaxSize().toBytes());
+			created.setDuration(effectiveDuration(duration));
+			destination = Files.createTempFile(directory(), "weather-", ".jfr");
+			created.setDestination(destination);
+			created.start();
+			recording = created;
+			log.info("Started JFR recording for {}", created.getDuration());
+			return new WebEndpointResponse<>(status(), WebEndpointResponse.STATUS_OK);
+		} catch (IOException | ParseException ex) {
+			log.error("Could not start JFR recording: {}", ex.getMessage());
+			discard();
+			return new WebEndpointResponse<>(WebEndpointResponse.STATUS_INTERNAL_SERVER_ERROR);
+		}
+	}
+
+	/**
+	 * Stops the recording if needed and returns its file.
+	 *
+	 * @return the recording, or {@code 404} if none was started
+	 */
+	@DeleteOperation(produces = "application/octet-stream")
+	public synchronized WebEndpointResponse<Resource> stop() {
+		if (recording == null) {
+			return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+		}
+		if (recording.getState() == RecordingState.RUNNING) {
+			recording.stop();
+		}
+		recording.close();
+		recording = null;
+		log.info("Stopped JFR recording, {} bytes written", destination.toFile().length());
+		return new WebEndpointResponse<>(new FileSystemResource(destination), WebEndpointResponse.STATUS_OK);
+	}
+
+	@Override
+	public synchronized void destroy() {
+		discard();
+	}
+
+	private Duration effectiveDuration(Duration requested) {
+		Duration max = properties.getMaxDuration();
+		if (requested == null || requested.isNegative() || requested.isZero() || requested.compareTo(max) > 0) {
+			return max;
+		}
+		return requested;
+	}
+
+	private Map<String, String> settings() throws IOException, ParseException {
+		Map<String, String> settings = new HashMap<>(Configuration.getConfiguration(properties.getSettings()).getSettings());
+		for (String event : DISABLED_EVENTS) {
+			settings.put(event + "#enabled", "false");
+		}
+		return settings;
+	}
+
+	private Path directory() {
+		String directory = properties.getDirectory();
+		return directory == null || directory.isBlank() ? Paths.get(System.getProperty("java.io.tmpdir"))
+				: Paths.get(directory);
+	}
+
+	private void discard() {
+		if (recording != null) {
+			recording.close();
+			recording = null;
+		}
+		if (destination != null) {
+			try {
+				Files.deleteIfExists(destination);
+			} catch (IOException ex) {
+				log.warn("Could not delete JFR recording {}: {}", destination, ex.getMessage());
+			}
+			destination = null;
+		}
+	}
+}
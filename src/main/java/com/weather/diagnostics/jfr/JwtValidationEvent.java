@@ -0,0 +1,32 @@
+package com.weather.diagnostics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Signature check and claims parsing of a bearer token.
+ */
+@Name("com.weather.JwtValidation")
+@Label("JWT Validation")
+@Category({ "Weather Service", "Security" })
+@Description("Parsing and signature verification of a JWT")
+public class JwtValidationEvent extends WeatherEvent {
+
+	/**
+	 * Marks the validation as successful.
+	 */
+	public void succeeded() {
+		outcome = SUCCESS;
+	}
+
+	/**
+	 * Marks the validation as failed.
+	 *
+	 * @param error the parser error
+	 */
+	public void rejected(Throwable error) {
+		failed(error);
+	}
+}
@@ -0,0 +1,33 @@
+package com.weather.diagnostics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A repository operation issued by the weather pipeline.
+ */
+@Name("com.weather.MongoOperation")
+@Label("Mongo Operation")
+@Category({ "Weather Service", "MongoDB" })
+@Description("Save or history query against the weather collection")
+public class MongoOperationEvent extends WeatherEvent {
+
+	@Label("Operation")
+	String operation;
+
+	@Label("Documents")
+	int documents;
+
+	public MongoOperationEvent(String operation) {
+		this.operation = operation;
+	}
+
+	/**
+	 * @param documents the number of documents written or returned
+	 */
+	public void setDocuments(int documents) {
+		this.documents = documents;
+	}
+}
@@ -0,0 +1,46 @@
+package com.weather.diagnostics.jfr;
+
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * One attempt of an HTTP call to an upstream service. Only the host and the
+ * path are recorded; the query string carries the API key.
+ */
+@Name("com.weather.UpstreamCall")
+@Label("Upstream Call")
+@Category({ "Weather Service", "Upstream" })
+@Description("HTTP call to an upstream service, one event per attempt")
+public class UpstreamCallEvent extends WeatherEvent {
+
+	@Label("Base URL")
+	String baseUrl;
+
+	@Label("Path")
+	String path;
+
+	@Label("Method")
+	String method;
+
+	@Label("Status")
+	int status;
+
+	public UpstreamCallEvent(String baseUrl, String uri, String method) {
+		this.baseUrl = baseUrl;
+		int query = uri.indexOf('?');
+		this.path = query < 0 ? uri : uri.substring(0, query);
+		this.method = method;
+	}
+
+	@Override
+	protected void failed(Throwable error) {
+		super.failed(error);
+		if (error instanceof WebClientResponseException responseException) {
+			status = responseException.getStatusCode().value();
+		}
+	}
+}
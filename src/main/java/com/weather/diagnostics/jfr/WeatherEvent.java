@@ -0,0 +1,37 @@
+package com.weather.diagnostics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+/**
+ * Base class of the application's JFR events.
+ *
+ * <p>
+ * Events are timed with {@link #begin()} and {@link #commit()} and may be
+ * committed on a different thread than the one that began them, which is what
+ * happens across a reactive pipeline. Stack traces are off: the events are
+ * recorded on every request and the call site is always the same.
+ * </p>
+ */
+@Category("Weather Service")
+@StackTrace(false)
+public abstract class WeatherEvent extends Event {
+
+	public static final String SUCCESS = "success";
+	public static final String CANCELLED = "cancelled";
+
+	@Label("Outcome")
+	protected String outcome;
+
+	/**
+	 * Records the failure of the timed operation. Subclasses may extract
+	 * additional fields, such as an HTTP status.
+	 *
+	 * @param error the error that terminated the operation
+	 */
+	protected void failed(Throwable error) {
+		outcome = error.getClass().getSimpleName();
+	}
+}
@@ -11,4 +11,16 @@ public abstract class BaseException extends RuntimeException {
 	public BaseException(String message, Throwable cause) {
 		super(message, cause);
 	}
+
+	/**
+	 * Constructor for expected, client-caused exceptions that are thrown on hot
+	 * paths. Passing {@code false} skips the stack-trace capture, which is the
+	 * dominant cost of creating an exception.
+	 *
+	 * @param message            the detail message
+	 * @param writableStackTrace whether the stack trace should be captured
+	 */
+	protected BaseException(String message, boolean writableStackTrace) {
+		super(message, null, false, writableStackTrace);
+	}
 }
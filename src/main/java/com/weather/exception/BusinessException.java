@@ -10,4 +10,9 @@ public class BusinessException extends BaseException {
         super(message);
         this.errorCode = errorCode;
     }
+
+    protected BusinessException(String message, String errorCode, boolean writableStackTrace) {
+        super(message, writableStackTrace);
+        this.errorCode = errorCode;
+    }
 }
@@ -5,6 +5,6 @@ import lombok.Getter;
 @Getter
 public class InvalidCredentialsException extends SecurityException {
     public InvalidCredentialsException(String message) {
-        super(message);
+        super(message, false);
     }
 }
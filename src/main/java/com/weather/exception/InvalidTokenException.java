@@ -5,6 +5,6 @@ import lombok.Getter;
 @Getter
 public class InvalidTokenException extends SecurityException {
     public InvalidTokenException(String message) {
-        super(message);
+        super(message, false);
     }
 }
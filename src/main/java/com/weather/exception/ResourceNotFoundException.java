@@ -5,6 +5,6 @@ import lombok.Getter;
 @Getter
 public class ResourceNotFoundException extends BusinessException {
     public ResourceNotFoundException(String resource, String id) {
-        super(String.format("%s not found with id: %s", resource, id), "RESOURCE_NOT_FOUND");
+        super(String.format("%s not found with id: %s", resource, id), "RESOURCE_NOT_FOUND", false);
     }
 }
@@ -7,4 +7,8 @@ public class SecurityException extends BaseException {
     public SecurityException(String message) {
         super(message);
     }
+
+    protected SecurityException(String message, boolean writableStackTrace) {
+        super(message, writableStackTrace);
+    }
 }
@@ -0,0 +1,10 @@
+package com.weather.exception;
+
+import lombok.Getter;
+
+@Getter
+public class ServiceOverloadedException extends InfrastructureException {
+    public ServiceOverloadedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -5,7 +5,7 @@ import lombok.Getter;
 @Getter
 public class UnauthorizedAccessException extends SecurityException {
     public UnauthorizedAccessException(String message) {
-        super(message);
+        super(message, false);
     }
 }
 
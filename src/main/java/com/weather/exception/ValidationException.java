@@ -5,6 +5,7 @@ import lombok.Getter;
 @Getter
 public class ValidationException extends RuntimeException {
    public ValidationException(String message) {
-       super(message);
+       // Expected client error: skip suppression and stack-trace capture
+       super(message, null, false, false);
    }
 }
\ No newline at end of file
@@ -14,7 +14,6 @@ import reactor.core.publisher.Mono;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.UUID;
 import java.util.stream.Collectors;
 
 @RestControllerAdvice
@@ -40,7 +39,7 @@ public class ControllerAdviceException {
                 .message(ErrorConstants.VALIDATION_FAILED)
                 .path(exchange.getRequest().getPath().value())
                 .errors(validationErrors)
-                .traceId(UUID.randomUUID().toString())
+                .traceId(ErrorResponseWriter.traceId(exchange))
                 .build();
 
         log.warn("Validation error occurred - Type: [{}] - Message: [{}]",
@@ -0,0 +1,146 @@
+package com.weather.exception.handler;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.observation.ServerRequestObservationContext;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.weather.config.JsonCodecs;
+import com.weather.dto.ApiError;
+import com.weather.dto.ValidationError;
+import com.weather.utils.TraceIdGenerator;
+
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.handler.TracingObservationHandler.TracingContext;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * Builds {@link ApiError} bodies and writes them straight to the response.
+ *
+ * <p>
+ * Shared by the {@link GlobalExceptionHandler} and the web filters that answer
+ * requests themselves (authentication, rate limiting). Bodies are serialized
+ * with the pre-built {@link ApiError} writer of {@link JsonCodecs} straight
+ * into a buffer of the response, so writing an error neither creates a mapper,
+ * looks up a serializer nor copies an intermediate byte array.
+ * </p>
+ *
+ * <p>
+ * The trace ID in the body is the ID of the distributed trace the request
+ * belongs to, taken from the server request observation, so a client-reported
+ * error can be looked up together with its upstream calls and Mongo commands.
+ * Only when the request is not traced (sampling, tracing disabled) is a random
+ * ID from {@link TraceIdGenerator} used instead.
+ * </p>
+ */
+@Slf4j
+@Component
+public class ErrorResponseWriter {
+
+	private final JsonCodecs jsonCodecs;
+
+	public ErrorResponseWriter(JsonCodecs jsonCodecs) {
+		this.jsonCodecs = jsonCodecs;
+	}
+
+	/**
+	 * Builds an {@link ApiError} for the current request.
+	 *
+	 * @param exchange         the current server web exchange
+	 * @param status           the response status
+	 * @param error            the short error title
+	 * @param message          the error message
+	 * @param validationErrors field errors, may be {@code null}
+	 * @return the error body
+	 */
+	public ApiError buildError(ServerWebExchange exchange, HttpStatus status, String error, String message,
+			List<ValidationError> validationErrors) {
+		return buildError(exchange.getRequest().getPath().value(), traceId(exchange), status, error, message,
+				validationErrors);
+	}
+
+	/**
+	 * Builds an {@link ApiError} for a failure reported outside the request
+	 * that raised it, such as that of a collection job.
+	 *
+	 * @param path             the path the error is reported at
+	 * @param traceId          the trace ID of the originating request, or
+	 *                         {@code null} to use a random one
+	 * @param status           the response status
+	 * @param error            the short error title
+	 * @param message          the error message
+	 * @param validationErrors field errors, may be {@code null}
+	 * @return the error body
+	 */
+	public ApiError buildError(String path, String traceId, HttpStatus status, String error, String message,
+			List<ValidationError> validationErrors) {
+		return ApiError.builder()
+				.timestamp(LocalDateTime.now().toString())
+				.status(status.value())
+				.error(error)
+				.message(message)
+				.path(path)
+				.errors(validationErrors)
+				.traceId(traceId != null ? traceId : TraceIdGenerator.nextTraceId())
+				.build();
+	}
+
+	/**
+	 * Returns the trace ID of the current request, or a random one if the request
+	 * is not traced.
+	 *
+	 * @param exchange the current server web exchange
+	 * @return the trace ID as 32 hex characters
+	 */
+	public static String traceId(ServerWebExchange exchange) {
+		return ServerRequestObservationContext.findCurrent(exchange.getAttributes())
+				.map(context -> context.<TracingContext>get(TracingContext.class))
+				.map(TracingContext::getSpan)
+				.map(Span::context)
+				.map(spanContext -> spanContext.traceId())
+				.filter(traceId -> !traceId.isEmpty())
+				.orElseGet(TraceIdGenerator::nextTraceId);
+	}
+
+	/**
+	 * Sets the status and writes an {@link ApiError} as the JSON response body.
+	 *
+	 * @param exchange the current server web exchange
+	 * @param status   the response status
+	 * @param error    the short error title
+	 * @param message  the error message
+	 * @return a {@link Mono} completing when the body has been written
+	 */
+	public Mono<Void> write(ServerWebExchange exchange, HttpStatus status, String error, String message) {
+		return write(exchange, buildError(exchange, status, error, message, null));
+	}
+
+	/**
+	 * Writes the given {@link ApiError} as the JSON response body, using its
+	 * status as the response status.
+	 *
+	 * @param exchange the current server web exchange
+	 * @param apiError the error body
+	 * @return a {@link Mono} completing when the body has been written
+	 */
+	public Mono<Void> write(ServerWebExchange exchange, ApiError apiError) {
+		ServerHttpResponse response = exchange.getResponse();
+		response.setStatusCode(HttpStatus.valueOf(apiError.getStatus()));
+		response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+		try {
+			DataBuffer buffer = jsonCodecs.write(apiError, ApiError.class, response.bufferFactory());
+			return response.writeWith(Mono.just(buffer));
+		} catch (IOException e) {
+			log.error("Error writing error response", e);
+			return Mono.error(e);
+		}
+	}
+}
@@ -1,26 +1,22 @@
 package com.weather.exception.handler;
 
-import java.time.LocalDateTime;
 import java.util.*;
 import java.util.function.Function;
 import java.util.stream.Stream;
 
+import com.weather.deadline.DeadlineExceededException;
 import com.weather.exception.*;
+import com.weather.idempotency.IdempotencyKeyReusedException;
 import com.weather.utils.ErrorConstants;
 import lombok.Builder;
 import lombok.Getter;
 import org.springframework.boot.web.reactive.error.ErrorWebExceptionHandler;
-import org.springframework.core.io.buffer.DataBuffer;
-import org.springframework.core.io.buffer.DataBufferFactory;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.web.bind.support.WebExchangeBindException;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 import org.springframework.web.server.ServerWebExchange;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.weather.dto.ApiError;
 import com.weather.dto.ValidationError;
 
@@ -76,6 +72,14 @@ import reactor.core.publisher.Mono;
  * </ul>
  * 
  * <p>
+ * Errors are a hot path during upstream outages and credential-stuffing
+ * bursts, so the handler for a concrete exception class is resolved once by
+ * walking its superclass chain and then cached in a {@link ClassValue}. Later
+ * occurrences of the same class cost a single lookup. Responses are written by
+ * the shared {@link ErrorResponseWriter}.
+ * </p>
+ * 
+ * <p>
  * This class ensures consistent error handling and logging throughout the
  * application.
  * </p>
@@ -86,7 +90,7 @@ import reactor.core.publisher.Mono;
 @RequiredArgsConstructor
 public class GlobalExceptionHandler implements ErrorWebExceptionHandler {
 
-    private final ObjectMapper objectMapper;
+    private final ErrorResponseWriter errorResponseWriter;
 
     @Getter
     @Builder
@@ -138,6 +142,13 @@ public class GlobalExceptionHandler implements ErrorWebExceptionHandler {
                 .validationErrors(Collections.emptyList())
                 .build());
 
+        handlers.put(IdempotencyKeyReusedException.class, ex -> ErrorDetails.builder()
+                .status(HttpStatus.UNPROCESSABLE_ENTITY)
+                .message(ErrorConstants.IDEMPOTENCY_KEY_REUSED)
+                .error(ErrorConstants.INVALID_REQUEST)
+                .validationErrors(Collections.emptyList())
+                .build());
+
         handlers.put(WebClientResponseException.class, ex -> {
             WebClientResponseException wcEx = (WebClientResponseException) ex;
             return ErrorDetails.builder()
@@ -148,67 +159,92 @@ public class GlobalExceptionHandler implements ErrorWebExceptionHandler {
                     .build();
         });
 
-        // Service Errors
-        Stream.of(DatabaseException.class, WeatherServiceException.class)
-                .forEach(exceptionClass -> handlers.put(exceptionClass, ex -> ErrorDetails.builder()
-                        .status(HttpStatus.SERVICE_UNAVAILABLE)
-                        .message(ErrorConstants.SERVICE_TEMPORARILY_UNAVAILABLE)
-                        .error(ErrorConstants.SERVICE_ERROR)
-                        .validationErrors(Collections.emptyList())
-                        .build()));
+        // Deadline Errors: the request ran out of time, whichever stage it was in
+        ErrorDetails deadlineExceeded = ErrorDetails.builder()
+                .status(HttpStatus.GATEWAY_TIMEOUT)
+                .message(ErrorConstants.REQUEST_DEADLINE_EXCEEDED)
+                .error(ErrorConstants.DEADLINE_EXCEEDED)
+                .validationErrors(Collections.emptyList())
+                .build();
+        handlers.put(DeadlineExceededException.class, ex -> deadlineExceeded);
+
+        // Service Errors: the details do not depend on the exception, build them once
+        ErrorDetails serviceUnavailable = ErrorDetails.builder()
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .message(ErrorConstants.SERVICE_TEMPORARILY_UNAVAILABLE)
+                .error(ErrorConstants.SERVICE_ERROR)
+                .validationErrors(Collections.emptyList())
+                .build();
+        Stream.of(DatabaseException.class, WeatherServiceException.class, ServiceOverloadedException.class)
+                .forEach(exceptionClass -> handlers.put(exceptionClass, ex -> serviceUnavailable));
 
         return Collections.unmodifiableMap(handlers);
     }
 
+    private static final ErrorDetails DEFAULT_ERROR_DETAILS = ErrorDetails.builder()
+            .status(HttpStatus.INTERNAL_SERVER_ERROR)
+            .message(ErrorConstants.UNEXPECTED_ERROR)
+            .error(ErrorConstants.INTERNAL_SERVER_ERROR)
+            .validationErrors(Collections.emptyList())
+            .build();
+
+    // Handler per concrete exception class, resolved on first occurrence
+    private final ClassValue<Function<Throwable, ErrorDetails>> resolvedHandlers = new ClassValue<>() {
+        @Override
+        protected Function<Throwable, ErrorDetails> computeValue(Class<?> type) {
+            for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+                Function<Throwable, ErrorDetails> handler = errorHandlers.get(current);
+                if (handler != null) {
+                    return handler;
+                }
+            }
+            return ex -> DEFAULT_ERROR_DETAILS;
+        }
+    };
+
+    /**
+     * Writes the error response. When the response is already committed, e.g.
+     * the client went away mid-stream, nothing can be written and the error is
+     * propagated to the server, which closes the connection.
+     */
     @Override
     public Mono<Void> handle(ServerWebExchange exchange, Throwable ex) {
-        ErrorDetails errorDetails = errorHandlers.entrySet().stream()
-                .filter(entry -> entry.getKey().isInstance(ex))
-                .findFirst()
-                .map(entry -> entry.getValue().apply(ex))
-                .orElseGet(() -> getDefaultErrorDetails(ex));
+        if (exchange.getResponse().isCommitted()) {
+            return Mono.error(ex);
+        }
+        ErrorDetails errorDetails = resolvedHandlers.get(ex.getClass()).apply(ex);
 
         logError(errorDetails.getError(), ex);
-        return writeErrorResponse(exchange, buildApiError(exchange, errorDetails));
+        return errorResponseWriter.write(exchange, buildApiError(exchange, errorDetails));
     }
 
-    private ErrorDetails getDefaultErrorDetails(Throwable ex) {
-        return ErrorDetails.builder()
-                .status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .message(ErrorConstants.UNEXPECTED_ERROR)
-                .error(ErrorConstants.INTERNAL_SERVER_ERROR)
-                .validationErrors(Collections.emptyList())
-                .build();
-    }
+    /**
+     * Describes an exception the way {@link #handle} would answer it, for
+     * failures reported outside the request that raised them, such as those of
+     * collection jobs.
+     *
+     * @param ex      the failure
+     * @param path    the path the error is reported at
+     * @param traceId the trace ID of the request the work was submitted by, or
+     *                {@code null} to use a random one
+     * @return the error body
+     */
+    public ApiError describe(Throwable ex, String path, String traceId) {
+        ErrorDetails errorDetails = resolvedHandlers.get(ex.getClass()).apply(ex);
 
-    private ApiError buildApiError(ServerWebExchange exchange, ErrorDetails errorDetails) {
-        return ApiError.builder()
-                .timestamp(LocalDateTime.now().toString())
-                .status(errorDetails.getStatus().value())
-                .error(errorDetails.getError())
-                .message(errorDetails.getMessage())
-                .path(exchange.getRequest().getPath().value())
-                .errors(errorDetails.getValidationErrors())
-                .traceId(UUID.randomUUID().toString())
-                .build();
+        logError(errorDetails.getError(), ex);
+        return errorResponseWriter.buildError(path, traceId, errorDetails.getStatus(), errorDetails.getError(),
+                errorDetails.getMessage(), errorDetails.getValidationErrors());
     }
 
-    private Mono<Void> writeErrorResponse(ServerWebExchange exchange, ApiError errorResponse) {
-        exchange.getResponse().setStatusCode(HttpStatus.valueOf(errorResponse.getStatus()));
-        exchange.getResponse().getHeaders().setContentType(MediaType.APPLICATION_JSON);
-        
-        DataBufferFactory bufferFactory = exchange.getResponse().bufferFactory();
-        try {
-            DataBuffer buffer = bufferFactory.wrap(objectMapper.writeValueAsBytes(errorResponse));
-            return exchange.getResponse().writeWith(Mono.just(buffer));
-        } catch (JsonProcessingException e) {
-            log.error("Error writing error response", e);
-            return Mono.error(e);
-        }
+    private ApiError buildApiError(ServerWebExchange exchange, ErrorDetails errorDetails) {
+        return errorResponseWriter.buildError(exchange, errorDetails.getStatus(), errorDetails.getError(),
+                errorDetails.getMessage(), errorDetails.getValidationErrors());
     }
 
     private void logError(String message, Throwable ex) {
-        if (ex instanceof ResourceNotFoundException || ex instanceof InvalidTokenException) {
+        if (ex instanceof ResourceNotFoundException || ex instanceof InvalidTokenException
+                || ex instanceof DeadlineExceededException || ex instanceof IdempotencyKeyReusedException) {
             log.warn("{} - Type: [{}] - Message: [{}]", message, ex.getClass().getSimpleName(), ex.getMessage());
         } else {
             log.error("{} - Type: [{}] - Message: [{}]", message, ex.getClass().getSimpleName(), ex.getMessage(), ex);
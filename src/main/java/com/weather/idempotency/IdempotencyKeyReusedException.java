@@ -0,0 +1,18 @@
+package com.weather.idempotency;
+
+import com.weather.exception.BusinessException;
+
+import lombok.Getter;
+
+/**
+ * Signals that an {@code Idempotency-Key} was sent again with a different
+ * request than the one it was first used for.
+ */
+@Getter
+public class IdempotencyKeyReusedException extends BusinessException {
+
+	public IdempotencyKeyReusedException() {
+		// Expected client error: skip stack-trace capture
+		super("Idempotency key was already used for a different request", "IDEMPOTENCY_KEY_REUSED", false);
+	}
+}
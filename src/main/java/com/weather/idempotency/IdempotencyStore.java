@@ -0,0 +1,257 @@
+package com.weather.idempotency;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.weather.dto.WeatherRequest;
+import com.weather.exception.ValidationException;
+import com.weather.model.WeatherData;
+import com.weather.utils.IdempotencyProperties;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * Runs weather collection requests carrying an {@code Idempotency-Key} at
+ * most once per key.
+ *
+ * <p>
+ * Mobile clients retry on flaky networks, and every retry would otherwise
+ * call OpenWeather twice more and insert another observation. Keys are scoped
+ * to the authenticated user, so one user can never be answered with the
+ * result of another. For a given key:
+ * </p>
+ * <ul>
+ * <li>the first request runs the collection and its result is stored for
+ * {@code ttl};</li>
+ * <li>duplicates arriving while it runs attach to the running collection and
+ * receive the same result;</li>
+ * <li>later duplicates are answered from the stored result, without upstream
+ * or Mongo work.</li>
+ * </ul>
+ * <p>
+ * Only successful, fresh results are stored. After a failure, or a stale
+ * fallback observation, the next retry runs the collection again. A key sent
+ * with a different postal code or username than its first request is rejected
+ * with an {@link IdempotencyKeyReusedException}.
+ * </p>
+ *
+ * <p>
+ * Results live in a bounded in-memory tier, evicting the least recently used
+ * beyond {@code max-entries}, and, with {@code idempotency.redis.enabled}, in
+ * the {@link RedisIdempotencyTier} shared by all instances. Running
+ * collections are only known to the instance running them.
+ * </p>
+ *
+ * <p>
+ * Metrics: {@code weather.idempotency.requests}, tagged with
+ * {@code result=executed|attached|replayed|conflict}.
+ * </p>
+ */
+@Slf4j
+@Component
+public class IdempotencyStore {
+
+	/**
+	 * Request header carrying the client-chosen key.
+	 */
+	public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+	private final IdempotencyProperties properties;
+	private final ObjectMapper objectMapper;
+	private final RedisIdempotencyTier redisTier;
+	private final Map<String, Stored> stored;
+	private final Map<String, Running> running = new ConcurrentHashMap<>();
+	private final Counter executed;
+	private final Counter attached;
+	private final Counter replayed;
+	private final Counter conflict;
+
+	public IdempotencyStore(IdempotencyProperties properties, ObjectMapper objectMapper,
+			ObjectProvider<RedisIdempotencyTier> redisTier, MeterRegistry meterRegistry) {
+		this.properties = properties;
+		this.objectMapper = objectMapper;
+		this.redisTier = redisTier.getIfAvailable();
+		this.stored = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Stored> eldest) {
+				return size() > properties.getMaxEntries();
+			}
+		};
+		this.executed = requests(meterRegistry, "executed");
+		this.attached = requests(meterRegistry, "attached");
+		this.replayed = requests(meterRegistry, "replayed");
+		this.conflict = requests(meterRegistry, "conflict");
+	}
+
+	/**
+	 * Runs the collection unless a request with the same key already did.
+	 *
+	 * @param key        the {@code Idempotency-Key} header, or {@code null}
+	 * @param request    the collection request
+	 * @param collection the collection, subscribed at most once per key
+	 * @return the result of this or of the earlier request with the same key
+	 * @throws ValidationException            If the key is empty or too long.
+	 * @throws IdempotencyKeyReusedException If the key was used for a different request.
+	 */
+	public Mono<IdempotentResult> execute(String key, WeatherRequest request, Mono<WeatherData> collection) {
+		Mono<IdempotentResult> unkeyed = collection.map(weatherData -> new IdempotentResult(weatherData, false));
+		if (key == null || !properties.isEnabled()) {
+			return unkeyed;
+		}
+		if (key.isBlank() || key.length() > properties.getMaxKeyLength()) {
+			return Mono.error(new ValidationException("Invalid " + IDEMPOTENCY_KEY_HEADER + " header"));
+		}
+		return ReactiveSecurityContextHolder.getContext()
+				.map(SecurityContext::getAuthentication)
+				.map(Authentication::getName)
+				.flatMap(username -> execute(username + ':' + key, fingerprint(request), collection))
+				.switchIfEmpty(unkeyed);
+	}
+
+	private Mono<IdempotentResult> execute(String scopedKey, String fingerprint, Mono<WeatherData> collection) {
+		return Mono.defer(() -> {
+			Stored local = lookup(scopedKey);
+			if (local != null) {
+				return replay(local, fingerprint);
+			}
+			Running current = running.get(scopedKey);
+			if (current != null) {
+				return attach(current, fingerprint);
+			}
+			Mono<Stored> shared = redisTier == null ? Mono.empty()
+					: redisTier.get(scopedKey).flatMap(this::deserialize);
+			return shared.flatMap(remote -> {
+				remember(scopedKey, remote);
+				return replay(remote, fingerprint);
+			}).switchIfEmpty(Mono.defer(() -> start(scopedKey, fingerprint, collection)));
+		});
+	}
+
+	private Mono<IdempotentResult> start(String scopedKey, String fingerprint, Mono<WeatherData> collection) {
+		Running started = new Running(scopedKey, fingerprint, collection);
+		Running current = running.putIfAbsent(scopedKey, started);
+		if (current != null) {
+			return attach(current, fingerprint);
+		}
+		// A collection with the key may have completed since the lookup
+		Stored completed = lookup(scopedKey);
+		if (completed != null) {
+			running.remove(scopedKey, started);
+			return replay(completed, fingerprint);
+		}
+		executed.increment();
+		return started.result.map(weatherData -> new IdempotentResult(weatherData, false));
+	}
+
+	private Mono<IdempotentResult> attach(Running current, String fingerprint) {
+		if (!current.fingerprint.equals(fingerprint)) {
+			return reused();
+		}
+		attached.increment();
+		return current.result.map(weatherData -> new IdempotentResult(weatherData, true));
+	}
+
+	private Mono<IdempotentResult> replay(Stored previous, String fingerprint) {
+		if (!previous.fingerprint().equals(fingerprint)) {
+			return reused();
+		}
+		replayed.increment();
+		return Mono.just(new IdempotentResult(previous.weatherData(), true));
+	}
+
+	private Mono<IdempotentResult> reused() {
+		conflict.increment();
+		return Mono.error(new IdempotencyKeyReusedException());
+	}
+
+	private Stored lookup(String scopedKey) {
+		synchronized (stored) {
+			Stored entry = stored.get(scopedKey);
+			if (entry != null && entry.expiresAtMillis() <= System.currentTimeMillis()) {
+				stored.remove(scopedKey);
+				return null;
+			}
+			return entry;
+		}
+	}
+
+	private void remember(String scopedKey, Stored entry) {
+		synchronized (stored) {
+			stored.put(scopedKey, entry);
+		}
+	}
+
+	private Mono<Void> store(String scopedKey, String fingerprint, WeatherData weatherData) {
+		Stored entry = new Stored(fingerprint, weatherData,
+				System.currentTimeMillis() + properties.getTtl().toMillis());
+		remember(scopedKey, entry);
+		if (redisTier == null) {
+			return Mono.empty();
+		}
+		try {
+			return redisTier.put(scopedKey, objectMapper.writeValueAsString(entry), properties.getTtl());
+		} catch (JsonProcessingException ex) {
+			log.warn("Could not serialize idempotent result: {}", ex.getMessage());
+			return Mono.empty();
+		}
+	}
+
+	private Mono<Stored> deserialize(String value) {
+		try {
+			return Mono.just(objectMapper.readValue(value, Stored.class));
+		} catch (JsonProcessingException ex) {
+			log.warn("Ignoring unreadable idempotent result: {}", ex.getMessage());
+			return Mono.empty();
+		}
+	}
+
+	private static String fingerprint(WeatherRequest request) {
+		return Objects.toString(request.getPostalCode()) + '|' + Objects.toString(request.getUsername());
+	}
+
+	private Counter requests(MeterRegistry meterRegistry, String result) {
+		return Counter.builder("weather.idempotency.requests")
+				.description("Keyed weather collection requests by how they were answered")
+				.tag("result", result)
+				.register(meterRegistry);
+	}
+
+	/**
+	 * Result of a completed collection, as kept in both tiers.
+	 */
+	record Stored(String fingerprint, WeatherData weatherData, long expiresAtMillis) {
+	}
+
+	/**
+	 * Collection in progress. The result is shared by every request with the
+	 * key, and the collection is stored before it is published, so a duplicate
+	 * always finds it in one of the two places.
+	 */
+	private final class Running {
+
+		private final String fingerprint;
+		private final Mono<WeatherData> result;
+
+		Running(String scopedKey, String fingerprint, Mono<WeatherData> collection) {
+			this.fingerprint = fingerprint;
+			this.result = collection
+					.flatMap(weatherData -> weatherData.isStale() ? Mono.just(weatherData)
+							: store(scopedKey, fingerprint, weatherData).thenReturn(weatherData))
+					.doFinally(signal -> running.remove(scopedKey, this))
+					.cache();
+		}
+	}
+}
@@ -0,0 +1,14 @@
+package com.weather.idempotency;
+
+import com.weather.model.WeatherData;
+
+/**
+ * Result of a weather collection request run through the
+ * {@link IdempotencyStore}.
+ *
+ * @param weatherData the collected observation
+ * @param replayed    {@code true} if the request was answered with the result
+ *                    of an earlier or concurrent request with the same key
+ */
+public record IdempotentResult(WeatherData weatherData, boolean replayed) {
+}
@@ -0,0 +1,64 @@
+package com.weather.idempotency;
+
+import java.time.Duration;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import com.weather.utils.IdempotencyProperties;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * Shared tier of the {@link IdempotencyStore} in Redis, so a retry that
+ * reaches another instance is replayed as well.
+ *
+ * <p>
+ * Each result is a plain string value with the TTL of the store. Redis is an
+ * optimization here, not a dependency: a failing lookup counts as a miss and
+ * a failing write is only logged, so an unavailable Redis never fails a
+ * request.
+ * </p>
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "idempotency.redis", name = "enabled", havingValue = "true")
+public class RedisIdempotencyTier {
+
+	private final ReactiveStringRedisTemplate redisTemplate;
+	private final String keyPrefix;
+
+	public RedisIdempotencyTier(ReactiveStringRedisTemplate redisTemplate, IdempotencyProperties properties) {
+		this.redisTemplate = redisTemplate;
+		this.keyPrefix = properties.getRedis().getKeyPrefix();
+	}
+
+	/**
+	 * @param key the scoped idempotency key
+	 * @return the stored value, or empty if there is none or Redis failed
+	 */
+	public Mono<String> get(String key) {
+		return redisTemplate.opsForValue().get(keyPrefix + key)
+				.onErrorResume(ex -> {
+					log.debug("Idempotency lookup in Redis failed: {}", ex.getMessage());
+					return Mono.empty();
+				});
+	}
+
+	/**
+	 * @param key   the scoped idempotency key
+	 * @param value the value to store
+	 * @param ttl   how long the value is kept
+	 * @return completion once stored, also if Redis failed
+	 */
+	public Mono<Void> put(String key, String value, Duration ttl) {
+		return redisTemplate.opsForValue().set(keyPrefix + key, value, ttl)
+				.onErrorResume(ex -> {
+					log.warn("Storing idempotent result in Redis failed: {}", ex.getMessage());
+					return Mono.empty();
+				})
+				.then();
+	}
+}
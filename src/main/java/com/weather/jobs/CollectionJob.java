@@ -0,0 +1,78 @@
+package com.weather.jobs;
+
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.weather.dto.ApiError;
+import com.weather.model.WeatherData;
+
+import lombok.Getter;
+
+/**
+ * Weather collection running in the background of the
+ * {@link CollectionJobQueue}, as returned by the jobs endpoint.
+ *
+ * <p>
+ * A job is written by the worker running it and read by status requests, so
+ * its state is published through volatile fields: the result or error is set
+ * before the status it belongs to.
+ * </p>
+ */
+@Getter
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CollectionJob {
+
+	public enum Status {
+		QUEUED, RUNNING, SUCCEEDED, FAILED
+	}
+
+	private final String id;
+	@JsonIgnore
+	private final String owner;
+	@JsonIgnore
+	private final String traceId;
+	@JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+	private final LocalDateTime submittedAt = LocalDateTime.now();
+	@JsonIgnore
+	private final long submittedNanos = System.nanoTime();
+	private volatile Status status = Status.QUEUED;
+	@JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+	private volatile LocalDateTime startedAt;
+	@JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+	private volatile LocalDateTime completedAt;
+	private volatile WeatherData result;
+	private volatile ApiError error;
+
+	CollectionJob(String id, String owner, String traceId) {
+		this.id = id;
+		this.owner = owner;
+		this.traceId = traceId;
+	}
+
+	/**
+	 * @return {@code true} once the job succeeded or failed
+	 */
+	@JsonIgnore
+	public boolean isDone() {
+		return status == Status.SUCCEEDED || status == Status.FAILED;
+	}
+
+	void started() {
+		startedAt = LocalDateTime.now();
+		status = Status.RUNNING;
+	}
+
+	void succeeded(WeatherData weatherData) {
+		result = weatherData;
+		completedAt = LocalDateTime.now();
+		status = Status.SUCCEEDED;
+	}
+
+	void failed(ApiError apiError) {
+		error = apiError;
+		completedAt = LocalDateTime.now();
+		status = Status.FAILED;
+	}
+}
@@ -0,0 +1,266 @@
+package com.weather.jobs;
+
+import java.util.ArrayDeque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.stereotype.Component;
+
+import com.weather.deadline.Deadline;
+import com.weather.exception.ServiceOverloadedException;
+import com.weather.exception.UnauthorizedAccessException;
+import com.weather.exception.handler.GlobalExceptionHandler;
+import com.weather.model.WeatherData;
+import com.weather.utils.DeadlineProperties;
+import com.weather.utils.JobProperties;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Mono;
+
+/**
+ * Runs weather collections as background jobs on a bounded pool of workers.
+ *
+ * <p>
+ * Integrations posting thousands of collection requests in a burst do not
+ * need the answer inline. Their jobs wait in a bounded FIFO queue and at most
+ * {@code concurrency} of them run the collection at a time, so the burst
+ * reaches OpenWeather and Mongo as a steady rate instead of all at once. A
+ * full queue rejects further submissions with a
+ * {@link ServiceOverloadedException}.
+ * </p>
+ *
+ * <p>
+ * A job runs with the authentication of the request that submitted it and
+ * with a fresh {@link Deadline} of {@code jobs.timeout}, starting when a
+ * worker picks it up. It can only be looked up by the user who submitted it.
+ * Its error, if it fails, carries the trace ID of the submitting request.
+ * Finished jobs are kept for {@code retention}, at most {@code max-retained}
+ * of them. Jobs live in the memory of the instance that accepted them.
+ * </p>
+ *
+ * <p>
+ * Metrics: {@code weather.jobs} tagged with
+ * {@code result=accepted|rejected|succeeded|failed}, the gauges
+ * {@code weather.jobs.queue.depth}, {@code weather.jobs.workers.busy} and
+ * {@code weather.jobs.workers.utilization}, and the timer
+ * {@code weather.jobs.queue.wait}.
+ * </p>
+ */
+@Component
+public class CollectionJobQueue {
+
+	/**
+	 * Path the status of a job is read at, followed by its ID.
+	 */
+	public static final String JOBS_PATH = "/v1/api/weather/jobs/";
+
+	private final JobProperties properties;
+	private final DeadlineProperties deadlineProperties;
+	private final GlobalExceptionHandler exceptionHandler;
+	private final Queue<Task> queue = new ArrayDeque<>();
+	private final Map<String, CollectionJob> active = new ConcurrentHashMap<>();
+	private final Map<String, Finished> finished;
+	private final AtomicInteger dispatching = new AtomicInteger();
+	private int busy;
+	private final Counter accepted;
+	private final Counter rejected;
+	private final Counter succeeded;
+	private final Counter failed;
+	private final Timer queueWait;
+
+	public CollectionJobQueue(JobProperties properties, DeadlineProperties deadlineProperties,
+			GlobalExceptionHandler exceptionHandler, MeterRegistry meterRegistry) {
+		this.properties = properties;
+		this.deadlineProperties = deadlineProperties;
+		this.exceptionHandler = exceptionHandler;
+		this.finished = new LinkedHashMap<>() {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Finished> eldest) {
+				return size() > properties.getMaxRetained();
+			}
+		};
+		this.accepted = jobs(meterRegistry, "accepted");
+		this.rejected = jobs(meterRegistry, "rejected");
+		this.succeeded = jobs(meterRegistry, "succeeded");
+		this.failed = jobs(meterRegistry, "failed");
+		this.queueWait = Timer.builder("weather.jobs.queue.wait")
+				.description("Time collection jobs waited for a worker")
+				.register(meterRegistry);
+		Gauge.builder("weather.jobs.queue.depth", this, CollectionJobQueue::queued)
+				.description("Collection jobs waiting for a worker")
+				.register(meterRegistry);
+		Gauge.builder("weather.jobs.workers.busy", this, CollectionJobQueue::busy)
+				.description("Workers running a collection job")
+				.register(meterRegistry);
+		Gauge.builder("weather.jobs.workers.utilization", this,
+				queue -> (double) queue.busy() / properties.getConcurrency())
+				.description("Share of the workers running a collection job")
+				.register(meterRegistry);
+	}
+
+	/**
+	 * @return {@code true} if collections may be submitted as jobs
+	 */
+	public boolean isEnabled() {
+		return properties.isEnabled();
+	}
+
+	/**
+	 * Queues a collection for the authenticated user.
+	 *
+	 * @param collection the collection, subscribed once a worker is free
+	 * @param traceId    the trace ID of the submitting request, reported with
+	 *                   the error if the job fails
+	 * @return the queued job
+	 * @throws ServiceOverloadedException If the queue is full.
+	 */
+	public Mono<CollectionJob> submit(Mono<WeatherData> collection, String traceId) {
+		return authentication().map(authentication -> {
+			CollectionJob job = new CollectionJob(UUID.randomUUID().toString(), authentication.getName(), traceId);
+			active.put(job.getId(), job);
+			if (!enqueue(new Task(job, authentication, collection))) {
+				active.remove(job.getId());
+				rejected.increment();
+				throw new ServiceOverloadedException("Collection job queue is full", null);
+			}
+			accepted.increment();
+			dispatch();
+			return job;
+		});
+	}
+
+	/**
+	 * Looks up a job of the authenticated user.
+	 *
+	 * @param id the job ID
+	 * @return the job, or empty if the user has no such job or it expired
+	 */
+	public Mono<CollectionJob> find(String id) {
+		return authentication().mapNotNull(authentication -> {
+			CollectionJob job = active.get(id);
+			if (job == null) {
+				job = lookupFinished(id);
+			}
+			return job != null && job.getOwner().equals(authentication.getName()) ? job : null;
+		});
+	}
+
+	private Mono<Authentication> authentication() {
+		return ReactiveSecurityContextHolder.getContext()
+				.map(SecurityContext::getAuthentication)
+				.switchIfEmpty(Mono.error(
+						() -> new UnauthorizedAccessException("Collection jobs require authentication")));
+	}
+
+	private synchronized boolean enqueue(Task task) {
+		if (queue.size() >= properties.getQueueCapacity()) {
+			return false;
+		}
+		return queue.add(task);
+	}
+
+	/**
+	 * Hands queued jobs to free workers. Only one thread dispatches at a time;
+	 * a call arriving meanwhile makes it loop once more, so jobs completing
+	 * synchronously do not recurse into this method.
+	 */
+	private void dispatch() {
+		if (dispatching.getAndIncrement() != 0) {
+			return;
+		}
+		do {
+			Task next;
+			while ((next = take()) != null) {
+				run(next);
+			}
+		} while (dispatching.decrementAndGet() != 0);
+	}
+
+	private synchronized Task take() {
+		if (busy >= properties.getConcurrency()) {
+			return null;
+		}
+		Task next = queue.poll();
+		if (next != null) {
+			busy++;
+		}
+		return next;
+	}
+
+	private void run(Task task) {
+		CollectionJob job = task.job();
+		queueWait.record(System.nanoTime() - job.getSubmittedNanos(), TimeUnit.NANOSECONDS);
+		job.started();
+		task.collection()
+				.contextWrite(context -> deadlineProperties.isEnabled()
+						? context.put(Deadline.class,
+								Deadline.after(properties.getTimeout(), deadlineProperties.getStageBudgets()))
+						: context)
+				.contextWrite(ReactiveSecurityContextHolder.withAuthentication(task.authentication()))
+				.doFinally(signal -> {
+					complete(job);
+					dispatch();
+				})
+				.subscribe(weatherData -> {
+					job.succeeded(weatherData);
+					succeeded.increment();
+				}, ex -> {
+					job.failed(exceptionHandler.describe(ex, JOBS_PATH + job.getId(), job.getTraceId()));
+					failed.increment();
+				});
+	}
+
+	private void complete(CollectionJob job) {
+		synchronized (this) {
+			busy--;
+		}
+		synchronized (finished) {
+			finished.put(job.getId(),
+					new Finished(job, System.currentTimeMillis() + properties.getRetention().toMillis()));
+		}
+		active.remove(job.getId());
+	}
+
+	private CollectionJob lookupFinished(String id) {
+		synchronized (finished) {
+			Finished entry = finished.get(id);
+			if (entry != null && entry.expiresAtMillis() <= System.currentTimeMillis()) {
+				finished.remove(id);
+				return null;
+			}
+			return entry == null ? null : entry.job();
+		}
+	}
+
+	private synchronized int queued() {
+		return queue.size();
+	}
+
+	private synchronized int busy() {
+		return busy;
+	}
+
+	private Counter jobs(MeterRegistry meterRegistry, String result) {
+		return Counter.builder("weather.jobs")
+				.description("Collection jobs by outcome")
+				.tag("result", result)
+				.register(meterRegistry);
+	}
+
+	private record Task(CollectionJob job, Authentication authentication, Mono<WeatherData> collection) {
+	}
+
+	private record Finished(CollectionJob job, long expiresAtMillis) {
+	}
+}
@@ -0,0 +1,180 @@
+package com.weather.metrics;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientException;
+
+import com.mongodb.MongoException;
+import com.weather.deadline.DeadlineExceededException;
+import com.weather.exception.BusinessException;
+import com.weather.exception.DatabaseException;
+import com.weather.exception.SecurityException;
+import com.weather.exception.ValidationException;
+import com.weather.exception.WeatherServiceException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+
+/**
+ * Latency timers for the stages of the weather collection pipeline
+ * ({@code POST /v1/api/weather/info}).
+ *
+ * <p>
+ * Every stage is recorded in {@code weather.pipeline.stage}, tagged with
+ * {@code stage} and {@code outcome}; the whole pipeline is recorded under
+ * {@code stage=total}. Both tags come from fixed enums, so the number of
+ * series is bounded ({@link Stage} x {@link Outcome}) and no request data such
+ * as postal codes or usernames ever becomes a tag value. A timer is
+ * registered on its first use and then kept in an array indexed by the two
+ * enums, so the recording path does no meter lookups and combinations that
+ * never happen are not exported.
+ * </p>
+ *
+ * <p>
+ * The timers publish a percentile histogram, so p95/p99 can be aggregated
+ * across instances in Prometheus, plus SLO buckets at {@link #SLOS} for direct
+ * "share of requests under X" queries.
+ * </p>
+ *
+ * <p>
+ * Requests whose upstream calls failed and that fell back to a stored
+ * observation are counted in {@code weather.pipeline.fallback}, tagged with
+ * {@code result=served|unavailable}; {@code unavailable} means there was no
+ * observation recent enough and the upstream error was returned.
+ * </p>
+ */
+@Component
+public class WeatherPipelineMetrics {
+
+	public static final String STAGE_TIMER = "weather.pipeline.stage";
+	public static final String FALLBACK_COUNTER = "weather.pipeline.fallback";
+
+	static final Duration[] SLOS = { Duration.ofMillis(50), Duration.ofMillis(100), Duration.ofMillis(250),
+			Duration.ofMillis(500), Duration.ofSeconds(1), Duration.ofSeconds(2), Duration.ofSeconds(5) };
+
+	/**
+	 * Pipeline stages, in execution order.
+	 */
+	@Getter
+	@RequiredArgsConstructor
+	public enum Stage {
+		VALIDATE_USER_ACCESS("validate_user_access"),
+		VALIDATE_REQUEST("validate_request"),
+		GET_COORDINATES("get_coordinates"),
+		GET_WEATHER_DETAILS("get_weather_details"),
+		SAVE("save"),
+		TOTAL("total");
+
+		private final String tagValue;
+	}
+
+	/**
+	 * Bounded classification of how a stage finished.
+	 */
+	@Getter
+	@RequiredArgsConstructor
+	public enum Outcome {
+		SUCCESS("success"),
+		CLIENT_ERROR("client_error"),
+		UPSTREAM_ERROR("upstream_error"),
+		DATABASE_ERROR("database_error"),
+		TIMEOUT("timeout"),
+		ERROR("error"),
+		CANCELLED("cancelled");
+
+		private final String tagValue;
+
+		static Outcome of(Throwable ex) {
+			if (ex instanceof ValidationException || ex instanceof SecurityException
+					|| ex instanceof BusinessException) {
+				return CLIENT_ERROR;
+			}
+			if (ex instanceof TimeoutException || ex instanceof DeadlineExceededException) {
+				return TIMEOUT;
+			}
+			if (ex instanceof WeatherServiceException || ex instanceof WebClientException) {
+				return UPSTREAM_ERROR;
+			}
+			if (ex instanceof DatabaseException || ex instanceof MongoException) {
+				return DATABASE_ERROR;
+			}
+			return ERROR;
+		}
+	}
+
+	private final MeterRegistry meterRegistry;
+	private final Timer[][] timers = new Timer[Stage.values().length][Outcome.values().length];
+	private final Counter fallbackServed;
+	private final Counter fallbackUnavailable;
+
+	public WeatherPipelineMetrics(MeterRegistry meterRegistry) {
+		this.meterRegistry = meterRegistry;
+		this.fallbackServed = fallback("served");
+		this.fallbackUnavailable = fallback("unavailable");
+	}
+
+	/**
+	 * Counts a request that fell back to a stored observation after its
+	 * upstream calls failed.
+	 *
+	 * @param served {@code true} if a recent enough observation was served
+	 */
+	public void recordFallback(boolean served) {
+		(served ? fallbackServed : fallbackUnavailable).increment();
+	}
+
+	/**
+	 * Times the given stage from subscription until it completes, errors or is
+	 * cancelled.
+	 *
+	 * @param stage  the pipeline stage
+	 * @param source the stage publisher
+	 * @param <T>    the element type
+	 * @return the timed publisher
+	 */
+	public <T> Mono<T> time(Stage stage, Mono<T> source) {
+		return Mono.defer(() -> {
+			long start = System.nanoTime();
+			return source
+					.doOnSuccess(value -> record(stage, Outcome.SUCCESS, start))
+					.doOnError(ex -> record(stage, Outcome.of(ex), start))
+					.doOnCancel(() -> record(stage, Outcome.CANCELLED, start));
+		});
+	}
+
+	private Counter fallback(String result) {
+		return Counter.builder(FALLBACK_COUNTER)
+				.description("Collection requests answered from a stored observation after an upstream failure")
+				.tag("result", result)
+				.register(meterRegistry);
+	}
+
+	private void record(Stage stage, Outcome outcome, long start) {
+		timer(stage, outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+	}
+
+	private Timer timer(Stage stage, Outcome outcome) {
+		Timer timer = timers[stage.ordinal()][outcome.ordinal()];
+		if (timer == null) {
+			// A racing registration is harmless: the registry returns the same meter
+			timer = Timer.builder(STAGE_TIMER)
+					.description("Latency of a weather collection pipeline stage")
+					.tag("stage", stage.getTagValue())
+					.tag("outcome", outcome.getTagValue())
+					.publishPercentileHistogram()
+					.serviceLevelObjectives(SLOS)
+					.minimumExpectedValue(Duration.ofMillis(1))
+					.maximumExpectedValue(Duration.ofSeconds(30))
+					.register(meterRegistry);
+			timers[stage.ordinal()][outcome.ordinal()] = timer;
+		}
+		return timer;
+	}
+}
@@ -0,0 +1,14 @@
+package com.weather.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Size and newest request time of a weather history, the inputs of its entity
+ * tag. Computed by an aggregation over the history indexes, so no weather
+ * document has to be read.
+ *
+ * @param count  number of stored observations
+ * @param newest request time of the newest observation
+ */
+public record HistoryVersion(long count, LocalDateTime newest) {
+}
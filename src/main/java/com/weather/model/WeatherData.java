@@ -3,7 +3,13 @@ package com.weather.model;
 import java.time.LocalDateTime;
 import java.util.List;
 
+import com.fasterxml.jackson.annotation.JsonAlias;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import lombok.Builder;
+import org.springframework.data.annotation.Transient;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.FieldType;
 import org.springframework.data.mongodb.core.mapping.MongoId;
@@ -12,7 +18,27 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+/**
+ * Current weather as returned by the OpenWeather API, plus the request metadata
+ * stored with it. Upstream snake_case names are accepted as aliases and fields
+ * the service does not keep (gusts, rain, snow, ...) are ignored.
+ *
+ * <p>
+ * The compound indexes serve the history queries, which filter on username or
+ * postal code and sort by request time, newest first; they also cover the
+ * history version aggregations behind the history ETags.
+ * </p>
+ *
+ * <p>
+ * {@code stale} is never stored. It is set on a stored observation that is
+ * served in place of a fresh one while OpenWeather is unavailable, and only
+ * serialized when set.
+ * </p>
+ */
 @Builder
+@CompoundIndex(name = "username_requestTime", def = "{ 'username': 1, 'requestTime': -1 }")
+@CompoundIndex(name = "postalCode_requestTime", def = "{ 'postalCode': 1, 'requestTime': -1 }")
+@JsonIgnoreProperties(ignoreUnknown = true)
 @Document(collection = "weather_data")
 @Data
 @NoArgsConstructor
@@ -37,10 +63,14 @@ public class WeatherData {
     private String postalCode;
     private String username;
     private LocalDateTime requestTime;
+    @Transient
+    @JsonInclude(JsonInclude.Include.NON_DEFAULT)
+    private boolean stale;
 
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
+    @JsonIgnoreProperties(ignoreUnknown = true)
     public static class Coord {
         private double lon;
         private double lat;
@@ -49,6 +79,7 @@ public class WeatherData {
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
+    @JsonIgnoreProperties(ignoreUnknown = true)
     public static class Weather {
         private int id;
         private String main;
@@ -59,20 +90,27 @@ public class WeatherData {
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
+    @JsonIgnoreProperties(ignoreUnknown = true)
     public static class Main {
         private double temp;
+        @JsonAlias("feels_like")
         private double feelsLike;
+        @JsonAlias("temp_min")
         private double tempMin;
+        @JsonAlias("temp_max")
         private double tempMax;
         private int pressure;
         private int humidity;
+        @JsonAlias("sea_level")
         private int seaLevel;
+        @JsonAlias("grnd_level")
         private int grndLevel;
     }
 
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
+    @JsonIgnoreProperties(ignoreUnknown = true)
     public static class Wind {
         private double speed;
         private int deg;
@@ -81,6 +119,7 @@ public class WeatherData {
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
+    @JsonIgnoreProperties(ignoreUnknown = true)
     public static class Clouds {
         private int all;
     }
@@ -88,6 +127,7 @@ public class WeatherData {
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
+    @JsonIgnoreProperties(ignoreUnknown = true)
     public static class Sys {
         private int type;
         private int id;
@@ -0,0 +1,124 @@
+package com.weather.ratelimit;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.weather.utils.RateLimitProperties;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Single-instance {@link TokenBucketStore} that mirrors the arithmetic of
+ * {@code scripts/token_bucket.lua} exactly.
+ *
+ * <p>
+ * Used when {@code rate-limit.backend=memory}, and as the local Redis
+ * stand-in in tests. Each bucket is updated inside
+ * {@link ConcurrentHashMap#compute}, which gives the same per-key atomicity
+ * the Lua script gets from Redis.
+ * </p>
+ *
+ * <p>
+ * The map holds at most {@code MAX_BUCKETS} buckets. Buckets that have fully
+ * refilled carry no state worth keeping; once the map is full they are swept
+ * out, at most once per {@code SWEEP_INTERVAL_MILLIS} so that requests do not
+ * each pay for a scan of the whole map. A new key that still finds the map
+ * full evicts an arbitrary bucket, whose key starts over with a full bucket.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(prefix = "rate-limit", name = "backend", havingValue = "memory")
+public class InMemoryTokenBucketStore implements TokenBucketStore {
+
+	private static final int MAX_BUCKETS = 100_000;
+	private static final long SWEEP_INTERVAL_MILLIS = 1_000;
+
+	private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+	private final int maxBuckets;
+	private final long sweepIntervalMillis;
+	private final AtomicLong nextSweepAt = new AtomicLong();
+
+	public InMemoryTokenBucketStore() {
+		this(MAX_BUCKETS, SWEEP_INTERVAL_MILLIS);
+	}
+
+	InMemoryTokenBucketStore(int maxBuckets, long sweepIntervalMillis) {
+		this.maxBuckets = maxBuckets;
+		this.sweepIntervalMillis = sweepIntervalMillis;
+	}
+
+	@Override
+	public Mono<RateLimitDecision> consume(String key, RateLimitProperties.Rule rule) {
+		return Mono.fromSupplier(() -> {
+			long now = System.currentTimeMillis();
+			if (buckets.size() >= maxBuckets && !buckets.containsKey(key)) {
+				makeRoom(now);
+			}
+			RateLimitDecision[] decision = new RateLimitDecision[1];
+			buckets.compute(key, (k, bucket) -> {
+				Bucket current = bucket == null ? new Bucket(rule.getCapacity(), now) : bucket;
+				decision[0] = current.consume(rule, now);
+				return current;
+			});
+			return decision[0];
+		});
+	}
+
+	/**
+	 * @return the number of buckets held
+	 */
+	int size() {
+		return buckets.size();
+	}
+
+	private void makeRoom(long now) {
+		long sweepAt = nextSweepAt.get();
+		if (now >= sweepAt && nextSweepAt.compareAndSet(sweepAt, now + sweepIntervalMillis)) {
+			buckets.values().removeIf(bucket -> bucket.isFull(now));
+		}
+		Iterator<Bucket> victims = buckets.values().iterator();
+		while (buckets.size() >= maxBuckets && victims.hasNext()) {
+			victims.next();
+			victims.remove();
+		}
+	}
+
+	private static final class Bucket {
+
+		private double tokens;
+		private long timestamp;
+		private volatile long fullAt;
+
+		private Bucket(double tokens, long timestamp) {
+			this.tokens = tokens;
+			this.timestamp = timestamp;
+		}
+
+		private RateLimitDecision consume(RateLimitProperties.Rule rule, long now) {
+			double rate = rule.tokensPerMilli();
+			tokens = Math.min(rule.getCapacity(), tokens + Math.max(0, now - timestamp) * rate);
+			timestamp = now;
+
+			boolean allowed = false;
+			long retryAfter = 0;
+			if (tokens >= 1) {
+				tokens -= 1;
+				allowed = true;
+			} else {
+				retryAfter = (long) Math.ceil((1 - tokens) / rate);
+			}
+			long reset = (long) Math.ceil((rule.getCapacity() - tokens) / rate);
+			fullAt = now + reset;
+			return new RateLimitDecision(allowed, rule.getCapacity(), (long) Math.floor(tokens), retryAfter, reset);
+		}
+
+		private boolean isFull(long now) {
+			return now >= fullAt;
+		}
+	}
+}
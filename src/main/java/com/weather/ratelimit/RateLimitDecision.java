@@ -0,0 +1,24 @@
+package com.weather.ratelimit;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Outcome of a single token-bucket consumption.
+ */
+@Getter
+@RequiredArgsConstructor
+public class RateLimitDecision {
+
+	private final boolean allowed;
+	private final long limit;
+	private final long remaining;
+	/** Milliseconds until a rejected request could succeed; 0 when allowed. */
+	private final long retryAfterMillis;
+	/** Milliseconds until the bucket is full again. */
+	private final long resetMillis;
+
+	public static RateLimitDecision rejected(long limit, long retryAfterMillis) {
+		return new RateLimitDecision(false, limit, 0, retryAfterMillis, retryAfterMillis);
+	}
+}
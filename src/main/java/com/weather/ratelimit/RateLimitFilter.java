@@ -0,0 +1,74 @@
+package com.weather.ratelimit;
+
+import java.util.Optional;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+
+import com.weather.dto.ApiError;
+import com.weather.exception.handler.ErrorResponseWriter;
+import com.weather.utils.ErrorConstants;
+
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link WebFilter} enforcing the {@link RateLimiter} on every request.
+ *
+ * <p>
+ * Allowed responses carry the {@code RateLimit-Limit},
+ * {@code RateLimit-Remaining} and {@code RateLimit-Reset} headers (reset in
+ * seconds). Rejected requests receive {@code 429 Too Many Requests} with a
+ * {@code Retry-After} header and an {@link ApiError} body.
+ * </p>
+ *
+ * <p>
+ * Like {@code JwtAuthenticationFilter}, this filter is not a Spring bean:
+ * {@code SecurityConfig} adds it to the security chain right after
+ * authentication, so the bucket can be keyed by the authenticated user.
+ * </p>
+ */
+@RequiredArgsConstructor
+public class RateLimitFilter implements WebFilter {
+
+	public static final String LIMIT_HEADER = "RateLimit-Limit";
+	public static final String REMAINING_HEADER = "RateLimit-Remaining";
+	public static final String RESET_HEADER = "RateLimit-Reset";
+
+	private final RateLimiter rateLimiter;
+	private final ErrorResponseWriter errorResponseWriter;
+
+	@Override
+	public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+		return rateLimiter.check(exchange)
+				.map(Optional::of)
+				.defaultIfEmpty(Optional.empty())
+				.flatMap(decision -> {
+					if (decision.isEmpty()) {
+						return chain.filter(exchange);
+					}
+					applyHeaders(exchange.getResponse().getHeaders(), decision.get());
+					return decision.get().isAllowed() ? chain.filter(exchange) : reject(exchange, decision.get());
+				});
+	}
+
+	private static void applyHeaders(HttpHeaders headers, RateLimitDecision decision) {
+		headers.set(LIMIT_HEADER, Long.toString(decision.getLimit()));
+		headers.set(REMAINING_HEADER, Long.toString(decision.getRemaining()));
+		headers.set(RESET_HEADER, Long.toString(toSeconds(decision.getResetMillis())));
+	}
+
+	private Mono<Void> reject(ServerWebExchange exchange, RateLimitDecision decision) {
+		exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER,
+				Long.toString(toSeconds(decision.getRetryAfterMillis())));
+		return errorResponseWriter.write(exchange, HttpStatus.TOO_MANY_REQUESTS, ErrorConstants.TOO_MANY_REQUESTS,
+				ErrorConstants.RATE_LIMIT_EXCEEDED);
+	}
+
+	private static long toSeconds(long millis) {
+		return Math.max(0, (millis + 999) / 1000);
+	}
+}
@@ -0,0 +1,180 @@
+package com.weather.ratelimit;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.server.PathContainer;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import com.weather.utils.RateLimitProperties;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * Per-user, per-endpoint token-bucket rate limiter.
+ *
+ * <p>
+ * A request is mapped to the first configured rule whose pattern matches its
+ * path (or the default rule) and to a principal: the authenticated username,
+ * or the client address for anonymous requests. The pair names one bucket in
+ * the {@link TokenBucketStore}.
+ * </p>
+ *
+ * <p>
+ * Two tiers:
+ * </p>
+ * <ul>
+ * <li>A local pre-check remembers, per bucket, until when it is known to be
+ * empty. While that moment lies in the future every further request from the
+ * same client is rejected in-process, without a round trip to the store. This
+ * absorbs the traffic of a client hammering the API after its first 429.</li>
+ * <li>The {@link TokenBucketStore} holds the authoritative bucket, shared by
+ * all instances when backed by Redis.</li>
+ * </ul>
+ *
+ * <p>
+ * If the store is unavailable the limiter fails open: availability of the API
+ * is more important than enforcing the limit during a Redis outage.
+ * </p>
+ *
+ * <p>
+ * Decisions are counted in {@code weather.ratelimit.decisions}, tagged with
+ * {@code rule} and {@code outcome=allowed|rejected|rejected_local|error}.
+ * </p>
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "rate-limit", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimiter {
+
+	static final String DEFAULT_RULE = "default";
+
+	private final TokenBucketStore store;
+	private final RateLimitProperties properties;
+	private final MeterRegistry meterRegistry;
+	private final List<CompiledRule> rules = new ArrayList<>();
+	private final CompiledRule defaultRule;
+	private final Map<String, Long> blockedUntil = new ConcurrentHashMap<>();
+
+	public RateLimiter(TokenBucketStore store, RateLimitProperties properties, MeterRegistry meterRegistry) {
+		this.store = store;
+		this.properties = properties;
+		this.meterRegistry = meterRegistry;
+		properties.getRules().forEach((name, rule) -> rules.add(new CompiledRule(name, rule,
+				PathPatternParser.defaultInstance.parse(rule.getPattern()))));
+		this.defaultRule = new CompiledRule(DEFAULT_RULE, properties.getDefaultRule(), null);
+	}
+
+	/**
+	 * Takes one token from the bucket of the requesting principal.
+	 *
+	 * @param exchange the current server web exchange
+	 * @return a {@link Mono} emitting the decision, or an empty {@link Mono} if
+	 *         the store failed and the request should pass unlimited
+	 */
+	public Mono<RateLimitDecision> check(ServerWebExchange exchange) {
+		CompiledRule rule = resolveRule(exchange.getRequest().getPath().pathWithinApplication());
+		return principal(exchange).flatMap(principal -> {
+			String key = rule.name + ":" + principal;
+			long now = System.currentTimeMillis();
+			Long until = blockedUntil.get(key);
+			if (until != null) {
+				if (until > now) {
+					rule.rejectedLocal.increment();
+					return Mono.just(RateLimitDecision.rejected(rule.rule.getCapacity(), until - now));
+				}
+				blockedUntil.remove(key, until);
+			}
+			return store.consume(key, rule.rule)
+					.doOnNext(decision -> record(rule, key, decision, now))
+					.onErrorResume(ex -> {
+						rule.error.increment();
+						log.warn("Rate limit store unavailable, allowing request: {}", ex.getMessage());
+						return Mono.empty();
+					});
+		});
+	}
+
+	private void record(CompiledRule rule, String key, RateLimitDecision decision, long now) {
+		if (decision.isAllowed()) {
+			rule.allowed.increment();
+			return;
+		}
+		rule.rejected.increment();
+		if (blockedUntil.size() >= properties.getLocalCacheSize()) {
+			blockedUntil.values().removeIf(until -> until <= now);
+			if (blockedUntil.size() >= properties.getLocalCacheSize()) {
+				return;
+			}
+		}
+		blockedUntil.put(key, now + decision.getRetryAfterMillis());
+	}
+
+	private CompiledRule resolveRule(PathContainer path) {
+		for (CompiledRule rule : rules) {
+			if (rule.pattern.matches(path)) {
+				return rule;
+			}
+		}
+		return defaultRule;
+	}
+
+	private static Mono<String> principal(ServerWebExchange exchange) {
+		return ReactiveSecurityContextHolder.getContext()
+				.map(SecurityContext::getAuthentication)
+				.filter(Authentication::isAuthenticated)
+				.map(authentication -> "user:" + authentication.getName())
+				.defaultIfEmpty(clientAddress(exchange));
+	}
+
+	private static String clientAddress(ServerWebExchange exchange) {
+		InetSocketAddress remoteAddress = exchange.getRequest().getRemoteAddress();
+		if (remoteAddress == null) {
+			return "ip:unknown";
+		}
+		return "ip:" + (remoteAddress.getAddress() != null ? remoteAddress.getAddress().getHostAddress()
+				: remoteAddress.getHostString());
+	}
+
+	private final class CompiledRule {
+
+		private final String name;
+		private final RateLimitProperties.Rule rule;
+		private final PathPattern pattern;
+		private final Counter allowed;
+		private final Counter rejected;
+		private final Counter rejectedLocal;
+		private final Counter error;
+
+		private CompiledRule(String name, RateLimitProperties.Rule rule, PathPattern pattern) {
+			this.name = name;
+			this.rule = rule;
+			this.pattern = pattern;
+			this.allowed = counter(name, "allowed");
+			this.rejected = counter(name, "rejected");
+			this.rejectedLocal = counter(name, "rejected_local");
+			this.error = counter(name, "error");
+		}
+
+		private Counter counter(String rule, String outcome) {
+			return Counter.builder("weather.ratelimit.decisions")
+					.description("Rate limit decisions by rule and outcome")
+					.tag("rule", rule)
+					.tag("outcome", outcome)
+					.register(meterRegistry);
+		}
+	}
+}
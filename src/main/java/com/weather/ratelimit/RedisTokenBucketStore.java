@@ -0,0 +1,64 @@
+package com.weather.ratelimit;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import com.weather.utils.RateLimitProperties;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link TokenBucketStore} backed by Redis, giving one limit across all
+ * instances.
+ *
+ * <p>
+ * Refill and consumption happen in a single Lua script
+ * ({@code scripts/token_bucket.lua}), so concurrent requests from different
+ * instances cannot both take the last token. The script reads the clock with
+ * {@code TIME}, which keeps buckets consistent even when instance clocks drift.
+ * Spring sends the script by SHA and only falls back to the full body when
+ * Redis has not cached it yet.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(prefix = "rate-limit", name = "backend", havingValue = "redis", matchIfMissing = true)
+public class RedisTokenBucketStore implements TokenBucketStore {
+
+	@SuppressWarnings("rawtypes")
+	private static final RedisScript<List> SCRIPT = RedisScript.of(new ClassPathResource("scripts/token_bucket.lua"),
+			List.class);
+	private static final String ONE_TOKEN = "1";
+
+	private final ReactiveStringRedisTemplate redisTemplate;
+	private final String keyPrefix;
+
+	public RedisTokenBucketStore(ReactiveStringRedisTemplate redisTemplate, RateLimitProperties properties) {
+		this.redisTemplate = redisTemplate;
+		this.keyPrefix = properties.getKeyPrefix();
+	}
+
+	@Override
+	public Mono<RateLimitDecision> consume(String key, RateLimitProperties.Rule rule) {
+		List<String> keys = Collections.singletonList(keyPrefix + key);
+		List<String> args = List.of(Long.toString(rule.getCapacity()), Double.toString(rule.tokensPerMilli()),
+				ONE_TOKEN);
+		return redisTemplate.execute(SCRIPT, keys, args)
+				.next()
+				.map(result -> toDecision(result, rule));
+	}
+
+	private static RateLimitDecision toDecision(List<?> result, RateLimitProperties.Rule rule) {
+		return new RateLimitDecision(
+				((Number) result.get(0)).longValue() == 1L,
+				rule.getCapacity(),
+				((Number) result.get(1)).longValue(),
+				((Number) result.get(2)).longValue(),
+				((Number) result.get(3)).longValue());
+	}
+}
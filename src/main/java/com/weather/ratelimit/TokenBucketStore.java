@@ -0,0 +1,20 @@
+package com.weather.ratelimit;
+
+import com.weather.utils.RateLimitProperties;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Holds token-bucket state and atomically consumes a token from a bucket.
+ */
+public interface TokenBucketStore {
+
+	/**
+	 * Refills the bucket for the elapsed time and tries to take one token.
+	 *
+	 * @param key  the bucket key
+	 * @param rule the rule defining capacity and refill rate
+	 * @return a {@link Mono} emitting the decision
+	 */
+	Mono<RateLimitDecision> consume(String key, RateLimitProperties.Rule rule);
+}
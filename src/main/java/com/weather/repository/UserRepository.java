@@ -7,6 +7,7 @@ import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
 import com.weather.model.User;
 
 import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 @Repository
@@ -14,4 +15,6 @@ public interface UserRepository extends ReactiveMongoRepository<User, UUID>{
 
 	Mono<User> findByUsername(String username);
 
+	Flux<User> findByActiveFalse();
+
 }
@@ -1,17 +1,55 @@
 package com.weather.repository;
 
+import java.time.LocalDateTime;
 import java.util.UUID;
 
+import org.springframework.data.mongodb.repository.Aggregation;
 import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
 import org.springframework.stereotype.Repository;
 
+import com.weather.model.HistoryVersion;
 import com.weather.model.WeatherData;
 
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 @Repository
 public interface WeatherDataRepository extends ReactiveMongoRepository<WeatherData, UUID> {
 	
 	Flux<WeatherData> findByPostalCodeOrderByRequestTimeDesc(String postalCode);
 	Flux<WeatherData> findByUsernameOrderByRequestTimeDesc(String username);
+
+	/**
+	 * Finds the newest observation of a postal code, if it is recent enough.
+	 * Served by the {@code postalCode_requestTime} index and reads a single
+	 * document.
+	 *
+	 * @param postalCode the postal code
+	 * @param oldest     the oldest acceptable request time
+	 * @return the newest observation, empty if there is none since {@code oldest}
+	 */
+	Mono<WeatherData> findFirstByPostalCodeAndRequestTimeGreaterThanEqualOrderByRequestTimeDesc(String postalCode,
+			LocalDateTime oldest);
+
+	/**
+	 * Counts the observations of a postal code and finds the newest request time.
+	 * Only touches the {@code postalCode_requestTime} index.
+	 *
+	 * @param postalCode the postal code
+	 * @return the history version, empty if there is no observation
+	 */
+	@Aggregation(pipeline = { "{ $match: { postalCode: ?0 } }",
+			"{ $group: { _id: null, count: { $sum: 1 }, newest: { $max: '$requestTime' } } }" })
+	Mono<HistoryVersion> findHistoryVersionByPostalCode(String postalCode);
+
+	/**
+	 * Counts the observations of a user and finds the newest request time. Only
+	 * touches the {@code username_requestTime} index.
+	 *
+	 * @param username the username
+	 * @return the history version, empty if there is no observation
+	 */
+	@Aggregation(pipeline = { "{ $match: { username: ?0 } }",
+			"{ $group: { _id: null, count: { $sum: 1 }, newest: { $max: '$requestTime' } } }" })
+	Mono<HistoryVersion> findHistoryVersionByUsername(String username);
 }
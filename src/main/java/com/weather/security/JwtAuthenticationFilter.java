@@ -1,23 +1,17 @@
 package com.weather.security;
 
-import java.time.LocalDateTime;
-import java.util.UUID;
-
-import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.context.ReactiveSecurityContextHolder;
 import org.springframework.security.core.context.SecurityContext;
-import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.server.WebFilter;
 import org.springframework.web.server.WebFilterChain;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.weather.dto.ApiError;
+import com.weather.exception.handler.ErrorResponseWriter;
+import com.weather.utils.ErrorConstants;
 
 import lombok.RequiredArgsConstructor;
 import reactor.core.publisher.Mono;
@@ -51,8 +45,13 @@ import reactor.core.publisher.Mono;
  * Usage:
  * </p>
  * <ul>
- * <li>This filter is automatically applied to all incoming requests as it is
- * annotated with {@link Component}.</li>
+ * <li>This filter is deliberately not a Spring bean. WebFlux registers every
+ * {@link WebFilter} bean in the global filter chain, so a bean would run once
+ * there and once more inside the security chain. {@link SecurityConfig} creates
+ * the only instance and adds it at the authentication position.</li>
+ * <li>The authentication result is memoized on the exchange under
+ * {@link #AUTHENTICATION_ATTRIBUTE}, so the token is validated at most once per
+ * request even if the filter is invoked again.</li>
  * <li>Requests containing valid JWT tokens proceed to the next filter in the
  * chain.</li>
  * <li>Requests with invalid or missing tokens receive an HTTP 401
@@ -63,8 +62,8 @@ import reactor.core.publisher.Mono;
  * Request Flow:
  * </p>
  * <ol>
- * <li>If the request path matches any predefined skip paths, the filter allows
- * the request to proceed without authentication.</li>
+ * <li>If the request path matches one of the {@link PublicPaths}, the filter
+ * allows the request to proceed without authentication.</li>
  * <li>If the Authorization header contains a valid Bearer token, it is
  * authenticated using {@link JwtAuthenticationManager}.</li>
  * <li>On successful authentication, the {@link SecurityContext} is updated, and
@@ -73,26 +72,19 @@ import reactor.core.publisher.Mono;
  * </ol>
  * 
  */
-@Component
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter implements WebFilter {
 
-	private final JwtAuthenticationManager jwtAuthenticationManager;
-
 	/**
-	 * Checks whether the request path should skip authentication.
-	 * 
-	 * @param path the request path
-	 * @return {@code true} if the path should skip authentication; {@code false}
-	 *         otherwise
+	 * Exchange attribute holding the memoized authentication of the current
+	 * request.
 	 */
-	private boolean shouldSkip(String path) {
-		if (path == null) {
-			return false;
-		}
-		return path.contains("/v3/api-docs") || path.contains("/swagger-ui") || path.contains("/webjars")
-				|| path.startsWith("/v1/api/auth");
-	}
+	public static final String AUTHENTICATION_ATTRIBUTE = JwtAuthenticationFilter.class.getName() + ".AUTHENTICATION";
+
+	private static final String BEARER_PREFIX = "Bearer ";
+
+	private final JwtAuthenticationManager jwtAuthenticationManager;
+	private final ErrorResponseWriter errorResponseWriter;
 
 	/**
 	 * Filters incoming requests for JWT authentication.
@@ -103,55 +95,44 @@ public class JwtAuthenticationFilter implements WebFilter {
 	 */
 	@Override
 	public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
-	    String path = exchange.getRequest().getURI().getPath();
-	    if (shouldSkip(path)) {
+	    if (PublicPaths.matches(exchange.getRequest())) {
 	        return chain.filter(exchange);
 	    }
 
 	    String authHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
-	    if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+	    if (authHeader == null || !authHeader.startsWith(BEARER_PREFIX)) {
 	        return handleAuthenticationError(exchange, "No valid authorization token found");
 	    }
 
-	    String token = authHeader.substring(7);
-	    return jwtAuthenticationManager.authenticate(
-	            JwtAuthenticationToken.builder()
-	                .token(token)
-	                .build()
-	        )
-	        .flatMap(authentication -> {
-	            authentication.setAuthenticated(true);
-	            return chain.filter(exchange)
-	                .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication));
-	        })
+	    return authenticate(exchange, authHeader.substring(BEARER_PREFIX.length()))
+	        .flatMap(authentication -> chain.filter(exchange)
+	            .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication)))
 	        .onErrorResume(AuthenticationException.class, 
 	            e -> handleAuthenticationError(exchange, e.getMessage()));
 	}
 
-	private Mono<Void> handleAuthenticationError(ServerWebExchange exchange, String message) {
-	    exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
-	    exchange.getResponse().getHeaders().setContentType(MediaType.APPLICATION_JSON);
-	    
-	    ApiError error = ApiError.builder()
-	        .timestamp(LocalDateTime.now().toString())
-	        .status(HttpStatus.UNAUTHORIZED.value())
-	        .error("Authentication Failed")
-	        .message(message)
-	        .path(exchange.getRequest().getPath().value())
-	        .traceId(UUID.randomUUID().toString())
-	        .build();
-
-	    byte[] bytes;
-	    try {
-	        bytes = new ObjectMapper().writeValueAsBytes(error);
-	    } catch (JsonProcessingException e) {
-	        return exchange.getResponse().setComplete();
-	    }
+	/**
+	 * Returns the authentication for the exchange, validating the token only on
+	 * the first call. The cached {@link Mono} replays the same result (or error)
+	 * to every later subscriber within the request.
+	 *
+	 * @param exchange the current server web exchange
+	 * @param token    the raw bearer token
+	 * @return a {@link Mono} emitting the authenticated token
+	 */
+	@SuppressWarnings("unchecked")
+	private Mono<Authentication> authenticate(ServerWebExchange exchange, String token) {
+	    return (Mono<Authentication>) exchange.getAttributes().computeIfAbsent(AUTHENTICATION_ATTRIBUTE,
+	        key -> jwtAuthenticationManager.authenticate(
+	                JwtAuthenticationToken.builder()
+	                    .token(token)
+	                    .build())
+	            .doOnNext(authentication -> authentication.setAuthenticated(true))
+	            .cache());
+	}
 
-	    DataBuffer buffer = exchange.getResponse()
-	        .bufferFactory()
-	        .wrap(bytes);
-	        
-	    return exchange.getResponse().writeWith(Mono.just(buffer));
+	private Mono<Void> handleAuthenticationError(ServerWebExchange exchange, String message) {
+	    return errorResponseWriter.write(exchange, HttpStatus.UNAUTHORIZED, ErrorConstants.AUTHENTICATION_FAILED,
+	        message);
 	}
 }
\ No newline at end of file
@@ -9,6 +9,8 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
 
+import com.weather.exception.InvalidTokenException;
+
 import lombok.RequiredArgsConstructor;
 import reactor.core.publisher.Mono;
 
@@ -22,6 +24,8 @@ import reactor.core.publisher.Mono;
  *     <li>Receiving an {@link JwtAuthenticationToken} containing the JWT.</li>
  *     <li>Validating the JWT using the injected {@link JwtService}.</li>
  *     <li>Extracting the username from the validated token.</li>
+ *     <li>Rejecting the token if its user has been deactivated or the token itself
+ *         has been revoked, using the in-memory {@link TokenRevocationRegistry}.</li>
  *     <li>Creating a new {@link JwtAuthenticationToken} with the 
  *         validated username, the original token, and a single 
  *         {@link org.springframework.security.core.authority.SimpleGrantedAuthority} 
@@ -39,13 +43,15 @@ public class JwtAuthenticationManager implements ReactiveAuthenticationManager {
 	
     private static final String ROLE_USER = "ROLE_USER";
 	private final JwtService jwtService;
+	private final TokenRevocationRegistry tokenRevocationRegistry;
 
 	/**
 	 * Authenticates the provided {@link Authentication} object.
 	 *
 	 * <p>This method returns a {@link Mono} that emits the newly created
 	 * {@link JwtAuthenticationToken} if the authentication is successful,
-	 * or an empty {@link Mono} otherwise.</p>
+	 * or an empty {@link Mono} otherwise. Revoked tokens fail with an
+	 * {@link InvalidTokenException}.</p>
 	 *
 	 * @param authentication The authentication object to authenticate.
 	 * @return A {@link Mono} that emits the authenticated {@link JwtAuthenticationToken}
@@ -55,15 +61,20 @@ public class JwtAuthenticationManager implements ReactiveAuthenticationManager {
     public Mono<Authentication> authenticate(Authentication authentication) {
         return Mono.justOrEmpty(authentication)
             .cast(JwtAuthenticationToken.class)
-            .flatMap(auth -> jwtService.validateTokenAndGetUsername(auth.getToken())
-                .map(username -> {
+            .flatMap(auth -> jwtService.validateToken(auth.getToken())
+                .flatMap(claims -> {
+                    if (tokenRevocationRegistry.isRevoked(claims.getSubject(), claims.getId())) {
+                        return Mono.error(new InvalidTokenException("Token has been revoked"));
+                    }
                     List<SimpleGrantedAuthority> authorities = 
                         Collections.singletonList(new SimpleGrantedAuthority(ROLE_USER));
-                    return JwtAuthenticationToken.builder()
+                    return Mono.just(JwtAuthenticationToken.builder()
                     		.token(auth.getToken())
-                    		.username(username)
+                    		.username(claims.getSubject())
+                    		.tokenId(claims.getId())
+                    		.expiresAt(claims.getExpiration() == null ? 0L : claims.getExpiration().getTime())
                     		.authorities(authorities)
-                    		.build();
+                    		.build());
                 })
             );
     }
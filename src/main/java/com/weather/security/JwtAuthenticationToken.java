@@ -16,6 +16,8 @@ public class JwtAuthenticationToken implements Authentication {
 	private final String token;
 	private boolean authenticated;
 	private String username;
+	private String tokenId;
+	private long expiresAt;
 	private Collection<? extends GrantedAuthority> authorities;
 
 	@Override
@@ -11,8 +11,10 @@ import java.util.UUID;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import com.weather.diagnostics.jfr.JwtValidationEvent;
 import com.weather.exception.InvalidTokenException;
 
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
@@ -89,13 +91,32 @@ public class JwtService {
 	 * or an error containing an {@link InvalidTokenException} otherwise.
 	 */
 	public Mono<String> validateTokenAndGetUsername(String token) {
+		return validateToken(token).map(Claims::getSubject);
+	}
+
+	/**
+	 * Validates the given JWT token and returns all of its claims, including the
+	 * token ID ({@code jti}) and expiry needed for revocation checks. The check is
+	 * recorded as a {@link JwtValidationEvent} when a JFR recording is running.
+	 *
+	 * @param token The JWT token to validate.
+	 * @return A {@link Mono} that emits the token claims if the token is valid,
+	 * or an error containing an {@link InvalidTokenException} otherwise.
+	 */
+	public Mono<Claims> validateToken(String token) {
+		JwtValidationEvent event = new JwtValidationEvent();
+		event.begin();
 		try {
-			String username = Jwts.parserBuilder()
+			Claims claims = Jwts.parserBuilder()
 					.setSigningKey(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8))).build()
-					.parseClaimsJws(token).getBody().getSubject();
-			return Mono.just(username);
+					.parseClaimsJws(token).getBody();
+			event.succeeded();
+			return Mono.just(claims);
 		} catch (JwtException e) {
+			event.rejected(e);
 			return Mono.error(new InvalidTokenException("Invalid JWT token"));
+		} finally {
+			event.commit();
 		}
 	}
 }
\ No newline at end of file
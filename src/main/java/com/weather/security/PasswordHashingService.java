@@ -0,0 +1,147 @@
+package com.weather.security;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import com.weather.exception.ServiceOverloadedException;
+import com.weather.utils.PasswordHashingProperties;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Runs BCrypt hashing off the Netty event loop.
+ *
+ * <p>
+ * Each BCrypt operation burns tens of milliseconds of CPU, so running it inside
+ * a reactive operator stalls every other connection served by the same event
+ * loop. This service moves {@link PasswordEncoder#encode} and
+ * {@link PasswordEncoder#matches} onto a dedicated bounded-elastic scheduler
+ * with a fixed thread cap and queue cap. When the queue is full the task is
+ * rejected immediately with a {@link ServiceOverloadedException} instead of
+ * piling up behind a login burst.
+ * </p>
+ *
+ * <p>
+ * Metrics (tagged with {@code operation=encode|matches}):
+ * </p>
+ * <ul>
+ * <li>{@code weather.password.hash.queue.wait} - time spent waiting for a
+ * hashing thread.</li>
+ * <li>{@code weather.password.hash.duration} - time spent hashing.</li>
+ * <li>{@code weather.password.hash.rejected} - tasks rejected because the
+ * queue was saturated.</li>
+ * </ul>
+ */
+@Slf4j
+@Service
+public class PasswordHashingService implements DisposableBean {
+
+	private static final String ENCODE = "encode";
+	private static final String MATCHES = "matches";
+
+	private final PasswordEncoder passwordEncoder;
+	private final PasswordHashingProperties properties;
+	private final Scheduler scheduler;
+	private final Timer encodeQueueWait;
+	private final Timer encodeDuration;
+	private final Timer matchesQueueWait;
+	private final Timer matchesDuration;
+	private final Counter rejected;
+
+	public PasswordHashingService(PasswordEncoder passwordEncoder, PasswordHashingProperties properties,
+			MeterRegistry meterRegistry) {
+		this.passwordEncoder = passwordEncoder;
+		this.properties = properties;
+		this.scheduler = Schedulers.newBoundedElastic(properties.getThreadCap(), properties.getQueueCap(),
+				"password-hashing");
+		this.encodeQueueWait = queueWaitTimer(meterRegistry, ENCODE);
+		this.encodeDuration = durationTimer(meterRegistry, ENCODE);
+		this.matchesQueueWait = queueWaitTimer(meterRegistry, MATCHES);
+		this.matchesDuration = durationTimer(meterRegistry, MATCHES);
+		this.rejected = Counter.builder("weather.password.hash.rejected")
+				.description("Password hashing tasks rejected because the queue was saturated")
+				.register(meterRegistry);
+	}
+
+	/**
+	 * Encodes the raw password on the hashing scheduler.
+	 *
+	 * @param rawPassword the password to encode
+	 * @return a {@link Mono} emitting the encoded password
+	 */
+	public Mono<String> encode(CharSequence rawPassword) {
+		return offload(encodeQueueWait, encodeDuration, () -> passwordEncoder.encode(rawPassword));
+	}
+
+	/**
+	 * Verifies the raw password against the stored hash on the hashing scheduler.
+	 *
+	 * @param rawPassword     the password supplied by the client
+	 * @param encodedPassword the stored hash
+	 * @return a {@link Mono} emitting {@code true} if the password matches
+	 */
+	public Mono<Boolean> matches(CharSequence rawPassword, String encodedPassword) {
+		return offload(matchesQueueWait, matchesDuration, () -> passwordEncoder.matches(rawPassword, encodedPassword));
+	}
+
+	/**
+	 * Checks whether a stored hash should be transparently re-encoded. Only
+	 * returns {@code true} when rehashing is enabled and the hash was produced
+	 * with a cost lower than the one currently configured.
+	 *
+	 * @param encodedPassword the stored hash
+	 * @return {@code true} if the password should be re-encoded
+	 */
+	public boolean needsRehash(String encodedPassword) {
+		return properties.isRehashOnLogin() && passwordEncoder.upgradeEncoding(encodedPassword);
+	}
+
+	@Override
+	public void destroy() {
+		scheduler.dispose();
+	}
+
+	private <T> Mono<T> offload(Timer queueWait, Timer duration, Callable<T> task) {
+		return Mono.defer(() -> {
+			long enqueuedAt = System.nanoTime();
+			return Mono.fromCallable(() -> {
+				long startedAt = System.nanoTime();
+				queueWait.record(startedAt - enqueuedAt, TimeUnit.NANOSECONDS);
+				try {
+					return task.call();
+				} finally {
+					duration.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+				}
+			}).subscribeOn(scheduler);
+		}).onErrorMap(RejectedExecutionException.class, ex -> {
+			rejected.increment();
+			log.warn("Password hashing queue saturated, rejecting request");
+			return new ServiceOverloadedException("Password hashing capacity exhausted", ex);
+		});
+	}
+
+	private static Timer queueWaitTimer(MeterRegistry meterRegistry, String operation) {
+		return Timer.builder("weather.password.hash.queue.wait")
+				.description("Time a password hashing task waited for a thread")
+				.tag("operation", operation)
+				.register(meterRegistry);
+	}
+
+	private static Timer durationTimer(MeterRegistry meterRegistry, String operation) {
+		return Timer.builder("weather.password.hash.duration")
+				.description("Time spent hashing a password")
+				.tag("operation", operation)
+				.register(meterRegistry);
+	}
+}
@@ -0,0 +1,70 @@
+package com.weather.security;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * Single source of truth for the paths that are reachable without a JWT.
+ *
+ * <p>
+ * The same pattern list feeds the authorization rules in
+ * {@link SecurityConfig} and the skip check in {@link JwtAuthenticationFilter},
+ * so the two can no longer drift apart. The patterns are parsed once into
+ * {@link PathPattern} instances; matching a request is a walk over a handful of
+ * pre-compiled segments with no string allocation.
+ * </p>
+ */
+@UtilityClass
+public class PublicPaths {
+
+	/**
+	 * Ant-style patterns of the public endpoints: API documentation, the
+	 * authentication endpoints that issue tokens, and the actuator health and
+	 * Prometheus scrape endpoints.
+	 */
+	public static final String[] PATTERNS = {
+			"/v3/api-docs/**",
+			"/swagger-ui/**",
+			"/swagger-ui.html",
+			"/webjars/**",
+			"/v1/api/auth/**",
+			"/actuator/health/**",
+			"/actuator/prometheus"
+	};
+
+	private static final List<PathPattern> COMPILED = Arrays.stream(PATTERNS)
+			.map(PathPatternParser.defaultInstance::parse)
+			.toList();
+
+	/**
+	 * Checks whether the request targets a public path.
+	 *
+	 * @param request the incoming request
+	 * @return {@code true} if the request does not require authentication
+	 */
+	public static boolean matches(ServerHttpRequest request) {
+		return matches(request.getPath().pathWithinApplication());
+	}
+
+	/**
+	 * Checks whether the given path is public.
+	 *
+	 * @param path the parsed request path
+	 * @return {@code true} if the path does not require authentication
+	 */
+	public static boolean matches(PathContainer path) {
+		for (PathPattern pattern : COMPILED) {
+			if (pattern.matches(path)) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
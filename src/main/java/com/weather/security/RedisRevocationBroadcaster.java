@@ -0,0 +1,97 @@
+package com.weather.security;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.connection.ReactiveSubscription;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.ReactiveRedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import com.weather.utils.TokenRevocationProperties;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+/**
+ * {@link RevocationBroadcaster} backed by Redis.
+ *
+ * <p>
+ * Events are published on a pub/sub channel that every instance subscribes
+ * to; receiving our own event back is harmless because applying an event is
+ * idempotent. Pub/sub is fire-and-forget, so token revocations are also kept
+ * in a sorted set scored by expiry, which new instances read on startup. User
+ * revocations need no such set because they are seeded from MongoDB.
+ * </p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "security.revocation.redis", name = "enabled", havingValue = "true")
+public class RedisRevocationBroadcaster implements RevocationBroadcaster, InitializingBean, DisposableBean {
+
+	private final ReactiveStringRedisTemplate redisTemplate;
+	private final ReactiveRedisConnectionFactory connectionFactory;
+	private final TokenRevocationRegistry registry;
+	private final TokenRevocationProperties properties;
+
+	private ReactiveRedisMessageListenerContainer container;
+	private Disposable subscription;
+
+	@Override
+	public void afterPropertiesSet() {
+		container = new ReactiveRedisMessageListenerContainer(connectionFactory);
+		subscription = Flux.defer(() -> container.receive(ChannelTopic.of(properties.getRedis().getChannel())))
+				.map(ReactiveSubscription.Message::getMessage)
+				.retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1)).maxBackoff(Duration.ofSeconds(30))
+						.doBeforeRetry(signal -> log.warn("Revocation subscription lost, resubscribing: {}",
+								signal.failure().getMessage())))
+				.subscribe(this::onMessage);
+	}
+
+	@Override
+	public Mono<Void> publish(RevocationEvent event) {
+		TokenRevocationProperties.Redis redis = properties.getRedis();
+		Mono<Boolean> persist = event.getType() == RevocationEvent.Type.TOKEN_REVOKED
+				? redisTemplate.opsForZSet().add(redis.getTokenKey(), event.getSubject(), event.getExpiresAt())
+				: Mono.just(true);
+		return persist.then(redisTemplate.convertAndSend(redis.getChannel(), event.encode())).then();
+	}
+
+	@Override
+	public Flux<RevocationEvent> activeTokenRevocations() {
+		String key = properties.getRedis().getTokenKey();
+		double now = System.currentTimeMillis();
+		return redisTemplate.opsForZSet().removeRangeByScore(key, Range.closed(0d, now))
+				.thenMany(redisTemplate.opsForZSet().rangeByScoreWithScores(key,
+						Range.of(Range.Bound.exclusive(now), Range.Bound.unbounded())))
+				.map(tuple -> RevocationEvent.tokenRevoked(tuple.getValue(), tuple.getScore().longValue()));
+	}
+
+	@Override
+	public void destroy() {
+		if (subscription != null) {
+			subscription.dispose();
+		}
+		if (container != null) {
+			container.destroy();
+		}
+	}
+
+	private void onMessage(String message) {
+		try {
+			RevocationEvent.decode(message).applyTo(registry);
+		} catch (IllegalArgumentException ex) {
+			log.warn("Ignoring malformed revocation event: {}", message);
+		}
+	}
+}
@@ -0,0 +1,26 @@
+package com.weather.security;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Propagates revocation changes to the other instances of the service.
+ */
+public interface RevocationBroadcaster {
+
+	/**
+	 * Publishes a change made on this instance.
+	 *
+	 * @param event the change to publish
+	 * @return a {@link Mono} completing once the event is handed off
+	 */
+	Mono<Void> publish(RevocationEvent event);
+
+	/**
+	 * Loads the token revocations that are still in effect, so a freshly started
+	 * instance does not miss revocations published before it subscribed.
+	 *
+	 * @return a {@link Flux} of active token revocations
+	 */
+	Flux<RevocationEvent> activeTokenRevocations();
+}
@@ -0,0 +1,74 @@
+package com.weather.security;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * A change to the revocation state, exchanged between instances.
+ *
+ * <p>
+ * The wire format is {@code TYPE|subject|expiresAt}. The subject is taken as
+ * everything between the first and the last separator, so usernames containing
+ * {@code |} survive the round trip.
+ * </p>
+ */
+@Getter
+@RequiredArgsConstructor
+public class RevocationEvent {
+
+	private static final char SEPARATOR = '|';
+
+	public enum Type {
+		USER_REVOKED, USER_RESTORED, TOKEN_REVOKED
+	}
+
+	private final Type type;
+	private final String subject;
+	private final long expiresAt;
+
+	public static RevocationEvent userRevoked(String username) {
+		return new RevocationEvent(Type.USER_REVOKED, username, 0L);
+	}
+
+	public static RevocationEvent userRestored(String username) {
+		return new RevocationEvent(Type.USER_RESTORED, username, 0L);
+	}
+
+	public static RevocationEvent tokenRevoked(String tokenId, long expiresAt) {
+		return new RevocationEvent(Type.TOKEN_REVOKED, tokenId, expiresAt);
+	}
+
+	/**
+	 * Applies the event to the local registry.
+	 *
+	 * @param registry the registry to update
+	 */
+	public void applyTo(TokenRevocationRegistry registry) {
+		switch (type) {
+		case USER_REVOKED -> registry.revokeUser(subject);
+		case USER_RESTORED -> registry.restoreUser(subject);
+		case TOKEN_REVOKED -> registry.revokeToken(subject, expiresAt);
+		}
+	}
+
+	public String encode() {
+		return type.name() + SEPARATOR + subject + SEPARATOR + expiresAt;
+	}
+
+	/**
+	 * Parses an encoded event.
+	 *
+	 * @param message the encoded event
+	 * @return the decoded event
+	 * @throws IllegalArgumentException if the message is malformed
+	 */
+	public static RevocationEvent decode(String message) {
+		int first = message.indexOf(SEPARATOR);
+		int last = message.lastIndexOf(SEPARATOR);
+		if (first < 0 || first == last) {
+			throw new IllegalArgumentException("Malformed revocation event: " + message);
+		}
+		return new RevocationEvent(Type.valueOf(message.substring(0, first)), message.substring(first + 1, last),
+				Long.parseLong(message.substring(last + 1)));
+	}
+}
@@ -1,5 +1,6 @@
 package com.weather.security;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.web.reactive.error.ErrorWebExceptionHandler;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -8,8 +9,16 @@ import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
 import org.springframework.security.config.web.server.ServerHttpSecurity;
 import org.springframework.security.web.server.SecurityWebFilterChain;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.weather.deadline.DeadlineFilter;
+import com.weather.deadline.RequestDeadlines;
+import com.weather.exception.handler.ErrorResponseWriter;
 import com.weather.exception.handler.GlobalExceptionHandler;
+import com.weather.ratelimit.RateLimitFilter;
+import com.weather.ratelimit.RateLimiter;
+import com.weather.workload.AdaptiveAdmissionFilter;
+import com.weather.workload.AdaptiveConcurrencyLimiter;
+import com.weather.workload.WorkloadIsolation;
+import com.weather.workload.WorkloadIsolationFilter;
 
 import lombok.RequiredArgsConstructor;
 
@@ -23,9 +32,40 @@ import lombok.RequiredArgsConstructor;
 public class SecurityConfig {
 	
 	/**
-     * Injected instance of the {@link JwtAuthenticationFilter} used for JWT-based authentication.
+     * Injected {@link JwtAuthenticationManager} backing the {@link JwtAuthenticationFilter}.
      */
-	private final JwtAuthenticationFilter jwtAuthenticationFilter;
+	private final JwtAuthenticationManager jwtAuthenticationManager;
+
+	/**
+	 * {@link RateLimiter} backing the {@link RateLimitFilter}; absent when
+	 * {@code rate-limit.enabled=false}.
+	 */
+	private final ObjectProvider<RateLimiter> rateLimiter;
+
+	/**
+	 * {@link WorkloadIsolation} backing the {@link WorkloadIsolationFilter};
+	 * absent when {@code workload-isolation.enabled=false}.
+	 */
+	private final ObjectProvider<WorkloadIsolation> workloadIsolation;
+
+	/**
+	 * {@link AdaptiveConcurrencyLimiter} backing the
+	 * {@link AdaptiveAdmissionFilter}; absent when
+	 * {@code admission-control.enabled=false}.
+	 */
+	private final ObjectProvider<AdaptiveConcurrencyLimiter> concurrencyLimiter;
+
+	/**
+	 * {@link RequestDeadlines} backing the {@link DeadlineFilter}; absent when
+	 * {@code deadline.enabled=false}.
+	 */
+	private final ObjectProvider<RequestDeadlines> requestDeadlines;
+
+	/**
+	 * Shared {@link ErrorResponseWriter} used by the filters to answer rejected
+	 * requests.
+	 */
+	private final ErrorResponseWriter errorResponseWriter;
 
 
 	/**
@@ -38,7 +78,7 @@ public class SecurityConfig {
 	 *     <li>Disables CSRF protection as it might not be necessary for weather API endpoints.</li>
 	 *     <li>Defines authorization rules:
 	 *         <ul>
-	 *             <li>Grants public access to paths related to API documentation (Swagger UI)
+	 *             <li>Grants public access to the {@link PublicPaths}: API documentation (Swagger UI)
 	 *                 and authentication (/v1/api/auth/**).</li>
 	 *             <li>Requires authentication for requests to "/api/weather/**" endpoints.</li>
 	 *             <li>Requires authentication for any other unmatched requests.</li>
@@ -46,7 +86,15 @@ public class SecurityConfig {
 	 *     </li>
 	 *     <li>Disables HTTP Basic and form login authentication as JWT is the chosen method.</li>
 	 *     <li>Adds the {@link JwtAuthenticationFilter} to the filter chain at {@link SecurityWebFiltersOrder#AUTHENTICATION}
-	 *         order to perform JWT-based authentication before other security filters.</li>
+	 *         order to perform JWT-based authentication before other security filters. The filter is
+	 *         created here rather than declared as a bean so that it runs only inside this chain.</li>
+	 *     <li>Adds the {@link RateLimitFilter} right after authentication, so buckets are keyed by the
+	 *         authenticated user, when a {@link RateLimiter} is configured.</li>
+	 *     <li>Adds the {@link AdaptiveAdmissionFilter} first and the {@link WorkloadIsolationFilter} right
+	 *         after it, so requests shed under load are turned away before any other work, when the
+	 *         {@link AdaptiveConcurrencyLimiter} and {@link WorkloadIsolation} are configured.</li>
+	 *     <li>Adds the {@link DeadlineFilter} ahead of all of them, so the deadline of a request also covers
+	 *         its wait for admission, when {@link RequestDeadlines} are configured.</li>
 	 * </ul>
 	 *
 	 * @param http The {@link ServerHttpSecurity} object used to configure security.
@@ -54,25 +102,28 @@ public class SecurityConfig {
 	 */
 	@Bean
 	public SecurityWebFilterChain springSecurityFilterChain(ServerHttpSecurity http) {
-	    return http
+	    http
 	        .csrf(csrf -> csrf.disable())
 	        .authorizeExchange(exchanges -> exchanges
-	            .pathMatchers(
-	                "/v3/api-docs/**",
-	                "/webjars/**", 
-	                "/swagger-ui/**",
-	                "/v1/api/auth/register", "/v1/api/auth/token"
-	            ).permitAll()
+	            .pathMatchers(PublicPaths.PATTERNS).permitAll()
 	            .anyExchange().authenticated()
 	        )
 	        .httpBasic(httpBasic -> httpBasic.disable())
 	        .formLogin(formLogin -> formLogin.disable())
-	        .addFilterAt(jwtAuthenticationFilter, SecurityWebFiltersOrder.AUTHENTICATION)
-	        .build();
+	        .addFilterAt(new JwtAuthenticationFilter(jwtAuthenticationManager, errorResponseWriter), SecurityWebFiltersOrder.AUTHENTICATION);
+	    rateLimiter.ifAvailable(limiter -> http
+	        .addFilterAfter(new RateLimitFilter(limiter, errorResponseWriter), SecurityWebFiltersOrder.AUTHENTICATION));
+	    requestDeadlines.ifAvailable(deadlines -> http
+	        .addFilterAt(new DeadlineFilter(deadlines), SecurityWebFiltersOrder.FIRST));
+	    concurrencyLimiter.ifAvailable(limiter -> http
+	        .addFilterAt(new AdaptiveAdmissionFilter(limiter, errorResponseWriter), SecurityWebFiltersOrder.FIRST));
+	    workloadIsolation.ifAvailable(isolation -> http
+	        .addFilterAfter(new WorkloadIsolationFilter(isolation, errorResponseWriter), SecurityWebFiltersOrder.FIRST));
+	    return http.build();
 	}
 	
 	@Bean
-	public ErrorWebExceptionHandler errorWebExceptionHandler(ObjectMapper objectMapper) {
-	    return new GlobalExceptionHandler(objectMapper);
+	public ErrorWebExceptionHandler errorWebExceptionHandler() {
+	    return new GlobalExceptionHandler(errorResponseWriter);
 	}
 }
\ No newline at end of file
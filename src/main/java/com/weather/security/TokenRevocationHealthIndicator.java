@@ -0,0 +1,27 @@
+package com.weather.security;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Reports {@code OUT_OF_SERVICE} until the {@link TokenRevocationRegistry} has
+ * been seeded, so an instance that does not know the revoked users yet stays
+ * out of rotation. Part of the readiness group as {@code tokenRevocation}.
+ */
+@Component
+@RequiredArgsConstructor
+public class TokenRevocationHealthIndicator implements HealthIndicator {
+
+	private final TokenRevocationService revocationService;
+
+	@Override
+	public Health health() {
+		if (revocationService.isLoaded()) {
+			return Health.up().build();
+		}
+		return Health.outOfService().withDetail("reason", "Revocation entries not loaded yet").build();
+	}
+}
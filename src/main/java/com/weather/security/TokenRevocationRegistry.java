@@ -0,0 +1,131 @@
+package com.weather.security;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Component;
+
+import com.weather.utils.BloomFilter;
+
+/**
+ * In-memory set of deactivated usernames and revoked token IDs ({@code jti}),
+ * consulted on every authenticated request.
+ *
+ * <p>
+ * The hot path is {@link #isRevoked(String, String)}. Almost every request
+ * belongs to an active user with a live token, so a {@link BloomFilter} answers
+ * first: a negative answer (the common case) costs a few array reads and no
+ * allocation. Only a positive answer falls through to the authoritative
+ * concurrent sets. Writes are rare administrative operations and are
+ * serialized; the filter is rebuilt whenever an entry is removed because Bloom
+ * filters cannot delete.
+ * </p>
+ *
+ * <p>
+ * This class only holds local state. {@link TokenRevocationService} applies
+ * changes here and broadcasts them to the other instances.
+ * </p>
+ */
+@Component
+public class TokenRevocationRegistry {
+
+	private static final int EXPECTED_ENTRIES = 100_000;
+	private static final double FALSE_POSITIVE_RATE = 0.01;
+
+	private final Set<String> revokedUsers = ConcurrentHashMap.newKeySet();
+	private final Map<String, Long> revokedTokens = new ConcurrentHashMap<>();
+	private volatile BloomFilter filter = newFilter();
+
+	/**
+	 * Checks whether the user is deactivated or the token has been revoked.
+	 *
+	 * @param username the token subject
+	 * @param tokenId  the token {@code jti}, may be {@code null}
+	 * @return {@code true} if the request must be rejected
+	 */
+	public boolean isRevoked(String username, String tokenId) {
+		BloomFilter current = filter;
+		boolean userCandidate = username != null && current.mightContain(username);
+		boolean tokenCandidate = tokenId != null && current.mightContain(tokenId);
+		if (!userCandidate && !tokenCandidate) {
+			return false;
+		}
+		return (userCandidate && revokedUsers.contains(username))
+				|| (tokenCandidate && isTokenRevoked(tokenId));
+	}
+
+	/**
+	 * Marks every token of the user as revoked.
+	 *
+	 * @param username the deactivated user
+	 */
+	public synchronized void revokeUser(String username) {
+		if (revokedUsers.add(username)) {
+			filter.put(username);
+		}
+	}
+
+	/**
+	 * Lifts a user revocation, e.g. after re-activation.
+	 *
+	 * @param username the re-activated user
+	 */
+	public synchronized void restoreUser(String username) {
+		if (revokedUsers.remove(username)) {
+			rebuildFilter();
+		}
+	}
+
+	/**
+	 * Revokes a single token until its natural expiry.
+	 *
+	 * @param tokenId   the token {@code jti}
+	 * @param expiresAt the token expiry in epoch milliseconds
+	 */
+	public synchronized void revokeToken(String tokenId, long expiresAt) {
+		if (expiresAt <= System.currentTimeMillis()) {
+			return;
+		}
+		revokedTokens.put(tokenId, expiresAt);
+		filter.put(tokenId);
+		purgeExpiredTokens();
+	}
+
+	/**
+	 * @return the number of deactivated users currently tracked
+	 */
+	public int revokedUserCount() {
+		return revokedUsers.size();
+	}
+
+	/**
+	 * @return the number of revoked tokens currently tracked
+	 */
+	public int revokedTokenCount() {
+		return revokedTokens.size();
+	}
+
+	private boolean isTokenRevoked(String tokenId) {
+		Long expiresAt = revokedTokens.get(tokenId);
+		return expiresAt != null && expiresAt > System.currentTimeMillis();
+	}
+
+	private void purgeExpiredTokens() {
+		long now = System.currentTimeMillis();
+		if (revokedTokens.values().removeIf(expiresAt -> expiresAt <= now)) {
+			rebuildFilter();
+		}
+	}
+
+	private void rebuildFilter() {
+		BloomFilter rebuilt = newFilter();
+		revokedUsers.forEach(rebuilt::put);
+		revokedTokens.keySet().forEach(rebuilt::put);
+		filter = rebuilt;
+	}
+
+	private static BloomFilter newFilter() {
+		return new BloomFilter(EXPECTED_ENTRIES, FALSE_POSITIVE_RATE);
+	}
+}
@@ -0,0 +1,141 @@
+package com.weather.security;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.weather.model.User;
+import com.weather.repository.UserRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+/**
+ * Applies revocation changes to the local {@link TokenRevocationRegistry} and
+ * broadcasts them to the other instances when a {@link RevocationBroadcaster}
+ * is configured.
+ *
+ * <p>
+ * The local change is applied before publishing, so the instance handling the
+ * deactivation rejects the user's tokens immediately even if the broadcast
+ * fails. On startup the registry is seeded with every inactive user from
+ * MongoDB and every still-valid token revocation known to the broadcaster.
+ * </p>
+ *
+ * <p>
+ * An instance with an unseeded registry would accept the tokens of every
+ * deactivated user, so a failed or timed-out load is retried with exponential
+ * back-off until it succeeds, and {@link TokenRevocationHealthIndicator} keeps
+ * the instance out of readiness meanwhile.
+ * </p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TokenRevocationService implements DisposableBean {
+
+	private static final Duration STARTUP_LOAD_TIMEOUT = Duration.ofSeconds(10);
+	private static final Duration RETRY_MIN_BACKOFF = Duration.ofSeconds(1);
+	private static final Duration RETRY_MAX_BACKOFF = Duration.ofSeconds(30);
+
+	private final TokenRevocationRegistry registry;
+	private final UserRepository userRepository;
+	private final ObjectProvider<RevocationBroadcaster> broadcaster;
+	private volatile boolean loaded;
+	private volatile Disposable loading;
+
+	/**
+	 * Revokes every token of a deactivated user.
+	 *
+	 * @param username the deactivated user
+	 * @return a {@link Mono} completing once the change is applied and published
+	 */
+	public Mono<Void> revokeUser(String username) {
+		return apply(RevocationEvent.userRevoked(username));
+	}
+
+	/**
+	 * Lifts the revocation of a re-activated user.
+	 *
+	 * @param username the re-activated user
+	 * @return a {@link Mono} completing once the change is applied and published
+	 */
+	public Mono<Void> restoreUser(String username) {
+		return apply(RevocationEvent.userRestored(username));
+	}
+
+	/**
+	 * Revokes a single token until it expires.
+	 *
+	 * @param tokenId   the token {@code jti}
+	 * @param expiresAt the token expiry in epoch milliseconds
+	 * @return a {@link Mono} completing once the change is applied and published
+	 */
+	public Mono<Void> revokeToken(String tokenId, long expiresAt) {
+		return apply(RevocationEvent.tokenRevoked(tokenId, expiresAt));
+	}
+
+	/**
+	 * Starts seeding the registry once the context is refreshed, alongside the
+	 * warm-up and before the instance reports ready.
+	 */
+	@EventListener(ApplicationStartedEvent.class)
+	public void loadRevocations() {
+		Flux<RevocationEvent> inactiveUsers = Flux.defer(() -> userRepository.findByActiveFalse())
+				.map(User::getUsername)
+				.map(RevocationEvent::userRevoked);
+		Flux<RevocationEvent> revokedTokens = Flux.defer(() -> {
+			RevocationBroadcaster available = broadcaster.getIfAvailable();
+			return available == null ? Flux.empty() : available.activeTokenRevocations();
+		});
+
+		loading = Flux.concat(inactiveUsers, revokedTokens)
+				.doOnNext(event -> event.applyTo(registry))
+				.count()
+				.timeout(STARTUP_LOAD_TIMEOUT)
+				.doOnError(ex -> log.warn("Could not load revocation entries, retrying: {}", ex.toString()))
+				.retryWhen(Retry.backoff(Long.MAX_VALUE, RETRY_MIN_BACKOFF).maxBackoff(RETRY_MAX_BACKOFF))
+				.subscribe(count -> {
+					loaded = true;
+					log.info("Loaded {} revocation entries", count);
+				});
+	}
+
+	/**
+	 * @return {@code true} once the registry has been seeded
+	 */
+	public boolean isLoaded() {
+		return loaded;
+	}
+
+	@Override
+	public void destroy() {
+		Disposable current = loading;
+		if (current != null) {
+			current.dispose();
+		}
+	}
+
+	private Mono<Void> apply(RevocationEvent event) {
+		return Mono.defer(() -> {
+			event.applyTo(registry);
+			RevocationBroadcaster available = broadcaster.getIfAvailable();
+			if (available == null) {
+				return Mono.empty();
+			}
+			return available.publish(event)
+					.onErrorResume(ex -> {
+						log.warn("Failed to broadcast revocation event {}: {}", event.getType(), ex.getMessage());
+						return Mono.empty();
+					});
+		});
+	}
+}
@@ -2,7 +2,6 @@ package com.weather.service.impl;
 
 import java.util.Collections;
 
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import com.weather.dto.UserRegistrationRequest;
@@ -11,6 +10,8 @@ import com.weather.exception.UserAlreadyExistsException;
 import com.weather.exception.UserNotFoundException;
 import com.weather.model.User;
 import com.weather.repository.UserRepository;
+import com.weather.security.PasswordHashingService;
+import com.weather.security.TokenRevocationService;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -27,7 +28,8 @@ public class UserServiceImpl implements UserService {
 
 	public static final String ROLE_USER = "ROLE_USER";
 	private final UserRepository userRepository;
-	private final PasswordEncoder passwordEncoder;
+	private final PasswordHashingService passwordHashingService;
+	private final TokenRevocationService tokenRevocationService;
 
 	/**
 	 * Registers a new user with the given details.
@@ -41,21 +43,24 @@ public class UserServiceImpl implements UserService {
 		return userRepository.findByUsername(request.getUsername())
 				.flatMap(existingUser -> Mono.<User>error(
 						new UserAlreadyExistsException("Username already exists: " + request.getUsername())))
-				.switchIfEmpty(Mono.defer(() -> {
-					User newUser = new User();
-					newUser.setUsername(request.getUsername());
-					newUser.setPassword(passwordEncoder.encode(request.getPassword()));
-					newUser.setPostalCode(request.getPostalCode());
-					newUser.setActive(true);
-					newUser.setRoles(Collections.singletonList(ROLE_USER));
+				.switchIfEmpty(Mono.defer(() -> passwordHashingService.encode(request.getPassword())
+						.flatMap(encodedPassword -> {
+							User newUser = new User();
+							newUser.setUsername(request.getUsername());
+							newUser.setPassword(encodedPassword);
+							newUser.setPostalCode(request.getPostalCode());
+							newUser.setActive(true);
+							newUser.setRoles(Collections.singletonList(ROLE_USER));
 
-					return userRepository.save(newUser);
-				})).doOnSuccess(user -> log.info("Created new user: {}", user.getUsername()))
+							return userRepository.save(newUser);
+						}))).doOnSuccess(user -> log.info("Created new user: {}", user.getUsername()))
 				.doOnError(error -> log.error("Error creating user: {}", error.getMessage()));
 	}
 
 	/**
-	 * Authenticates a user by verifying their username and password.
+	 * Authenticates a user by verifying their username and password. When
+	 * transparent rehashing is enabled and the stored hash uses an outdated cost,
+	 * the password is re-encoded and saved; a failed rehash never fails the login.
 	 *
 	 * @param username The username of the user.
 	 * @param password The plain-text password to be verified.
@@ -65,8 +70,34 @@ public class UserServiceImpl implements UserService {
 	@Override
 	public Mono<User> authenticate(String username, String password) {
 		return userRepository.findByUsername(username)
-	            .filter(user -> passwordEncoder.matches(password, user.getPassword()))
-	            .switchIfEmpty(Mono.error(new InvalidCredentialsException("Invalid username or password")));
+	            .filterWhen(user -> passwordHashingService.matches(password, user.getPassword()))
+	            .switchIfEmpty(Mono.error(new InvalidCredentialsException("Invalid username or password")))
+	            .flatMap(user -> rehashIfNeeded(user, password));
+	}
+
+	/**
+	 * Re-encodes the password with the currently configured cost if required.
+	 *
+	 * @param user     The authenticated user.
+	 * @param password The verified plain-text password.
+	 * @return A {@link Mono} emitting the (possibly updated) {@link User}.
+	 */
+	private Mono<User> rehashIfNeeded(User user, String password) {
+		if (!passwordHashingService.needsRehash(user.getPassword())) {
+			return Mono.just(user);
+		}
+		String previousPassword = user.getPassword();
+		return passwordHashingService.encode(password)
+				.flatMap(encodedPassword -> {
+					user.setPassword(encodedPassword);
+					return userRepository.save(user);
+				})
+				.doOnSuccess(saved -> log.info("Rehashed password for user: {}", user.getUsername()))
+				.onErrorResume(error -> {
+					log.warn("Password rehash failed for user {}: {}", user.getUsername(), error.getMessage());
+					user.setPassword(previousPassword);
+					return Mono.just(user);
+				});
 	}
 
 	/**
@@ -83,7 +114,8 @@ public class UserServiceImpl implements UserService {
 	}
 
 	/**
-	 * Activates a user account by setting the active flag to true.
+	 * Activates a user account by setting the active flag to true and lifting
+	 * the revocation of its tokens.
 	 *
 	 * @param username The username of the user to activate.
 	 * @return A {@link Mono} emitting the updated {@link User} upon successful activation.
@@ -95,11 +127,13 @@ public class UserServiceImpl implements UserService {
 				.switchIfEmpty(Mono.error(new UserNotFoundException("User not found: " + username))).flatMap(user -> {
 					user.setActive(true);
 					return userRepository.save(user);
-				}).doOnSuccess(user -> log.info("Activated user: {}", username));
+				}).flatMap(user -> tokenRevocationService.restoreUser(username).thenReturn(user))
+				.doOnSuccess(user -> log.info("Activated user: {}", username));
 	}
 
 	/**
-	 * Deactivates a user account by setting the active flag to false.
+	 * Deactivates a user account by setting the active flag to false. Every
+	 * token already issued to the user is revoked immediately.
 	 *
 	 * @param username The username of the user to deactivate.
 	 * @return A {@link Mono} emitting the updated {@link User} upon successful deactivation.
@@ -111,6 +145,7 @@ public class UserServiceImpl implements UserService {
 				.switchIfEmpty(Mono.error(new UserNotFoundException("User not found: " + username))).flatMap(user -> {
 					user.setActive(false);
 					return userRepository.save(user);
-				}).doOnSuccess(user -> log.info("Deactivated user: {}", username));
+				}).flatMap(user -> tokenRevocationService.revokeUser(username).thenReturn(user))
+				.doOnSuccess(user -> log.info("Deactivated user: {}", username));
 	}
 }
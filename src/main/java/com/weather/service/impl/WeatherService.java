@@ -28,4 +28,20 @@ public interface WeatherService {
 	 * @return
 	 */
 	Mono<WeatherResponse> getHistoryByUsername(String username);
+
+	/**
+	 * Computes the entity tag of the postal-code history without reading it.
+	 *
+	 * @param postalCode the postal code
+	 * @return the tag value as produced by {@link com.weather.utils.HistoryETag}
+	 */
+	Mono<String> getHistoryETagByPostalCode(String postalCode);
+
+	/**
+	 * Computes the entity tag of the user history without reading it.
+	 *
+	 * @param username the username
+	 * @return the tag value as produced by {@link com.weather.utils.HistoryETag}
+	 */
+	Mono<String> getHistoryETagByUsername(String username);
 }
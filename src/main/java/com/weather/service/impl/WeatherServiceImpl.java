@@ -4,6 +4,7 @@ package com.weather.service.impl;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
 
 import com.weather.exception.*;
 import org.springframework.http.HttpMethod;
@@ -12,17 +13,29 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.ReactiveSecurityContextHolder;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 
 import com.mongodb.MongoException;
+import com.weather.deadline.Deadline;
+import com.weather.deadline.DeadlineExceededException;
+import com.weather.diagnostics.jfr.JfrEvents;
+import com.weather.diagnostics.jfr.MongoOperationEvent;
 import com.weather.dto.Coordinates;
 import com.weather.dto.WeatherInfo;
 import com.weather.dto.WeatherRequest;
 import com.weather.dto.WeatherResponse;
+import com.weather.metrics.WeatherPipelineMetrics;
+import com.weather.metrics.WeatherPipelineMetrics.Stage;
+import com.weather.model.HistoryVersion;
 import com.weather.model.WeatherData;
 import com.weather.repository.WeatherDataRepository;
+import com.weather.utils.DegradationProperties;
+import com.weather.utils.HistoryETag;
+import com.weather.utils.WeatherHistoryMapper;
 import com.weather.utils.WeatherServiceProperties;
 import com.weather.utils.WeatherServiceUriUtil;
+import com.weather.webclient.RetryPolicy;
 import com.weather.webclient.WebClientService;
 
 import lombok.RequiredArgsConstructor;
@@ -39,13 +52,38 @@ import reactor.core.publisher.Mono;
 public class WeatherServiceImpl implements WeatherService {
 
 	public static final String REGEX = "^\\d{5}$";
+	private static final String SAVE_OPERATION = "save";
+	private static final String HISTORY_BY_POSTAL_CODE_OPERATION = "findByPostalCode";
+	private static final String HISTORY_BY_USERNAME_OPERATION = "findByUsername";
+	private static final String HISTORY_VERSION_BY_POSTAL_CODE_OPERATION = "historyVersionByPostalCode";
+	private static final String HISTORY_VERSION_BY_USERNAME_OPERATION = "historyVersionByUsername";
+	private static final String LATEST_BY_POSTAL_CODE_OPERATION = "latestByPostalCode";
+	private static final String GEOCODE_STAGE = "geocode";
+	private static final String WEATHER_STAGE = "weather";
+	private static final String SAVE_STAGE = "save";
+	private static final String HISTORY_STAGE = "history";
+	private static final String FALLBACK_STAGE = "fallback";
+	private static final Set<String> UPSTREAM_STAGES = Set.of(GEOCODE_STAGE, WEATHER_STAGE, RetryPolicy.RETRY_STAGE);
 	private final WeatherServiceProperties weatherServiceProperties;
 	private final WebClientService webClientService;
 	private final WeatherDataRepository weatherDataRepository;
 	private final WeatherServiceUriUtil weatherServiceUriUtil;
+	private final WeatherPipelineMetrics pipelineMetrics;
+	private final DegradationProperties degradationProperties;
 
 	/**
 	 * Fetches weather data based on the given request.
+	 * Each stage, and the pipeline as a whole, is timed by {@link WeatherPipelineMetrics}.
+	 * The save is also recorded as a {@link MongoOperationEvent} for JFR.
+	 * If OpenWeather fails, the latest stored observation of the postal code is
+	 * returned instead, marked {@link WeatherData#isStale() stale}, as long as it
+	 * is within the configured {@link DegradationProperties#getMaxAge() maximum age}.
+	 * The OpenWeather calls and Mongo operations are each bounded by the
+	 * {@link Deadline} of the request; a stage the remaining time cannot cover
+	 * fails with a {@link DeadlineExceededException} without being started.
+	 * The OpenWeather calls leave the budget of the fallback over, and running
+	 * out of time in them counts as an OpenWeather failure, so a hanging
+	 * OpenWeather is still answered with the stored observation.
 	 *
 	 * @param request The {@link WeatherRequest} containing the postal code and username.
 	 * @return A {@link Mono} emitting the saved {@link WeatherData}.
@@ -54,19 +92,77 @@ public class WeatherServiceImpl implements WeatherService {
 	 * @throws DatabaseException       If saving data to the database fails.
 	 */
 	public Mono<WeatherData> getWeatherData(WeatherRequest request) {
-		return validateUserAccess(request)
-				.then(validateRequest(request))
-				.then(getCoordinates(request))
-				.flatMap(this::getWeatherDetails)
+		Mono<WeatherData> collected = pipelineMetrics.time(Stage.GET_COORDINATES,
+						Deadline.bound(GEOCODE_STAGE, FALLBACK_STAGE, getCoordinates(request)))
+				.flatMap(coordinates -> pipelineMetrics.time(Stage.GET_WEATHER_DETAILS,
+						Deadline.bound(WEATHER_STAGE, FALLBACK_STAGE, getWeatherDetails(coordinates))))
 				.map(weatherData -> {
 					mapMetaData(request, weatherData);
 					return weatherData;
-				}).flatMap(weatherDataRepository::save)
+				}).flatMap(weatherData -> pipelineMetrics.time(Stage.SAVE, saveWeatherData(weatherData)));
+		Mono<WeatherData> pipeline = pipelineMetrics.time(Stage.VALIDATE_USER_ACCESS, validateUserAccess(request))
+				.then(pipelineMetrics.time(Stage.VALIDATE_REQUEST, validateRequest(request)))
+				.then(collected.onErrorResume(this::isUpstreamFailure, ex -> staleWeatherData(request, ex)))
 				.onErrorMap(WebClientResponseException.class,
 						ex -> new WeatherServiceException("Failed to fetch weather data: " + ex.getMessage(), ex))
 				.onErrorMap(MongoException.class,
 						ex -> new DatabaseException("Database error while saving weather data", ex))
 				.doOnError(ex -> log.error("Error processing weather request: {}", ex.getMessage()));
+		return pipelineMetrics.time(Stage.TOTAL, pipeline);
+	}
+
+	/**
+	 * @param ex the error raised while calling OpenWeather
+	 * @return {@code true} if OpenWeather failed, could not be reached or did
+	 *         not answer in time, as opposed to reporting an unknown location
+	 */
+	private boolean isUpstreamFailure(Throwable ex) {
+		return degradationProperties.isEnabled()
+				&& (ex instanceof WeatherServiceException || ex instanceof WebClientRequestException
+						|| ex instanceof DeadlineExceededException deadlineExceeded
+								&& UPSTREAM_STAGES.contains(deadlineExceeded.getStage()));
+	}
+
+	/**
+	 * Falls back to the latest stored observation of the requested postal code.
+	 * The observation is read through the {@code postalCode_requestTime} index
+	 * and is not saved again. It may have been collected by another user, so
+	 * the returned copy carries the requester's username and postal code and no
+	 * document ID; its request time stays that of the observation, which the
+	 * {@code Age} header is derived from.
+	 *
+	 * @param request The request that could not be served from OpenWeather.
+	 * @param failure The upstream error, propagated if no observation is recent enough.
+	 * @return A {@link Mono} emitting the stored observation, marked stale.
+	 */
+	private Mono<WeatherData> staleWeatherData(WeatherRequest request, Throwable failure) {
+		LocalDateTime oldest = LocalDateTime.now().minus(degradationProperties.getMaxAge());
+		return Deadline.boundReserved(FALLBACK_STAGE, JfrEvents.record(() -> new MongoOperationEvent(LATEST_BY_POSTAL_CODE_OPERATION),
+				weatherDataRepository.findFirstByPostalCodeAndRequestTimeGreaterThanEqualOrderByRequestTimeDesc(
+						request.getPostalCode(), oldest),
+				(event, latest) -> event.setDocuments(1)))
+				.onErrorResume(MongoException.class, ex -> {
+					failure.addSuppressed(ex);
+					return Mono.empty();
+				})
+				.doOnNext(latest -> {
+					latest.setUuid(null);
+					latest.setUsername(request.getUsername());
+					latest.setPostalCode(request.getPostalCode());
+					latest.setStale(true);
+					pipelineMetrics.recordFallback(true);
+					log.warn("OpenWeather unavailable, serving observation of {} from {}: {}",
+							request.getPostalCode(), latest.getRequestTime(), failure.getMessage());
+				})
+				.switchIfEmpty(Mono.defer(() -> {
+					pipelineMetrics.recordFallback(false);
+					return Mono.error(failure);
+				}));
+	}
+
+	private Mono<WeatherData> saveWeatherData(WeatherData weatherData) {
+		return Deadline.bound(SAVE_STAGE, JfrEvents.record(() -> new MongoOperationEvent(SAVE_OPERATION),
+				weatherDataRepository.save(weatherData), (event, saved) -> event.setDocuments(1)));
 	}
 
 	private Mono<Void> validateUserAccess(WeatherRequest request) {
@@ -120,7 +216,7 @@ public class WeatherServiceImpl implements WeatherService {
 	 */
 	private Mono<Coordinates> getCoordinates(WeatherRequest request) {
 		return webClientService.executeRequest(weatherServiceProperties.getUrl(),
-				weatherServiceUriUtil.prepareGeoCoordinatesUri(request.getPostalCode()), "", HttpMethod.GET,
+				weatherServiceUriUtil.prepareGeoCoordinatesUri(request.getPostalCode()), HttpMethod.GET,
 				Coordinates.class).onErrorMap(WebClientResponseException.class, ex -> {
 					if (ex.getStatusCode() == HttpStatus.NOT_FOUND) {
 						return new ResourceNotFoundException(
@@ -141,7 +237,7 @@ public class WeatherServiceImpl implements WeatherService {
 	private Mono<WeatherData> getWeatherDetails(Coordinates coordinates) {
 		return webClientService
 				.executeRequest(weatherServiceProperties.getUrl(),
-						weatherServiceUriUtil.prepareWeatherDataUri(coordinates), "", HttpMethod.GET, WeatherData.class)
+						weatherServiceUriUtil.prepareWeatherDataUri(coordinates), HttpMethod.GET, WeatherData.class)
 				.onErrorMap(WebClientResponseException.class, ex -> {
 					if (ex.getStatusCode() == HttpStatus.NOT_FOUND) {
 						return new ResourceNotFoundException(
@@ -159,11 +255,11 @@ public class WeatherServiceImpl implements WeatherService {
 	 */
 	@Override
 	public Mono<WeatherResponse> getHistoryByPostalCode(String postalCode) {
-	    return weatherDataRepository.findByPostalCodeOrderByRequestTimeDesc(postalCode)
-	        .map(this::convertToWeatherInfo)
-	        .collectList()
+	    return recordHistoryQuery(HISTORY_BY_POSTAL_CODE_OPERATION, weatherDataRepository.findByPostalCodeOrderByRequestTimeDesc(postalCode)
+	        .map(WeatherHistoryMapper::toWeatherInfo)
+	        .collectList())
 	        .map(historyList -> {
-	            return mapWeatherResponse(postalCode, null, historyList);
+	            return WeatherHistoryMapper.toResponse(postalCode, null, historyList);
 	        });
 	}
 
@@ -175,39 +271,33 @@ public class WeatherServiceImpl implements WeatherService {
 	 */
 	@Override
 	public Mono<WeatherResponse> getHistoryByUsername(String username) {
-		return weatherDataRepository.findByUsernameOrderByRequestTimeDesc(username)
-				.map(this::convertToWeatherInfo)
-				.collectList().map(historyList -> {
-					return mapWeatherResponse(null ,username, historyList);
+		return recordHistoryQuery(HISTORY_BY_USERNAME_OPERATION, weatherDataRepository.findByUsernameOrderByRequestTimeDesc(username)
+				.map(WeatherHistoryMapper::toWeatherInfo)
+				.collectList()).map(historyList -> {
+					return WeatherHistoryMapper.toResponse(null ,username, historyList);
 				});
 	}
 
-	private WeatherResponse mapWeatherResponse(String postalCode, String username, List<WeatherInfo> historyList) {
-		WeatherResponse response = new WeatherResponse();
-		response.setPostalCode(postalCode);
-		response.setUsername(username);
-		response.setTimestamp(LocalDateTime.now());
-
-		if (!historyList.isEmpty()) {
-			WeatherInfo currentInfo = historyList.get(0);
-			response.setCurrent(currentInfo);
-			response.setUsername(currentInfo.getUsername());
-		}
-		response.setHistory(historyList);
-		return response;
+	@Override
+	public Mono<String> getHistoryETagByPostalCode(String postalCode) {
+		return historyETag(HISTORY_VERSION_BY_POSTAL_CODE_OPERATION,
+				weatherDataRepository.findHistoryVersionByPostalCode(postalCode));
+	}
+
+	@Override
+	public Mono<String> getHistoryETagByUsername(String username) {
+		return historyETag(HISTORY_VERSION_BY_USERNAME_OPERATION,
+				weatherDataRepository.findHistoryVersionByUsername(username));
+	}
+
+	private Mono<String> historyETag(String operation, Mono<HistoryVersion> version) {
+		return Deadline.bound(HISTORY_STAGE, JfrEvents.record(() -> new MongoOperationEvent(operation), version))
+				.map(HistoryETag::of)
+				.defaultIfEmpty(HistoryETag.EMPTY);
 	}
 
-	private WeatherInfo convertToWeatherInfo(WeatherData weatherData) {
-		return WeatherInfo.builder()
-				.timestamp(weatherData.getRequestTime())
-				.temperature(weatherData.getMain().getTemp())
-				.feelsLike(weatherData.getMain().getFeelsLike())
-				.humidity(weatherData.getMain().getHumidity())
-				.description(weatherData.getWeather().get(0).getDescription())
-				.windSpeed(weatherData.getWind().getSpeed())
-				.conditions(weatherData.getWeather().get(0).getMain())
-				.username(weatherData.getUsername())
-				.postalCode(weatherData.getPostalCode())
-				.build();
+	private Mono<List<WeatherInfo>> recordHistoryQuery(String operation, Mono<List<WeatherInfo>> query) {
+		return Deadline.bound(HISTORY_STAGE, JfrEvents.record(() -> new MongoOperationEvent(operation), query,
+				(event, history) -> event.setDocuments(history.size())));
 	}
 }
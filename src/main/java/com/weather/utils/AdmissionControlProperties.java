@@ -0,0 +1,37 @@
+package com.weather.utils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "admission-control")
+public class AdmissionControlProperties {
+
+	/** Rejects requests above an adaptive concurrency limit with 503. */
+	private boolean enabled = true;
+	/** Path patterns of the requests subject to admission control. */
+	private List<String> patterns = new ArrayList<>(List.of("/v1/api/**"));
+	/** Concurrency limit before any latency has been observed. */
+	private int initialLimit = 64;
+	/** Floor of the limit, kept even under sustained overload. */
+	private int minLimit = 8;
+	/** Ceiling of the limit. */
+	private int maxLimit = 1024;
+	/** Time between two limit updates; latencies are averaged over this window. */
+	private Duration updateInterval = Duration.ofMillis(250);
+	/** Factor by which recent latency may exceed the long-term baseline before the limit shrinks. */
+	private double latencyTolerance = 1.5;
+	/** Weight of a new limit estimate against the current limit, between 0 and 1. */
+	private double smoothing = 0.2;
+	/** Event-loop lag above which the limit shrinks regardless of latency. */
+	private Duration maxEventLoopLag = Duration.ofMillis(50);
+	/** Factor applied to the limit while the event-loop lag is above {@link #maxEventLoopLag}. */
+	private double lagBackoff = 0.8;
+}
@@ -0,0 +1,95 @@
+package com.weather.utils;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Minimal lock-free Bloom filter over strings.
+ *
+ * <p>
+ * Bits live in an {@link AtomicLongArray}, so concurrent {@link #put} and
+ * {@link #mightContain} calls need no locking. The {@code k} probe positions
+ * are derived from two 32-bit hashes using the Kirsch-Mitzenmacher scheme; the
+ * first hash is {@link String#hashCode()}, which the JVM caches on the string.
+ * A negative answer is definitive, a positive one must be confirmed by the
+ * caller against the authoritative set. Elements cannot be removed; rebuild
+ * the filter instead.
+ * </p>
+ */
+public class BloomFilter {
+
+	private final AtomicLongArray bits;
+	private final int bitCount;
+	private final int hashCount;
+
+	/**
+	 * Creates a filter sized for the expected number of insertions at the given
+	 * false-positive probability.
+	 *
+	 * @param expectedInsertions number of elements the filter is sized for
+	 * @param falsePositiveRate  target false-positive probability, e.g. 0.01
+	 */
+	public BloomFilter(int expectedInsertions, double falsePositiveRate) {
+		int insertions = Math.max(1, expectedInsertions);
+		long optimalBits = (long) Math.ceil(-insertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+		this.bitCount = (int) Math.min(Integer.MAX_VALUE - 63, Math.max(64, optimalBits));
+		this.hashCount = Math.max(1, (int) Math.round((double) bitCount / insertions * Math.log(2)));
+		this.bits = new AtomicLongArray((bitCount + 63) >>> 6);
+	}
+
+	/**
+	 * Adds the value to the filter.
+	 *
+	 * @param value the value to add
+	 */
+	public void put(String value) {
+		int h1 = value.hashCode();
+		int h2 = mix(h1);
+		for (int i = 0; i < hashCount; i++) {
+			int bit = index(h1 + i * h2);
+			int word = bit >>> 6;
+			long mask = 1L << bit;
+			long current;
+			do {
+				current = bits.get(word);
+				if ((current & mask) != 0) {
+					break;
+				}
+			} while (!bits.compareAndSet(word, current, current | mask));
+		}
+	}
+
+	/**
+	 * Checks whether the value may have been added.
+	 *
+	 * @param value the value to test
+	 * @return {@code false} if the value was definitely never added
+	 */
+	public boolean mightContain(String value) {
+		int h1 = value.hashCode();
+		int h2 = mix(h1);
+		for (int i = 0; i < hashCount; i++) {
+			int bit = index(h1 + i * h2);
+			if ((bits.get(bit >>> 6) & (1L << bit)) == 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private int index(int hash) {
+		return (hash & Integer.MAX_VALUE) % bitCount;
+	}
+
+	/**
+	 * Murmur3 finalizer, used to derive an independent second hash.
+	 */
+	private static int mix(int hash) {
+		int h = hash;
+		h ^= h >>> 16;
+		h *= 0x85ebca6b;
+		h ^= h >>> 13;
+		h *= 0xc2b2ae35;
+		h ^= h >>> 16;
+		return h | 1;
+	}
+}
@@ -0,0 +1,46 @@
+package com.weather.utils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "deadline")
+public class DeadlineProperties {
+
+	/** Gives every request a deadline its stages are checked against. */
+	private boolean enabled = true;
+	/** Request header carrying the client's timeout in milliseconds; capped at {@link #maxTimeout}. */
+	private String header = "X-Request-Timeout";
+	/** Timeout of requests without the header that match no endpoint. */
+	private Duration defaultTimeout = Duration.ofSeconds(10);
+	/** Longest timeout a client can ask for. */
+	private Duration maxTimeout = Duration.ofSeconds(30);
+	/** Named endpoint defaults, matched in declaration order, used when the header is absent. */
+	private Map<String, Endpoint> endpoints = new LinkedHashMap<>();
+	/** Least remaining time worth starting a stage with; stages not listed only need time left. */
+	private Map<String, Duration> stageBudgets = new LinkedHashMap<>(Map.of(
+			"geocode", Duration.ofMillis(100),
+			"weather", Duration.ofMillis(100),
+			"retry", Duration.ofMillis(100),
+			"save", Duration.ofMillis(20),
+			"history", Duration.ofMillis(20),
+			"fallback", Duration.ofMillis(20)));
+
+	@Getter
+	@Setter
+	public static class Endpoint {
+		/** Path patterns of the requests this default applies to. */
+		private List<String> patterns = new ArrayList<>();
+		/** Timeout of these requests without the header. */
+		private Duration timeout = Duration.ofSeconds(10);
+	}
+}
@@ -0,0 +1,19 @@
+package com.weather.utils;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "degradation")
+public class DegradationProperties {
+
+	/** Answers collection requests from the latest stored observation while OpenWeather fails. */
+	private boolean enabled = true;
+	/** Oldest observation still served in place of a fresh one. */
+	private Duration maxAge = Duration.ofHours(1);
+}
@@ -0,0 +1,56 @@
+package com.weather.utils;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "diagnostics")
+public class DiagnosticsProperties {
+
+	private BlockingDetection blockingDetection = new BlockingDetection();
+	private EventLoopLag eventLoopLag = new EventLoopLag();
+	private Jfr jfr = new Jfr();
+
+	public enum Mode {
+		/** Throw {@code BlockingOperationError} from the blocking call. */
+		FAIL,
+		/** Log the blocking call with its stack trace and let it proceed. */
+		LOG
+	}
+
+	@Getter
+	@Setter
+	public static class BlockingDetection {
+		/** Installs BlockHound at startup; requires -XX:+AllowRedefinitionToAddDeleteMethods. */
+		private boolean enabled = false;
+		private Mode mode = Mode.LOG;
+	}
+
+	@Getter
+	@Setter
+	public static class EventLoopLag {
+		/** Samples the scheduling lag of every Netty event loop. */
+		private boolean enabled = true;
+		/** Time between two samples. */
+		private Duration interval = Duration.ofSeconds(1);
+	}
+
+	@Getter
+	@Setter
+	public static class Jfr {
+		/** JFR settings the on-demand recording starts from, {@code default} stays below 1% overhead. */
+		private String settings = "default";
+		/** Recording length when the request does not ask for one, and the upper bound when it does. */
+		private Duration maxDuration = Duration.ofMinutes(5);
+		/** Size after which JFR discards the oldest chunks of the recording. */
+		private DataSize maxSize = DataSize.ofMegabytes(100);
+		/** Directory the recording is written to, the system temp directory when unset. */
+		private String directory;
+	}
+}
@@ -16,4 +16,9 @@ public class ErrorConstants {
     public static final String AUTHENTICATION_FAILED = "Authentication Failed";
     public static final String UNEXPECTED_ERROR = "An unexpected error occurred";
     public static final String AUTHORIZATION_FAILED = "Authorization Failed";
+    public static final String TOO_MANY_REQUESTS = "Too Many Requests";
+    public static final String RATE_LIMIT_EXCEEDED = "Rate limit exceeded, retry later";
+    public static final String DEADLINE_EXCEEDED = "Deadline Exceeded";
+    public static final String IDEMPOTENCY_KEY_REUSED = "Idempotency key was already used for a different request";
+    public static final String REQUEST_DEADLINE_EXCEEDED = "Request could not be completed within its deadline";
 }
@@ -0,0 +1,55 @@
+package com.weather.utils;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import com.weather.dto.WeatherInfo;
+import com.weather.model.HistoryVersion;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * Entity tags of the weather history responses.
+ *
+ * <p>
+ * Observations are only ever appended, so a history is identified by its size
+ * and the request time of its newest entry. The tag can therefore be computed
+ * either from a {@link HistoryVersion} aggregated over the index, before
+ * anything is read, or from an already loaded history; both give the same
+ * value. Times are compared at millisecond precision, the precision MongoDB
+ * stores.
+ * </p>
+ */
+@UtilityClass
+public class HistoryETag {
+
+	/**
+	 * Tag of a history without observations.
+	 */
+	public static final String EMPTY = "0";
+
+	/**
+	 * @param version the aggregated history version, {@code null} if the history is empty
+	 * @return the entity tag value, without quotes
+	 */
+	public static String of(HistoryVersion version) {
+		return version == null ? EMPTY : of(version.count(), version.newest());
+	}
+
+	/**
+	 * @param history a history ordered newest first
+	 * @return the entity tag value, without quotes
+	 */
+	public static String of(List<WeatherInfo> history) {
+		return history.isEmpty() ? EMPTY : of(history.size(), history.get(0).getTimestamp());
+	}
+
+	private static String of(long count, LocalDateTime newest) {
+		if (count == 0 || newest == null) {
+			return EMPTY;
+		}
+		long newestMillis = newest.toInstant(ZoneOffset.UTC).toEpochMilli();
+		return Long.toString(count, 36) + "-" + Long.toString(newestMillis, 36);
+	}
+}
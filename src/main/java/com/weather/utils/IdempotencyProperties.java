@@ -0,0 +1,33 @@
+package com.weather.utils;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "idempotency")
+public class IdempotencyProperties {
+
+	/** Honors the Idempotency-Key header on weather collection requests. */
+	private boolean enabled = true;
+	/** How long the result of a keyed request is replayed to retries. */
+	private Duration ttl = Duration.ofHours(1);
+	/** Results the in-memory tier holds before evicting the least recently used. */
+	private int maxEntries = 10_000;
+	/** Longest accepted key. */
+	private int maxKeyLength = 255;
+	private Redis redis = new Redis();
+
+	@Getter
+	@Setter
+	public static class Redis {
+		/** Also stores results in Redis, so a retry reaching another instance is replayed too. */
+		private boolean enabled = false;
+		/** Prefix of the Redis keys holding results. */
+		private String keyPrefix = "weather:idem:";
+	}
+}
@@ -0,0 +1,27 @@
+package com.weather.utils;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "jobs")
+public class JobProperties {
+
+	/** Runs weather collection requests sent with {@code Prefer: respond-async} as background jobs. */
+	private boolean enabled = true;
+	/** Jobs run at the same time; bounds the upstream rate a burst of jobs causes. */
+	private int concurrency = 8;
+	/** Jobs waiting for a worker before submissions are rejected. */
+	private int queueCapacity = 1_000;
+	/** Deadline of a job, counted from when a worker starts it. */
+	private Duration timeout = Duration.ofSeconds(30);
+	/** How long the status and result of a finished job can be read. */
+	private Duration retention = Duration.ofHours(1);
+	/** Finished jobs kept before evicting the oldest. */
+	private int maxRetained = 10_000;
+}
@@ -0,0 +1,21 @@
+package com.weather.utils;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "security.password-hashing")
+public class PasswordHashingProperties {
+
+	/** BCrypt log rounds used for new hashes. */
+	private int strength = 10;
+	/** Maximum number of threads hashing concurrently. */
+	private int threadCap = Runtime.getRuntime().availableProcessors();
+	/** Maximum number of hashing tasks waiting for a thread before new ones are rejected. */
+	private int queueCap = 100;
+	/** Re-encode a password on successful login when its stored cost is lower than {@link #strength}. */
+	private boolean rehashOnLogin = false;
+}
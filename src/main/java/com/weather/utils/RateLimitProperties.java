@@ -0,0 +1,49 @@
+package com.weather.utils;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitProperties {
+
+	public enum Backend {
+		REDIS, MEMORY
+	}
+
+	/** Enables the per-user, per-endpoint rate limiter. */
+	private boolean enabled = true;
+	/** Where bucket state lives: REDIS for a cluster-wide limit, MEMORY for a single instance. */
+	private Backend backend = Backend.REDIS;
+	/** Prefix of the Redis keys holding bucket state. */
+	private String keyPrefix = "weather:rl:";
+	/** Maximum number of keys the local pre-check tier remembers. */
+	private int localCacheSize = 10_000;
+	/** Rule applied to requests that match none of {@link #rules}. */
+	private Rule defaultRule = new Rule();
+	/** Named rules, evaluated in declaration order; the name identifies the endpoint bucket. */
+	private Map<String, Rule> rules = new LinkedHashMap<>();
+
+	@Getter
+	@Setter
+	public static class Rule {
+		/** Path pattern the rule applies to. */
+		private String pattern = "/**";
+		/** Maximum burst size. */
+		private long capacity = 60;
+		/** Tokens added every {@link #refillPeriod}. */
+		private long refillTokens = 60;
+		private Duration refillPeriod = Duration.ofMinutes(1);
+
+		public double tokensPerMilli() {
+			return (double) refillTokens / refillPeriod.toMillis();
+		}
+	}
+}
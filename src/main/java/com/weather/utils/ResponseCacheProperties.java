@@ -0,0 +1,20 @@
+package com.weather.utils;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "response-cache")
+public class ResponseCacheProperties {
+
+	/** Serves repeated postal-code history requests from pre-encoded response bytes. */
+	private boolean enabled = true;
+	/** Upper bound on the encoded bytes held across all locations and representations. */
+	private DataSize maxSize = DataSize.ofMegabytes(64);
+	/** Encodings larger than this are served but not cached. */
+	private DataSize maxEntrySize = DataSize.ofMegabytes(1);
+}
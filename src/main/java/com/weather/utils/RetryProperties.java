@@ -0,0 +1,31 @@
+package com.weather.utils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "retry")
+public class RetryProperties {
+
+	/** Retries of one upstream call after its first attempt; 0 disables retrying. */
+	private int maxRetries = 2;
+	/** Back-off before the first retry, doubled for each further one. */
+	private Duration minBackoff = Duration.ofMillis(200);
+	/** Longest back-off between two attempts. */
+	private Duration maxBackoff = Duration.ofSeconds(2);
+	/** Share of each back-off randomized, between 0 and 1, so clients failing together do not retry together. */
+	private double jitter = 0.5;
+	/** Upstream response statuses worth retrying; other statuses are permanent failures. */
+	private List<Integer> retryableStatuses = new ArrayList<>(List.of(408, 500, 502, 503, 504));
+	/** Retries allowed per upstream call made, e.g. 0.1 for at most one retry per ten calls. */
+	private double budgetRatio = 0.1;
+	/** Retries the budget holds at most, which also allows a few retries before much traffic has been seen. */
+	private int budgetMaxTokens = 10;
+}
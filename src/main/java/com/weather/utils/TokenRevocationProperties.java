@@ -0,0 +1,25 @@
+package com.weather.utils;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "security.revocation")
+public class TokenRevocationProperties {
+
+	private Redis redis = new Redis();
+
+	@Getter
+	@Setter
+	public static class Redis {
+		/** Synchronize revocations across instances through Redis pub/sub. */
+		private boolean enabled = false;
+		/** Pub/sub channel carrying revocation events. */
+		private String channel = "weather:revocations";
+		/** Sorted set holding revoked token IDs scored by their expiry. */
+		private String tokenKey = "weather:revoked-tokens";
+	}
+}
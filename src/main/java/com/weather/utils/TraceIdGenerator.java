@@ -0,0 +1,46 @@
+package com.weather.utils;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * Generates fallback trace IDs for error responses of untraced requests.
+ *
+ * <p>
+ * {@link java.util.UUID#randomUUID()} draws from a shared
+ * {@link java.security.SecureRandom}, which contends under load and is more
+ * than a correlation ID needs. This generator uses {@link ThreadLocalRandom}
+ * and produces 32 lowercase hex characters, the same shape as a W3C trace
+ * context trace ID, so traced and untraced responses share one format.
+ * </p>
+ */
+@UtilityClass
+public class TraceIdGenerator {
+
+	private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+	/**
+	 * @return a new random, non-zero 128-bit trace ID as 32 hex characters
+	 */
+	public static String nextTraceId() {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		long high = random.nextLong();
+		long low;
+		do {
+			low = random.nextLong();
+		} while (high == 0 && low == 0);
+
+		char[] chars = new char[32];
+		writeHex(chars, 0, high);
+		writeHex(chars, 16, low);
+		return new String(chars);
+	}
+
+	private static void writeHex(char[] chars, int offset, long value) {
+		for (int i = 15; i >= 0; i--) {
+			chars[offset + i] = HEX[(int) (value & 0xF)];
+			value >>>= 4;
+		}
+	}
+}
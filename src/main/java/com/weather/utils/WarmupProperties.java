@@ -0,0 +1,27 @@
+package com.weather.utils;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "warmup")
+public class WarmupProperties {
+
+	/** Exercises the hot paths at startup, before the instance reports ready. */
+	private boolean enabled = true;
+	/** Upper bound on the whole warm-up; steps still running at the deadline are cut short. */
+	private Duration budget = Duration.ofSeconds(30);
+	/** Iterations of each in-process step (JWT validation, history mapping, codecs). */
+	private int iterations = 2000;
+	/** Observations per history mapped in the history mapping step. */
+	private int historySize = 20;
+	/** Connections opened to OpenWeather ahead of the first request. */
+	private int upstreamConnections = 4;
+	/** Minimum size of the Mongo connection pool, filled during warm-up. */
+	private int mongoConnections = 4;
+}
@@ -0,0 +1,61 @@
+package com.weather.utils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.weather.dto.WeatherInfo;
+import com.weather.dto.WeatherResponse;
+import com.weather.model.WeatherData;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * Maps stored observations to the history responses.
+ *
+ * <p>
+ * Stateless, so the startup warm-up runs exactly the code the history
+ * endpoints run, without a service instance of its own.
+ * </p>
+ */
+@UtilityClass
+public class WeatherHistoryMapper {
+
+	/**
+	 * @param weatherData a stored observation
+	 * @return the history entry of the observation
+	 */
+	public static WeatherInfo toWeatherInfo(WeatherData weatherData) {
+		return WeatherInfo.builder()
+				.timestamp(weatherData.getRequestTime())
+				.temperature(weatherData.getMain().getTemp())
+				.feelsLike(weatherData.getMain().getFeelsLike())
+				.humidity(weatherData.getMain().getHumidity())
+				.description(weatherData.getWeather().get(0).getDescription())
+				.windSpeed(weatherData.getWind().getSpeed())
+				.conditions(weatherData.getWeather().get(0).getMain())
+				.username(weatherData.getUsername())
+				.postalCode(weatherData.getPostalCode())
+				.build();
+	}
+
+	/**
+	 * @param postalCode  the requested postal code, or {@code null}
+	 * @param username    the requested username, or {@code null}
+	 * @param historyList the history, newest first
+	 * @return the history response; its username is that of the newest entry
+	 */
+	public static WeatherResponse toResponse(String postalCode, String username, List<WeatherInfo> historyList) {
+		WeatherResponse response = new WeatherResponse();
+		response.setPostalCode(postalCode);
+		response.setUsername(username);
+		response.setTimestamp(LocalDateTime.now());
+
+		if (!historyList.isEmpty()) {
+			WeatherInfo currentInfo = historyList.get(0);
+			response.setCurrent(currentInfo);
+			response.setUsername(currentInfo.getUsername());
+		}
+		response.setHistory(historyList);
+		return response;
+	}
+}
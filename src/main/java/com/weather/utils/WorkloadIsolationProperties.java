@@ -0,0 +1,42 @@
+package com.weather.utils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "workload-isolation")
+public class WorkloadIsolationProperties {
+
+	/** Gives each workload class its own concurrency limit and queue. */
+	private boolean enabled = true;
+	/** Requests, running or queued, admitted across all classes; classes are shed by their {@link Workload#shedAbove} share of it. */
+	private int capacity = 512;
+	/** Named workload classes, matched in declaration order; requests matching none are not limited. */
+	private Map<String, Workload> workloads = new LinkedHashMap<>();
+
+	@Getter
+	@Setter
+	public static class Workload {
+		/** Path patterns of the requests in this class. */
+		private List<String> patterns = new ArrayList<>();
+		/** Requests of this class processed concurrently. */
+		private int maxConcurrency = 64;
+		/** Requests of this class waiting for a slot before new ones are rejected. */
+		private int maxQueue = 128;
+		/** Longest a request waits in the queue before it is rejected. */
+		private Duration queueTimeout = Duration.ofSeconds(1);
+		/** Share of {@link WorkloadIsolationProperties#capacity} above which new requests of this class are shed; lower-priority classes use lower values. */
+		private double shedAbove = 1.0;
+		/** Threads of a dedicated scheduler the class is processed on; 0 keeps it on the event loop. */
+		private int schedulerThreads = 0;
+	}
+}
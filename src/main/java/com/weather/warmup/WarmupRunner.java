@@ -0,0 +1,310 @@
+package com.weather.warmup;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.bson.Document;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.Decoder;
+import org.springframework.core.codec.Encoder;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.DecoderHttpMessageReader;
+import org.springframework.http.codec.EncoderHttpMessageWriter;
+import org.springframework.http.codec.HttpMessageWriter;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.stereotype.Component;
+
+import com.weather.config.JacksonConfig;
+import com.weather.dto.WeatherResponse;
+import com.weather.model.WeatherData;
+import com.weather.security.JwtService;
+import com.weather.utils.WarmupProperties;
+import com.weather.utils.WeatherHistoryMapper;
+import com.weather.utils.WeatherServiceProperties;
+import com.weather.webclient.WebClientService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Warms up a fresh instance before it takes traffic.
+ *
+ * <p>
+ * A new instance is slow for its first few thousand requests: the JIT has not
+ * compiled the hot paths yet, and the Mongo and OpenWeather connections, the
+ * JWT parser and the Jackson serializers are all created on first use. This
+ * runner exercises those paths with stubbed traffic. Spring Boot runs
+ * application runners before it publishes {@code ReadinessState.ACCEPTING_TRAFFIC},
+ * so {@code /actuator/health/readiness} reports {@code OUT_OF_SERVICE} until
+ * the warm-up is over, and the load balancer keeps the instance out of
+ * rotation meanwhile. The server is already listening, so liveness probes
+ * still pass.
+ * </p>
+ *
+ * <p>
+ * The steps, in order:
+ * </p>
+ * <ul>
+ * <li>{@code jwt}: validates a token through {@link JwtService}, as the
+ * authentication filter does on every request.</li>
+ * <li>{@code history_mapping}: decodes a stored observation
+ * ({@code warmup/observation.json}) with the server's JSON decoder and maps a
+ * history of it through {@link WeatherHistoryMapper}, the code the history
+ * endpoints run.</li>
+ * <li>{@code codecs}: encodes a history with the server's JSON, CBOR and Smile
+ * encoders and decodes an observation with its JSON decoder.</li>
+ * <li>{@code upstream}: opens connections to OpenWeather, see
+ * {@link WebClientService#preconnect}.</li>
+ * <li>{@code mongo}: fills the Mongo connection pool up to its minimum size
+ * with concurrent pings.</li>
+ * </ul>
+ * <p>
+ * All steps share one time budget; a step still running at the deadline is cut
+ * short and the rest are skipped. A failing step is logged and does not keep
+ * the instance from starting. Each step is recorded in
+ * {@code weather.warmup}, tagged with {@code step} and
+ * {@code outcome=completed|budget_exceeded|failed|skipped}, and the whole run
+ * is logged as one summary line.
+ * </p>
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "warmup", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class WarmupRunner implements ApplicationRunner {
+
+	/**
+	 * How a warm-up step ended.
+	 */
+	@Getter
+	@RequiredArgsConstructor
+	public enum Outcome {
+		COMPLETED("completed"),
+		BUDGET_EXCEEDED("budget_exceeded"),
+		FAILED("failed"),
+		SKIPPED("skipped");
+
+		private final String tagValue;
+	}
+
+	private static final String WARMUP_USER = "warmup";
+	private static final String WARMUP_POSTAL_CODE = "00000";
+	private static final Document PING = new Document("ping", 1);
+	private static final ClassPathResource OBSERVATION = new ClassPathResource("warmup/observation.json");
+	private static final ResolvableType OBSERVATION_TYPE = ResolvableType.forClass(WeatherData.class);
+	private static final List<MediaType> ENCODINGS = List.of(MediaType.APPLICATION_JSON,
+			MediaType.APPLICATION_CBOR, JacksonConfig.APPLICATION_SMILE);
+
+	private final WarmupProperties properties;
+	private final JwtService jwtService;
+	private final ServerCodecConfigurer codecConfigurer;
+	private final WebClientService webClientService;
+	private final WeatherServiceProperties weatherServiceProperties;
+	private final ObjectProvider<ReactiveMongoTemplate> mongoTemplate;
+	private final MeterRegistry meterRegistry;
+
+	public WarmupRunner(WarmupProperties properties, JwtService jwtService, ServerCodecConfigurer codecConfigurer,
+			WebClientService webClientService, WeatherServiceProperties weatherServiceProperties,
+			ObjectProvider<ReactiveMongoTemplate> mongoTemplate, MeterRegistry meterRegistry) {
+		this.properties = properties;
+		this.jwtService = jwtService;
+		this.codecConfigurer = codecConfigurer;
+		this.webClientService = webClientService;
+		this.weatherServiceProperties = weatherServiceProperties;
+		this.mongoTemplate = mongoTemplate;
+		this.meterRegistry = meterRegistry;
+	}
+
+	@Override
+	public void run(ApplicationArguments args) {
+		long start = System.nanoTime();
+		long deadline = start + properties.getBudget().toNanos();
+		List<String> results = new ArrayList<>();
+		results.add(step("jwt", deadline, this::jwt));
+		results.add(step("history_mapping", deadline, this::historyMapping));
+		results.add(step("codecs", deadline, this::codecs));
+		results.add(step("upstream", deadline, this::upstream));
+		results.add(step("mongo", deadline, this::mongo));
+		log.info("Warm-up finished in {} ms (budget {} ms): {}", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+				properties.getBudget().toMillis(), String.join(", ", results));
+	}
+
+	/**
+	 * Runs one step and records how it ended.
+	 *
+	 * @return the step's part of the summary line
+	 */
+	private String step(String name, long deadline, Step step) {
+		long start = System.nanoTime();
+		Outcome outcome;
+		String detail;
+		if (start >= deadline) {
+			outcome = Outcome.SKIPPED;
+			detail = "";
+		} else {
+			try {
+				StepResult result = step.run(deadline);
+				outcome = result.completed() ? Outcome.COMPLETED : Outcome.BUDGET_EXCEEDED;
+				detail = " x" + result.count();
+			} catch (RuntimeException ex) {
+				log.warn("Warm-up step {} failed: {}", name, ex.toString());
+				outcome = Outcome.FAILED;
+				detail = "";
+			}
+		}
+		long elapsed = System.nanoTime() - start;
+		Timer.builder("weather.warmup")
+				.description("Duration of a startup warm-up step")
+				.tag("step", name)
+				.tag("outcome", outcome.getTagValue())
+				.register(meterRegistry)
+				.record(elapsed, TimeUnit.NANOSECONDS);
+		return name + " " + outcome.getTagValue() + detail + " in " + TimeUnit.NANOSECONDS.toMillis(elapsed) + " ms";
+	}
+
+	private StepResult jwt(long deadline) {
+		String token = jwtService.generateToken(WARMUP_USER);
+		return repeat(deadline, () -> jwtService.validateTokenAndGetUsername(token).block());
+	}
+
+	private StepResult historyMapping(long deadline) {
+		List<WeatherData> history = history();
+		return repeat(deadline, () -> {
+			mapHistory(history, WARMUP_POSTAL_CODE, null).block();
+			mapHistory(history, null, WARMUP_USER).block();
+		});
+	}
+
+	private StepResult codecs(long deadline) {
+		DataBufferFactory bufferFactory = DefaultDataBufferFactory.sharedInstance;
+		ResolvableType responseType = ResolvableType.forClass(WeatherResponse.class);
+		WeatherResponse history = mapHistory(history(), WARMUP_POSTAL_CODE, null).block();
+		Map<MediaType, Encoder<Object>> encoders = new LinkedHashMap<>();
+		ENCODINGS.forEach(mediaType -> encoders.put(mediaType, encoder(responseType, mediaType)));
+		Decoder<?> decoder = jsonDecoder();
+		byte[] observation = observation();
+		return repeat(deadline, () -> {
+			encoders.forEach((mediaType, encoder) -> DataBufferUtils.release(
+					encoder.encodeValue(history, bufferFactory, responseType, mediaType, Collections.emptyMap())));
+			decoder.decode(bufferFactory.wrap(observation), OBSERVATION_TYPE, MediaType.APPLICATION_JSON,
+					Collections.emptyMap());
+		});
+	}
+
+	private StepResult upstream(long deadline) {
+		return await(webClientService.preconnect(weatherServiceProperties.getUrl(),
+				properties.getUpstreamConnections()), deadline);
+	}
+
+	private StepResult mongo(long deadline) {
+		ReactiveMongoTemplate template = mongoTemplate.getIfAvailable();
+		if (template == null) {
+			return new StepResult(0, true);
+		}
+		int connections = properties.getMongoConnections();
+		return await(Flux.range(0, connections)
+				.flatMap(i -> template.executeCommand(PING), connections)
+				.count(), deadline);
+	}
+
+	@SuppressWarnings("unchecked")
+	private Encoder<Object> encoder(ResolvableType type, MediaType mediaType) {
+		for (HttpMessageWriter<?> writer : codecConfigurer.getWriters()) {
+			if (writer instanceof EncoderHttpMessageWriter<?> encoderWriter && writer.canWrite(type, mediaType)) {
+				return (Encoder<Object>) encoderWriter.getEncoder();
+			}
+		}
+		throw new IllegalStateException("No " + mediaType + " encoder for " + type);
+	}
+
+	private Decoder<?> jsonDecoder() {
+		return codecConfigurer.getReaders().stream()
+				.filter(reader -> reader instanceof DecoderHttpMessageReader<?>
+						&& reader.canRead(OBSERVATION_TYPE, MediaType.APPLICATION_JSON))
+				.map(reader -> ((DecoderHttpMessageReader<?>) reader).getDecoder())
+				.findFirst()
+				.orElseThrow(() -> new IllegalStateException("No JSON decoder for " + OBSERVATION_TYPE));
+	}
+
+	/**
+	 * Maps a history the way the history endpoints do.
+	 */
+	private static Mono<WeatherResponse> mapHistory(List<WeatherData> history, String postalCode, String username) {
+		return Flux.fromIterable(history)
+				.map(WeatherHistoryMapper::toWeatherInfo)
+				.collectList()
+				.map(historyList -> WeatherHistoryMapper.toResponse(postalCode, username, historyList));
+	}
+
+	private StepResult repeat(long deadline, Runnable iteration) {
+		int iterations = properties.getIterations();
+		for (int i = 0; i < iterations; i++) {
+			if (System.nanoTime() >= deadline) {
+				return new StepResult(i, false);
+			}
+			iteration.run();
+		}
+		return new StepResult(iterations, true);
+	}
+
+	/**
+	 * Decodes {@code history-size} copies of the stored observation.
+	 */
+	private List<WeatherData> history() {
+		Decoder<?> decoder = jsonDecoder();
+		byte[] observation = observation();
+		int size = Math.max(1, properties.getHistorySize());
+		List<WeatherData> history = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			history.add((WeatherData) decoder.decode(DefaultDataBufferFactory.sharedInstance.wrap(observation),
+					OBSERVATION_TYPE, MediaType.APPLICATION_JSON, Collections.emptyMap()));
+		}
+		return history;
+	}
+
+	private static byte[] observation() {
+		try {
+			return OBSERVATION.getContentAsByteArray();
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+
+	/**
+	 * Waits for an I/O step until the deadline.
+	 */
+	private static StepResult await(Mono<Long> count, long deadline) {
+		return count.map(n -> new StepResult(n, true))
+				.timeout(Duration.ofNanos(Math.max(1, deadline - System.nanoTime())), Mono.just(new StepResult(0, false)))
+				.block();
+	}
+
+	@FunctionalInterface
+	private interface Step {
+
+		StepResult run(long deadline);
+	}
+
+	private record StepResult(long count, boolean completed) {
+	}
+}
@@ -0,0 +1,58 @@
+package com.weather.webclient;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket limiting retries to a share of the calls made.
+ *
+ * <p>
+ * Every call deposits {@code ratio} tokens and every retry withdraws one, so
+ * over any window the retries stay below {@code ratio} times the calls plus
+ * the {@code maxTokens} the bucket holds. During an incident the bucket soon
+ * runs dry and failures are returned at once instead of multiplying the load
+ * on the struggling service. Tokens are kept in thousandths to avoid floating
+ * point on the hot path.
+ * </p>
+ */
+final class RetryBudget {
+
+	private static final long SCALE = 1000;
+
+	private final long deposit;
+	private final long capacity;
+	private final AtomicLong tokens;
+
+	RetryBudget(double ratio, int maxTokens) {
+		this.deposit = Math.round(ratio * SCALE);
+		this.capacity = maxTokens * SCALE;
+		this.tokens = new AtomicLong(capacity);
+	}
+
+	/**
+	 * Credits the budget for a call about to be made.
+	 */
+	void deposit() {
+		tokens.accumulateAndGet(deposit, (current, added) -> Math.min(capacity, current + added));
+	}
+
+	/**
+	 * @return {@code true} if a retry was allowed and paid for
+	 */
+	boolean tryWithdraw() {
+		long current;
+		do {
+			current = tokens.get();
+			if (current < SCALE) {
+				return false;
+			}
+		} while (!tokens.compareAndSet(current, current - SCALE));
+		return true;
+	}
+
+	/**
+	 * @return the retries currently allowed
+	 */
+	double available() {
+		return (double) tokens.get() / SCALE;
+	}
+}
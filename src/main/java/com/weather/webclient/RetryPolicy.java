@@ -0,0 +1,166 @@
+package com.weather.webclient;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import com.weather.deadline.Deadline;
+import com.weather.deadline.DeadlineExceededException;
+import com.weather.utils.RetryProperties;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+/**
+ * Decides which failed upstream calls are retried, and when.
+ *
+ * <p>
+ * Only transient failures are retried: responses with one of the configured
+ * {@code retryable-statuses} (by default 408 and 5xx other than 501),
+ * connection failures and resets, and timeouts. Any other status, such as
+ * {@code 401} for a bad API key or {@code 404} for an unknown location, will
+ * not change on a second attempt and is returned at once.
+ * </p>
+ *
+ * <p>
+ * A retry waits an exponential, jittered back-off and has to pass two more
+ * checks: the {@link Deadline} of the request, if any, must still cover the
+ * back-off plus the budget of the {@code retry} stage, and the shared
+ * {@link RetryBudget} must hold a token. A retry stopped by the deadline
+ * fails the call with a {@link DeadlineExceededException}; otherwise the last
+ * failure is returned as it is.
+ * </p>
+ *
+ * <p>
+ * Metrics: {@code weather.upstream.retries}, tagged with
+ * {@code result=attempted|succeeded|budget_exhausted|attempts_exhausted|deadline},
+ * where {@code succeeded} counts calls that succeeded after at least one
+ * retry, and the {@code weather.upstream.retry.budget} gauge of the retries
+ * currently allowed.
+ * </p>
+ */
+@Slf4j
+@Component
+public class RetryPolicy {
+
+	public static final String RETRY_STAGE = "retry";
+
+	private final RetryProperties properties;
+	private final Set<Integer> retryableStatuses;
+	private final RetryBudget budget;
+	private final Counter attempted;
+	private final Counter succeeded;
+	private final Counter budgetExhausted;
+	private final Counter attemptsExhausted;
+	private final Counter deadlineStopped;
+
+	public RetryPolicy(RetryProperties properties, MeterRegistry meterRegistry) {
+		this.properties = properties;
+		this.retryableStatuses = Set.copyOf(properties.getRetryableStatuses());
+		this.budget = new RetryBudget(properties.getBudgetRatio(), properties.getBudgetMaxTokens());
+		this.attempted = retries(meterRegistry, "attempted");
+		this.succeeded = retries(meterRegistry, "succeeded");
+		this.budgetExhausted = retries(meterRegistry, "budget_exhausted");
+		this.attemptsExhausted = retries(meterRegistry, "attempts_exhausted");
+		this.deadlineStopped = retries(meterRegistry, "deadline");
+		Gauge.builder("weather.upstream.retry.budget", budget, RetryBudget::available)
+				.description("Upstream retries the retry budget currently allows")
+				.register(meterRegistry);
+	}
+
+	/**
+	 * Applies the policy to an upstream call.
+	 *
+	 * @param call the call, subscribed again for each retry
+	 * @param <T>  the response type
+	 * @return the call with retries
+	 */
+	public <T> Mono<T> apply(Mono<T> call) {
+		return Mono.deferContextual(context -> {
+			Deadline deadline = Deadline.from(context);
+			Attempts attempts = new Attempts();
+			budget.deposit();
+			return call.retryWhen(Retry.backoff(properties.getMaxRetries(), properties.getMinBackoff())
+					.maxBackoff(properties.getMaxBackoff())
+					.jitter(properties.getJitter())
+					.filter(failure -> shouldRetry(failure, deadline, attempts))
+					.onRetryExhaustedThrow((retryBackoffSpec, retrySignal) -> retrySignal.failure()))
+					.doOnSuccess(response -> {
+						if (attempts.retries > 0) {
+							succeeded.increment();
+						}
+					})
+					.onErrorMap(failure -> attempts.stoppedByDeadline,
+							failure -> deadline.exceeded(RETRY_STAGE, failure));
+		});
+	}
+
+	/**
+	 * @param failure the failure of an attempt
+	 * @return {@code true} if the failure is transient, so another attempt may
+	 *         succeed
+	 */
+	public boolean isRetryable(Throwable failure) {
+		if (failure instanceof WebClientResponseException responseException) {
+			return retryableStatuses.contains(responseException.getStatusCode().value());
+		}
+		return failure instanceof WebClientRequestException || failure instanceof TimeoutException
+				|| failure instanceof IOException;
+	}
+
+	private boolean shouldRetry(Throwable failure, Deadline deadline, Attempts attempts) {
+		if (!isRetryable(failure)) {
+			return false;
+		}
+		if (attempts.retries >= properties.getMaxRetries()) {
+			attemptsExhausted.increment();
+			return false;
+		}
+		if (deadline != null && !deadline.covers(RETRY_STAGE, backoff(attempts.retries))) {
+			attempts.stoppedByDeadline = true;
+			deadlineStopped.increment();
+			return false;
+		}
+		if (!budget.tryWithdraw()) {
+			budgetExhausted.increment();
+			log.debug("Retry budget exhausted, not retrying: {}", failure.getMessage());
+			return false;
+		}
+		attempts.retries++;
+		attempted.increment();
+		return true;
+	}
+
+	/**
+	 * @param retries the retries made so far
+	 * @return the back-off before the next retry, without jitter
+	 */
+	private Duration backoff(int retries) {
+		Duration backoff = properties.getMinBackoff().multipliedBy(1L << Math.min(retries, 30));
+		return backoff.compareTo(properties.getMaxBackoff()) < 0 ? backoff : properties.getMaxBackoff();
+	}
+
+	private Counter retries(MeterRegistry meterRegistry, String result) {
+		return Counter.builder("weather.upstream.retries")
+				.description("Retries of failed upstream calls")
+				.tag("result", result)
+				.register(meterRegistry);
+	}
+
+	/**
+	 * Retry state of one subscription to a call.
+	 */
+	private static final class Attempts {
+		private int retries;
+		private boolean stoppedByDeadline;
+	}
+}
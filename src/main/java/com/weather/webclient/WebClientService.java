@@ -1,100 +1,96 @@
 package com.weather.webclient;
 
-import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
-import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
-import org.springframework.web.reactive.function.client.WebClientResponseException;
 
-import com.weather.exception.ApiClientException;
+import com.weather.diagnostics.jfr.JfrEvents;
+import com.weather.diagnostics.jfr.UpstreamCallEvent;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.util.retry.Retry;
 
 /**
  * Service to handle HTTP requests using WebClient with retry mechanism.
+ *
+ * <p>
+ * Clients are built from the Spring Boot managed {@link WebClient.Builder},
+ * which carries the observation instrumentation: every call becomes a client
+ * span and propagates the current trace as a W3C {@code traceparent} header.
+ * One client is built per base URL and reused. Each attempt is also recorded
+ * as an {@link UpstreamCallEvent} when a JFR recording is running.
+ * </p>
  */
 @Slf4j
 @RequiredArgsConstructor
 @Service
 public class WebClientService {
 
-	public static final String EXTERNAL_SERVICE_FAILED_TO_PROCESS_AFTER_MAX_RETRIES = "External Service failed to process after max retries";
-	public static final String IDENTITY_SERVICE_UNAVAILABLE_AFTER_MAX_RETRIES = "External Service unavailable after max retries";
-	public static final int MAX_ATTEMPTS = 3;
-	public static final int SECONDS = 1;
+	private final WebClient.Builder webClientBuilder;
+	private final RetryPolicy retryPolicy;
+	private final Map<String, WebClient> webClients = new ConcurrentHashMap<>();
 
 	/**
-	 * Creates a WebClient instance for a given base URL.
+	 * Returns the WebClient instance for a given base URL, building it on first use.
 	 *
 	 * @param baseUrl The base URL for the WebClient.
 	 * @return A WebClient instance configured with the provided base URL.
 	 */
-	private WebClient webClientBuilder(String baseUrl) {
-		WebClient.Builder builder = WebClient.builder().baseUrl(baseUrl);
-		return builder.build();
+	private WebClient webClient(String baseUrl) {
+		return webClients.computeIfAbsent(baseUrl, url -> webClientBuilder.clone().baseUrl(url).build());
 	}
 
 	/**
-	 * Executes an HTTP request with retry mechanism.
+	 * Executes an HTTP request with retry mechanism. Which failures are
+	 * retried, how often and after which back-off is up to the
+	 * {@link RetryPolicy}.
 	 *
 	 * @param <T>          The type of the response object.
 	 * @param baseUrl      The base URL of the external service.
 	 * @param uri          The URI for the request.
-	 * @param traceId      A trace ID for logging purposes.
 	 * @param httpMethod   The HTTP method to be used (e.g., GET, POST).
 	 * @param responseType The expected response type.
 	 * @return A Mono containing the response object.
 	 */
-	public <T> Mono<T> executeRequest(String baseUrl, String uri, String traceId, HttpMethod get,
-			Class<T> responseType) {
-		return Mono.defer(() -> {
-			return webClientBuilder(baseUrl)
+	public <T> Mono<T> executeRequest(String baseUrl, String uri, HttpMethod get, Class<T> responseType) {
+		return retryPolicy.apply(Mono.defer(() -> {
+			return JfrEvents.record(() -> new UpstreamCallEvent(baseUrl, uri, get.name()), webClient(baseUrl)
 					.method(get)
 					.uri(uri)
 					.accept(MediaType.APPLICATION_JSON)
 					.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
 					.retrieve()
-					.bodyToMono(responseType);
-		}).retryWhen(Retry.backoff(MAX_ATTEMPTS, Duration.ofSeconds(SECONDS))
-				.filter(this::filterThrowable)
-				.onRetryExhaustedThrow((retryBackoffSpec, retrySignal) -> onRetryExhaustedThrow(retrySignal)));
+					.bodyToMono(responseType));
+		}));
 	}
 
 	/**
-	 * Filters the throwable to determine whether it should be retried.
+	 * Opens connections to an external service ahead of the first real
+	 * request, so the TCP and TLS handshakes are not paid by a caller. The
+	 * requests are sent concurrently, which makes the shared connection pool
+	 * open one connection per request; any response counts, whatever its
+	 * status.
 	 *
-	 * @param throwable The exception thrown during the request.
-	 * @return True if the exception is retryable (e.g., UNAUTHORIZED), false otherwise.
+	 * @param baseUrl     The base URL of the external service.
+	 * @param connections The number of connections to open.
+	 * @return A Mono emitting the number of requests that got a response.
 	 */
-	private boolean filterThrowable(Throwable throwable) {
-		if (throwable instanceof WebClientResponseException webClientException) {
-			return webClientException.getStatusCode() == HttpStatus.UNAUTHORIZED;
-		}
-		return false;
-	}
-
-	/**
-	 * Handles the logic when retries are exhausted.
-	 *
-	 * @param retrySignal The retry signal containing information about the failure.
-	 * @return A Throwable to be thrown after retries are exhausted.
-	 */
-	private Throwable onRetryExhaustedThrow(Retry.RetrySignal retrySignal) {
-		Throwable failure = retrySignal.failure();
-		if (failure instanceof WebClientResponseException webClientException) {
-			if (webClientException.getStatusCode() == HttpStatus.UNAUTHORIZED) {
-				throw new ApiClientException(EXTERNAL_SERVICE_FAILED_TO_PROCESS_AFTER_MAX_RETRIES,
-						HttpStatus.UNAUTHORIZED.value(), 
-						failure);
-			}
-		}
-		return failure;
+	public Mono<Long> preconnect(String baseUrl, int connections) {
+		return Flux.range(0, connections)
+				.flatMap(i -> webClient(baseUrl).head()
+						.uri("/")
+						.exchangeToMono(response -> response.releaseBody().thenReturn(response.statusCode()))
+						.onErrorResume(ex -> {
+							log.debug("Pre-connecting to {} failed: {}", baseUrl, ex.getMessage());
+							return Mono.empty();
+						}), connections)
+				.count();
 	}
 }
@@ -0,0 +1,63 @@
+package com.weather.workload;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+
+import com.weather.dto.ApiError;
+import com.weather.exception.handler.ErrorResponseWriter;
+import com.weather.utils.ErrorConstants;
+
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * {@link WebFilter} admitting requests through the
+ * {@link AdaptiveConcurrencyLimiter}.
+ *
+ * <p>
+ * Requests above the limit receive {@code 503 Service Unavailable} with a
+ * {@code Retry-After} header and an {@link ApiError} body. The latency of an
+ * admitted request is measured until its response is written, and fed back to
+ * the limiter unless the client cancelled it. {@code SecurityConfig} adds the
+ * filter at the very front of the security chain, ahead of the
+ * {@link WorkloadIsolationFilter}.
+ * </p>
+ */
+@RequiredArgsConstructor
+public class AdaptiveAdmissionFilter implements WebFilter {
+
+	static final String RETRY_AFTER_SECONDS = "1";
+
+	private final AdaptiveConcurrencyLimiter limiter;
+	private final ErrorResponseWriter errorResponseWriter;
+
+	@Override
+	public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+		if (!limiter.applies(exchange.getRequest().getPath().pathWithinApplication())) {
+			return chain.filter(exchange);
+		}
+		return Mono.defer(() -> {
+			if (!limiter.tryAcquire()) {
+				return reject(exchange);
+			}
+			long admittedAt = System.nanoTime();
+			return chain.filter(exchange).doFinally(signal -> {
+				if (signal == SignalType.CANCEL) {
+					limiter.onCancel();
+				} else {
+					limiter.onComplete(System.nanoTime() - admittedAt);
+				}
+			});
+		});
+	}
+
+	private Mono<Void> reject(ServerWebExchange exchange) {
+		exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+		return errorResponseWriter.write(exchange, HttpStatus.SERVICE_UNAVAILABLE, ErrorConstants.SERVICE_ERROR,
+				ErrorConstants.SERVICE_TEMPORARILY_UNAVAILABLE);
+	}
+}
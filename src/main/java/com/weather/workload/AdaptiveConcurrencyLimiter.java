@@ -0,0 +1,242 @@
+package com.weather.workload;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import com.weather.diagnostics.EventLoopLagMonitor;
+import com.weather.utils.AdmissionControlProperties;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Concurrency limit that adapts to the latency and event-loop lag the
+ * service currently delivers.
+ *
+ * <p>
+ * Without it an overloaded instance accepts every request, queues them all
+ * and then times most of them out. Here a request is admitted only while
+ * fewer than {@link #limit()} requests are in flight; the rest are rejected
+ * at once, while rejecting is still cheap, and the client retries elsewhere
+ * or later.
+ * </p>
+ *
+ * <p>
+ * The limit follows a gradient algorithm. Every update interval the average
+ * latency of the requests completed in that window is compared with a slowly
+ * moving long-term baseline:
+ * </p>
+ * <ul>
+ * <li>{@code gradient = clamp(tolerance * baseline / recent, 0.5, 1)} is below
+ * 1 once recent latency exceeds the tolerated share of the baseline, i.e. when
+ * requests start queueing somewhere.</li>
+ * <li>While the worst event-loop lag exceeds its threshold the gradient is
+ * capped at the lag back-off factor, since a lagging loop delays every
+ * request on it, including ones not yet measured.</li>
+ * <li>The new estimate is {@code limit * gradient}, or
+ * {@code limit + sqrt(limit)} while neither signal indicates congestion, so
+ * the limit probes upwards as long as latency stays flat. It only grows when
+ * the window actually used more than half of the limit, so an idle instance
+ * does not inflate it.</li>
+ * <li>The limit moves towards the estimate by the smoothing factor and stays
+ * within {@code [min-limit, max-limit]}.</li>
+ * </ul>
+ * <p>
+ * When recent latency drops far below the baseline (recovery after an
+ * incident), the baseline decays towards it so the limit does not stay
+ * depressed by the old, higher figure.
+ * </p>
+ *
+ * <p>
+ * Metrics: {@code weather.admission.limit} and
+ * {@code weather.admission.in.flight} gauges, and
+ * {@code weather.admission.rejected}.
+ * </p>
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "admission-control", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class AdaptiveConcurrencyLimiter implements DisposableBean {
+
+	private static final double MIN_GRADIENT = 0.5;
+	private static final double BASELINE_SMOOTHING = 0.05;
+	private static final double BASELINE_DRIFT_RATIO = 2.0;
+	private static final double BASELINE_DECAY = 0.95;
+
+	private final AdmissionControlProperties properties;
+	private final LongSupplier eventLoopLagNanos;
+	private final List<PathPattern> patterns;
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private final AtomicInteger peakInFlight = new AtomicInteger();
+	private final LongAdder latencySumNanos = new LongAdder();
+	private final LongAdder latencyCount = new LongAdder();
+	private final Counter rejected;
+	private final Scheduler scheduler;
+	private final Disposable updates;
+	private volatile int limit;
+	private double estimate;
+	private double baselineNanos;
+
+	@Autowired
+	public AdaptiveConcurrencyLimiter(AdmissionControlProperties properties,
+			ObjectProvider<EventLoopLagMonitor> eventLoopLagMonitor, MeterRegistry meterRegistry) {
+		this(properties, lagSource(eventLoopLagMonitor), meterRegistry, true);
+	}
+
+	AdaptiveConcurrencyLimiter(AdmissionControlProperties properties, LongSupplier eventLoopLagNanos,
+			MeterRegistry meterRegistry, boolean scheduleUpdates) {
+		this.properties = properties;
+		this.eventLoopLagNanos = eventLoopLagNanos;
+		this.patterns = properties.getPatterns().stream().map(PathPatternParser.defaultInstance::parse).toList();
+		this.estimate = clamp(properties.getInitialLimit());
+		this.limit = (int) estimate;
+		this.rejected = Counter.builder("weather.admission.rejected")
+				.description("Requests rejected above the adaptive concurrency limit")
+				.register(meterRegistry);
+		Gauge.builder("weather.admission.limit", this, AdaptiveConcurrencyLimiter::limit)
+				.description("Current adaptive concurrency limit")
+				.register(meterRegistry);
+		Gauge.builder("weather.admission.in.flight", inFlight, AtomicInteger::get)
+				.description("Requests in flight under admission control")
+				.register(meterRegistry);
+		if (scheduleUpdates) {
+			long intervalMillis = properties.getUpdateInterval().toMillis();
+			this.scheduler = Schedulers.newSingle("admission-control", true);
+			this.updates = scheduler.schedulePeriodically(this::update, intervalMillis, intervalMillis,
+					TimeUnit.MILLISECONDS);
+		} else {
+			this.scheduler = null;
+			this.updates = null;
+		}
+	}
+
+	/**
+	 * @param path the request path within the application
+	 * @return {@code true} if the request is subject to admission control
+	 */
+	public boolean applies(PathContainer path) {
+		for (PathPattern pattern : patterns) {
+			if (pattern.matches(path)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Admits a request if the limit allows it. An admitted request must be
+	 * ended with exactly one call to {@link #onComplete} or {@link #onCancel}.
+	 *
+	 * @return {@code true} if the request was admitted
+	 */
+	public boolean tryAcquire() {
+		int current = inFlight.incrementAndGet();
+		if (current > limit) {
+			inFlight.decrementAndGet();
+			rejected.increment();
+			return false;
+		}
+		peakInFlight.accumulateAndGet(current, Math::max);
+		return true;
+	}
+
+	/**
+	 * Ends an admitted request and records its latency.
+	 *
+	 * @param latencyNanos time from admission to completion
+	 */
+	public void onComplete(long latencyNanos) {
+		inFlight.decrementAndGet();
+		latencySumNanos.add(latencyNanos);
+		latencyCount.increment();
+	}
+
+	/**
+	 * Ends an admitted request whose latency says nothing about the service,
+	 * such as one cancelled by the client.
+	 */
+	public void onCancel() {
+		inFlight.decrementAndGet();
+	}
+
+	/**
+	 * @return the current concurrency limit
+	 */
+	public int limit() {
+		return limit;
+	}
+
+	/**
+	 * Recomputes the limit from the window that just ended.
+	 */
+	synchronized void update() {
+		long count = latencyCount.sumThenReset();
+		long sum = latencySumNanos.sumThenReset();
+		int peak = peakInFlight.getAndSet(inFlight.get());
+		boolean lagging = eventLoopLagNanos.getAsLong() > properties.getMaxEventLoopLag().toNanos();
+		if (count == 0 && !lagging) {
+			return;
+		}
+		double gradient = 1.0;
+		if (count > 0) {
+			double recentNanos = (double) sum / count;
+			if (baselineNanos == 0) {
+				baselineNanos = recentNanos;
+			} else {
+				baselineNanos += (recentNanos - baselineNanos) * BASELINE_SMOOTHING;
+				if (baselineNanos / recentNanos > BASELINE_DRIFT_RATIO) {
+					baselineNanos *= BASELINE_DECAY;
+				}
+			}
+			gradient = Math.max(MIN_GRADIENT,
+					Math.min(1.0, properties.getLatencyTolerance() * baselineNanos / recentNanos));
+		}
+		if (lagging) {
+			gradient = Math.min(gradient, properties.getLagBackoff());
+		}
+		double target = gradient < 1.0 ? estimate * gradient : estimate + Math.sqrt(estimate);
+		if (target > estimate && peak < estimate / 2) {
+			target = estimate;
+		}
+		estimate = clamp(estimate + (target - estimate) * properties.getSmoothing());
+		int updated = (int) estimate;
+		if (updated != limit) {
+			log.debug("Concurrency limit {} -> {} (gradient {}, lagging {})", limit, updated, gradient, lagging);
+			limit = updated;
+		}
+	}
+
+	@Override
+	public void destroy() {
+		if (updates != null) {
+			updates.dispose();
+			scheduler.dispose();
+		}
+	}
+
+	private double clamp(double value) {
+		return Math.max(properties.getMinLimit(), Math.min(properties.getMaxLimit(), value));
+	}
+
+	private static LongSupplier lagSource(ObjectProvider<EventLoopLagMonitor> eventLoopLagMonitor) {
+		EventLoopLagMonitor monitor = eventLoopLagMonitor.getIfAvailable();
+		return monitor != null ? monitor::maxLagNanos : () -> 0;
+	}
+}
@@ -0,0 +1,95 @@
+package com.weather.workload;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Concurrency limit with a bounded FIFO queue of waiting requests.
+ *
+ * <p>
+ * A permit is handed straight from a finishing request to the oldest waiter,
+ * so queued requests are not overtaken by new arrivals. Waiters that give up
+ * (queue timeout, client cancel) leave the queue; if the permit reached them
+ * in that same moment it is passed on.
+ * </p>
+ */
+class Bulkhead {
+
+	private static final int WAITING = 0;
+	private static final int GRANTED = 1;
+	private static final int CANCELLED = 2;
+
+	private final int maxConcurrency;
+	private final int maxQueue;
+	private final Queue<Waiter> waiters = new ArrayDeque<>();
+	private int inFlight;
+
+	Bulkhead(int maxConcurrency, int maxQueue) {
+		this.maxConcurrency = maxConcurrency;
+		this.maxQueue = maxQueue;
+	}
+
+	/**
+	 * Takes a permit, or a place in the queue.
+	 *
+	 * @return a {@link Mono} completing once the permit is held, or
+	 *         {@code null} if both the permits and the queue are exhausted
+	 */
+	synchronized Mono<Void> acquire() {
+		if (inFlight < maxConcurrency) {
+			inFlight++;
+			return Mono.empty();
+		}
+		if (waiters.size() >= maxQueue) {
+			return null;
+		}
+		Waiter waiter = new Waiter();
+		waiters.add(waiter);
+		return waiter.sink.asMono().doOnCancel(waiter::cancel);
+	}
+
+	/**
+	 * Returns a permit, handing it to the oldest waiter if there is one.
+	 */
+	void release() {
+		Waiter next;
+		synchronized (this) {
+			do {
+				next = waiters.poll();
+			} while (next != null && !next.state.compareAndSet(WAITING, GRANTED));
+			if (next == null) {
+				inFlight--;
+				return;
+			}
+		}
+		next.sink.tryEmitEmpty();
+	}
+
+	synchronized int inFlight() {
+		return inFlight;
+	}
+
+	synchronized int queued() {
+		return waiters.size();
+	}
+
+	private final class Waiter {
+
+		private final Sinks.Empty<Void> sink = Sinks.empty();
+		private final AtomicInteger state = new AtomicInteger(WAITING);
+
+		void cancel() {
+			if (state.compareAndSet(WAITING, CANCELLED)) {
+				synchronized (Bulkhead.this) {
+					waiters.remove(this);
+				}
+			} else if (state.get() == GRANTED) {
+				release();
+			}
+		}
+	}
+}
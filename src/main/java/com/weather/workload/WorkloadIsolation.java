@@ -0,0 +1,181 @@
+package com.weather.workload;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import com.weather.utils.WorkloadIsolationProperties;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Isolates the workload classes of the API from each other.
+ *
+ * <p>
+ * A burst of {@code POST /v1/api/weather/info}, which waits on OpenWeather,
+ * would otherwise hold event-loop time, Mongo connections and memory that the
+ * cheap history reads need. Each configured class (typically {@code collect},
+ * {@code history} and {@code auth}) gets its own {@link Bulkhead}: a
+ * concurrency limit, a bounded queue with a timeout, and optionally a
+ * dedicated scheduler the class is processed on. A request belongs to the
+ * first class with a matching path pattern; requests matching none pass
+ * unlimited.
+ * </p>
+ *
+ * <p>
+ * Admission control spans all classes: every class admits new requests only
+ * while the total number of running and queued requests stays below its
+ * {@code shed-above} share of the instance {@code capacity}. Giving
+ * lower-priority classes lower shares sheds them first as load rises, while
+ * higher-priority classes keep the remaining headroom.
+ * </p>
+ *
+ * <p>
+ * Metrics, tagged with {@code workload}: {@code weather.workload.in.flight}
+ * and {@code weather.workload.queued} gauges, and
+ * {@code weather.workload.rejected}, additionally tagged with
+ * {@code reason=shed|queue_full|queue_timeout}.
+ * </p>
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "workload-isolation", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class WorkloadIsolation implements DisposableBean {
+
+	/**
+	 * Why a request was turned away.
+	 */
+	@Getter
+	@RequiredArgsConstructor
+	public enum Rejection {
+		SHED("shed"),
+		QUEUE_FULL("queue_full"),
+		QUEUE_TIMEOUT("queue_timeout");
+
+		private final String tagValue;
+	}
+
+	private final List<Workload> workloads = new ArrayList<>();
+	private final AtomicInteger occupied = new AtomicInteger();
+
+	public WorkloadIsolation(WorkloadIsolationProperties properties, MeterRegistry meterRegistry) {
+		properties.getWorkloads().forEach((name, workload) -> workloads.add(new Workload(name, workload,
+				properties.getCapacity(), meterRegistry)));
+	}
+
+	/**
+	 * Runs the request within the limits of its workload class.
+	 *
+	 * @param path    the request path within the application
+	 * @param request the processing of the request, subscribed once admitted
+	 * @return the processing, or a {@link WorkloadRejectedException} if the
+	 *         request was not admitted
+	 */
+	public Mono<Void> execute(PathContainer path, Mono<Void> request) {
+		Workload workload = classify(path);
+		return workload == null ? request : Mono.defer(() -> workload.execute(request));
+	}
+
+	@Override
+	public void destroy() {
+		workloads.forEach(workload -> {
+			if (workload.scheduler != null) {
+				workload.scheduler.dispose();
+			}
+		});
+	}
+
+	private Workload classify(PathContainer path) {
+		for (Workload workload : workloads) {
+			for (PathPattern pattern : workload.patterns) {
+				if (pattern.matches(path)) {
+					return workload;
+				}
+			}
+		}
+		return null;
+	}
+
+	private final class Workload {
+
+		private final String name;
+		private final List<PathPattern> patterns;
+		private final Bulkhead bulkhead;
+		private final WorkloadIsolationProperties.Workload config;
+		private final int shedLimit;
+		/** Dedicated scheduler, or {@code null} to stay on the event loop. */
+		private final Scheduler scheduler;
+		private final Counter shed;
+		private final Counter queueFull;
+		private final Counter queueTimeout;
+
+		Workload(String name, WorkloadIsolationProperties.Workload config, int capacity, MeterRegistry meterRegistry) {
+			this.name = name;
+			this.config = config;
+			this.patterns = config.getPatterns().stream().map(PathPatternParser.defaultInstance::parse).toList();
+			this.bulkhead = new Bulkhead(config.getMaxConcurrency(), config.getMaxQueue());
+			this.shedLimit = (int) Math.ceil(capacity * config.getShedAbove());
+			this.scheduler = config.getSchedulerThreads() > 0
+					? Schedulers.newParallel("workload-" + name, config.getSchedulerThreads())
+					: null;
+			Gauge.builder("weather.workload.in.flight", bulkhead, Bulkhead::inFlight)
+					.description("Requests of the workload class being processed")
+					.tag("workload", name)
+					.register(meterRegistry);
+			Gauge.builder("weather.workload.queued", bulkhead, Bulkhead::queued)
+					.description("Requests of the workload class waiting for a slot")
+					.tag("workload", name)
+					.register(meterRegistry);
+			this.shed = rejected(meterRegistry, Rejection.SHED);
+			this.queueFull = rejected(meterRegistry, Rejection.QUEUE_FULL);
+			this.queueTimeout = rejected(meterRegistry, Rejection.QUEUE_TIMEOUT);
+		}
+
+		Mono<Void> execute(Mono<Void> request) {
+			if (occupied.incrementAndGet() > shedLimit) {
+				occupied.decrementAndGet();
+				return reject(shed, Rejection.SHED);
+			}
+			Mono<Void> permit = bulkhead.acquire();
+			if (permit == null) {
+				occupied.decrementAndGet();
+				return reject(queueFull, Rejection.QUEUE_FULL);
+			}
+			Mono<Void> work = scheduler != null ? request.subscribeOn(scheduler) : request;
+			return permit.timeout(config.getQueueTimeout())
+					.onErrorResume(TimeoutException.class, ex -> reject(queueTimeout, Rejection.QUEUE_TIMEOUT))
+					.then(Mono.defer(() -> work.doFinally(signal -> bulkhead.release())))
+					.doFinally(signal -> occupied.decrementAndGet());
+		}
+
+		private Mono<Void> reject(Counter counter, Rejection rejection) {
+			counter.increment();
+			log.debug("Rejecting {} request: {}", name, rejection.getTagValue());
+			return Mono.error(new WorkloadRejectedException(name, rejection));
+		}
+
+		private Counter rejected(MeterRegistry meterRegistry, Rejection rejection) {
+			return Counter.builder("weather.workload.rejected")
+					.description("Requests turned away by workload isolation")
+					.tag("workload", name)
+					.tag("reason", rejection.getTagValue())
+					.register(meterRegistry);
+		}
+	}
+}
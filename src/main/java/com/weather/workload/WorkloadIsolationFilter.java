@@ -0,0 +1,48 @@
+package com.weather.workload;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+
+import com.weather.dto.ApiError;
+import com.weather.exception.handler.ErrorResponseWriter;
+import com.weather.utils.ErrorConstants;
+
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link WebFilter} running every request under {@link WorkloadIsolation}.
+ *
+ * <p>
+ * Requests that are not admitted receive {@code 503 Service Unavailable} with
+ * a {@code Retry-After} header and an {@link ApiError} body. Like
+ * {@code RateLimitFilter}, this filter is not a Spring bean:
+ * {@code SecurityConfig} adds it at the front of the security chain, right
+ * after the {@link AdaptiveAdmissionFilter}, so shed requests cost neither
+ * token validation nor a rate-limit lookup.
+ * </p>
+ */
+@RequiredArgsConstructor
+public class WorkloadIsolationFilter implements WebFilter {
+
+	static final String RETRY_AFTER_SECONDS = "1";
+
+	private final WorkloadIsolation workloadIsolation;
+	private final ErrorResponseWriter errorResponseWriter;
+
+	@Override
+	public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+		return workloadIsolation.execute(exchange.getRequest().getPath().pathWithinApplication(),
+				Mono.defer(() -> chain.filter(exchange)))
+				.onErrorResume(WorkloadRejectedException.class, ex -> reject(exchange));
+	}
+
+	private Mono<Void> reject(ServerWebExchange exchange) {
+		exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+		return errorResponseWriter.write(exchange, HttpStatus.SERVICE_UNAVAILABLE, ErrorConstants.SERVICE_ERROR,
+				ErrorConstants.SERVICE_TEMPORARILY_UNAVAILABLE);
+	}
+}
@@ -0,0 +1,21 @@
+package com.weather.workload;
+
+import com.weather.exception.ServiceOverloadedException;
+
+import lombok.Getter;
+
+/**
+ * Signals that {@link WorkloadIsolation} did not admit a request.
+ */
+@Getter
+public class WorkloadRejectedException extends ServiceOverloadedException {
+
+	private final String workload;
+	private final WorkloadIsolation.Rejection rejection;
+
+	public WorkloadRejectedException(String workload, WorkloadIsolation.Rejection rejection) {
+		super("Workload " + workload + " rejected the request: " + rejection.getTagValue(), null);
+		this.workload = workload;
+		this.rejection = rejection;
+	}
+}
@@ -0,0 +1,219 @@
+package com.weather.api;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Properties;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.reactor.ReactorAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeStrategies;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.weather.cache.EncodedHistoryCache;
+import com.weather.config.JacksonConfig;
+import com.weather.dto.WeatherRequest;
+import com.weather.exception.handler.ErrorResponseWriter;
+import com.weather.idempotency.IdempotencyStore;
+import com.weather.jobs.CollectionJobQueue;
+import com.weather.loadtest.InMemoryWeatherDataRepository;
+import com.weather.metrics.WeatherPipelineMetrics;
+import com.weather.model.WeatherData;
+import com.weather.repository.WeatherDataRepository;
+import com.weather.security.JwtAuthenticationManager;
+import com.weather.security.JwtService;
+import com.weather.security.SecurityConfig;
+import com.weather.security.TokenRevocationRegistry;
+import com.weather.service.impl.WeatherServiceImpl;
+import com.weather.utils.DeadlineProperties;
+import com.weather.utils.DegradationProperties;
+import com.weather.utils.IdempotencyProperties;
+import com.weather.utils.JobProperties;
+import com.weather.utils.ResponseCacheProperties;
+import com.weather.utils.RetryProperties;
+import com.weather.utils.WeatherServiceProperties;
+import com.weather.utils.WeatherServiceUriUtil;
+import com.weather.webclient.RetryPolicy;
+import com.weather.webclient.WebClientService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * Allocation budgets of the weather endpoints.
+ *
+ * <p>
+ * Each endpoint runs through the real controller, security filter chain,
+ * service, {@link WebClientService} and Jackson codecs. Only the I/O edges are
+ * stubbed: upstream calls are answered from canned OpenWeather payloads by a
+ * {@link WebClient} exchange function, and the repository is in memory.
+ * Reactor context propagation is enabled as in the application, so the
+ * figures do not depend on whether an earlier test installed the hook. The
+ * bytes allocated per request are compared against
+ * {@code allocation-budgets.properties}. The figures include the allocation
+ * of {@link WebTestClient} itself, so they guard against regressions rather
+ * than give absolute costs; when a change legitimately moves a figure, update
+ * the budget in the same commit.
+ * </p>
+ */
+@Slf4j
+@WebFluxTest(controllers = WeatherAPI.class)
+@ImportAutoConfiguration(ReactorAutoConfiguration.class)
+@Import({ SecurityConfig.class, JwtAuthenticationManager.class, JwtService.class, TokenRevocationRegistry.class,
+        ErrorResponseWriter.class, JacksonConfig.class, WeatherServiceImpl.class, WeatherServiceUriUtil.class,
+        WeatherPipelineMetrics.class, WebClientService.class, RetryPolicy.class, EncodedHistoryCache.class,
+        IdempotencyStore.class, CollectionJobQueue.class, AllocationBudgetTest.StubbedEdges.class })
+class AllocationBudgetTest {
+
+    private static final String COLLECTOR = "collector";
+    private static final String READER = "reader";
+    private static final String READER_POSTAL_CODE = "94105";
+    private static final int HISTORY_SIZE = 20;
+    private static final int WARMUP = 1_000;
+    private static final int ROUNDS = 5;
+    private static final int ITERATIONS = 100;
+
+    private static Properties budgets;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private WeatherDataRepository weatherDataRepository;
+
+    private String collectorToken;
+    private String readerToken;
+
+    @BeforeAll
+    static void loadBudgets() throws IOException {
+        budgets = new Properties();
+        try (InputStream in = AllocationBudgetTest.class.getResourceAsStream("/allocation-budgets.properties")) {
+            budgets.load(in);
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        assumeTrue(AllocationMeter.isSupported(), "Thread allocation counters are not available");
+        collectorToken = jwtService.generateToken(COLLECTOR);
+        readerToken = jwtService.generateToken(READER);
+        if (weatherDataRepository.count().block() == 0) {
+            for (int i = 0; i < HISTORY_SIZE; i++) {
+                weatherDataRepository.save(historyEntry(i)).block();
+            }
+        }
+    }
+
+    @Test
+    void collectWeatherStaysWithinBudgetTest() {
+        WeatherRequest request = WeatherRequest.builder().postalCode("10036").username(COLLECTOR).build();
+
+        assertWithinBudget("weather-info", () -> webTestClient.post()
+                .uri("/v1/api/weather/info")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + collectorToken)
+                .bodyValue(request)
+                .exchange()
+                .expectStatus().isOk());
+    }
+
+    @Test
+    void historyByUsernameStaysWithinBudgetTest() {
+        assertWithinBudget("history-by-username", () -> webTestClient.get()
+                .uri("/v1/api/weather/history/user/{username}", READER)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + readerToken)
+                .exchange()
+                .expectStatus().isOk());
+    }
+
+    @Test
+    void historyByPostalCodeStaysWithinBudgetTest() {
+        assertWithinBudget("history-by-postal-code", () -> webTestClient.get()
+                .uri("/v1/api/weather/history/postal-code/{postalCode}", READER_POSTAL_CODE)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + readerToken)
+                .exchange()
+                .expectStatus().isOk());
+    }
+
+    private void assertWithinBudget(String endpoint, Runnable request) {
+        long budget = Long.parseLong(budgets.getProperty(endpoint));
+        long allocated = AllocationMeter.bytesPerCall(request, WARMUP, ROUNDS, ITERATIONS);
+        log.info("{} allocates {} bytes per request (budget {})", endpoint, allocated, budget);
+        assertTrue(allocated <= budget,
+                () -> endpoint + " allocates " + allocated + " bytes per request, budget is " + budget);
+    }
+
+    private static WeatherData historyEntry(int index) {
+        return WeatherData.builder()
+                .weather(List.of(new WeatherData.Weather(803, "Clouds", "broken clouds", "04d")))
+                .main(new WeatherData.Main(291.52, 291.01, 289.82, 293.15, 1016, 62, 1016, 1014))
+                .wind(new WeatherData.Wind(4.63, 240))
+                .postalCode(READER_POSTAL_CODE)
+                .username(READER)
+                .requestTime(LocalDateTime.of(2024, 1, 1, 12, 0).minusMinutes(index))
+                .build();
+    }
+
+    /**
+     * Replaces the network and the database with in-process stubs.
+     */
+    @TestConfiguration(proxyBeanMethods = false)
+    @EnableConfigurationProperties({ WeatherServiceProperties.class, ResponseCacheProperties.class,
+            DegradationProperties.class, RetryProperties.class, IdempotencyProperties.class, JobProperties.class,
+            DeadlineProperties.class })
+    static class StubbedEdges {
+
+        private static final String GEO_PAYLOAD = "{\"zip\":\"10036\",\"name\":\"New York\",\"lat\":40,\"lon\":-73,"
+                + "\"country\":\"US\"}";
+
+        @Bean
+        WebClient.Builder webClientBuilder(ObjectMapper objectMapper) throws IOException {
+            String weatherPayload;
+            try (InputStream in = getClass().getResourceAsStream("/benchmark/openweather-current.json")) {
+                weatherPayload = new String(in.readAllBytes());
+            }
+            ExchangeStrategies strategies = ExchangeStrategies.builder()
+                    .codecs(codecs -> codecs.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper)))
+                    .build();
+            return WebClient.builder().exchangeFunction(request -> Mono.just(ClientResponse
+                    .create(HttpStatus.OK, strategies)
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .body(request.url().getPath().startsWith("/geo") ? GEO_PAYLOAD : weatherPayload)
+                    .build()));
+        }
+
+        @Bean
+        WeatherDataRepository weatherDataRepository() {
+            return new InMemoryWeatherDataRepository();
+        }
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.weather.api;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.util.Arrays;
+
+/**
+ * Measures heap bytes allocated per call using the HotSpot per-thread
+ * allocation counters.
+ *
+ * <p>
+ * The counters of the calling thread and of the Reactor scheduler workers are
+ * summed: {@code WebTestClient} hands each exchange to a {@code parallel}
+ * worker, so most of the request is processed there. Other threads are left out
+ * on purpose, since background work of the cached test contexts would
+ * otherwise be charged to the request. Each call is warmed up first so that
+ * class loading, lazy initialisation and JIT compilation do not count, and the
+ * minimum over several rounds is reported: unrelated allocation can only add
+ * to a round, never remove from it.
+ * </p>
+ */
+final class AllocationMeter {
+
+	private static final com.sun.management.ThreadMXBean THREADS = (com.sun.management.ThreadMXBean) ManagementFactory
+			.getThreadMXBean();
+	private static final String[] WORKER_PREFIXES = { "parallel-", "boundedElastic-" };
+
+	private AllocationMeter() {
+	}
+
+	/**
+	 * @return whether the JVM exposes per-thread allocation counters
+	 */
+	static boolean isSupported() {
+		return THREADS.isThreadAllocatedMemorySupported() && THREADS.isThreadAllocatedMemoryEnabled();
+	}
+
+	/**
+	 * @param call       the operation to measure
+	 * @param warmup     unmeasured calls before the first round
+	 * @param rounds     number of measured rounds
+	 * @param iterations calls per round
+	 * @return the lowest average number of bytes allocated per call over the rounds
+	 */
+	static long bytesPerCall(Runnable call, int warmup, int rounds, int iterations) {
+		for (int i = 0; i < warmup; i++) {
+			call.run();
+		}
+		long best = Long.MAX_VALUE;
+		for (int round = 0; round < rounds; round++) {
+			long[] threadIds = measuredThreadIds();
+			long before = allocatedBytes(threadIds);
+			for (int i = 0; i < iterations; i++) {
+				call.run();
+			}
+			best = Math.min(best, (allocatedBytes(threadIds) - before) / iterations);
+		}
+		return best;
+	}
+
+	private static long[] measuredThreadIds() {
+		long current = Thread.currentThread().getId();
+		return Arrays.stream(THREADS.getThreadInfo(THREADS.getAllThreadIds()))
+				.filter(info -> info != null && (info.getThreadId() == current || isWorker(info)))
+				.mapToLong(ThreadInfo::getThreadId)
+				.toArray();
+	}
+
+	private static boolean isWorker(ThreadInfo info) {
+		return Arrays.stream(WORKER_PREFIXES).anyMatch(info.getThreadName()::startsWith);
+	}
+
+	private static long allocatedBytes(long[] threadIds) {
+		long total = 0;
+		for (long bytes : THREADS.getThreadAllocatedBytes(threadIds)) {
+			if (bytes > 0) {
+				total += bytes;
+			}
+		}
+		return total;
+	}
+}
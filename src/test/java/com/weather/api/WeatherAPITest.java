@@ -1,25 +1,47 @@
 package com.weather.api;
 
+import com.weather.cache.EncodedHistoryCache;
+import com.weather.cache.EncodedWeatherResponse;
 import com.weather.dto.WeatherInfo;
 import com.weather.dto.WeatherRequest;
 import com.weather.dto.WeatherResponse;
+import com.weather.exception.ResourceNotFoundException;
+import com.weather.idempotency.IdempotencyStore;
+import com.weather.idempotency.IdempotentResult;
+import com.weather.jobs.CollectionJob;
+import com.weather.jobs.CollectionJobQueue;
+import com.weather.model.WeatherData;
 import com.weather.service.impl.WeatherService;
+import com.weather.utils.HistoryETag;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.net.URI;
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -28,6 +50,15 @@ public class WeatherAPITest {
     @Mock
     private WeatherService weatherService;
 
+    @Mock
+    private EncodedHistoryCache historyCache;
+
+    @Mock
+    private IdempotencyStore idempotencyStore;
+
+    @Mock
+    private CollectionJobQueue jobQueue;
+
     @InjectMocks
     private WeatherAPI weatherAPI;
 
@@ -67,7 +98,7 @@ public class WeatherAPITest {
         when(weatherService.getHistoryByPostalCode(anyString()))
                 .thenReturn(Mono.just(testWeatherResponse));
 
-        StepVerifier.create(weatherAPI.getHistoryByPostalCode("12345"))
+        StepVerifier.create(weatherAPI.getHistoryByPostalCode("12345", exchange()))
                 .assertNext(response -> {
                     assertNotNull(response);
                     assertEquals(200, response.getStatusCode().value());
@@ -86,7 +117,7 @@ public class WeatherAPITest {
         when(weatherService.getHistoryByUsername(anyString()))
                 .thenReturn(Mono.just(testWeatherResponse));
 
-        StepVerifier.create(weatherAPI.getHistoryByUsername("testUser"))
+        StepVerifier.create(weatherAPI.getHistoryByUsername("testUser", exchange()))
                 .assertNext(response -> {
                     assertNotNull(response);
                     assertEquals(200, response.getStatusCode().value());
@@ -95,8 +126,126 @@ public class WeatherAPITest {
                     assertEquals(1, responseBody.getHistory().size());
                     assertEquals(testWeatherInfo.getUsername(),
                             responseBody.getHistory().get(0).getUsername());
+                    assertEquals("\"" + HistoryETag.of(testWeatherResponse.getHistory()) + "\"",
+                            response.getHeaders().getETag());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void getHistoryByUsernameMatchingETagReturnsNotModifiedWithoutReadingTest() {
+        when(weatherService.getHistoryETagByUsername("testUser")).thenReturn(Mono.just("1-abc"));
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest
+                .get("/v1/api/weather/history/user/testUser")
+                .ifNoneMatch("\"1-abc\""));
+
+        StepVerifier.create(weatherAPI.getHistoryByUsername("testUser", exchange))
+                .assertNext(response -> {
+                    assertEquals(304, response.getStatusCode().value());
+                    assertEquals("\"1-abc\"", response.getHeaders().getETag());
+                    assertNull(response.getBody());
+                })
+                .verifyComplete();
+        verify(weatherService, never()).getHistoryByUsername(anyString());
+    }
+
+    @Test
+    void getHistoryByPostalCodeStaleETagReturnsHistoryTest() {
+        when(weatherService.getHistoryETagByPostalCode("12345")).thenReturn(Mono.just("2-abd"));
+        when(weatherService.getHistoryByPostalCode("12345")).thenReturn(Mono.just(testWeatherResponse));
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest
+                .get("/v1/api/weather/history/postal-code/12345")
+                .ifNoneMatch("\"1-abc\""));
+
+        StepVerifier.create(weatherAPI.getHistoryByPostalCode("12345", exchange))
+                .assertNext(response -> {
+                    assertEquals(200, response.getStatusCode().value());
+                    assertEquals(testWeatherResponse, response.getBody());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void getHistoryByPostalCodeCachedEncodingSkipsLoadingTest() {
+        EncodedWeatherResponse encoded = mock(EncodedWeatherResponse.class);
+        when(encoded.getVersion()).thenReturn("1-abc");
+        when(historyCache.representation(any())).thenReturn(MediaType.APPLICATION_CBOR);
+        when(historyCache.get("12345", MediaType.APPLICATION_CBOR, "1-abc")).thenReturn(Optional.of(encoded));
+        when(weatherService.getHistoryETagByPostalCode("12345")).thenReturn(Mono.just("1-abc"));
+
+        StepVerifier.create(weatherAPI.getHistoryByPostalCode("12345", exchange()))
+                .assertNext(response -> {
+                    assertEquals(200, response.getStatusCode().value());
+                    assertEquals(MediaType.APPLICATION_CBOR, response.getHeaders().getContentType());
+                    assertEquals("\"1-abc\"", response.getHeaders().getETag());
+                    assertEquals(encoded, response.getBody());
+                })
+                .verifyComplete();
+        verify(weatherService, never()).getHistoryByPostalCode(anyString());
+    }
+
+    @Test
+    void collectEventStaleObservationIsMarkedTest() {
+        WeatherData stale = WeatherData.builder()
+                .postalCode("12345")
+                .username("testUser")
+                .requestTime(LocalDateTime.now().minusMinutes(10))
+                .stale(true)
+                .build();
+        when(weatherService.getWeatherData(any(WeatherRequest.class))).thenReturn(Mono.just(stale));
+
+        StepVerifier.create(weatherAPI.collectEvent(testWeatherRequest, null, null, exchange()))
+                .assertNext(response -> {
+                    assertEquals("true", response.getHeaders().getFirst(WeatherAPI.STALE_HEADER));
+                    long age = Long.parseLong(response.getHeaders().getFirst(HttpHeaders.AGE));
+                    assertTrue(age >= 600 && age < 660, Long.toString(age));
+                    assertEquals(stale, response.getBody());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void collectEventReplayedResultIsMarkedTest() {
+        WeatherData collected = WeatherData.builder().postalCode("12345").username("testUser").build();
+        when(idempotencyStore.execute(eq("key-1"), eq(testWeatherRequest), any()))
+                .thenReturn(Mono.just(new IdempotentResult(collected, true)));
+
+        StepVerifier.create(weatherAPI.collectEvent(testWeatherRequest, "key-1", null, exchange()))
+                .assertNext(response -> {
+                    assertEquals("true", response.getHeaders().getFirst(WeatherAPI.REPLAYED_HEADER));
+                    assertNull(response.getHeaders().getFirst(WeatherAPI.STALE_HEADER));
+                    assertEquals(collected, response.getBody());
+                })
+                .verifyComplete();
+        verify(weatherService, never()).getWeatherData(any(WeatherRequest.class));
+    }
+
+    @Test
+    void collectEventPreferringAsyncQueuesJobTest() {
+        CollectionJob job = mock(CollectionJob.class);
+        when(job.getId()).thenReturn("job-1");
+        when(jobQueue.isEnabled()).thenReturn(true);
+        when(jobQueue.submit(any(), anyString())).thenReturn(Mono.just(job));
+
+        StepVerifier.create(weatherAPI.collectEvent(testWeatherRequest, null, "handling=lenient, respond-async",
+                        exchange()))
+                .assertNext(response -> {
+                    assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+                    assertEquals(URI.create("/v1/api/weather/jobs/job-1"), response.getHeaders().getLocation());
+                    assertEquals("respond-async", response.getHeaders().getFirst("Preference-Applied"));
+                    assertEquals(job, response.getBody());
                 })
                 .verifyComplete();
+        verify(weatherService, never()).getWeatherData(any(WeatherRequest.class));
+    }
+
+    @Test
+    void getJobUnknownIdReturnsNotFoundTest() {
+        when(jobQueue.find("job-1")).thenReturn(Mono.empty());
+
+        StepVerifier.create(weatherAPI.getJob("job-1"))
+                .expectError(ResourceNotFoundException.class)
+                .verify();
     }
 
     @Test
@@ -104,7 +253,7 @@ public class WeatherAPITest {
         when(weatherService.getWeatherData(any(WeatherRequest.class)))
                 .thenReturn(Mono.error(new RuntimeException("Service error")));
 
-        StepVerifier.create(weatherAPI.collectEvent(testWeatherRequest))
+        StepVerifier.create(weatherAPI.collectEvent(testWeatherRequest, null, null, exchange()))
                 .expectError(RuntimeException.class)
                 .verify();
     }
@@ -114,7 +263,7 @@ public class WeatherAPITest {
         when(weatherService.getHistoryByPostalCode(anyString()))
                 .thenReturn(Mono.error(new RuntimeException("Service error")));
 
-        StepVerifier.create(weatherAPI.getHistoryByPostalCode("12345"))
+        StepVerifier.create(weatherAPI.getHistoryByPostalCode("12345", exchange()))
                 .expectError(RuntimeException.class)
                 .verify();
     }
@@ -124,8 +273,12 @@ public class WeatherAPITest {
         when(weatherService.getHistoryByUsername(anyString()))
                 .thenReturn(Mono.error(new RuntimeException("Service error")));
 
-        StepVerifier.create(weatherAPI.getHistoryByUsername("testUser"))
+        StepVerifier.create(weatherAPI.getHistoryByUsername("testUser", exchange()))
                 .expectError(RuntimeException.class)
                 .verify();
     }
+
+    private static MockServerWebExchange exchange() {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/v1/api/weather/history"));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,187 @@
+package com.weather.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.weather.cache.EncodedHistoryCache;
+import com.weather.config.JacksonConfig;
+import com.weather.dto.WeatherInfo;
+import com.weather.dto.WeatherRequest;
+import com.weather.dto.WeatherResponse;
+import com.weather.exception.handler.ErrorResponseWriter;
+import com.weather.idempotency.IdempotencyStore;
+import com.weather.jobs.CollectionJobQueue;
+import com.weather.model.WeatherData;
+import com.weather.security.JwtAuthenticationManager;
+import com.weather.security.JwtService;
+import com.weather.security.SecurityConfig;
+import com.weather.security.TokenRevocationRegistry;
+import com.weather.service.impl.WeatherService;
+import com.weather.utils.HistoryETag;
+import com.weather.utils.ResponseCacheProperties;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+@WebFluxTest(controllers = WeatherAPI.class)
+@Import({ SecurityConfig.class, JwtAuthenticationManager.class, JwtService.class, TokenRevocationRegistry.class,
+        ErrorResponseWriter.class, JacksonConfig.class, EncodedHistoryCache.class,
+        WeatherContentNegotiationTest.CacheMetrics.class })
+class WeatherContentNegotiationTest {
+
+    private static final String TEST_USERNAME = "testUser";
+    private static final String HISTORY_URI = "/v1/api/weather/history/user/{username}";
+    private static final String POSTAL_CODE_HISTORY_URI = "/v1/api/weather/history/postal-code/{postalCode}";
+    private static final String POSTAL_CODE = "94105";
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private WeatherService weatherService;
+
+    @MockBean
+    private IdempotencyStore idempotencyStore;
+
+    @MockBean
+    private CollectionJobQueue jobQueue;
+
+    private WeatherResponse history;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        token = jwtService.generateToken(TEST_USERNAME);
+        history = WeatherResponse.builder()
+                .username(TEST_USERNAME)
+                .timestamp(LocalDateTime.of(2024, 1, 1, 12, 0))
+                .history(List.of(WeatherInfo.builder()
+                        .timestamp(LocalDateTime.of(2024, 1, 1, 11, 0))
+                        .temperature(18.5)
+                        .humidity(62)
+                        .description("broken clouds")
+                        .username(TEST_USERNAME)
+                        .postalCode("94105")
+                        .build()))
+                .build();
+        when(weatherService.getHistoryByUsername(TEST_USERNAME)).thenReturn(Mono.just(history));
+    }
+
+    @Test
+    void jsonIsTheDefaultEncodingTest() {
+        webTestClient.get()
+                .uri(HISTORY_URI, TEST_USERNAME)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody()
+                .jsonPath("$.history[0].timestamp").isEqualTo("2024-01-01 11:00:00");
+    }
+
+    @Test
+    void binaryEncodingsAreSelectedByAcceptHeaderTest() throws IOException {
+        assertEquals(history, fetchHistory(MediaType.APPLICATION_CBOR, objectMapper.copyWith(new CBORFactory())));
+        assertEquals(history, fetchHistory(JacksonConfig.APPLICATION_SMILE, objectMapper.copyWith(new SmileFactory())));
+    }
+
+    @Test
+    void cborRequestBodyIsAcceptedTest() throws IOException {
+        WeatherRequest request = WeatherRequest.builder().postalCode("94105").username(TEST_USERNAME).build();
+        when(weatherService.getWeatherData(any(WeatherRequest.class)))
+                .thenReturn(Mono.just(WeatherData.builder().postalCode("94105").username(TEST_USERNAME).build()));
+
+        webTestClient.post()
+                .uri("/v1/api/weather/info")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .contentType(MediaType.APPLICATION_CBOR)
+                .bodyValue(objectMapper.copyWith(new CBORFactory()).writeValueAsBytes(request))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody()
+                .jsonPath("$.postalCode").isEqualTo("94105");
+    }
+
+    @Test
+    void repeatedPostalCodeHistoryIsServedPreEncodedTest() throws IOException {
+        history.setPostalCode(POSTAL_CODE);
+        when(weatherService.getHistoryByPostalCode(POSTAL_CODE)).thenReturn(Mono.fromCallable(() -> history));
+        when(weatherService.getHistoryETagByPostalCode(POSTAL_CODE))
+                .thenReturn(Mono.just(HistoryETag.of(history.getHistory())));
+        ObjectMapper cborMapper = objectMapper.copyWith(new CBORFactory());
+
+        assertEquals(history, fetchHistory(POSTAL_CODE_HISTORY_URI, POSTAL_CODE, MediaType.APPLICATION_CBOR, cborMapper));
+        WeatherResponse cached = fetchHistory(POSTAL_CODE_HISTORY_URI, POSTAL_CODE, MediaType.APPLICATION_CBOR,
+                cborMapper);
+        WeatherResponse json = fetchHistory(POSTAL_CODE_HISTORY_URI, POSTAL_CODE, MediaType.APPLICATION_JSON,
+                objectMapper);
+
+        assertNotEquals(history.getTimestamp(), cached.getTimestamp());
+        cached.setTimestamp(history.getTimestamp());
+        assertEquals(history, cached);
+        json.setTimestamp(history.getTimestamp());
+        assertEquals(history, json);
+        verify(weatherService, times(2)).getHistoryByPostalCode(POSTAL_CODE);
+    }
+
+    private WeatherResponse fetchHistory(MediaType mediaType, ObjectMapper mapper) throws IOException {
+        return fetchHistory(HISTORY_URI, TEST_USERNAME, mediaType, mapper);
+    }
+
+    private WeatherResponse fetchHistory(String uri, String variable, MediaType mediaType, ObjectMapper mapper)
+            throws IOException {
+        byte[] body = webTestClient.get()
+                .uri(uri, variable)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .accept(mediaType)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(mediaType)
+                .expectBody(byte[].class)
+                .returnResult()
+                .getResponseBody();
+        return mapper.readValue(body, WeatherResponse.class);
+    }
+
+    @TestConfiguration(proxyBeanMethods = false)
+    @EnableConfigurationProperties(ResponseCacheProperties.class)
+    static class CacheMetrics {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.weather.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Compares a JMH JSON result file against a stored baseline and fails when a
+ * benchmark regressed by more than the threshold.
+ *
+ * <p>
+ * Results are matched by benchmark name, parameters and mode. The primary
+ * score regresses when throughput drops, or time per operation grows, by more
+ * than {@code threshold} percent; with {@code -prof gc} the normalised
+ * allocation rate ({@code gc.alloc.rate.norm}, bytes per operation) is compared
+ * the same way. Benchmarks missing from either file are listed but never fail
+ * the comparison. Usage:
+ * {@code BenchmarkComparator <baseline.json> <current.json> [threshold-percent]}.
+ * </p>
+ *
+ * <p>
+ * No baseline is committed: figures are only comparable on the machine and
+ * JDK they were measured on, so each reference machine produces its own. A
+ * missing baseline or result file fails with instructions to create it.
+ * </p>
+ */
+public final class BenchmarkComparator {
+
+	private static final String ALLOCATION_METRIC = "gc.alloc.rate.norm";
+	/** Allocation differences below this many bytes per operation are noise. */
+	private static final double ALLOCATION_NOISE_BYTES = 16;
+
+	private BenchmarkComparator() {
+	}
+
+	public static void main(String[] args) throws IOException {
+		if (args.length < 2) {
+			System.err.println("Usage: BenchmarkComparator <baseline.json> <current.json> [threshold-percent]");
+			System.exit(2);
+		}
+		File baseline = new File(args[0]);
+		File current = new File(args[1]);
+		String missing = missingInput(baseline, current);
+		if (missing != null) {
+			System.err.println(missing);
+			System.exit(2);
+		}
+		double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10;
+		List<Comparison> comparisons = compare(read(baseline), read(current), threshold);
+		comparisons.forEach(comparison -> System.out.println(comparison.format()));
+		long regressions = comparisons.stream().filter(Comparison::regression).count();
+		System.out.printf(Locale.ROOT, "%d comparisons, %d regressions beyond %.1f%%%n", comparisons.size(),
+				regressions, threshold);
+		if (regressions > 0) {
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * @param baseline the baseline result file
+	 * @param current  the result file of the run to check
+	 * @return how to produce the first missing file, or {@code null} if both exist
+	 */
+	static String missingInput(File baseline, File current) {
+		if (!baseline.isFile()) {
+			return "No benchmark baseline at " + baseline + ". Produce one on the reference machine first: run "
+					+ "'mvn -Pbenchmark test' and copy target/jmh-result.json to " + baseline + ".";
+		}
+		if (!current.isFile()) {
+			return "No benchmark results at " + current + ". Run 'mvn -Pbenchmark test' first.";
+		}
+		return null;
+	}
+
+	/**
+	 * Compares every result of {@code current} with the matching baseline result.
+	 *
+	 * @param baseline  results keyed by {@link #key(JsonNode)}
+	 * @param current   results keyed by {@link #key(JsonNode)}
+	 * @param threshold tolerated degradation in percent
+	 * @return one comparison per metric, in the order of {@code current}
+	 */
+	static List<Comparison> compare(Map<String, JsonNode> baseline, Map<String, JsonNode> current, double threshold) {
+		List<Comparison> comparisons = new ArrayList<>();
+		current.forEach((key, result) -> {
+			JsonNode reference = baseline.get(key);
+			if (reference == null) {
+				comparisons.add(new Comparison(key, "score", Double.NaN, score(result.path("primaryMetric")), false));
+				return;
+			}
+			boolean higherIsBetter = "thrpt".equals(result.path("mode").asText());
+			double before = score(reference.path("primaryMetric"));
+			double after = score(result.path("primaryMetric"));
+			double degradation = higherIsBetter ? percent(before - after, before) : percent(after - before, before);
+			comparisons.add(new Comparison(key, "score", before, after, degradation > threshold));
+
+			JsonNode allocationBefore = allocation(reference);
+			JsonNode allocationAfter = allocation(result);
+			if (allocationBefore != null && allocationAfter != null) {
+				double bytesBefore = score(allocationBefore);
+				double bytesAfter = score(allocationAfter);
+				boolean regression = bytesAfter - bytesBefore > ALLOCATION_NOISE_BYTES
+						&& percent(bytesAfter - bytesBefore, bytesBefore) > threshold;
+				comparisons.add(new Comparison(key, "B/op", bytesBefore, bytesAfter, regression));
+			}
+		});
+		baseline.keySet().stream()
+				.filter(key -> !current.containsKey(key))
+				.forEach(key -> comparisons.add(new Comparison(key, "score",
+						score(baseline.get(key).path("primaryMetric")), Double.NaN, false)));
+		return comparisons;
+	}
+
+	/**
+	 * Reads a JMH result file ({@code -rf json}).
+	 *
+	 * @param file the result file
+	 * @return the results keyed by benchmark, parameters and mode
+	 * @throws IOException if the file cannot be read
+	 */
+	static Map<String, JsonNode> read(File file) throws IOException {
+		Map<String, JsonNode> results = new LinkedHashMap<>();
+		for (JsonNode result : new ObjectMapper().readTree(file)) {
+			results.put(key(result), result);
+		}
+		return results;
+	}
+
+	static String key(JsonNode result) {
+		StringBuilder key = new StringBuilder(result.path("benchmark").asText());
+		JsonNode params = result.path("params");
+		if (!params.isMissingNode()) {
+			key.append(params);
+		}
+		return key.append(" [").append(result.path("mode").asText()).append(']').toString();
+	}
+
+	private static JsonNode allocation(JsonNode result) {
+		Iterator<Map.Entry<String, JsonNode>> metrics = result.path("secondaryMetrics").fields();
+		while (metrics.hasNext()) {
+			Map.Entry<String, JsonNode> metric = metrics.next();
+			if (metric.getKey().endsWith(ALLOCATION_METRIC)) {
+				return metric.getValue();
+			}
+		}
+		return null;
+	}
+
+	private static double score(JsonNode metric) {
+		return metric.path("score").asDouble(Double.NaN);
+	}
+
+	private static double percent(double delta, double reference) {
+		return reference == 0 ? 0 : delta / reference * 100;
+	}
+
+	/**
+	 * One compared metric. {@code before} or {@code after} is {@code NaN} when
+	 * the benchmark exists in only one of the files.
+	 */
+	record Comparison(String benchmark, String metric, double before, double after, boolean regression) {
+
+		String format() {
+			String change = Double.isNaN(before) ? "new"
+					: Double.isNaN(after) ? "missing"
+							: String.format(Locale.ROOT, "%+.1f%%", percent(after - before, before));
+			return String.format(Locale.ROOT, "%-10s %-100s %-6s %14.3f -> %14.3f  %s",
+					regression ? "REGRESSION" : "ok", benchmark, metric, before, after, change);
+		}
+	}
+}
@@ -0,0 +1,73 @@
+package com.weather.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.weather.benchmark.BenchmarkComparator.Comparison;
+
+class BenchmarkComparatorTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void throughputDropAndAllocationGrowthAreRegressionsTest() throws Exception {
+        List<Comparison> comparisons = BenchmarkComparator.compare(
+                results(result("thrpt", 100, 1000)),
+                results(result("thrpt", 85, 1200)), 10);
+
+        assertEquals(2, comparisons.size());
+        assertTrue(comparisons.get(0).regression());
+        assertTrue(comparisons.get(1).regression());
+    }
+
+    @Test
+    void latencyWithinThresholdIsNotARegressionTest() throws Exception {
+        List<Comparison> comparisons = BenchmarkComparator.compare(
+                results(result("sample", 10, 1000)),
+                results(result("sample", 10.5, 1008)), 10);
+
+        assertFalse(comparisons.stream().anyMatch(Comparison::regression));
+    }
+
+    @Test
+    void missingBaselineExplainsHowToProduceItTest(@TempDir Path dir) throws Exception {
+        File baseline = dir.resolve("baseline.json").toFile();
+        File current = Files.writeString(dir.resolve("jmh-result.json"), "[]").toFile();
+
+        String missing = BenchmarkComparator.missingInput(baseline, current);
+
+        assertTrue(missing.contains("No benchmark baseline at " + baseline));
+        assertTrue(missing.contains("mvn -Pbenchmark test"));
+        Files.writeString(baseline.toPath(), "[]");
+        assertNull(BenchmarkComparator.missingInput(baseline, current));
+    }
+
+    private Map<String, JsonNode> results(JsonNode result) {
+        Map<String, JsonNode> results = new LinkedHashMap<>();
+        results.put(BenchmarkComparator.key(result), result);
+        return results;
+    }
+
+    private JsonNode result(String mode, double score, double bytesPerOp) throws Exception {
+        return objectMapper.readTree("""
+                {"benchmark": "com.weather.benchmark.SampleBenchmark.run", "mode": "%s",
+                 "params": {"size": "20"},
+                 "primaryMetric": {"score": %s},
+                 "secondaryMetrics": {"gc.alloc.rate.norm": {"score": %s}}}
+                """.formatted(mode, score, bytesPerOp));
+    }
+}
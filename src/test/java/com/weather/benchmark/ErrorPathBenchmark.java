@@ -0,0 +1,199 @@
+package com.weather.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.weather.config.JsonCodecs;
+import com.weather.dto.ApiError;
+import com.weather.exception.DatabaseException;
+import com.weather.exception.InvalidCredentialsException;
+import com.weather.exception.InvalidTokenException;
+import com.weather.exception.ResourceNotFoundException;
+import com.weather.exception.UnauthorizedAccessException;
+import com.weather.exception.ValidationException;
+import com.weather.exception.WeatherServiceException;
+import com.weather.exception.handler.ErrorResponseWriter;
+import com.weather.exception.handler.GlobalExceptionHandler;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Compares the error path before and after the allocation-light rework, for
+ * the two error classes that dominate during incidents: 401 (credential
+ * stuffing, expired tokens) and 503 (upstream or database outage).
+ *
+ * <p>
+ * The {@code legacy*} benchmarks replicate the previous implementation: a
+ * stack-capturing exception, a stream over a {@link java.util.HashMap} with
+ * {@code isInstance} checks, {@link UUID#randomUUID()} and, for the 401 filter
+ * path, a fresh {@link ObjectMapper} per response. Run with
+ * {@code mvn -Pbenchmark test -Djmh.includes=ErrorPathBenchmark}; the profile
+ * enables {@code -prof gc}, so allocation rates are reported alongside.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class ErrorPathBenchmark {
+
+	private static final String PATH = "/v1/api/weather/info";
+
+	private GlobalExceptionHandler handler;
+	private ErrorResponseWriter errorResponseWriter;
+	private LegacyErrorPath legacy;
+
+	@Setup
+	public void setUp() {
+		ObjectMapper objectMapper = new ObjectMapper();
+		errorResponseWriter = new ErrorResponseWriter(new JsonCodecs(objectMapper));
+		handler = new GlobalExceptionHandler(errorResponseWriter);
+		legacy = new LegacyErrorPath(objectMapper);
+	}
+
+	@Benchmark
+	public Object unauthorizedHandler() {
+		MockServerWebExchange exchange = newExchange();
+		handler.handle(exchange, new InvalidTokenException("Invalid JWT token")).block();
+		return exchange.getResponse();
+	}
+
+	@Benchmark
+	public Object unauthorizedHandlerLegacy() {
+		MockServerWebExchange exchange = newExchange();
+		legacy.handle(exchange, new LegacyException("Invalid JWT token")).block();
+		return exchange.getResponse();
+	}
+
+	@Benchmark
+	public Object unauthorizedFilter() {
+		MockServerWebExchange exchange = newExchange();
+		errorResponseWriter.write(exchange, HttpStatus.UNAUTHORIZED, "Authentication Failed",
+				"No valid authorization token found").block();
+		return exchange.getResponse();
+	}
+
+	@Benchmark
+	public Object unauthorizedFilterLegacy() throws Exception {
+		MockServerWebExchange exchange = newExchange();
+		ApiError error = ApiError.builder()
+				.timestamp(LocalDateTime.now().toString())
+				.status(HttpStatus.UNAUTHORIZED.value())
+				.error("Authentication Failed")
+				.message("No valid authorization token found")
+				.path(PATH)
+				.traceId(UUID.randomUUID().toString())
+				.build();
+		LegacyErrorPath.write(exchange, HttpStatus.UNAUTHORIZED, new ObjectMapper().writeValueAsBytes(error)).block();
+		return exchange.getResponse();
+	}
+
+	@Benchmark
+	public Object serviceUnavailableHandler() {
+		MockServerWebExchange exchange = newExchange();
+		handler.handle(exchange, new WeatherServiceException("Upstream unavailable", null)).block();
+		return exchange.getResponse();
+	}
+
+	@Benchmark
+	public Object serviceUnavailableHandlerLegacy() {
+		MockServerWebExchange exchange = newExchange();
+		legacy.handle(exchange, new WeatherServiceException("Upstream unavailable", null)).block();
+		return exchange.getResponse();
+	}
+
+	private static MockServerWebExchange newExchange() {
+		return MockServerWebExchange.from(MockServerHttpRequest.get(PATH));
+	}
+
+	/**
+	 * Stand-in for the previous {@link InvalidTokenException}, which captured a
+	 * stack trace.
+	 */
+	private static final class LegacyException extends RuntimeException {
+
+		private static final long serialVersionUID = 1L;
+
+		private LegacyException(String message) {
+			super(message);
+		}
+	}
+
+	/**
+	 * Resolution and serialization as done by the previous
+	 * {@link GlobalExceptionHandler}.
+	 */
+	private static final class LegacyErrorPath {
+
+		private final ObjectMapper objectMapper;
+		private final Map<Class<? extends Throwable>, HttpStatus> handlers = new LinkedHashMap<>();
+
+		private LegacyErrorPath(ObjectMapper objectMapper) {
+			this.objectMapper = objectMapper;
+			handlers.put(ValidationException.class, HttpStatus.BAD_REQUEST);
+			handlers.put(InvalidCredentialsException.class, HttpStatus.UNAUTHORIZED);
+			handlers.put(UnauthorizedAccessException.class, HttpStatus.FORBIDDEN);
+			handlers.put(ResourceNotFoundException.class, HttpStatus.NOT_FOUND);
+			handlers.put(WebClientResponseException.class, HttpStatus.BAD_GATEWAY);
+			handlers.put(DatabaseException.class, HttpStatus.SERVICE_UNAVAILABLE);
+			handlers.put(WeatherServiceException.class, HttpStatus.SERVICE_UNAVAILABLE);
+			handlers.put(LegacyException.class, HttpStatus.UNAUTHORIZED);
+		}
+
+		private Mono<Void> handle(ServerWebExchange exchange, Throwable ex) {
+			HttpStatus status = handlers.entrySet().stream()
+					.filter(entry -> entry.getKey().isInstance(ex))
+					.findFirst()
+					.map(Map.Entry::getValue)
+					.orElse(HttpStatus.INTERNAL_SERVER_ERROR);
+			ApiError error = ApiError.builder()
+					.timestamp(LocalDateTime.now().toString())
+					.status(status.value())
+					.error(status.getReasonPhrase())
+					.message(ex.getMessage())
+					.path(PATH)
+					.errors(Collections.emptyList())
+					.traceId(UUID.randomUUID().toString())
+					.build();
+			try {
+				return write(exchange, status, objectMapper.writeValueAsBytes(error));
+			} catch (Exception e) {
+				return Mono.error(e);
+			}
+		}
+
+		private static Mono<Void> write(ServerWebExchange exchange, HttpStatus status, byte[] bytes) {
+			exchange.getResponse().setStatusCode(status);
+			exchange.getResponse().getHeaders().setContentType(MediaType.APPLICATION_JSON);
+			DataBuffer buffer = exchange.getResponse().bufferFactory().wrap(bytes);
+			return exchange.getResponse().writeWith(Mono.just(buffer));
+		}
+	}
+}
@@ -0,0 +1,132 @@
+package com.weather.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.http.codec.json.AbstractJackson2Decoder;
+import org.springframework.http.codec.json.AbstractJackson2Encoder;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.weather.config.JacksonConfig;
+import com.weather.dto.WeatherInfo;
+import com.weather.dto.WeatherResponse;
+
+/**
+ * Encodes and decodes a 10k-entry history {@link WeatherResponse} as JSON,
+ * CBOR and Smile with the Spring codecs the server uses, each backed by a copy
+ * of the application {@link ObjectMapper}. The encoded size of each format is
+ * printed once per fork. Run with
+ * {@code mvn -Pbenchmark test -Djmh.includes=HistoryEncodingBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HistoryEncodingBenchmark {
+
+	private static final int HISTORY_SIZE = 10_000;
+	private static final ResolvableType WEATHER_RESPONSE = ResolvableType.forClass(WeatherResponse.class);
+
+	@Param({ "json", "cbor", "smile" })
+	public String format;
+
+	private AbstractJackson2Encoder encoder;
+	private AbstractJackson2Decoder decoder;
+	private MediaType mediaType;
+	private WeatherResponse response;
+	private byte[] payload;
+
+	@Setup
+	public void setUp() {
+		ObjectMapper objectMapper = new JacksonConfig().objectMapper();
+		switch (format) {
+			case "json" -> {
+				encoder = new Jackson2JsonEncoder(objectMapper);
+				decoder = new Jackson2JsonDecoder(objectMapper);
+				mediaType = MediaType.APPLICATION_JSON;
+			}
+			case "cbor" -> {
+				ObjectMapper cborMapper = objectMapper.copyWith(new CBORFactory());
+				encoder = new Jackson2CborEncoder(cborMapper, MediaType.APPLICATION_CBOR);
+				decoder = new Jackson2CborDecoder(cborMapper, MediaType.APPLICATION_CBOR);
+				mediaType = MediaType.APPLICATION_CBOR;
+			}
+			case "smile" -> {
+				ObjectMapper smileMapper = objectMapper.copyWith(new SmileFactory());
+				encoder = new Jackson2SmileEncoder(smileMapper, JacksonConfig.APPLICATION_SMILE);
+				decoder = new Jackson2SmileDecoder(smileMapper, JacksonConfig.APPLICATION_SMILE);
+				mediaType = JacksonConfig.APPLICATION_SMILE;
+			}
+			default -> throw new IllegalArgumentException("Unknown format " + format);
+		}
+		decoder.setMaxInMemorySize(-1);
+		response = history(HISTORY_SIZE);
+		DataBuffer encoded = encode();
+		payload = new byte[encoded.readableByteCount()];
+		encoded.read(payload);
+		System.out.printf("%n%s history of %d entries: %d bytes%n", format, HISTORY_SIZE, payload.length);
+	}
+
+	@Benchmark
+	public DataBuffer encode() {
+		return encoder.encodeValue(response, DefaultDataBufferFactory.sharedInstance, WEATHER_RESPONSE, mediaType,
+				Collections.emptyMap());
+	}
+
+	@Benchmark
+	public Object decode() {
+		return decoder.decode(DefaultDataBufferFactory.sharedInstance.wrap(payload), WEATHER_RESPONSE, mediaType,
+				Collections.emptyMap());
+	}
+
+	private static WeatherResponse history(int size) {
+		LocalDateTime timestamp = LocalDateTime.of(2024, 1, 1, 12, 0);
+		List<WeatherInfo> history = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			history.add(WeatherInfo.builder()
+					.timestamp(timestamp.minusMinutes(i))
+					.temperature(18.37 + i % 10)
+					.feelsLike(17.86 + i % 10)
+					.humidity(62)
+					.description("broken clouds")
+					.windSpeed(4.63)
+					.conditions("Clouds")
+					.username("benchmark-user")
+					.postalCode("10036")
+					.build());
+		}
+		return WeatherResponse.builder()
+				.username("benchmark-user")
+				.timestamp(timestamp)
+				.history(history)
+				.build();
+	}
+}
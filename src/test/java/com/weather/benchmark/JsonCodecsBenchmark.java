@@ -0,0 +1,139 @@
+package com.weather.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.weather.config.JacksonConfig;
+import com.weather.config.JsonCodecs;
+import com.weather.dto.WeatherInfo;
+import com.weather.dto.WeatherResponse;
+import com.weather.model.WeatherData;
+
+import io.netty.buffer.PooledByteBufAllocator;
+
+/**
+ * Compares the previous JSON setup, a bare {@link ObjectMapper} with
+ * {@link JavaTimeModule} behind the stock Spring codecs, with the tuned
+ * {@link JsonCodecs} codecs on the application mapper. Encodes a 20-entry
+ * history {@link WeatherResponse} into pooled Netty buffers as the server does,
+ * and decodes a real OpenWeather payload into {@link WeatherData} as
+ * {@code WebClient} does. Run with
+ * {@code mvn -Pbenchmark test -Djmh.includes=JsonCodecsBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonCodecsBenchmark {
+
+	private static final ResolvableType WEATHER_RESPONSE = ResolvableType.forClass(WeatherResponse.class);
+	private static final ResolvableType WEATHER_DATA = ResolvableType.forClass(WeatherData.class);
+
+	private final NettyDataBufferFactory bufferFactory = new NettyDataBufferFactory(PooledByteBufAllocator.DEFAULT);
+
+	private Jackson2JsonEncoder baselineEncoder;
+	private Jackson2JsonDecoder baselineDecoder;
+	private Jackson2JsonEncoder tunedEncoder;
+	private Jackson2JsonDecoder tunedDecoder;
+	private WeatherResponse response;
+	private byte[] payload;
+
+	@Setup
+	public void setUp() throws IOException {
+		ObjectMapper baselineMapper = new ObjectMapper();
+		baselineMapper.registerModule(new JavaTimeModule());
+		baselineEncoder = new Jackson2JsonEncoder(baselineMapper);
+		baselineDecoder = new Jackson2JsonDecoder(baselineMapper);
+		JsonCodecs jsonCodecs = new JsonCodecs(new JacksonConfig().objectMapper());
+		tunedEncoder = jsonCodecs.encoder();
+		tunedDecoder = jsonCodecs.decoder();
+		response = history(20);
+		try (InputStream in = getClass().getResourceAsStream("/benchmark/openweather-current.json")) {
+			payload = in.readAllBytes();
+		}
+	}
+
+	@Benchmark
+	public int encodeBaseline() {
+		return encode(baselineEncoder);
+	}
+
+	@Benchmark
+	public int encodeTuned() {
+		return encode(tunedEncoder);
+	}
+
+	@Benchmark
+	public Object decodeBaseline() {
+		return decode(baselineDecoder);
+	}
+
+	@Benchmark
+	public Object decodeTuned() {
+		return decode(tunedDecoder);
+	}
+
+	private int encode(Jackson2JsonEncoder encoder) {
+		DataBuffer buffer = encoder.encodeValue(response, bufferFactory, WEATHER_RESPONSE, MediaType.APPLICATION_JSON,
+				Collections.emptyMap());
+		int size = buffer.readableByteCount();
+		DataBufferUtils.release(buffer);
+		return size;
+	}
+
+	private Object decode(Jackson2JsonDecoder decoder) {
+		return decoder.decode(DefaultDataBufferFactory.sharedInstance.wrap(payload), WEATHER_DATA,
+				MediaType.APPLICATION_JSON, Collections.emptyMap());
+	}
+
+	private static WeatherResponse history(int size) {
+		LocalDateTime timestamp = LocalDateTime.of(2024, 1, 1, 12, 0);
+		List<WeatherInfo> history = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			history.add(WeatherInfo.builder()
+					.timestamp(timestamp.minusMinutes(i))
+					.temperature(18.37 + i)
+					.feelsLike(17.86 + i)
+					.humidity(62)
+					.description("broken clouds")
+					.windSpeed(4.63)
+					.conditions("Clouds")
+					.username("benchmark-user")
+					.postalCode("10036")
+					.build());
+		}
+		return WeatherResponse.builder()
+				.username("benchmark-user")
+				.timestamp(timestamp)
+				.history(history)
+				.build();
+	}
+}
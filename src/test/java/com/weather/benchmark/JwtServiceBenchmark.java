@@ -0,0 +1,52 @@
+package com.weather.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.weather.security.JwtService;
+
+/**
+ * Token issuance (login) and validation (every authenticated request). Run with
+ * {@code mvn -Pbenchmark test -Djmh.includes=JwtServiceBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+	private static final String SECRET = "benchmark-secret-benchmark-secret-benchmark-secret-benchmark-secret";
+
+	private JwtService jwtService;
+	private String token;
+
+	@Setup
+	public void setUp() {
+		jwtService = new JwtService();
+		ReflectionTestUtils.setField(jwtService, "secret", SECRET);
+		token = jwtService.generateToken("benchmark-user");
+	}
+
+	@Benchmark
+	public String generateToken() {
+		return jwtService.generateToken("benchmark-user");
+	}
+
+	@Benchmark
+	public String validateTokenAndGetUsername() {
+		return jwtService.validateTokenAndGetUsername(token).block();
+	}
+}
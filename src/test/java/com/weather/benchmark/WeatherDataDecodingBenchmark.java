@@ -0,0 +1,67 @@
+package com.weather.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.weather.config.JacksonConfig;
+import com.weather.model.WeatherData;
+
+/**
+ * Decodes a real OpenWeather current-weather payload
+ * ({@code benchmark/openweather-current.json}) into {@link WeatherData} with the
+ * application {@link ObjectMapper}, both directly and through the
+ * {@link Jackson2JsonDecoder} that {@code WebClient} uses. Run with
+ * {@code mvn -Pbenchmark test -Djmh.includes=WeatherDataDecodingBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WeatherDataDecodingBenchmark {
+
+	private static final ResolvableType WEATHER_DATA = ResolvableType.forClass(WeatherData.class);
+
+	private ObjectMapper objectMapper;
+	private Jackson2JsonDecoder decoder;
+	private byte[] payload;
+
+	@Setup
+	public void setUp() throws IOException {
+		objectMapper = new JacksonConfig().objectMapper();
+		decoder = new Jackson2JsonDecoder(objectMapper);
+		try (InputStream in = getClass().getResourceAsStream("/benchmark/openweather-current.json")) {
+			payload = in.readAllBytes();
+		}
+	}
+
+	@Benchmark
+	public WeatherData objectMapper() throws IOException {
+		return objectMapper.readValue(payload, WeatherData.class);
+	}
+
+	@Benchmark
+	public Object webClientDecoder() {
+		return decoder.decode(DefaultDataBufferFactory.sharedInstance.wrap(payload), WEATHER_DATA,
+				MediaType.APPLICATION_JSON, Collections.emptyMap());
+	}
+}
@@ -0,0 +1,88 @@
+package com.weather.benchmark;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.weather.dto.WeatherResponse;
+import com.weather.model.WeatherData;
+import com.weather.repository.WeatherDataRepository;
+import com.weather.service.impl.WeatherServiceImpl;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * Measures the history endpoints without the database: the repository is a
+ * proxy returning a pre-built {@link Flux}, so the score is the cost of
+ * {@code WeatherHistoryMapper.toWeatherInfo} per document plus
+ * {@code WeatherHistoryMapper.toResponse} and the surrounding Reactor operators. Run with
+ * {@code mvn -Pbenchmark test -Djmh.includes=WeatherHistoryMappingBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WeatherHistoryMappingBenchmark {
+
+	private static final String USERNAME = "benchmark-user";
+	private static final String POSTAL_CODE = "10036";
+
+	@Param({ "1", "20", "100" })
+	public int historySize;
+
+	private WeatherServiceImpl weatherService;
+
+	@Setup
+	public void setUp() {
+		Flux<WeatherData> history = Flux.fromIterable(history(historySize));
+		WeatherDataRepository repository = (WeatherDataRepository) Proxy.newProxyInstance(
+				WeatherDataRepository.class.getClassLoader(), new Class<?>[] { WeatherDataRepository.class },
+				(proxy, method, args) -> switch (method.getName()) {
+					case "findByUsernameOrderByRequestTimeDesc", "findByPostalCodeOrderByRequestTimeDesc" -> history;
+					default -> throw new UnsupportedOperationException(method.getName());
+				});
+		weatherService = new WeatherServiceImpl(null, null, repository, null, null, null);
+	}
+
+	@Benchmark
+	public WeatherResponse historyByUsername() {
+		return weatherService.getHistoryByUsername(USERNAME).block();
+	}
+
+	@Benchmark
+	public WeatherResponse historyByPostalCode() {
+		return weatherService.getHistoryByPostalCode(POSTAL_CODE).block();
+	}
+
+	private static List<WeatherData> history(int size) {
+		List<WeatherData> history = new ArrayList<>(size);
+		LocalDateTime requestTime = LocalDateTime.of(2024, 1, 1, 12, 0);
+		for (int i = 0; i < size; i++) {
+			history.add(WeatherData.builder()
+					.weather(List.of(new WeatherData.Weather(803, "Clouds", "broken clouds", "04d")))
+					.main(new WeatherData.Main(291.52 + i, 291.01, 289.82, 293.15, 1016, 62, 1016, 1014))
+					.wind(new WeatherData.Wind(4.63, 240))
+					.postalCode(POSTAL_CODE)
+					.username(USERNAME)
+					.requestTime(requestTime.minusMinutes(i))
+					.build());
+		}
+		return history;
+	}
+}
@@ -0,0 +1,54 @@
+package com.weather.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.weather.dto.Coordinates;
+import com.weather.utils.WeatherServiceProperties;
+import com.weather.utils.WeatherServiceUriUtil;
+
+/**
+ * Builds the two upstream URIs issued for every weather request. Run with
+ * {@code mvn -Pbenchmark test -Djmh.includes=WeatherServiceUriUtilBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WeatherServiceUriUtilBenchmark {
+
+	private WeatherServiceUriUtil uriUtil;
+	private Coordinates coordinates;
+	private String postalCode;
+
+	@Setup
+	public void setUp() {
+		WeatherServiceProperties properties = new WeatherServiceProperties();
+		properties.setAppId("0123456789abcdef0123456789abcdef");
+		uriUtil = new WeatherServiceUriUtil(properties);
+		coordinates = Coordinates.builder().zip("10036").lat(40).lon(-73).country("US").build();
+		postalCode = "10036";
+	}
+
+	@Benchmark
+	public String prepareGeoCoordinatesUri() {
+		return uriUtil.prepareGeoCoordinatesUri(postalCode);
+	}
+
+	@Benchmark
+	public String prepareWeatherDataUri() {
+		return uriUtil.prepareWeatherDataUri(coordinates);
+	}
+}
@@ -0,0 +1,150 @@
+package com.weather.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.util.unit.DataSize;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.weather.config.JacksonConfig;
+import com.weather.dto.WeatherInfo;
+import com.weather.dto.WeatherResponse;
+import com.weather.utils.HistoryETag;
+import com.weather.utils.ResponseCacheProperties;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class EncodedHistoryCacheTest {
+
+    private static final String POSTAL_CODE = "94105";
+    private static final LocalDateTime LOADED_AT = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    private final ObjectMapper objectMapper = new JacksonConfig().objectMapper();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ResponseCacheProperties properties = new ResponseCacheProperties();
+    private EncodedHistoryCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new EncodedHistoryCache(properties, objectMapper, meterRegistry);
+    }
+
+    @Test
+    void cachedEncodingsDecodeWithFreshTimestampTest() throws IOException {
+        WeatherResponse response = history(POSTAL_CODE, 3);
+        String version = HistoryETag.of(response.getHistory());
+
+        assertEquals(response, decode(cache.put(POSTAL_CODE, MediaType.APPLICATION_JSON, response), objectMapper));
+        cache.put(POSTAL_CODE, MediaType.APPLICATION_CBOR, response);
+
+        EncodedWeatherResponse json = cache.get(POSTAL_CODE, MediaType.APPLICATION_JSON, version).orElseThrow();
+        EncodedWeatherResponse cbor = cache.get(POSTAL_CODE, MediaType.APPLICATION_CBOR, version).orElseThrow();
+        json.setTimestamp(LOADED_AT.plusHours(1));
+        cbor.setTimestamp(LOADED_AT.plusHours(2));
+
+        assertEquals(version, json.getVersion());
+        response.setTimestamp(LOADED_AT.plusHours(1));
+        assertEquals(response, decode(json, objectMapper));
+        response.setTimestamp(LOADED_AT.plusHours(2));
+        assertEquals(response, decode(cbor, objectMapper.copyWith(new CBORFactory())));
+        assertEquals(2.0, meterRegistry.get("weather.response.cache.requests").tag("result", "hit").counter().count());
+    }
+
+    @Test
+    void newerVersionReplacesCachedEntryTest() {
+        WeatherResponse stale = history(POSTAL_CODE, 2);
+        WeatherResponse fresh = history(POSTAL_CODE, 3);
+        cache.put(POSTAL_CODE, MediaType.APPLICATION_JSON, stale);
+        long staleSize = cache.size();
+
+        assertTrue(cache.get(POSTAL_CODE, MediaType.APPLICATION_JSON, HistoryETag.of(fresh.getHistory())).isEmpty());
+        cache.put(POSTAL_CODE, MediaType.APPLICATION_JSON, fresh);
+
+        assertTrue(cache.get(POSTAL_CODE, MediaType.APPLICATION_JSON, HistoryETag.of(stale.getHistory())).isEmpty());
+        assertTrue(cache.get(POSTAL_CODE, MediaType.APPLICATION_JSON, HistoryETag.of(fresh.getHistory())).isPresent());
+        assertTrue(cache.size() > staleSize);
+    }
+
+    @Test
+    void totalSizeIsBoundedByEvictingLeastRecentlyUsedTest() {
+        WeatherResponse first = history("10001", 5);
+        cache.put("10001", MediaType.APPLICATION_JSON, first);
+        long entrySize = cache.size();
+        properties.setMaxSize(DataSize.ofBytes(entrySize * 2 + entrySize / 2));
+
+        cache.put("10002", MediaType.APPLICATION_JSON, history("10002", 5));
+        cache.get("10001", MediaType.APPLICATION_JSON, HistoryETag.of(first.getHistory()));
+        cache.put("10003", MediaType.APPLICATION_JSON, history("10003", 5));
+
+        assertTrue(cache.size() <= properties.getMaxSize().toBytes());
+        assertTrue(cache.get("10001", MediaType.APPLICATION_JSON, HistoryETag.of(first.getHistory())).isPresent());
+        assertTrue(cache.get("10002", MediaType.APPLICATION_JSON,
+                HistoryETag.of(history("10002", 5).getHistory())).isEmpty());
+    }
+
+    @Test
+    void representationFollowsAcceptHeaderTest() {
+        assertEquals(MediaType.APPLICATION_JSON, representation(null));
+        assertEquals(MediaType.APPLICATION_JSON, representation("*/*"));
+        assertEquals(MediaType.APPLICATION_CBOR, representation("*/*;q=0.5, application/cbor"));
+        assertNull(representation(JacksonConfig.APPLICATION_SMILE.toString()));
+
+        properties.setEnabled(false);
+        assertNull(representation(null));
+    }
+
+    private MediaType representation(String accept) {
+        MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.get("/");
+        if (accept != null) {
+            request.header(HttpHeaders.ACCEPT, accept);
+        }
+        return cache.representation(request.build());
+    }
+
+    private static WeatherResponse decode(EncodedWeatherResponse encoded, ObjectMapper mapper) throws IOException {
+        DataBuffer buffer = encoded.write(DefaultDataBufferFactory.sharedInstance);
+        try {
+            byte[] bytes = new byte[buffer.readableByteCount()];
+            buffer.read(bytes);
+            return mapper.readValue(bytes, WeatherResponse.class);
+        } finally {
+            DataBufferUtils.release(buffer);
+        }
+    }
+
+    private static WeatherResponse history(String postalCode, int size) {
+        List<WeatherInfo> entries = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            entries.add(WeatherInfo.builder()
+                    .timestamp(LOADED_AT.minusMinutes(i))
+                    .temperature(18.5 + i)
+                    .humidity(62)
+                    .description("broken clouds")
+                    .username("testUser")
+                    .postalCode(postalCode)
+                    .build());
+        }
+        return WeatherResponse.builder()
+                .postalCode(postalCode)
+                .username("testUser")
+                .timestamp(LOADED_AT)
+                .current(entries.get(0))
+                .history(entries)
+                .build();
+    }
+}
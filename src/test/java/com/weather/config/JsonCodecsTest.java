@@ -0,0 +1,67 @@
+package com.weather.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.weather.dto.WeatherInfo;
+import com.weather.dto.WeatherRequest;
+import com.weather.dto.WeatherResponse;
+
+class JsonCodecsTest {
+
+    private final ObjectMapper objectMapper = new JacksonConfig().objectMapper();
+    private final JsonCodecs jsonCodecs = new JsonCodecs(objectMapper);
+
+    @Test
+    void prebuiltWriterMatchesObjectMapperOutputTest() throws Exception {
+        WeatherResponse response = WeatherResponse.builder()
+                .username("testUser")
+                .timestamp(LocalDateTime.of(2024, 1, 1, 12, 0))
+                .history(List.of(WeatherInfo.builder()
+                        .timestamp(LocalDateTime.of(2024, 1, 1, 11, 0))
+                        .temperature(18.5)
+                        .description("broken clouds")
+                        .build()))
+                .build();
+        Jackson2JsonEncoder encoder = jsonCodecs.encoder();
+
+        DataBuffer buffer = encoder.encodeValue(response, DefaultDataBufferFactory.sharedInstance,
+                ResolvableType.forClass(WeatherResponse.class), MediaType.APPLICATION_JSON, Collections.emptyMap());
+
+        assertEquals(objectMapper.writeValueAsString(response), buffer.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void decoderReadsPrebuiltAndOtherTypesTest() {
+        Jackson2JsonDecoder decoder = jsonCodecs.decoder();
+
+        Object response = decoder.decode(json("{\"username\":\"testUser\",\"history\":[]}"),
+                ResolvableType.forClass(WeatherResponse.class), MediaType.APPLICATION_JSON, Collections.emptyMap());
+        WeatherRequest request = (WeatherRequest) decoder.decode(json("{\"postalCode\":\"94105\",\"username\":\"testUser\"}"),
+                ResolvableType.forClass(WeatherRequest.class), MediaType.APPLICATION_JSON, Collections.emptyMap());
+
+        assertEquals(WeatherResponse.builder().username("testUser").history(List.of()).build(), response);
+        assertEquals("94105", request.getPostalCode());
+        assertThrows(DecodingException.class, () -> decoder.decode(json("{\"username\":"),
+                ResolvableType.forClass(WeatherResponse.class), MediaType.APPLICATION_JSON, Collections.emptyMap()));
+    }
+
+    private static DataBuffer json(String json) {
+        return DefaultDataBufferFactory.sharedInstance.wrap(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
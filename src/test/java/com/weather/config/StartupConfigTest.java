@@ -0,0 +1,28 @@
+package com.weather.config;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.springdoc.core.properties.SpringDocConfigProperties;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+
+import com.weather.api.WeatherAPI;
+import com.weather.workload.AdaptiveConcurrencyLimiter;
+
+class StartupConfigTest {
+
+    private final LazyInitializationExcludeFilter filter = StartupConfig.requestPathBeans();
+
+    @Test
+    void applicationBeansStayEagerTest() {
+        assertTrue(excluded(WeatherAPI.class));
+        assertTrue(excluded(AdaptiveConcurrencyLimiter.class));
+        assertFalse(excluded(SpringDocConfigProperties.class));
+    }
+
+    private boolean excluded(Class<?> type) {
+        return filter.isExcluded(type.getSimpleName(), new RootBeanDefinition(type), type);
+    }
+}
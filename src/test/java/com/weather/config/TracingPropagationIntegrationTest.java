@@ -0,0 +1,187 @@
+package com.weather.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import com.weather.model.WeatherData;
+import com.weather.repository.UserRepository;
+import com.weather.repository.WeatherDataRepository;
+import com.weather.security.JwtService;
+
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = { "management.tracing.sampling.probability=1.0", "rate-limit.enabled=false",
+                "spring.data.mongodb.auto-index-creation=false", "warmup.enabled=false" })
+@Import(TracingPropagationIntegrationTest.InMemoryTracingConfig.class)
+class TracingPropagationIntegrationTest {
+
+    private static final String TEST_USERNAME = "testUser";
+    private static final String TRACE_ID = "4bf92f3577b34da6a3ce929d0e0e4736";
+    private static final String PARENT_SPAN_ID = "00f067aa0ba902b7";
+    private static final String TRACEPARENT = "00-" + TRACE_ID + "-" + PARENT_SPAN_ID + "-01";
+
+    private static MockWebServer upstream;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private InMemorySpanExporter spanExporter;
+
+    @Autowired
+    private SdkTracerProvider tracerProvider;
+
+    @MockBean
+    private WeatherDataRepository weatherDataRepository;
+
+    @MockBean
+    private UserRepository userRepository;
+
+    @TestConfiguration
+    static class InMemoryTracingConfig {
+        @Bean
+        InMemorySpanExporter inMemorySpanExporter() {
+            return InMemorySpanExporter.create();
+        }
+    }
+
+    @BeforeAll
+    static void startUpstream() throws IOException {
+        upstream = new MockWebServer();
+        upstream.start();
+    }
+
+    @AfterAll
+    static void stopUpstream() throws IOException {
+        upstream.shutdown();
+    }
+
+    @DynamicPropertySource
+    static void upstreamProperties(DynamicPropertyRegistry registry) {
+        registry.add("weather.api.url", () -> "http://localhost:" + upstream.getPort());
+    }
+
+    @BeforeEach
+    void setUp() {
+        when(userRepository.findByActiveFalse()).thenReturn(Flux.empty());
+        tracerProvider.forceFlush().join(5, TimeUnit.SECONDS);
+        spanExporter.reset();
+    }
+
+    @Test
+    void incomingTraceIsPropagatedToUpstreamCallsTest() throws InterruptedException {
+        upstream.enqueue(jsonResponse("{\"zip\":\"12345\",\"name\":\"Test\",\"lat\":40,\"lon\":-74,\"country\":\"US\"}"));
+        upstream.enqueue(jsonResponse("{\"name\":\"Test\",\"cod\":200}"));
+        when(weatherDataRepository.save(any(WeatherData.class)))
+                .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+
+        webTestClient.post()
+                .uri("/v1/api/weather/info")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + jwtService.generateToken(TEST_USERNAME))
+                .header("traceparent", TRACEPARENT)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("postalCode", "12345", "username", TEST_USERNAME))
+                .exchange()
+                .expectStatus().isOk();
+
+        for (int i = 0; i < 2; i++) {
+            RecordedRequest recorded = upstream.takeRequest(5, TimeUnit.SECONDS);
+            assertNotNull(recorded);
+            String traceparent = recorded.getHeader("traceparent");
+            assertNotNull(traceparent);
+            assertTrue(traceparent.startsWith("00-" + TRACE_ID + "-"), traceparent);
+        }
+
+        List<SpanData> spans = finishedSpans();
+        SpanData server = spans.stream()
+                .filter(span -> span.getKind() == SpanKind.SERVER)
+                .findFirst()
+                .orElseThrow();
+        List<SpanData> clients = spans.stream()
+                .filter(span -> span.getKind() == SpanKind.CLIENT)
+                .toList();
+
+        assertEquals(TRACE_ID, server.getTraceId());
+        assertEquals(PARENT_SPAN_ID, server.getParentSpanId());
+        assertEquals(2, clients.size());
+        for (SpanData client : clients) {
+            assertEquals(TRACE_ID, client.getTraceId());
+            assertTrue(client.getStartEpochNanos() >= server.getStartEpochNanos());
+            assertTrue(client.getEndEpochNanos() <= server.getEndEpochNanos());
+            assertTrue(client.getEndEpochNanos() > client.getStartEpochNanos());
+        }
+    }
+
+    @Test
+    void errorResponseCarriesRequestTraceIdTest() {
+        webTestClient.post()
+                .uri("/v1/api/weather/info")
+                .header("traceparent", TRACEPARENT)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("postalCode", "12345", "username", TEST_USERNAME))
+                .exchange()
+                .expectStatus().isUnauthorized()
+                .expectBody()
+                .jsonPath("$.traceId").isEqualTo(TRACE_ID);
+    }
+
+    /**
+     * The server span ends once the response has been written, which can be
+     * after the client has already read it, so wait for it to be exported.
+     */
+    private List<SpanData> finishedSpans() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        List<SpanData> spans;
+        do {
+            tracerProvider.forceFlush().join(5, TimeUnit.SECONDS);
+            spans = spanExporter.getFinishedSpanItems();
+            if (spans.stream().anyMatch(span -> span.getKind() == SpanKind.SERVER)) {
+                break;
+            }
+            Thread.sleep(20);
+        } while (System.nanoTime() < deadline);
+        return spans;
+    }
+
+    private static MockResponse jsonResponse(String body) {
+        return new MockResponse()
+                .setBody(body)
+                .addHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+    }
+}
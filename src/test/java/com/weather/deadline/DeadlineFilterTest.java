@@ -0,0 +1,74 @@
+package com.weather.deadline;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import com.weather.utils.DeadlineProperties;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class DeadlineFilterTest {
+
+    private static final String HISTORY = "/v1/api/weather/history/user/testUser";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private DeadlineFilter deadlineFilter;
+
+    @BeforeEach
+    void setUp() {
+        DeadlineProperties properties = new DeadlineProperties();
+        properties.setDefaultTimeout(Duration.ofSeconds(10));
+        properties.setMaxTimeout(Duration.ofSeconds(30));
+        DeadlineProperties.Endpoint history = new DeadlineProperties.Endpoint();
+        history.setPatterns(List.of("/v1/api/weather/history/**"));
+        history.setTimeout(Duration.ofSeconds(3));
+        properties.getEndpoints().put("history", history);
+        deadlineFilter = new DeadlineFilter(new RequestDeadlines(properties, meterRegistry));
+    }
+
+    @Test
+    void timeoutComesFromHeaderEndpointOrDefaultTest() {
+        assertEquals(Duration.ofMillis(1500), deadlineOf(MockServerHttpRequest.get(HISTORY)
+                .header("X-Request-Timeout", "1500")).timeout());
+        assertEquals(Duration.ofSeconds(30), deadlineOf(MockServerHttpRequest.get(HISTORY)
+                .header("X-Request-Timeout", "600000")).timeout());
+        assertEquals(Duration.ofSeconds(3), deadlineOf(MockServerHttpRequest.get(HISTORY)
+                .header("X-Request-Timeout", "soon")).timeout());
+        assertEquals(Duration.ofSeconds(10), deadlineOf(MockServerHttpRequest.post("/v1/api/weather/info")).timeout());
+    }
+
+    @Test
+    void exceededDeadlineIsCountedByStageTest() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get(HISTORY)
+                .header("X-Request-Timeout", "50"));
+
+        StepVerifier.create(deadlineFilter.filter(exchange, ex -> Deadline.bound("history", Mono.never()).then()))
+                .expectError(DeadlineExceededException.class)
+                .verify(Duration.ofSeconds(5));
+
+        assertEquals(1.0, meterRegistry.get("weather.deadline.exceeded").tag("stage", "history").counter().count());
+    }
+
+    private Deadline deadlineOf(MockServerHttpRequest.BaseBuilder<?> request) {
+        AtomicReference<Deadline> deadline = new AtomicReference<>();
+        StepVerifier.create(deadlineFilter.filter(MockServerWebExchange.from(request),
+                        exchange -> Mono.deferContextual(context -> {
+                            deadline.set(Deadline.from(context));
+                            return Mono.empty();
+                        })))
+                .verifyComplete();
+        assertTrue(deadline.get().remaining().compareTo(Duration.ZERO) > 0);
+        return deadline.get();
+    }
+}
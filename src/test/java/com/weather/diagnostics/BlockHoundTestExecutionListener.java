@@ -0,0 +1,25 @@
+package com.weather.diagnostics;
+
+import java.util.Locale;
+
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestPlan;
+
+import com.weather.utils.DiagnosticsProperties.Mode;
+
+/**
+ * Installs {@link BlockingDetection} before any test runs when the
+ * {@code diagnostics.blocking-detection.enabled} system property is set, as
+ * done by the {@code blockhound} Maven profile. Covers plain unit tests too,
+ * which never start a Spring context.
+ */
+public class BlockHoundTestExecutionListener implements TestExecutionListener {
+
+	@Override
+	public void testPlanExecutionStarted(TestPlan testPlan) {
+		if (Boolean.getBoolean("diagnostics.blocking-detection.enabled")) {
+			String mode = System.getProperty("diagnostics.blocking-detection.mode", Mode.FAIL.name());
+			BlockingDetection.install(Mode.valueOf(mode.toUpperCase(Locale.ROOT)));
+		}
+	}
+}
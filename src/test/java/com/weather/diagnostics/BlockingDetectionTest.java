@@ -0,0 +1,50 @@
+package com.weather.diagnostics;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import reactor.blockhound.BlockingOperationError;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+/**
+ * Only runs with the {@code blockhound} Maven profile, which installs
+ * BlockHound in fail mode for the whole test run.
+ */
+@EnabledIfSystemProperty(named = "diagnostics.blocking-detection.enabled", matches = "true")
+class BlockingDetectionTest {
+
+    @Test
+    void sleepOnNonBlockingThreadFailsTest() {
+        StepVerifier.create(Mono.fromCallable(() -> {
+                    Thread.sleep(1);
+                    return "";
+                }).subscribeOn(Schedulers.parallel()))
+                .expectError(BlockingOperationError.class)
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void bcryptOnNonBlockingThreadFailsTest() {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(4);
+
+        StepVerifier.create(Mono.fromCallable(() -> encoder.encode("password"))
+                        .subscribeOn(Schedulers.parallel()))
+                .expectError(BlockingOperationError.class)
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void bcryptOnBoundedElasticIsAllowedTest() {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(4);
+
+        StepVerifier.create(Mono.fromCallable(() -> encoder.encode("password"))
+                        .subscribeOn(Schedulers.boundedElastic()))
+                .expectNextCount(1)
+                .verifyComplete();
+    }
+}
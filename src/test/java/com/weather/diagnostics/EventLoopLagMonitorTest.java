@@ -0,0 +1,85 @@
+package com.weather.diagnostics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.client.ReactorResourceFactory;
+
+import com.weather.utils.DiagnosticsProperties;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.netty.resources.LoopResources;
+
+class EventLoopLagMonitorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ReactorResourceFactory resourceFactory;
+    private EventLoopLagMonitor monitor;
+
+    @BeforeEach
+    void setUp() {
+        resourceFactory = new ReactorResourceFactory();
+        resourceFactory.setUseGlobalResources(false);
+        resourceFactory.setLoopResources(LoopResources.create("lag-test", 1, true));
+        resourceFactory.start();
+
+        DiagnosticsProperties properties = new DiagnosticsProperties();
+        properties.getEventLoopLag().setInterval(Duration.ofHours(1));
+        monitor = new EventLoopLagMonitor(resourceFactory, properties, meterRegistry);
+        monitor.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        monitor.destroy();
+        resourceFactory.getLoopResources().disposeLater().block(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void idleLoopReportsLowLagTest() throws InterruptedException {
+        monitor.sample();
+        awaitLoop();
+        monitor.sample();
+
+        assertEquals(1, meterRegistry.get("weather.eventloop.lag.distribution").timer().count());
+        assertTrue(lag("0") < 0.1);
+    }
+
+    @Test
+    void blockedLoopIsReportedWhileStillBlockedTest() throws InterruptedException {
+        // Busy-spin rather than park, so the test also passes with BlockHound installed
+        AtomicBoolean release = new AtomicBoolean();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        resourceFactory.getLoopResources().onServer(true).next().execute(() -> {
+            while (!release.get() && System.nanoTime() < deadline) {
+                // spin
+            }
+        });
+
+        monitor.sample();
+        Thread.sleep(200);
+        monitor.sample();
+
+        assertTrue(lag("0") >= 0.2);
+        assertTrue(meterRegistry.get("weather.eventloop.lag.max").gauge().value() >= 0.2);
+        release.set(true);
+    }
+
+    private double lag(String loop) {
+        return meterRegistry.get("weather.eventloop.lag").tag("loop", loop).gauge().value();
+    }
+
+    private void awaitLoop() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(1);
+        resourceFactory.getLoopResources().onServer(true).next().execute(done::countDown);
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+    }
+}
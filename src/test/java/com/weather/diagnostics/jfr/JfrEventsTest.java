@@ -0,0 +1,80 @@
+package com.weather.diagnostics.jfr;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class JfrEventsTest {
+
+    private Recording recording;
+    private Path file;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        file = Files.createTempFile("jfr-events-test", ".jfr");
+        recording = new Recording();
+        recording.enable(UpstreamCallEvent.class);
+        recording.enable(MongoOperationEvent.class);
+        recording.start();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        recording.close();
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    void successfulOperationIsRecordedWithValueFieldsTest() throws Exception {
+        StepVerifier.create(JfrEvents.record(() -> new MongoOperationEvent("findByUsername"),
+                        Mono.just(List.of("a", "b")), (event, history) -> event.setDocuments(history.size())))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        RecordedEvent event = single("com.weather.MongoOperation");
+        assertEquals("findByUsername", event.getString("operation"));
+        assertEquals(2, event.getInt("documents"));
+        assertEquals(WeatherEvent.SUCCESS, event.getString("outcome"));
+    }
+
+    @Test
+    void failedUpstreamCallRecordsStatusWithoutQueryTest() throws Exception {
+        WebClientResponseException notFound = WebClientResponseException.create(HttpStatus.NOT_FOUND.value(),
+                "Not Found", null, null, null);
+
+        StepVerifier.create(JfrEvents.record(
+                        () -> new UpstreamCallEvent("http://upstream", "/geo/1.0/zip?zip=12345&appid=secret", "GET"),
+                        Mono.error(notFound)))
+                .expectError(WebClientResponseException.class)
+                .verify();
+
+        RecordedEvent event = single("com.weather.UpstreamCall");
+        assertEquals("/geo/1.0/zip", event.getString("path"));
+        assertEquals(404, event.getInt("status"));
+        assertEquals("NotFound", event.getString("outcome"));
+    }
+
+    private RecordedEvent single(String name) throws Exception {
+        recording.stop();
+        recording.dump(file);
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().equals(name))
+                .toList();
+        assertEquals(1, events.size());
+        return events.get(0);
+    }
+}
@@ -0,0 +1,48 @@
+package com.weather.diagnostics.jfr;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.Resource;
+
+import com.weather.utils.DiagnosticsProperties;
+
+import jdk.jfr.consumer.RecordingFile;
+
+class JfrRecordingEndpointTest {
+
+    private final JfrRecordingEndpoint endpoint = new JfrRecordingEndpoint(new DiagnosticsProperties());
+
+    @AfterEach
+    void tearDown() {
+        endpoint.destroy();
+    }
+
+    @Test
+    void startStatusAndStopStreamsRecordingTest() throws Exception {
+        assertEquals("NONE", endpoint.status().get("state"));
+
+        WebEndpointResponse<?> started = endpoint.start(Duration.ofHours(1));
+        assertEquals(WebEndpointResponse.STATUS_OK, started.getStatus());
+        assertEquals(Duration.ofMinutes(5), endpoint.status().get("duration"));
+        assertEquals(WebEndpointResponse.STATUS_TOO_MANY_REQUESTS, endpoint.start(null).getStatus());
+
+        new JwtValidationEvent().commit();
+        WebEndpointResponse<Resource> stopped = endpoint.stop();
+
+        assertEquals(WebEndpointResponse.STATUS_OK, stopped.getStatus());
+        List<String> names = RecordingFile.readAllEvents(stopped.getBody().getFile().toPath()).stream()
+                .map(event -> event.getEventType().getName())
+                .toList();
+        assertTrue(names.contains("com.weather.JwtValidation"));
+        assertFalse(names.contains("jdk.InitialEnvironmentVariable"));
+        assertEquals(WebEndpointResponse.STATUS_NOT_FOUND, endpoint.stop().getStatus());
+    }
+}
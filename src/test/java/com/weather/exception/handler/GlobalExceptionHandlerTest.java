@@ -0,0 +1,111 @@
+package com.weather.exception.handler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.weather.config.JsonCodecs;
+import com.weather.dto.ApiError;
+import com.weather.exception.InvalidTokenException;
+import com.weather.exception.ResourceNotFoundException;
+import com.weather.exception.ServiceOverloadedException;
+import com.weather.exception.UserNotFoundException;
+import com.weather.exception.ValidationException;
+
+import reactor.test.StepVerifier;
+
+class GlobalExceptionHandlerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private GlobalExceptionHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        handler = new GlobalExceptionHandler(new ErrorResponseWriter(new JsonCodecs(objectMapper)));
+    }
+
+    @Test
+    void invalidTokenReturnsUnauthorizedWithTraceIdTest() throws Exception {
+        JsonNode body = handle(new InvalidTokenException("Invalid JWT token"), HttpStatus.UNAUTHORIZED);
+
+        assertEquals("Invalid JWT token", body.get("message").asText());
+        assertTrue(body.get("traceId").asText().matches("[0-9a-f]{32}"));
+    }
+
+    @Test
+    void serviceErrorReturnsServiceUnavailableTest() throws Exception {
+        JsonNode body = handle(new ServiceOverloadedException("busy", null), HttpStatus.SERVICE_UNAVAILABLE);
+
+        assertEquals("Service temporarily unavailable", body.get("message").asText());
+    }
+
+    @Test
+    void subclassResolvesToParentHandlerTest() throws Exception {
+        WebClientResponseException notFound = WebClientResponseException.create(404, "Not Found",
+                HttpHeaders.EMPTY, new byte[0], StandardCharsets.UTF_8);
+
+        handle(notFound, HttpStatus.NOT_FOUND);
+        handle(notFound, HttpStatus.NOT_FOUND);
+    }
+
+    @Test
+    void unmappedExceptionReturnsInternalServerErrorTest() throws Exception {
+        handle(new UserNotFoundException("missing"), HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+
+    @Test
+    void describeCarriesGivenTraceIdTest() {
+        String traceId = "4bf92f3577b34da6a3ce929d0e0e4736";
+
+        ApiError apiError = handler.describe(new ServiceOverloadedException("busy", null),
+                "/v1/api/weather/jobs/job-1", traceId);
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE.value(), apiError.getStatus());
+        assertEquals("/v1/api/weather/jobs/job-1", apiError.getPath());
+        assertEquals(traceId, apiError.getTraceId());
+        assertTrue(handler.describe(new ServiceOverloadedException("busy", null), "/v1/api/weather/jobs/job-1", null)
+                .getTraceId().matches("[0-9a-f]{32}"));
+    }
+
+    @Test
+    void expectedClientErrorsSkipStackTraceTest() {
+        assertEquals(0, new InvalidTokenException("Invalid JWT token").getStackTrace().length);
+        assertEquals(0, new ValidationException("Invalid postal code format").getStackTrace().length);
+        assertEquals(0, new ResourceNotFoundException("User", "42").getStackTrace().length);
+        assertNull(new InvalidTokenException("Invalid JWT token").getCause());
+    }
+
+    @Test
+    void committedResponsePropagatesErrorTest() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/v1/api/weather/info"));
+        exchange.getResponse().setComplete().block();
+
+        StepVerifier.create(handler.handle(exchange, new InvalidTokenException("Invalid JWT token")))
+                .expectError(InvalidTokenException.class)
+                .verify();
+    }
+
+    private JsonNode handle(Throwable ex, HttpStatus expectedStatus) throws Exception {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/v1/api/weather/info"));
+
+        StepVerifier.create(handler.handle(exchange, ex))
+                .verifyComplete();
+
+        assertEquals(expectedStatus, exchange.getResponse().getStatusCode());
+        JsonNode body = objectMapper.readTree(exchange.getResponse().getBodyAsString().block());
+        assertEquals(expectedStatus.value(), body.get("status").asInt());
+        return body;
+    }
+}
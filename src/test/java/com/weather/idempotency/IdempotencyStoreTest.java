@@ -0,0 +1,181 @@
+package com.weather.idempotency;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+
+import com.weather.config.JacksonConfig;
+import com.weather.dto.WeatherRequest;
+import com.weather.exception.ValidationException;
+import com.weather.model.WeatherData;
+import com.weather.utils.IdempotencyProperties;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+class IdempotencyStoreTest {
+
+    private static final String KEY = "5f0c2d7e-retry";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger collections = new AtomicInteger();
+    private final WeatherRequest request = WeatherRequest.builder().postalCode("12345").username("testUser").build();
+    private IdempotencyProperties properties;
+    private IdempotencyStore store;
+
+    @BeforeEach
+    void setUp() {
+        properties = new IdempotencyProperties();
+        store = newStore(null);
+    }
+
+    @Test
+    void laterDuplicateIsReplayedWithoutCollectingAgainTest() {
+        StepVerifier.create(execute(store, "testUser", request, collection()))
+                .assertNext(result -> assertFalse(result.replayed()))
+                .verifyComplete();
+        StepVerifier.create(execute(store, "testUser", request, collection()))
+                .assertNext(result -> {
+                    assertTrue(result.replayed());
+                    assertEquals("12345", result.weatherData().getPostalCode());
+                })
+                .verifyComplete();
+
+        assertEquals(1, collections.get());
+        assertEquals(1.0, requests("executed"));
+        assertEquals(1.0, requests("replayed"));
+    }
+
+    @Test
+    void concurrentDuplicateAttachesToRunningCollectionTest() {
+        Sinks.One<WeatherData> upstream = Sinks.one();
+        Mono<WeatherData> slow = upstream.asMono().doOnSubscribe(subscription -> collections.incrementAndGet());
+        List<IdempotentResult> results = new ArrayList<>();
+        execute(store, "testUser", request, slow).subscribe(results::add);
+        execute(store, "testUser", request, slow).subscribe(results::add);
+
+        upstream.tryEmitValue(weatherData());
+
+        assertEquals(2, results.size());
+        assertFalse(results.get(0).replayed());
+        assertTrue(results.get(1).replayed());
+        assertEquals(1, collections.get());
+        assertEquals(1.0, requests("attached"));
+    }
+
+    @Test
+    void keyIsScopedToUserAndBoundToRequestTest() {
+        execute(store, "testUser", request, collection()).block();
+
+        WeatherRequest otherPostalCode = WeatherRequest.builder().postalCode("54321").username("testUser").build();
+        StepVerifier.create(execute(store, "testUser", otherPostalCode, collection()))
+                .expectError(IdempotencyKeyReusedException.class)
+                .verify();
+        WeatherRequest otherUser = WeatherRequest.builder().postalCode("12345").username("otherUser").build();
+        StepVerifier.create(execute(store, "otherUser", otherUser, collection()))
+                .assertNext(result -> assertFalse(result.replayed()))
+                .verifyComplete();
+
+        assertEquals(2, collections.get());
+        assertEquals(1.0, requests("conflict"));
+    }
+
+    @Test
+    void failedOrStaleCollectionIsNotStoredTest() {
+        StepVerifier.create(execute(store, "testUser", request, Mono.error(new IllegalStateException("upstream"))))
+                .expectError(IllegalStateException.class)
+                .verify();
+        WeatherData stale = weatherData();
+        stale.setStale(true);
+        execute(store, "testUser", request, Mono.just(stale)).block();
+
+        StepVerifier.create(execute(store, "testUser", request, collection()))
+                .assertNext(result -> assertFalse(result.replayed()))
+                .verifyComplete();
+        assertEquals(1, collections.get());
+    }
+
+    @Test
+    void invalidKeyIsRejectedTest() {
+        properties.setMaxKeyLength(8);
+
+        StepVerifier.create(store.execute("far-too-long-key", request, collection()))
+                .expectError(ValidationException.class)
+                .verify();
+        assertEquals(0, collections.get());
+    }
+
+    @Test
+    void redisTierReplaysResultAcrossInstancesTest() {
+        Map<String, String> redis = new HashMap<>();
+        RedisIdempotencyTier tier = mock(RedisIdempotencyTier.class);
+        when(tier.get(anyString())).thenAnswer(invocation -> Mono.justOrEmpty(redis.get(invocation.getArgument(0))));
+        when(tier.put(anyString(), anyString(), any())).thenAnswer(invocation -> Mono.fromRunnable(
+                () -> redis.put(invocation.getArgument(0), invocation.getArgument(1))));
+
+        execute(newStore(tier), "testUser", request, collection()).block();
+
+        StepVerifier.create(execute(newStore(tier), "testUser", request, collection()))
+                .assertNext(result -> {
+                    assertTrue(result.replayed());
+                    assertEquals(weatherData().getRequestTime(), result.weatherData().getRequestTime());
+                })
+                .verifyComplete();
+        assertEquals(1, collections.get());
+    }
+
+    private IdempotencyStore newStore(RedisIdempotencyTier tier) {
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        if (tier != null) {
+            beanFactory.addBean("redisIdempotencyTier", tier);
+        }
+        ObjectProvider<RedisIdempotencyTier> redisTier = beanFactory.getBeanProvider(RedisIdempotencyTier.class);
+        return new IdempotencyStore(properties, new JacksonConfig().objectMapper(), redisTier, meterRegistry);
+    }
+
+    private Mono<IdempotentResult> execute(IdempotencyStore target, String username, WeatherRequest weatherRequest,
+            Mono<WeatherData> collection) {
+        return target.execute(KEY, weatherRequest, collection)
+                .contextWrite(ReactiveSecurityContextHolder.withAuthentication(
+                        new UsernamePasswordAuthenticationToken(username, null, List.of())));
+    }
+
+    private Mono<WeatherData> collection() {
+        return Mono.fromSupplier(() -> {
+            collections.incrementAndGet();
+            return weatherData();
+        });
+    }
+
+    private static WeatherData weatherData() {
+        return WeatherData.builder()
+                .postalCode("12345")
+                .username("testUser")
+                .requestTime(LocalDateTime.of(2024, 1, 1, 12, 0))
+                .build();
+    }
+
+    private double requests(String result) {
+        return meterRegistry.get("weather.idempotency.requests").tag("result", result).counter().count();
+    }
+}
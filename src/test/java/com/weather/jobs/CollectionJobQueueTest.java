@@ -0,0 +1,156 @@
+package com.weather.jobs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+
+import com.weather.deadline.Deadline;
+import com.weather.dto.ApiError;
+import com.weather.exception.ServiceOverloadedException;
+import com.weather.exception.handler.GlobalExceptionHandler;
+import com.weather.model.WeatherData;
+import com.weather.utils.DeadlineProperties;
+import com.weather.utils.JobProperties;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+class CollectionJobQueueTest {
+
+    private static final String USERNAME = "testUser";
+    private static final String TRACE_ID = "4bf92f3577b34da6a3ce929d0e0e4736";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final GlobalExceptionHandler exceptionHandler = mock(GlobalExceptionHandler.class);
+    private JobProperties properties;
+    private CollectionJobQueue jobQueue;
+
+    @BeforeEach
+    void setUp() {
+        properties = new JobProperties();
+        properties.setConcurrency(1);
+        properties.setQueueCapacity(1);
+        jobQueue = new CollectionJobQueue(properties, new DeadlineProperties(), exceptionHandler, meterRegistry);
+    }
+
+    @Test
+    void jobsBeyondConcurrencyWaitForAWorkerTest() {
+        Sinks.One<WeatherData> first = Sinks.one();
+        Sinks.One<WeatherData> second = Sinks.one();
+        CollectionJob running = submit(USERNAME, first.asMono());
+        CollectionJob queued = submit(USERNAME, second.asMono());
+
+        assertEquals(CollectionJob.Status.RUNNING, running.getStatus());
+        assertEquals(CollectionJob.Status.QUEUED, queued.getStatus());
+        assertEquals(1.0, gauge("weather.jobs.queue.depth"));
+        assertEquals(1.0, gauge("weather.jobs.workers.utilization"));
+
+        first.tryEmitValue(weatherData());
+        assertEquals(CollectionJob.Status.SUCCEEDED, running.getStatus());
+        assertEquals(CollectionJob.Status.RUNNING, queued.getStatus());
+        assertEquals(0.0, gauge("weather.jobs.queue.depth"));
+
+        second.tryEmitValue(weatherData());
+        assertEquals(CollectionJob.Status.SUCCEEDED, queued.getStatus());
+        assertEquals(0.0, gauge("weather.jobs.workers.utilization"));
+        assertEquals(2, meterRegistry.get("weather.jobs.queue.wait").timer().count());
+        assertEquals(2.0, jobs("succeeded"));
+    }
+
+    @Test
+    void fullQueueRejectsSubmissionTest() {
+        submit(USERNAME, Mono.never());
+        submit(USERNAME, Mono.never());
+
+        StepVerifier.create(jobQueue.submit(Mono.just(weatherData()), TRACE_ID)
+                        .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication(USERNAME))))
+                .expectError(ServiceOverloadedException.class)
+                .verify();
+        assertEquals(2.0, jobs("accepted"));
+        assertEquals(1.0, jobs("rejected"));
+    }
+
+    @Test
+    void jobRunsAsSubmitterWithinItsOwnDeadlineTest() {
+        Mono<WeatherData> collection = Mono.deferContextual(context -> {
+            assertNotNull(Deadline.from(context));
+            return ReactiveSecurityContextHolder.getContext()
+                    .map(SecurityContext::getAuthentication)
+                    .map(authentication -> WeatherData.builder().username(authentication.getName()).build());
+        });
+
+        CollectionJob job = submit(USERNAME, collection);
+
+        assertEquals(CollectionJob.Status.SUCCEEDED, job.getStatus());
+        assertEquals(USERNAME, job.getResult().getUsername());
+    }
+
+    @Test
+    void failedJobReportsErrorWithSubmitterTraceIdTest() {
+        IllegalStateException failure = new IllegalStateException("upstream");
+        ApiError apiError = ApiError.builder().status(503).traceId(TRACE_ID).build();
+        when(exceptionHandler.describe(eq(failure), any(), eq(TRACE_ID))).thenReturn(apiError);
+
+        CollectionJob job = submit(USERNAME, Mono.error(failure));
+
+        assertEquals(CollectionJob.Status.FAILED, job.getStatus());
+        assertEquals(apiError, job.getError());
+        assertNull(job.getResult());
+        assertEquals(1.0, jobs("failed"));
+    }
+
+    @Test
+    void jobIsOnlyVisibleToSubmitterTest() {
+        CollectionJob job = submit(USERNAME, Mono.just(weatherData()));
+
+        StepVerifier.create(find(USERNAME, job.getId()))
+                .expectNext(job)
+                .verifyComplete();
+        StepVerifier.create(find("otherUser", job.getId()))
+                .verifyComplete();
+        StepVerifier.create(find(USERNAME, "unknown"))
+                .verifyComplete();
+    }
+
+    private CollectionJob submit(String username, Mono<WeatherData> collection) {
+        return jobQueue.submit(collection, TRACE_ID)
+                .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication(username)))
+                .block();
+    }
+
+    private Mono<CollectionJob> find(String username, String id) {
+        return jobQueue.find(id)
+                .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication(username)));
+    }
+
+    private static Authentication authentication(String username) {
+        return new UsernamePasswordAuthenticationToken(username, null, List.of());
+    }
+
+    private static WeatherData weatherData() {
+        return WeatherData.builder().postalCode("12345").username(USERNAME).build();
+    }
+
+    private double gauge(String name) {
+        return meterRegistry.get(name).gauge().value();
+    }
+
+    private double jobs(String result) {
+        return meterRegistry.get("weather.jobs").tag("result", result).counter().count();
+    }
+}
@@ -0,0 +1,136 @@
+package com.weather.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+
+/**
+ * Embedded Reactor Netty stub of the two OpenWeather endpoints the service
+ * calls: {@code /geo/1.0/zip} and {@code /data/2.5/weather}.
+ *
+ * <p>
+ * Each response is delayed by a sample of the configured
+ * {@link LatencyDistribution} without blocking the event loop. A configurable
+ * fraction of requests fails with {@code 500} and another fraction is
+ * throttled with {@code 429} and a {@code Retry-After} header, as the real API
+ * does when the key's quota is exhausted. Payloads are a real geocoding and
+ * current-weather response, serialized once.
+ * </p>
+ */
+@Slf4j
+class FakeOpenWeatherServer implements AutoCloseable {
+
+	static final String GEO_PATH = "/geo/1.0/zip";
+	static final String WEATHER_PATH = "/data/2.5/weather";
+
+	private static final byte[] GEO_PAYLOAD = ("{\"zip\":\"10036\",\"name\":\"New York\",\"lat\":40.7589,"
+			+ "\"lon\":-73.9851,\"country\":\"US\"}").getBytes();
+	private static final byte[] ERROR_PAYLOAD = "{\"cod\":500,\"message\":\"Internal error\"}".getBytes();
+	private static final byte[] THROTTLED_PAYLOAD = ("{\"cod\":429,\"message\":\"Your account is temporary blocked "
+			+ "due to exceeding of requests limitation of your subscription type.\"}").getBytes();
+
+	private final LatencyDistribution latency;
+	private final double errorRate;
+	private final double throttleRate;
+	private final byte[] weatherPayload;
+	private final LongAdder requests = new LongAdder();
+	private final LongAdder errors = new LongAdder();
+	private final LongAdder throttled = new LongAdder();
+	private DisposableServer server;
+
+	/**
+	 * @param latency      response delay distribution
+	 * @param errorRate    fraction of requests answered with {@code 500}
+	 * @param throttleRate fraction of requests answered with {@code 429}
+	 */
+	FakeOpenWeatherServer(LatencyDistribution latency, double errorRate, double throttleRate) {
+		this.latency = latency;
+		this.errorRate = errorRate;
+		this.throttleRate = throttleRate;
+		this.weatherPayload = readPayload("/benchmark/openweather-current.json");
+	}
+
+	/**
+	 * Binds the server to a free local port.
+	 *
+	 * @return this server
+	 */
+	FakeOpenWeatherServer start() {
+		server = HttpServer.create()
+				.host("localhost")
+				.port(0)
+				.route(routes -> routes
+						.get(GEO_PATH, (request, response) -> respond(request, response, GEO_PAYLOAD))
+						.get(WEATHER_PATH, (request, response) -> respond(request, response, weatherPayload)))
+				.bindNow();
+		log.info("Fake OpenWeather upstream listening on {}", baseUrl());
+		return this;
+	}
+
+	/**
+	 * @return the URL to configure as {@code weather.api.url}
+	 */
+	String baseUrl() {
+		return "http://localhost:" + server.port();
+	}
+
+	long requests() {
+		return requests.sum();
+	}
+
+	long errors() {
+		return errors.sum();
+	}
+
+	long throttled() {
+		return throttled.sum();
+	}
+
+	@Override
+	public void close() {
+		if (server != null) {
+			server.disposeNow();
+		}
+	}
+
+	private Mono<Void> respond(HttpServerRequest request, HttpServerResponse response, byte[] payload) {
+		requests.increment();
+		response.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+		double roll = ThreadLocalRandom.current().nextDouble();
+		byte[] body = payload;
+		if (roll < errorRate) {
+			errors.increment();
+			response.status(HttpResponseStatus.INTERNAL_SERVER_ERROR);
+			body = ERROR_PAYLOAD;
+		} else if (roll < errorRate + throttleRate) {
+			throttled.increment();
+			response.status(HttpResponseStatus.TOO_MANY_REQUESTS).header(HttpHeaders.RETRY_AFTER, "1");
+			body = THROTTLED_PAYLOAD;
+		}
+		byte[] content = body;
+		return Mono.delay(latency.sample())
+				.then(response.send(Mono.fromSupplier(() -> Unpooled.wrappedBuffer(content))).then());
+	}
+
+	private static byte[] readPayload(String resource) {
+		try (InputStream in = FakeOpenWeatherServer.class.getResourceAsStream(resource)) {
+			return in.readAllBytes();
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+}
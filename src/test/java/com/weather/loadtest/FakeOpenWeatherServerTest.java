@@ -0,0 +1,57 @@
+package com.weather.loadtest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.weather.config.JacksonConfig;
+import com.weather.model.WeatherData;
+
+import reactor.test.StepVerifier;
+
+class FakeOpenWeatherServerTest {
+
+    private static final LatencyDistribution NO_LATENCY = new LatencyDistribution(Duration.ZERO, Duration.ZERO);
+
+    private FakeOpenWeatherServer server;
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    @Test
+    void weatherPayloadDecodesIntoWeatherDataTest() {
+        server = new FakeOpenWeatherServer(NO_LATENCY, 0, 0).start();
+        WebClient client = WebClient.builder()
+                .baseUrl(server.baseUrl())
+                .codecs(codecs -> codecs.defaultCodecs()
+                        .jackson2JsonDecoder(new Jackson2JsonDecoder(new JacksonConfig().objectMapper())))
+                .build();
+
+        StepVerifier.create(client.get().uri(FakeOpenWeatherServer.WEATHER_PATH).retrieve().bodyToMono(WeatherData.class))
+                .assertNext(data -> assertEquals(291.01, data.getMain().getFeelsLike()))
+                .verifyComplete();
+    }
+
+    @Test
+    void throttledRequestsGetRetryAfterTest() {
+        server = new FakeOpenWeatherServer(NO_LATENCY, 0, 1).start();
+
+        StepVerifier.create(WebClient.create(server.baseUrl()).get().uri(FakeOpenWeatherServer.GEO_PATH)
+                        .exchangeToMono(response -> response.releaseBody().thenReturn(response)))
+                .assertNext(response -> {
+                    assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.statusCode());
+                    assertEquals("1", response.headers().asHttpHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+                })
+                .verifyComplete();
+        assertEquals(1, server.throttled());
+    }
+}
@@ -0,0 +1,209 @@
+package com.weather.loadtest;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import org.reactivestreams.Publisher;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.data.repository.query.FluentQuery;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Map-backed stand-in for a {@link ReactiveMongoRepository}, used by the load
+ * test so the service can run without a database.
+ *
+ * <p>
+ * Entities are keyed by their string id, assigned on first save like Mongo
+ * does. The CRUD methods behave like their Mongo counterparts; query-by-example
+ * and sorting are not used by the service and throw
+ * {@link UnsupportedOperationException}. Subclasses implement the derived
+ * query methods with {@link #filter(Predicate, Comparator)}.
+ * </p>
+ *
+ * @param <T> the entity type
+ */
+abstract class InMemoryReactiveRepository<T> implements ReactiveMongoRepository<T, UUID> {
+
+	private final Map<String, T> entities = new ConcurrentHashMap<>();
+	private final Function<T, String> idGetter;
+	private final BiConsumer<T, String> idSetter;
+
+	protected InMemoryReactiveRepository(Function<T, String> idGetter, BiConsumer<T, String> idSetter) {
+		this.idGetter = idGetter;
+		this.idSetter = idSetter;
+	}
+
+	/**
+	 * Streams the entities matching the predicate in the given order.
+	 */
+	protected Flux<T> filter(Predicate<T> predicate, Comparator<T> order) {
+		return Flux.defer(() -> Flux.fromStream(entities.values().stream().filter(predicate).sorted(order)));
+	}
+
+	/**
+	 * @return the number of stored entities
+	 */
+	int size() {
+		return entities.size();
+	}
+
+	@Override
+	public <S extends T> Mono<S> save(S entity) {
+		return Mono.fromSupplier(() -> {
+			if (idGetter.apply(entity) == null) {
+				idSetter.accept(entity, UUID.randomUUID().toString());
+			}
+			entities.put(idGetter.apply(entity), entity);
+			return entity;
+		});
+	}
+
+	@Override
+	public <S extends T> Flux<S> saveAll(Iterable<S> entities) {
+		return Flux.fromIterable(entities).concatMap(this::save);
+	}
+
+	@Override
+	public <S extends T> Flux<S> saveAll(Publisher<S> entityStream) {
+		return Flux.from(entityStream).concatMap(this::save);
+	}
+
+	@Override
+	public <S extends T> Mono<S> insert(S entity) {
+		return save(entity);
+	}
+
+	@Override
+	public <S extends T> Flux<S> insert(Iterable<S> entities) {
+		return saveAll(entities);
+	}
+
+	@Override
+	public <S extends T> Flux<S> insert(Publisher<S> entities) {
+		return saveAll(entities);
+	}
+
+	@Override
+	public Mono<T> findById(UUID id) {
+		return Mono.fromSupplier(() -> entities.get(id.toString()));
+	}
+
+	@Override
+	public Mono<T> findById(Publisher<UUID> id) {
+		return Mono.from(id).flatMap(this::findById);
+	}
+
+	@Override
+	public Mono<Boolean> existsById(UUID id) {
+		return Mono.fromSupplier(() -> entities.containsKey(id.toString()));
+	}
+
+	@Override
+	public Mono<Boolean> existsById(Publisher<UUID> id) {
+		return Mono.from(id).flatMap(this::existsById);
+	}
+
+	@Override
+	public Flux<T> findAll() {
+		return Flux.defer(() -> Flux.fromIterable(entities.values()));
+	}
+
+	@Override
+	public Flux<T> findAllById(Iterable<UUID> ids) {
+		return Flux.fromIterable(ids).concatMap(this::findById);
+	}
+
+	@Override
+	public Flux<T> findAllById(Publisher<UUID> idStream) {
+		return Flux.from(idStream).concatMap(this::findById);
+	}
+
+	@Override
+	public Mono<Long> count() {
+		return Mono.fromSupplier(() -> (long) entities.size());
+	}
+
+	@Override
+	public Mono<Void> deleteById(UUID id) {
+		return Mono.fromRunnable(() -> entities.remove(id.toString()));
+	}
+
+	@Override
+	public Mono<Void> deleteById(Publisher<UUID> id) {
+		return Mono.from(id).flatMap(this::deleteById);
+	}
+
+	@Override
+	public Mono<Void> delete(T entity) {
+		return Mono.fromRunnable(() -> entities.remove(idGetter.apply(entity)));
+	}
+
+	@Override
+	public Mono<Void> deleteAllById(Iterable<? extends UUID> ids) {
+		return Flux.fromIterable(ids).concatMap(this::deleteById).then();
+	}
+
+	@Override
+	public Mono<Void> deleteAll(Iterable<? extends T> entities) {
+		return Flux.fromIterable(entities).concatMap(this::delete).then();
+	}
+
+	@Override
+	public Mono<Void> deleteAll(Publisher<? extends T> entityStream) {
+		return Flux.from(entityStream).concatMap(this::delete).then();
+	}
+
+	@Override
+	public Mono<Void> deleteAll() {
+		return Mono.fromRunnable(entities::clear);
+	}
+
+	@Override
+	public Flux<T> findAll(Sort sort) {
+		throw new UnsupportedOperationException("Sorting is not supported by the in-memory repository");
+	}
+
+	@Override
+	public <S extends T> Mono<S> findOne(Example<S> example) {
+		throw unsupportedExample();
+	}
+
+	@Override
+	public <S extends T> Flux<S> findAll(Example<S> example) {
+		throw unsupportedExample();
+	}
+
+	@Override
+	public <S extends T> Flux<S> findAll(Example<S> example, Sort sort) {
+		throw unsupportedExample();
+	}
+
+	@Override
+	public <S extends T> Mono<Long> count(Example<S> example) {
+		throw unsupportedExample();
+	}
+
+	@Override
+	public <S extends T> Mono<Boolean> exists(Example<S> example) {
+		throw unsupportedExample();
+	}
+
+	@Override
+	public <S extends T, R, P extends Publisher<R>> P findBy(Example<S> example,
+			Function<FluentQuery.ReactiveFluentQuery<S>, P> queryFunction) {
+		throw unsupportedExample();
+	}
+
+	private static UnsupportedOperationException unsupportedExample() {
+		return new UnsupportedOperationException("Query by example is not supported by the in-memory repository");
+	}
+}
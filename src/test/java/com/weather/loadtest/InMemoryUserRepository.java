@@ -0,0 +1,38 @@
+package com.weather.loadtest;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.weather.model.User;
+import com.weather.repository.UserRepository;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * In-memory {@link UserRepository} for the load test, with a username index
+ * like the unique index on the users collection.
+ */
+class InMemoryUserRepository extends InMemoryReactiveRepository<User> implements UserRepository {
+
+	private final Map<String, User> byUsername = new ConcurrentHashMap<>();
+
+	InMemoryUserRepository() {
+		super(User::getId, User::setId);
+	}
+
+	@Override
+	public <S extends User> Mono<S> save(S entity) {
+		return super.save(entity).doOnNext(saved -> byUsername.put(saved.getUsername(), saved));
+	}
+
+	@Override
+	public Mono<User> findByUsername(String username) {
+		return Mono.fromSupplier(() -> byUsername.get(username));
+	}
+
+	@Override
+	public Flux<User> findByActiveFalse() {
+		return filter(user -> !user.isActive(), (left, right) -> 0);
+	}
+}
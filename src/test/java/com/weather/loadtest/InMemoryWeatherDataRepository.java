@@ -0,0 +1,90 @@
+package com.weather.loadtest;
+
+import java.time.LocalDateTime;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+import com.weather.model.HistoryVersion;
+import com.weather.model.WeatherData;
+import com.weather.repository.WeatherDataRepository;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * In-memory {@link WeatherDataRepository} for the load test.
+ *
+ * <p>
+ * Documents are indexed by username and postal code, newest first, so history
+ * queries cost the same however long the test has been running, as with the
+ * Mongo indexes. Weather documents are written once, so the index does not
+ * handle updates or deletes.
+ * </p>
+ */
+public class InMemoryWeatherDataRepository extends InMemoryReactiveRepository<WeatherData>
+		implements WeatherDataRepository {
+
+	private final Map<String, Deque<WeatherData>> byUsername = new ConcurrentHashMap<>();
+	private final Map<String, Deque<WeatherData>> byPostalCode = new ConcurrentHashMap<>();
+
+	public InMemoryWeatherDataRepository() {
+		super(WeatherData::getUuid, WeatherData::setUuid);
+	}
+
+	@Override
+	public <S extends WeatherData> Mono<S> save(S entity) {
+		return super.save(entity).doOnNext(saved -> {
+			index(byUsername, saved.getUsername(), saved);
+			index(byPostalCode, saved.getPostalCode(), saved);
+		});
+	}
+
+	@Override
+	public Flux<WeatherData> findByPostalCodeOrderByRequestTimeDesc(String postalCode) {
+		return lookup(byPostalCode, postalCode);
+	}
+
+	@Override
+	public Flux<WeatherData> findByUsernameOrderByRequestTimeDesc(String username) {
+		return lookup(byUsername, username);
+	}
+
+	@Override
+	public Mono<WeatherData> findFirstByPostalCodeAndRequestTimeGreaterThanEqualOrderByRequestTimeDesc(
+			String postalCode, LocalDateTime oldest) {
+		return lookup(byPostalCode, postalCode).next().filter(newest -> !newest.getRequestTime().isBefore(oldest));
+	}
+
+	@Override
+	public Mono<HistoryVersion> findHistoryVersionByPostalCode(String postalCode) {
+		return version(byPostalCode, postalCode);
+	}
+
+	@Override
+	public Mono<HistoryVersion> findHistoryVersionByUsername(String username) {
+		return version(byUsername, username);
+	}
+
+	private static void index(Map<String, Deque<WeatherData>> index, String key, WeatherData data) {
+		if (key != null) {
+			index.computeIfAbsent(key, k -> new ConcurrentLinkedDeque<>()).addFirst(data);
+		}
+	}
+
+	private static Mono<HistoryVersion> version(Map<String, Deque<WeatherData>> index, String key) {
+		return Mono.fromSupplier(() -> {
+			Deque<WeatherData> documents = index.get(key);
+			WeatherData newest = documents == null ? null : documents.peekFirst();
+			return newest == null ? null : new HistoryVersion(documents.size(), newest.getRequestTime());
+		});
+	}
+
+	private static Flux<WeatherData> lookup(Map<String, Deque<WeatherData>> index, String key) {
+		return Flux.defer(() -> {
+			Deque<WeatherData> documents = index.get(key);
+			return documents == null ? Flux.empty() : Flux.fromIterable(documents);
+		});
+	}
+}
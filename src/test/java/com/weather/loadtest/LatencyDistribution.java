@@ -0,0 +1,34 @@
+package com.weather.loadtest;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Log-normal latency distribution defined by its median and 99th percentile,
+ * the usual shape of a remote service's response times: most calls are close
+ * to the median with a long right tail.
+ */
+record LatencyDistribution(Duration median, Duration p99) {
+
+	/** 99th percentile of the standard normal distribution. */
+	private static final double Z_99 = 2.326;
+
+	LatencyDistribution {
+		if (p99.compareTo(median) < 0) {
+			throw new IllegalArgumentException("p99 must not be below the median");
+		}
+	}
+
+	/**
+	 * @return a random latency drawn from the distribution
+	 */
+	Duration sample() {
+		double medianNanos = median.toNanos();
+		if (medianNanos == 0) {
+			return Duration.ZERO;
+		}
+		double sigma = Math.log(p99.toNanos() / medianNanos) / Z_99;
+		double gaussian = ThreadLocalRandom.current().nextGaussian();
+		return Duration.ofNanos((long) (medianNanos * Math.exp(sigma * gaussian)));
+	}
+}
@@ -0,0 +1,24 @@
+package com.weather.loadtest;
+
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Replaces the Mongo repositories of the service under test with in-memory
+ * stand-ins. Registered explicitly by {@link LoadTestRunner}; as a
+ * {@link TestConfiguration} it is ignored by component scanning in the other
+ * tests.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+class LoadTestConfiguration {
+
+	@Bean
+	InMemoryWeatherDataRepository weatherDataRepository() {
+		return new InMemoryWeatherDataRepository();
+	}
+
+	@Bean
+	InMemoryUserRepository userRepository() {
+		return new InMemoryUserRepository();
+	}
+}
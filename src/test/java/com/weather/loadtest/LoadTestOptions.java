@@ -0,0 +1,83 @@
+package com.weather.loadtest;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.convert.DurationStyle;
+
+/**
+ * Settings of a load-test run, parsed from {@code --name=value} arguments.
+ *
+ * <ul>
+ * <li>{@code rate} - mean arrivals per second (Poisson), default 100.</li>
+ * <li>{@code warmup} / {@code duration} - unmeasured and measured phases,
+ * default 10s / 60s.</li>
+ * <li>{@code users} - number of seeded users with a token, default 50.</li>
+ * <li>{@code auth-weight}, {@code collect-weight}, {@code history-weight} -
+ * request mix, default 5 / 45 / 50.</li>
+ * <li>{@code connections} / {@code timeout} - client pool size and response
+ * timeout, default 1000 / 10s.</li>
+ * <li>{@code upstream-median}, {@code upstream-p99} - fake OpenWeather latency,
+ * default 40ms / 250ms.</li>
+ * <li>{@code upstream-error-rate}, {@code upstream-throttle-rate} - fraction of
+ * upstream 500s and 429s, default 0.01 / 0.005.</li>
+ * <li>{@code app.<property>} - any Spring property of the service under test,
+ * e.g. {@code --app.rate-limit.enabled=true}.</li>
+ * </ul>
+ */
+record LoadTestOptions(double rate, Duration warmup, Duration duration, int users, int authWeight,
+		int collectWeight, int historyWeight, int connections, Duration timeout, LatencyDistribution upstreamLatency,
+		double upstreamErrorRate, double upstreamThrottleRate, Map<String, Object> applicationProperties) {
+
+	private static final String APPLICATION_PREFIX = "app.";
+
+	static LoadTestOptions parse(String... args) {
+		Map<String, String> values = new HashMap<>();
+		Map<String, Object> applicationProperties = new LinkedHashMap<>();
+		for (String arg : args) {
+			if (!arg.startsWith("--") || !arg.contains("=")) {
+				throw new IllegalArgumentException("Expected --name=value but got " + arg);
+			}
+			String name = arg.substring(2, arg.indexOf('='));
+			String value = arg.substring(arg.indexOf('=') + 1);
+			if (name.startsWith(APPLICATION_PREFIX)) {
+				applicationProperties.put(name.substring(APPLICATION_PREFIX.length()), value);
+			} else {
+				values.put(name, value);
+			}
+		}
+		LoadTestOptions options = new LoadTestOptions(
+				Double.parseDouble(take(values, "rate", "100")),
+				duration(values, "warmup", "10s"),
+				duration(values, "duration", "60s"),
+				Integer.parseInt(take(values, "users", "50")),
+				Integer.parseInt(take(values, "auth-weight", "5")),
+				Integer.parseInt(take(values, "collect-weight", "45")),
+				Integer.parseInt(take(values, "history-weight", "50")),
+				Integer.parseInt(take(values, "connections", "1000")),
+				duration(values, "timeout", "10s"),
+				new LatencyDistribution(duration(values, "upstream-median", "40ms"),
+						duration(values, "upstream-p99", "250ms")),
+				Double.parseDouble(take(values, "upstream-error-rate", "0.01")),
+				Double.parseDouble(take(values, "upstream-throttle-rate", "0.005")),
+				applicationProperties);
+		if (!values.isEmpty()) {
+			throw new IllegalArgumentException("Unknown options " + values.keySet());
+		}
+		return options;
+	}
+
+	/**
+	 * Removes the option so that whatever is left after parsing is unknown.
+	 */
+	private static String take(Map<String, String> values, String name, String defaultValue) {
+		String value = values.remove(name);
+		return value == null ? defaultValue : value;
+	}
+
+	private static Duration duration(Map<String, String> values, String name, String defaultValue) {
+		return DurationStyle.detectAndParse(take(values, name, defaultValue));
+	}
+}
@@ -0,0 +1,53 @@
+package com.weather.loadtest;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+
+import org.HdrHistogram.Histogram;
+
+import com.weather.loadtest.OpenModelLoadGenerator.Endpoint;
+
+/**
+ * Measured results of a load-test run: throughput, latency percentiles and
+ * failures per endpoint.
+ *
+ * @param measured  length of the measured phase
+ * @param endpoints results per endpoint
+ * @param abandoned requests still in flight when the run ended
+ */
+record LoadTestReport(Duration measured, Map<Endpoint, EndpointResult> endpoints, int abandoned) {
+
+	private static final double[] PERCENTILES = { 50, 90, 99, 99.9 };
+
+	/**
+	 * @param latency   latencies in microseconds from the intended start
+	 * @param succeeded number of 2xx responses
+	 * @param failures  failure counts by HTTP status or error name
+	 */
+	record EndpointResult(Histogram latency, long succeeded, Map<String, Long> failures) {
+
+		long total() {
+			return latency.getTotalCount();
+		}
+	}
+
+	void print(PrintStream out) {
+		double seconds = measured.toMillis() / 1000.0;
+		out.printf(Locale.ROOT, "%n%-8s %9s %9s %9s %9s %9s %9s %9s %9s  %s%n", "endpoint", "requests", "req/s",
+				"ok/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "failures");
+		endpoints.forEach((endpoint, result) -> {
+			Histogram latency = result.latency();
+			out.printf(Locale.ROOT, "%-8s %9d %9.1f %9.1f", endpoint.name().toLowerCase(Locale.ROOT), result.total(),
+					result.total() / seconds, result.succeeded() / seconds);
+			for (double percentile : PERCENTILES) {
+				out.printf(Locale.ROOT, " %9.1f", latency.getValueAtPercentile(percentile) / 1000.0);
+			}
+			out.printf(Locale.ROOT, " %9.1f  %s%n", latency.getMaxValue() / 1000.0, result.failures());
+		});
+		if (abandoned > 0) {
+			out.printf(Locale.ROOT, "%d requests were still in flight at the end and are not counted%n", abandoned);
+		}
+	}
+}
@@ -0,0 +1,107 @@
+package com.weather.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.weather.Application;
+import com.weather.loadtest.OpenModelLoadGenerator.VirtualUser;
+import com.weather.model.User;
+import com.weather.security.JwtService;
+import com.weather.service.impl.UserServiceImpl;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Self-contained load test: starts the fake OpenWeather upstream, boots the
+ * service against it with in-memory repositories, seeds users and runs the
+ * {@link OpenModelLoadGenerator}.
+ *
+ * <p>
+ * Run with {@code mvn -Ploadtest test-compile exec:exec
+ * -Dloadtest.args="--rate=200 --duration=60s"}; see {@link LoadTestOptions}
+ * for all options. The generator and the service share the machine, so
+ * absolute numbers are pessimistic; compare runs on the same host.
+ * </p>
+ */
+@Slf4j
+public final class LoadTestRunner {
+
+	private static final String PASSWORD = "load-test-password";
+	private static final String[] POSTAL_CODES = { "10036", "94105", "60601", "73301", "98101" };
+	private static final String MONGO_AUTO_CONFIGURATIONS = String.join(",",
+			"org.springframework.boot.autoconfigure.mongo.MongoAutoConfiguration",
+			"org.springframework.boot.autoconfigure.mongo.MongoReactiveAutoConfiguration",
+			"org.springframework.boot.autoconfigure.data.mongo.MongoDataAutoConfiguration",
+			"org.springframework.boot.autoconfigure.data.mongo.MongoReactiveDataAutoConfiguration",
+			"org.springframework.boot.autoconfigure.data.mongo.MongoReactiveRepositoriesAutoConfiguration");
+
+	private LoadTestRunner() {
+	}
+
+	public static void main(String[] args) throws Exception {
+		LoadTestOptions options = LoadTestOptions.parse(args);
+		try (FakeOpenWeatherServer upstream = new FakeOpenWeatherServer(options.upstreamLatency(),
+				options.upstreamErrorRate(), options.upstreamThrottleRate()).start();
+				ConfigurableApplicationContext service = startService(options, upstream)) {
+			int port = ((WebServerApplicationContext) service).getWebServer().getPort();
+			List<VirtualUser> users = seedUsers(service, options.users());
+			LoadTestReport report = new OpenModelLoadGenerator("http://localhost:" + port, users, options).run();
+			report.print(System.out);
+			System.out.printf("upstream: %d requests, %d errors, %d throttled%n", upstream.requests(),
+					upstream.errors(), upstream.throttled());
+		}
+		System.exit(0);
+	}
+
+	private static ConfigurableApplicationContext startService(LoadTestOptions options,
+			FakeOpenWeatherServer upstream) {
+		Map<String, Object> properties = new TreeMap<>();
+		properties.put("server.port", "0");
+		properties.put("weather.api.url", upstream.baseUrl());
+		properties.put("spring.autoconfigure.exclude", MONGO_AUTO_CONFIGURATIONS);
+		properties.put("rate-limit.enabled", "false");
+		properties.put("management.tracing.sampling.probability", "0.1");
+		properties.put("logging.level.com.weather", "INFO");
+		properties.put("logging.level.org.springframework.web", "INFO");
+		properties.put("logging.level.org.springframework.data.mongodb", "INFO");
+		properties.put("logging.level.reactor.netty.http.server", "INFO");
+		properties.putAll(options.applicationProperties());
+		// Passed as arguments: default properties would lose to application-local.yaml
+		String[] arguments = properties.entrySet().stream()
+				.map(property -> "--" + property.getKey() + "=" + property.getValue())
+				.toArray(String[]::new);
+		return new SpringApplicationBuilder(Application.class, LoadTestConfiguration.class).run(arguments);
+	}
+
+	/**
+	 * Stores the users directly, sharing one password hash, and issues their
+	 * tokens without going through the API.
+	 */
+	private static List<VirtualUser> seedUsers(ConfigurableApplicationContext service, int count) {
+		InMemoryUserRepository userRepository = service.getBean(InMemoryUserRepository.class);
+		JwtService jwtService = service.getBean(JwtService.class);
+		String encodedPassword = service.getBean(PasswordEncoder.class).encode(PASSWORD);
+		List<VirtualUser> users = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			String username = "load-user-" + i;
+			String postalCode = POSTAL_CODES[i % POSTAL_CODES.length];
+			userRepository.save(User.builder()
+					.username(username)
+					.password(encodedPassword)
+					.postalCode(postalCode)
+					.active(true)
+					.roles(List.of(UserServiceImpl.ROLE_USER))
+					.build()).block();
+			users.add(new VirtualUser(username, PASSWORD, postalCode, jwtService.generateToken(username)));
+		}
+		log.info("Seeded {} users", count);
+		return users;
+	}
+}
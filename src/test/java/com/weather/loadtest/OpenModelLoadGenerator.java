@@ -0,0 +1,218 @@
+package com.weather.loadtest;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.Recorder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import io.netty.handler.timeout.ReadTimeoutException;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Open-model load generator for the auth, collect and history endpoints.
+ *
+ * <p>
+ * Requests arrive as a Poisson process at the configured mean rate, whether or
+ * not earlier requests have completed, the way independent clients hit the
+ * service. Latency is measured from the <em>intended</em> arrival time rather
+ * than from when the request was actually sent, so a stalled service or client
+ * shows up as latency instead of silently lowering the offered load
+ * (coordinated omission). Latencies are recorded in microseconds into one
+ * HdrHistogram {@link Recorder} per endpoint; requests arriving during the
+ * warm-up are sent but not recorded.
+ * </p>
+ */
+@Slf4j
+class OpenModelLoadGenerator {
+
+	enum Endpoint {
+		AUTH, COLLECT, HISTORY
+	}
+
+	/**
+	 * A seeded user and the token it sends on secured endpoints.
+	 */
+	record VirtualUser(String username, String password, String postalCode, String token) {
+	}
+
+	private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(5);
+	private static final String TIMEOUT = "timeout";
+
+	private final WebClient client;
+	private final ConnectionProvider connectionProvider;
+	private final List<VirtualUser> users;
+	private final LoadTestOptions options;
+	private final Map<Endpoint, EndpointStats> stats = new EnumMap<>(Endpoint.class);
+	private final AtomicInteger inFlight = new AtomicInteger();
+
+	OpenModelLoadGenerator(String baseUrl, List<VirtualUser> users, LoadTestOptions options) {
+		this.users = users;
+		this.options = options;
+		this.connectionProvider = ConnectionProvider.builder("load-generator")
+				.maxConnections(options.connections())
+				.pendingAcquireMaxCount(-1)
+				.build();
+		this.client = WebClient.builder()
+				.baseUrl(baseUrl)
+				.clientConnector(new ReactorClientHttpConnector(
+						HttpClient.create(connectionProvider).responseTimeout(options.timeout())))
+				.build();
+		for (Endpoint endpoint : Endpoint.values()) {
+			stats.put(endpoint, new EndpointStats());
+		}
+	}
+
+	/**
+	 * Offers load for the warm-up and measured phases, then waits for the
+	 * in-flight requests to finish.
+	 *
+	 * @return the measured results
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	LoadTestReport run() throws InterruptedException {
+		long start = System.nanoTime();
+		long measureFrom = start + options.warmup().toNanos();
+		long end = measureFrom + options.duration().toNanos();
+		double meanGapNanos = TimeUnit.SECONDS.toNanos(1) / options.rate();
+		Scheduler ticker = Schedulers.newSingle("load-generator");
+		CountDownLatch offered = new CountDownLatch(1);
+		long[] nextArrival = { start };
+		log.info("Offering {} req/s for {} warm-up and {} measured", options.rate(), options.warmup(),
+				options.duration());
+		Disposable arrivals = ticker.schedulePeriodically(() -> {
+			long now = System.nanoTime();
+			while (nextArrival[0] <= now && nextArrival[0] < end) {
+				send(nextArrival[0], nextArrival[0] >= measureFrom);
+				nextArrival[0] += (long) (-Math.log(1 - ThreadLocalRandom.current().nextDouble()) * meanGapNanos);
+			}
+			if (nextArrival[0] >= end) {
+				offered.countDown();
+			}
+		}, 0, 1, TimeUnit.MILLISECONDS);
+		try {
+			offered.await();
+			arrivals.dispose();
+			long drainDeadline = System.nanoTime() + options.timeout().plusSeconds(1).toNanos();
+			while (inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+				Thread.sleep(10);
+			}
+		} finally {
+			ticker.dispose();
+			connectionProvider.disposeLater().block(Duration.ofSeconds(5));
+		}
+		Map<Endpoint, LoadTestReport.EndpointResult> results = new EnumMap<>(Endpoint.class);
+		stats.forEach((endpoint, endpointStats) -> results.put(endpoint, endpointStats.result()));
+		return new LoadTestReport(options.duration(), results, inFlight.get());
+	}
+
+	private void send(long intendedStart, boolean measured) {
+		Endpoint endpoint = pickEndpoint();
+		VirtualUser user = users.get(ThreadLocalRandom.current().nextInt(users.size()));
+		EndpointStats endpointStats = stats.get(endpoint);
+		inFlight.incrementAndGet();
+		request(endpoint, user)
+				.doFinally(signal -> inFlight.decrementAndGet())
+				.subscribe(status -> {
+					if (measured) {
+						endpointStats.record(intendedStart, isSuccess(status) ? null : String.valueOf(status));
+					}
+				}, error -> {
+					if (measured) {
+						endpointStats.record(intendedStart, failure(error));
+					}
+				});
+	}
+
+	private Mono<Integer> request(Endpoint endpoint, VirtualUser user) {
+		WebClient.RequestHeadersSpec<?> spec = switch (endpoint) {
+			case AUTH -> client.post()
+					.uri("/v1/api/auth/token")
+					.bodyValue(Map.of("username", user.username(), "password", user.password()));
+			case COLLECT -> client.post()
+					.uri("/v1/api/weather/info")
+					.header(HttpHeaders.AUTHORIZATION, "Bearer " + user.token())
+					.bodyValue(Map.of("postalCode", user.postalCode(), "username", user.username()));
+			case HISTORY -> ThreadLocalRandom.current().nextBoolean()
+					? client.get()
+							.uri("/v1/api/weather/history/user/{username}", user.username())
+							.header(HttpHeaders.AUTHORIZATION, "Bearer " + user.token())
+					: client.get()
+							.uri("/v1/api/weather/history/postal-code/{postalCode}", user.postalCode())
+							.header(HttpHeaders.AUTHORIZATION, "Bearer " + user.token());
+		};
+		return spec.exchangeToMono(response -> response.releaseBody().thenReturn(response.statusCode().value()));
+	}
+
+	private Endpoint pickEndpoint() {
+		int total = options.authWeight() + options.collectWeight() + options.historyWeight();
+		int roll = ThreadLocalRandom.current().nextInt(total);
+		if (roll < options.authWeight()) {
+			return Endpoint.AUTH;
+		}
+		return roll < options.authWeight() + options.collectWeight() ? Endpoint.COLLECT : Endpoint.HISTORY;
+	}
+
+	private static boolean isSuccess(int status) {
+		return status >= 200 && status < 300;
+	}
+
+	private static String failure(Throwable error) {
+		Throwable cause = error;
+		while (cause != null) {
+			if (cause instanceof TimeoutException || cause instanceof ReadTimeoutException) {
+				return TIMEOUT;
+			}
+			cause = cause.getCause();
+		}
+		return error.getClass().getSimpleName();
+	}
+
+	/**
+	 * Latency recorder and outcome counters of one endpoint.
+	 */
+	private static final class EndpointStats {
+
+		private final Recorder latency = new Recorder(HIGHEST_TRACKABLE_MICROS, 3);
+		private final LongAdder succeeded = new LongAdder();
+		private final Map<String, LongAdder> failures = new ConcurrentHashMap<>();
+
+		/**
+		 * @param intendedStart arrival time the latency is measured from
+		 * @param failure       HTTP status or error name, {@code null} on success
+		 */
+		void record(long intendedStart, String failure) {
+			long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intendedStart);
+			latency.recordValue(Math.min(micros, HIGHEST_TRACKABLE_MICROS));
+			if (failure == null) {
+				succeeded.increment();
+			} else {
+				failures.computeIfAbsent(failure, key -> new LongAdder()).increment();
+			}
+		}
+
+		LoadTestReport.EndpointResult result() {
+			Map<String, Long> failureCounts = new TreeMap<>();
+			failures.forEach((failure, count) -> failureCounts.put(failure, count.sum()));
+			return new LoadTestReport.EndpointResult(latency.getIntervalHistogram(), succeeded.sum(), failureCounts);
+		}
+	}
+}
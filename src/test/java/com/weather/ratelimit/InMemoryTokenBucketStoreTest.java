@@ -0,0 +1,57 @@
+package com.weather.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+import com.weather.utils.RateLimitProperties;
+
+class InMemoryTokenBucketStoreTest {
+
+    private static final String LIVE_KEY = "weather-info:user:testUser";
+
+    @Test
+    void newKeyBeyondBoundEvictsABucketTest() {
+        InMemoryTokenBucketStore store = new InMemoryTokenBucketStore(3, 60_000);
+        RateLimitProperties.Rule rule = rule(2, Duration.ofMinutes(1));
+
+        for (int i = 0; i < 10; i++) {
+            RateLimitDecision decision = store.consume("weather-info:ip:10.0.0." + i, rule).block();
+            assertTrue(decision.isAllowed());
+            assertEquals(1, decision.getRemaining());
+            assertTrue(store.size() <= 3);
+        }
+        assertEquals(3, store.size());
+    }
+
+    @Test
+    void fullyRefilledBucketsAreSweptBeforeLiveOnesTest() throws Exception {
+        InMemoryTokenBucketStore store = new InMemoryTokenBucketStore(3, 0);
+        RateLimitProperties.Rule fastRefill = rule(1, Duration.ofMillis(1));
+        RateLimitProperties.Rule slowRefill = rule(2, Duration.ofMinutes(1));
+
+        store.consume("weather-info:ip:10.0.0.1", fastRefill).block();
+        store.consume("weather-info:ip:10.0.0.2", fastRefill).block();
+        assertEquals(1, store.consume(LIVE_KEY, slowRefill).block().getRemaining());
+        Thread.sleep(10);
+
+        store.consume("weather-info:ip:10.0.0.3", fastRefill).block();
+
+        assertEquals(2, store.size());
+        RateLimitDecision live = store.consume(LIVE_KEY, slowRefill).block();
+        assertEquals(0, live.getRemaining());
+        assertFalse(store.consume(LIVE_KEY, slowRefill).block().isAllowed());
+    }
+
+    private static RateLimitProperties.Rule rule(long capacity, Duration refillPeriod) {
+        RateLimitProperties.Rule rule = new RateLimitProperties.Rule();
+        rule.setCapacity(capacity);
+        rule.setRefillTokens(capacity);
+        rule.setRefillPeriod(refillPeriod);
+        return rule;
+    }
+}
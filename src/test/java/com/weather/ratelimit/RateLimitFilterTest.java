@@ -0,0 +1,87 @@
+package com.weather.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.weather.config.JsonCodecs;
+import com.weather.exception.handler.ErrorResponseWriter;
+
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+@ExtendWith(MockitoExtension.class)
+class RateLimitFilterTest {
+
+    @Mock
+    private RateLimiter rateLimiter;
+
+    @Mock
+    private WebFilterChain chain;
+
+    private RateLimitFilter rateLimitFilter;
+    private MockServerWebExchange exchange;
+
+    @BeforeEach
+    void setUp() {
+        rateLimitFilter = new RateLimitFilter(rateLimiter, new ErrorResponseWriter(new JsonCodecs(new ObjectMapper())));
+        exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/v1/api/weather/info"));
+    }
+
+    @Test
+    void allowedRequestCarriesRateLimitHeadersTest() {
+        when(rateLimiter.check(exchange)).thenReturn(Mono.just(new RateLimitDecision(true, 10, 7, 0, 18_500)));
+        when(chain.filter(exchange)).thenReturn(Mono.empty());
+
+        StepVerifier.create(rateLimitFilter.filter(exchange, chain))
+                .verifyComplete();
+
+        HttpHeaders headers = exchange.getResponse().getHeaders();
+        assertEquals("10", headers.getFirst(RateLimitFilter.LIMIT_HEADER));
+        assertEquals("7", headers.getFirst(RateLimitFilter.REMAINING_HEADER));
+        assertEquals("19", headers.getFirst(RateLimitFilter.RESET_HEADER));
+        verify(chain).filter(exchange);
+    }
+
+    @Test
+    void rejectedRequestReturnsTooManyRequestsTest() {
+        when(rateLimiter.check(exchange)).thenReturn(Mono.just(RateLimitDecision.rejected(10, 4_200)));
+
+        StepVerifier.create(rateLimitFilter.filter(exchange, chain))
+                .verifyComplete();
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, exchange.getResponse().getStatusCode());
+        assertEquals("5", exchange.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        StepVerifier.create(exchange.getResponse().getBodyAsString())
+                .expectNextMatches(body -> body.contains("\"status\":429"))
+                .verifyComplete();
+        verify(chain, never()).filter(any());
+    }
+
+    @Test
+    void storeFailurePassesRequestWithoutHeadersTest() {
+        when(rateLimiter.check(exchange)).thenReturn(Mono.empty());
+        when(chain.filter(exchange)).thenReturn(Mono.empty());
+
+        StepVerifier.create(rateLimitFilter.filter(exchange, chain))
+                .verifyComplete();
+
+        assertNull(exchange.getResponse().getHeaders().getFirst(RateLimitFilter.LIMIT_HEADER));
+        verify(chain).filter(exchange);
+    }
+}
@@ -0,0 +1,134 @@
+package com.weather.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Collections;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+
+import com.weather.security.JwtAuthenticationToken;
+import com.weather.utils.RateLimitProperties;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class RateLimiterTest {
+
+    private static final String INFO_PATH = "/v1/api/weather/info";
+    private static final String TEST_USERNAME = "testUser";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private InMemoryTokenBucketStore store;
+    private RateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        RateLimitProperties.Rule infoRule = new RateLimitProperties.Rule();
+        infoRule.setPattern(INFO_PATH);
+        infoRule.setCapacity(2);
+        infoRule.setRefillTokens(2);
+        infoRule.setRefillPeriod(Duration.ofMinutes(1));
+
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.getRules().put("weather-info", infoRule);
+
+        store = spy(new InMemoryTokenBucketStore());
+        rateLimiter = new RateLimiter(store, properties, meterRegistry);
+    }
+
+    @Test
+    void allowsUntilBucketIsEmptyTest() {
+        StepVerifier.create(check(INFO_PATH))
+                .assertNext(decision -> {
+                    assertTrue(decision.isAllowed());
+                    assertEquals(2, decision.getLimit());
+                    assertEquals(1, decision.getRemaining());
+                })
+                .verifyComplete();
+        StepVerifier.create(check(INFO_PATH))
+                .assertNext(decision -> assertEquals(0, decision.getRemaining()))
+                .verifyComplete();
+        StepVerifier.create(check(INFO_PATH))
+                .assertNext(decision -> {
+                    assertFalse(decision.isAllowed());
+                    assertTrue(decision.getRetryAfterMillis() > 0);
+                })
+                .verifyComplete();
+
+        verify(store, times(3)).consume(eq("weather-info:user:" + TEST_USERNAME), any());
+        assertEquals(1.0, meterRegistry.get("weather.ratelimit.decisions")
+                .tag("rule", "weather-info").tag("outcome", "rejected").counter().count());
+    }
+
+    @Test
+    void localTierRejectsWithoutStoreRoundTripTest() {
+        check(INFO_PATH).block();
+        check(INFO_PATH).block();
+        check(INFO_PATH).block();
+
+        StepVerifier.create(check(INFO_PATH))
+                .assertNext(decision -> assertFalse(decision.isAllowed()))
+                .verifyComplete();
+
+        verify(store, times(3)).consume(anyString(), any());
+        assertEquals(1.0, meterRegistry.get("weather.ratelimit.decisions")
+                .tag("rule", "weather-info").tag("outcome", "rejected_local").counter().count());
+    }
+
+    @Test
+    void unmatchedPathUsesDefaultRuleTest() {
+        StepVerifier.create(check("/v1/api/weather/history/user/" + TEST_USERNAME))
+                .assertNext(decision -> assertEquals(60, decision.getLimit()))
+                .verifyComplete();
+
+        verify(store).consume(eq(RateLimiter.DEFAULT_RULE + ":user:" + TEST_USERNAME), any());
+    }
+
+    @Test
+    void anonymousRequestIsKeyedByClientAddressTest() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post(INFO_PATH)
+                .remoteAddress(new java.net.InetSocketAddress("10.0.0.1", 4321)));
+
+        StepVerifier.create(rateLimiter.check(exchange))
+                .assertNext(decision -> assertTrue(decision.isAllowed()))
+                .verifyComplete();
+
+        verify(store).consume(eq("weather-info:ip:10.0.0.1"), any());
+    }
+
+    @Test
+    void storeFailureFailsOpenTest() {
+        TokenBucketStore failingStore = mock(TokenBucketStore.class);
+        when(failingStore.consume(anyString(), any())).thenReturn(Mono.error(new IllegalStateException("down")));
+        rateLimiter = new RateLimiter(failingStore, new RateLimitProperties(), meterRegistry);
+
+        StepVerifier.create(check(INFO_PATH))
+                .verifyComplete();
+    }
+
+    private Mono<RateLimitDecision> check(String path) {
+        JwtAuthenticationToken authentication = JwtAuthenticationToken.builder()
+                .username(TEST_USERNAME)
+                .authenticated(true)
+                .authorities(Collections.emptyList())
+                .build();
+        return rateLimiter.check(MockServerWebExchange.from(MockServerHttpRequest.post(path)))
+                .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication));
+    }
+}
@@ -0,0 +1,124 @@
+package com.weather.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import com.weather.utils.RateLimitProperties;
+
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+/**
+ * Runs {@code scripts/token_bucket.lua} against a real Redis started with
+ * Testcontainers. Skipped when no Docker daemon is available.
+ */
+@EnabledIf("dockerAvailable")
+class RedisTokenBucketStoreTest {
+
+    private static final String KEY = "testUser:weather-info";
+
+    private static GenericContainer<?> redis;
+    private static LettuceConnectionFactory connectionFactory;
+    private static ReactiveStringRedisTemplate redisTemplate;
+
+    private final RateLimitProperties properties = new RateLimitProperties();
+
+    static boolean dockerAvailable() {
+        return DockerClientFactory.instance().isDockerAvailable();
+    }
+
+    @BeforeAll
+    static void startRedis() {
+        redis = new GenericContainer<>(DockerImageName.parse("redis:7-alpine")).withExposedPorts(6379);
+        redis.start();
+        connectionFactory = new LettuceConnectionFactory(redis.getHost(), redis.getMappedPort(6379));
+        connectionFactory.afterPropertiesSet();
+        redisTemplate = new ReactiveStringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void stopRedis() {
+        connectionFactory.destroy();
+        redis.stop();
+    }
+
+    @BeforeEach
+    void flush() {
+        redisTemplate.execute(connection -> connection.serverCommands().flushAll()).blockLast();
+    }
+
+    @Test
+    void allowsUntilBucketIsEmptyTest() {
+        RedisTokenBucketStore store = new RedisTokenBucketStore(redisTemplate, properties);
+        RateLimitProperties.Rule rule = rule(2, Duration.ofMinutes(1));
+
+        StepVerifier.create(store.consume(KEY, rule))
+                .assertNext(decision -> {
+                    assertTrue(decision.isAllowed());
+                    assertEquals(2, decision.getLimit());
+                    assertEquals(1, decision.getRemaining());
+                    assertEquals(0, decision.getRetryAfterMillis());
+                })
+                .verifyComplete();
+        StepVerifier.create(store.consume(KEY, rule))
+                .assertNext(decision -> assertEquals(0, decision.getRemaining()))
+                .verifyComplete();
+        StepVerifier.create(store.consume(KEY, rule))
+                .assertNext(decision -> {
+                    assertFalse(decision.isAllowed());
+                    assertTrue(decision.getRetryAfterMillis() > 0 && decision.getRetryAfterMillis() <= 30_000);
+                    assertTrue(decision.getResetMillis() <= 60_000);
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void bucketsAreIndependentPerKeyAndExpireTest() {
+        RedisTokenBucketStore store = new RedisTokenBucketStore(redisTemplate, properties);
+        RateLimitProperties.Rule rule = rule(1, Duration.ofMinutes(1));
+
+        assertTrue(store.consume(KEY, rule).block().isAllowed());
+        assertFalse(store.consume(KEY, rule).block().isAllowed());
+        assertTrue(store.consume("otherUser:weather-info", rule).block().isAllowed());
+
+        Duration ttl = redisTemplate.getExpire(properties.getKeyPrefix() + KEY).block();
+        assertTrue(ttl.compareTo(Duration.ZERO) > 0 && ttl.compareTo(Duration.ofSeconds(62)) <= 0);
+    }
+
+    @Test
+    void concurrentInstancesShareOneLimitTest() {
+        RedisTokenBucketStore first = new RedisTokenBucketStore(redisTemplate, properties);
+        RedisTokenBucketStore second = new RedisTokenBucketStore(redisTemplate, properties);
+        RateLimitProperties.Rule rule = rule(10, Duration.ofHours(1));
+
+        List<RateLimitDecision> decisions = Flux.range(0, 50)
+                .flatMap(i -> (i % 2 == 0 ? first : second).consume(KEY, rule), 50)
+                .collectList()
+                .block();
+
+        assertEquals(10, decisions.stream().filter(RateLimitDecision::isAllowed).count());
+    }
+
+    private static RateLimitProperties.Rule rule(long capacity, Duration refillPeriod) {
+        RateLimitProperties.Rule rule = new RateLimitProperties.Rule();
+        rule.setCapacity(capacity);
+        rule.setRefillTokens(capacity);
+        rule.setRefillPeriod(refillPeriod);
+        return rule;
+    }
+}
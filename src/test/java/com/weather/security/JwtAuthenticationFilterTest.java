@@ -4,15 +4,23 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
 import org.springframework.mock.web.server.MockServerWebExchange;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.server.WebFilterChain;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.weather.config.JsonCodecs;
+import com.weather.exception.handler.ErrorResponseWriter;
+
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
 
@@ -25,6 +33,9 @@ class JwtAuthenticationFilterTest {
     @Mock
     private WebFilterChain filterChain;
 
+    @Spy
+    private ErrorResponseWriter errorResponseWriter = new ErrorResponseWriter(new JsonCodecs(new ObjectMapper()));
+
     @InjectMocks
     private JwtAuthenticationFilter authFilter;
 
@@ -57,6 +68,12 @@ class JwtAuthenticationFilterTest {
 
         StepVerifier.create(authFilter.filter(exchange, filterChain))
                 .verifyComplete();
+
+        assertEquals(HttpStatus.UNAUTHORIZED, exchange.getResponse().getStatusCode());
+        StepVerifier.create(exchange.getResponse().getBodyAsString())
+                .expectNextMatches(body -> body.contains("\"error\":\"Authentication Failed\"")
+                        && body.matches(".*\"traceId\":\"[0-9a-f]{32}\".*"))
+                .verifyComplete();
     }
 
     @Test
@@ -0,0 +1,95 @@
+package com.weather.security;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import com.weather.api.WeatherAPI;
+import com.weather.cache.EncodedHistoryCache;
+import com.weather.config.JacksonConfig;
+import com.weather.dto.WeatherResponse;
+import com.weather.exception.handler.ErrorResponseWriter;
+import com.weather.idempotency.IdempotencyStore;
+import com.weather.jobs.CollectionJobQueue;
+import com.weather.service.impl.WeatherService;
+
+import reactor.core.publisher.Mono;
+
+@WebFluxTest(controllers = WeatherAPI.class)
+@Import({ SecurityConfig.class, JwtAuthenticationManager.class, JwtService.class, TokenRevocationRegistry.class,
+        ErrorResponseWriter.class,
+        JacksonConfig.class })
+class JwtAuthenticationIntegrationTest {
+
+    private static final String TEST_USERNAME = "testUser";
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @SpyBean
+    private JwtService jwtService;
+
+    @MockBean
+    private WeatherService weatherService;
+
+    @MockBean
+    private EncodedHistoryCache historyCache;
+
+    @MockBean
+    private IdempotencyStore idempotencyStore;
+
+    @MockBean
+    private CollectionJobQueue jobQueue;
+
+    @Test
+    void securedRequestValidatesTokenExactlyOnceTest() {
+        String token = jwtService.generateToken(TEST_USERNAME);
+        when(weatherService.getHistoryByUsername(TEST_USERNAME))
+                .thenReturn(Mono.just(WeatherResponse.builder()
+                        .username(TEST_USERNAME)
+                        .history(Collections.emptyList())
+                        .build()));
+
+        webTestClient.get()
+                .uri("/v1/api/weather/history/user/{username}", TEST_USERNAME)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .exchange()
+                .expectStatus().isOk();
+
+        verify(jwtService, times(1)).validateToken(token);
+    }
+
+    @Test
+    void missingTokenIsRejectedWithoutValidationTest() {
+        webTestClient.get()
+                .uri("/v1/api/weather/history/user/{username}", TEST_USERNAME)
+                .exchange()
+                .expectStatus().isUnauthorized();
+
+        verify(jwtService, never()).validateToken(anyString());
+    }
+
+    @Test
+    void publicPathSkipsValidationTest() {
+        webTestClient.get()
+                .uri("/v3/api-docs")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer ignored")
+                .exchange()
+                .expectStatus().isNotFound();
+
+        verify(jwtService, never()).validateToken(anyString());
+    }
+}
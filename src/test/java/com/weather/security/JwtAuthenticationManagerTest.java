@@ -6,6 +6,11 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.core.Authentication;
+
+import com.weather.exception.InvalidTokenException;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
@@ -19,11 +24,15 @@ class JwtAuthenticationManagerTest {
     @Mock
     private JwtService jwtService;
 
+    @Mock
+    private TokenRevocationRegistry tokenRevocationRegistry;
+
     @InjectMocks
     private JwtAuthenticationManager authManager;
 
     private static final String TEST_TOKEN = "test.token.here";
     private static final String TEST_USERNAME = "testUser";
+    private static final String TEST_TOKEN_ID = "test-token-id";
 
     @Test
     void authenticateValidTokenReturnsAuthenticatedTokenTest() {
@@ -31,8 +40,8 @@ class JwtAuthenticationManagerTest {
                 .token(TEST_TOKEN)
                 .build();
 
-        when(jwtService.validateTokenAndGetUsername(TEST_TOKEN))
-                .thenReturn(Mono.just(TEST_USERNAME));
+        when(jwtService.validateToken(TEST_TOKEN))
+                .thenReturn(Mono.just(createClaims()));
 
         StepVerifier.create(authManager.authenticate(token))
                 .expectNextMatches(auth -> {
@@ -42,6 +51,22 @@ class JwtAuthenticationManagerTest {
                 .verifyComplete();
     }
 
+    @Test
+    void authenticateRevokedTokenReturnsErrorTest() {
+        JwtAuthenticationToken token = JwtAuthenticationToken.builder()
+                .token(TEST_TOKEN)
+                .build();
+
+        when(jwtService.validateToken(TEST_TOKEN))
+                .thenReturn(Mono.just(createClaims()));
+        when(tokenRevocationRegistry.isRevoked(TEST_USERNAME, TEST_TOKEN_ID))
+                .thenReturn(true);
+
+        StepVerifier.create(authManager.authenticate(token))
+                .expectError(InvalidTokenException.class)
+                .verify();
+    }
+
     @Test
     void authenticateInvalidTokenReturnsEmptyTest() {
         JwtAuthenticationToken token = JwtAuthenticationToken.builder()
@@ -52,11 +77,19 @@ class JwtAuthenticationManagerTest {
                 .expectError();
     }
 
+    private Claims createClaims() {
+        Claims claims = Jwts.claims();
+        claims.setSubject(TEST_USERNAME);
+        claims.setId(TEST_TOKEN_ID);
+        return claims;
+    }
+
     private void assertAuthenticationToken(Authentication auth) {
         assertTrue(auth instanceof JwtAuthenticationToken);
         JwtAuthenticationToken jwtAuth = (JwtAuthenticationToken) auth;
         assertEquals(TEST_USERNAME, jwtAuth.getUsername());
         assertEquals(TEST_TOKEN, jwtAuth.getToken());
+        assertEquals(TEST_TOKEN_ID, jwtAuth.getTokenId());
         assertEquals(1, jwtAuth.getAuthorities().size());
         assertTrue(jwtAuth.getAuthorities().stream()
                 .anyMatch(a -> a.getAuthority().equals("ROLE_USER")));
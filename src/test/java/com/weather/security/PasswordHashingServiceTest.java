@@ -0,0 +1,103 @@
+package com.weather.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.weather.exception.ServiceOverloadedException;
+import com.weather.utils.PasswordHashingProperties;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.Disposable;
+import reactor.test.StepVerifier;
+
+class PasswordHashingServiceTest {
+
+    private static final String RAW_PASSWORD = "testPassword";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private PasswordHashingService passwordHashingService;
+
+    @AfterEach
+    void tearDown() {
+        passwordHashingService.destroy();
+    }
+
+    @Test
+    void encodeAndMatchesRunOffCallerThreadTest() {
+        passwordHashingService = createService(new BCryptPasswordEncoder(4), 2, 10, false);
+        String callerThread = Thread.currentThread().getName();
+
+        String encoded = passwordHashingService.encode(RAW_PASSWORD)
+                .doOnNext(hash -> assertNotEquals(callerThread, Thread.currentThread().getName()))
+                .block();
+
+        StepVerifier.create(passwordHashingService.matches(RAW_PASSWORD, encoded))
+                .expectNext(true)
+                .verifyComplete();
+        assertEquals(1, meterRegistry.get("weather.password.hash.duration").tag("operation", "encode").timer().count());
+        assertEquals(1, meterRegistry.get("weather.password.hash.queue.wait").tag("operation", "matches").timer().count());
+    }
+
+    @Test
+    void saturatedQueueRejectsQuicklyTest() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        PasswordEncoder blockingEncoder = new BCryptPasswordEncoder(4) {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                started.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.encode(rawPassword);
+            }
+        };
+        passwordHashingService = createService(blockingEncoder, 1, 1, false);
+
+        Disposable running = passwordHashingService.encode(RAW_PASSWORD).subscribe();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        Disposable queued = passwordHashingService.encode(RAW_PASSWORD).subscribe();
+
+        StepVerifier.create(passwordHashingService.encode(RAW_PASSWORD))
+                .expectError(ServiceOverloadedException.class)
+                .verify();
+        assertEquals(1.0, meterRegistry.get("weather.password.hash.rejected").counter().count());
+
+        release.countDown();
+        running.dispose();
+        queued.dispose();
+    }
+
+    @Test
+    void needsRehashOnlyWhenEnabledAndCostChangedTest() {
+        String weakHash = new BCryptPasswordEncoder(4).encode(RAW_PASSWORD);
+
+        passwordHashingService = createService(new BCryptPasswordEncoder(5), 1, 1, false);
+        assertFalse(passwordHashingService.needsRehash(weakHash));
+        passwordHashingService.destroy();
+
+        passwordHashingService = createService(new BCryptPasswordEncoder(5), 1, 1, true);
+        assertTrue(passwordHashingService.needsRehash(weakHash));
+    }
+
+    private PasswordHashingService createService(PasswordEncoder encoder, int threadCap, int queueCap,
+            boolean rehashOnLogin) {
+        PasswordHashingProperties properties = new PasswordHashingProperties();
+        properties.setThreadCap(threadCap);
+        properties.setQueueCap(queueCap);
+        properties.setRehashOnLogin(rehashOnLogin);
+        return new PasswordHashingService(encoder, properties, meterRegistry);
+    }
+}
@@ -0,0 +1,60 @@
+package com.weather.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class TokenRevocationRegistryTest {
+
+    private static final String TEST_USERNAME = "testUser";
+    private static final String TEST_TOKEN_ID = "test-token-id";
+
+    private TokenRevocationRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new TokenRevocationRegistry();
+    }
+
+    @Test
+    void unknownUserAndTokenAreNotRevokedTest() {
+        assertFalse(registry.isRevoked(TEST_USERNAME, TEST_TOKEN_ID));
+        assertFalse(registry.isRevoked(TEST_USERNAME, null));
+    }
+
+    @Test
+    void revokedUserIsRejectedUntilRestoredTest() {
+        registry.revokeUser(TEST_USERNAME);
+        assertTrue(registry.isRevoked(TEST_USERNAME, TEST_TOKEN_ID));
+        assertFalse(registry.isRevoked("otherUser", "other-token-id"));
+
+        registry.restoreUser(TEST_USERNAME);
+        assertFalse(registry.isRevoked(TEST_USERNAME, TEST_TOKEN_ID));
+    }
+
+    @Test
+    void revokedTokenIsRejectedUntilExpiryTest() {
+        registry.revokeToken(TEST_TOKEN_ID, System.currentTimeMillis() + 60_000);
+        assertTrue(registry.isRevoked(TEST_USERNAME, TEST_TOKEN_ID));
+        assertFalse(registry.isRevoked(TEST_USERNAME, "other-token-id"));
+
+        registry.revokeToken("expired-token-id", System.currentTimeMillis() - 1);
+        assertFalse(registry.isRevoked(TEST_USERNAME, "expired-token-id"));
+        assertEquals(1, registry.revokedTokenCount());
+    }
+
+    @Test
+    void eventsRoundTripAndApplyTest() {
+        RevocationEvent event = RevocationEvent.decode(RevocationEvent.userRevoked("user|with|pipes").encode());
+        event.applyTo(registry);
+        assertTrue(registry.isRevoked("user|with|pipes", null));
+
+        long expiresAt = System.currentTimeMillis() + 60_000;
+        RevocationEvent tokenEvent = RevocationEvent.decode(RevocationEvent.tokenRevoked(TEST_TOKEN_ID, expiresAt).encode());
+        assertEquals(RevocationEvent.Type.TOKEN_REVOKED, tokenEvent.getType());
+        assertEquals(expiresAt, tokenEvent.getExpiresAt());
+    }
+}
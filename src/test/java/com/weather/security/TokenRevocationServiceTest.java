@@ -0,0 +1,69 @@
+package com.weather.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.health.Status;
+
+import com.mongodb.MongoException;
+import com.weather.model.User;
+import com.weather.repository.UserRepository;
+
+import reactor.core.publisher.Flux;
+
+class TokenRevocationServiceTest {
+
+    private static final String TEST_USERNAME = "testUser";
+
+    private final TokenRevocationRegistry registry = new TokenRevocationRegistry();
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private TokenRevocationService revocationService;
+    private TokenRevocationHealthIndicator healthIndicator;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        ObjectProvider<RevocationBroadcaster> broadcaster = mock(ObjectProvider.class);
+        revocationService = new TokenRevocationService(registry, userRepository, broadcaster);
+        healthIndicator = new TokenRevocationHealthIndicator(revocationService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        revocationService.destroy();
+    }
+
+    @Test
+    void failedLoadIsRetriedAndKeepsInstanceOutOfServiceTest() throws Exception {
+        User inactive = new User();
+        inactive.setUsername(TEST_USERNAME);
+        AtomicInteger attempts = new AtomicInteger();
+        when(userRepository.findByActiveFalse()).thenAnswer(invocation -> attempts.incrementAndGet() == 1
+                ? Flux.error(new MongoException("Mongo unavailable"))
+                : Flux.just(inactive));
+
+        revocationService.loadRevocations();
+
+        assertFalse(revocationService.isLoaded());
+        assertEquals(Status.OUT_OF_SERVICE, healthIndicator.health().getStatus());
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!revocationService.isLoaded() && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertTrue(revocationService.isLoaded());
+        assertEquals(2, attempts.get());
+        assertEquals(Status.UP, healthIndicator.health().getStatus());
+        assertTrue(registry.isRevoked(TEST_USERNAME, "any-token-id"));
+    }
+}
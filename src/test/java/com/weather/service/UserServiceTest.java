@@ -6,6 +6,8 @@ import com.weather.exception.UserAlreadyExistsException;
 import com.weather.exception.UserNotFoundException;
 import com.weather.model.User;
 import com.weather.repository.UserRepository;
+import com.weather.security.PasswordHashingService;
+import com.weather.security.TokenRevocationService;
 import com.weather.service.impl.UserServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -13,7 +15,6 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
@@ -22,6 +23,7 @@ import java.util.Collections;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -30,7 +32,10 @@ public class UserServiceTest {
     private UserRepository userRepository;
 
     @Mock
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
+
+    @Mock
+    private TokenRevocationService tokenRevocationService;
 
     @InjectMocks
     private UserServiceImpl userService;
@@ -65,6 +70,7 @@ public class UserServiceTest {
     @Test
     void createUserNewUserSuccessTest() {
         when(userRepository.findByUsername(anyString())).thenReturn(Mono.empty());
+        when(passwordHashingService.encode(rawPassword)).thenReturn(Mono.just(encodedPassword));
         when(userRepository.save(any(User.class))).thenReturn(Mono.just(testUser));
 
         StepVerifier.create(userService.createUser(registrationRequest))
@@ -91,7 +97,7 @@ public class UserServiceTest {
     @Test
     void authenticateValidCredentialsSuccessTest() {
         when(userRepository.findByUsername(anyString())).thenReturn(Mono.just(testUser));
-        when(passwordEncoder.matches(rawPassword, encodedPassword)).thenReturn(true);
+        when(passwordHashingService.matches(rawPassword, encodedPassword)).thenReturn(Mono.just(true));
 
         StepVerifier.create(userService.authenticate("testUser", rawPassword))
                 .assertNext(user -> {
@@ -102,10 +108,24 @@ public class UserServiceTest {
                 .verifyComplete();
     }
 
+    @Test
+    void authenticateOutdatedHashRehashesPasswordTest() {
+        String rehashedPassword = "rehashedPassword";
+        when(userRepository.findByUsername(anyString())).thenReturn(Mono.just(testUser));
+        when(passwordHashingService.matches(rawPassword, encodedPassword)).thenReturn(Mono.just(true));
+        when(passwordHashingService.needsRehash(encodedPassword)).thenReturn(true);
+        when(passwordHashingService.encode(rawPassword)).thenReturn(Mono.just(rehashedPassword));
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+
+        StepVerifier.create(userService.authenticate("testUser", rawPassword))
+                .assertNext(user -> assertEquals(rehashedPassword, user.getPassword()))
+                .verifyComplete();
+    }
+
     @Test
     void authenticateInvalidCredentialsThrowsExceptionTest() {
         when(userRepository.findByUsername(anyString())).thenReturn(Mono.just(testUser));
-        when(passwordEncoder.matches(rawPassword, encodedPassword)).thenReturn(false);
+        when(passwordHashingService.matches(rawPassword, encodedPassword)).thenReturn(Mono.just(false));
 
         StepVerifier.create(userService.authenticate("testUser", rawPassword))
                 .expectError(InvalidCredentialsException.class)
@@ -156,6 +176,7 @@ public class UserServiceTest {
 
         when(userRepository.findByUsername(anyString())).thenReturn(Mono.just(inactiveUser));
         when(userRepository.save(any(User.class))).thenReturn(Mono.just(activatedUser));
+        when(tokenRevocationService.restoreUser("testUser")).thenReturn(Mono.empty());
 
         StepVerifier.create(userService.activateUser("testUser"))
                 .assertNext(user -> {
@@ -188,6 +209,7 @@ public class UserServiceTest {
 
         when(userRepository.findByUsername(anyString())).thenReturn(Mono.just(activeUser));
         when(userRepository.save(any(User.class))).thenReturn(Mono.just(deactivatedUser));
+        when(tokenRevocationService.revokeUser("testUser")).thenReturn(Mono.empty());
 
         StepVerifier.create(userService.deactivateUser("testUser"))
                 .assertNext(user -> {
@@ -195,6 +217,7 @@ public class UserServiceTest {
                     assertTrue(!user.isActive());
                 })
                 .verifyComplete();
+        verify(tokenRevocationService).revokeUser("testUser");
     }
 
     @Test
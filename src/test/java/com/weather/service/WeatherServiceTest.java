@@ -1,12 +1,19 @@
 package com.weather.service;
 
 import com.mongodb.MongoException;
+import com.weather.deadline.Deadline;
+import com.weather.deadline.DeadlineExceededException;
 import com.weather.dto.Coordinates;
 import com.weather.dto.WeatherRequest;
 import com.weather.exception.DatabaseException;
+import com.weather.exception.WeatherServiceException;
+import com.weather.metrics.WeatherPipelineMetrics;
+import com.weather.model.HistoryVersion;
 import com.weather.model.WeatherData;
 import com.weather.repository.WeatherDataRepository;
 import com.weather.service.impl.WeatherServiceImpl;
+import com.weather.utils.DegradationProperties;
+import com.weather.utils.HistoryETag;
 import com.weather.utils.WeatherServiceProperties;
 import com.weather.utils.WeatherServiceUriUtil;
 import com.weather.webclient.WebClientService;
@@ -15,17 +22,28 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
+import reactor.util.context.Context;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
@@ -46,6 +64,14 @@ public class WeatherServiceTest {
     @Mock
     private WeatherServiceUriUtil weatherServiceUriUtil;
 
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private WeatherPipelineMetrics pipelineMetrics = new WeatherPipelineMetrics(meterRegistry);
+
+    @Spy
+    private DegradationProperties degradationProperties = new DegradationProperties();
+
     @InjectMocks
     private WeatherServiceImpl weatherService;
 
@@ -82,7 +108,6 @@ public class WeatherServiceTest {
         lenient().when(webClientService.executeRequest(
                 eq(baseUrl),
                 eq(geoUri),
-                eq(""),
                 eq(HttpMethod.GET),
                 eq(Coordinates.class)
         )).thenReturn(Mono.just(testCoordinates));
@@ -90,7 +115,6 @@ public class WeatherServiceTest {
         lenient().when(webClientService.executeRequest(
                 eq(baseUrl),
                 eq(weatherUri),
-                eq(""),
                 eq(HttpMethod.GET),
                 eq(WeatherData.class)
         )).thenReturn(Mono.just(testWeatherData));
@@ -106,6 +130,11 @@ public class WeatherServiceTest {
                     assertNotNull(weatherData.getRequestTime());
                 })
                 .verifyComplete();
+
+        for (String stage : new String[] { "validate_user_access", "validate_request", "get_coordinates",
+                "get_weather_details", "save", "total" }) {
+            assertEquals(1, stageTimerCount(stage, "success"));
+        }
     }
 
     @Test
@@ -120,7 +149,6 @@ public class WeatherServiceTest {
         when(webClientService.executeRequest(
                 eq("http://test-url"),
                 eq(geoUri),
-                eq(""),
                 eq(HttpMethod.GET),
                 eq(Coordinates.class)
         )).thenReturn(Mono.just(testCoordinates));
@@ -128,7 +156,6 @@ public class WeatherServiceTest {
         when(webClientService.executeRequest(
                 eq("http://test-url"),
                 eq(weatherUri),
-                eq(""),
                 eq(HttpMethod.GET),
                 eq(WeatherData.class)
         )).thenReturn(Mono.just(testWeatherData));
@@ -141,6 +168,136 @@ public class WeatherServiceTest {
         StepVerifier.create(weatherService.getWeatherData(testRequest))
                 .expectError(DatabaseException.class)
                 .verify();
+
+        assertEquals(1, stageTimerCount("save", "database_error"));
+        assertEquals(1, stageTimerCount("total", "database_error"));
+    }
+
+    @Test
+    void getWeatherDataUpstreamFailureServesStoredObservationTest() {
+        givenUpstreamFailure();
+        when(weatherDataRepository.findFirstByPostalCodeAndRequestTimeGreaterThanEqualOrderByRequestTimeDesc(
+                eq("12345"), any(LocalDateTime.class))).thenReturn(Mono.just(testWeatherData));
+
+        StepVerifier.create(weatherService.getWeatherData(testRequest))
+                .assertNext(weatherData -> {
+                    assertTrue(weatherData.isStale());
+                    assertEquals("12345", weatherData.getPostalCode());
+                })
+                .verifyComplete();
+
+        verify(weatherDataRepository, never()).save(any(WeatherData.class));
+        assertEquals(1, fallbackCount("served"));
+        assertEquals(1, stageTimerCount("get_coordinates", "upstream_error"));
+        assertEquals(1, stageTimerCount("total", "success"));
+    }
+
+    @Test
+    void getWeatherDataStoredObservationOfAnotherUserIsServedAsRequesterTest() {
+        givenUpstreamFailure();
+        LocalDateTime observedAt = LocalDateTime.now().minusMinutes(5);
+        testWeatherData.setUsername("otherUser");
+        testWeatherData.setRequestTime(observedAt);
+        when(weatherDataRepository.findFirstByPostalCodeAndRequestTimeGreaterThanEqualOrderByRequestTimeDesc(
+                eq("12345"), any(LocalDateTime.class))).thenReturn(Mono.just(testWeatherData));
+
+        StepVerifier.create(weatherService.getWeatherData(testRequest))
+                .assertNext(weatherData -> {
+                    assertEquals("testUser", weatherData.getUsername());
+                    assertEquals("12345", weatherData.getPostalCode());
+                    assertNull(weatherData.getUuid());
+                    assertEquals(observedAt, weatherData.getRequestTime());
+                })
+                .verifyComplete();
+
+        verify(weatherDataRepository, never()).save(any(WeatherData.class));
+    }
+
+    @Test
+    void getWeatherDataUpstreamFailureWithoutRecentObservationFailsTest() {
+        givenUpstreamFailure();
+        when(weatherDataRepository.findFirstByPostalCodeAndRequestTimeGreaterThanEqualOrderByRequestTimeDesc(
+                eq("12345"), any(LocalDateTime.class))).thenReturn(Mono.empty());
+
+        StepVerifier.create(weatherService.getWeatherData(testRequest))
+                .expectError(WeatherServiceException.class)
+                .verify();
+
+        assertEquals(1, fallbackCount("unavailable"));
+        assertEquals(1, stageTimerCount("total", "upstream_error"));
+    }
+
+    @Test
+    void getWeatherDataUpstreamFailureWithDegradationDisabledFailsTest() {
+        degradationProperties.setEnabled(false);
+        givenUpstreamFailure();
+
+        StepVerifier.create(weatherService.getWeatherData(testRequest))
+                .expectError(WeatherServiceException.class)
+                .verify();
+
+        verify(weatherDataRepository, never())
+                .findFirstByPostalCodeAndRequestTimeGreaterThanEqualOrderByRequestTimeDesc(anyString(), any());
+        assertEquals(0, fallbackCount("served") + fallbackCount("unavailable"));
+    }
+
+    @Test
+    void getWeatherDataDeadlineNotCoveringNextStageSkipsItTest() {
+        when(weatherServiceProperties.getUrl()).thenReturn("http://test-url");
+        when(weatherServiceUriUtil.prepareGeoCoordinatesUri(testRequest.getPostalCode())).thenReturn(GEO_1_0_ZIP);
+        when(webClientService.executeRequest(eq("http://test-url"), eq(GEO_1_0_ZIP), eq(HttpMethod.GET),
+                eq(Coordinates.class))).thenReturn(Mono.just(testCoordinates));
+        when(weatherServiceUriUtil.prepareWeatherDataUri(testCoordinates)).thenReturn(DATA_2_5_WEATHER);
+        AtomicBoolean weatherRequested = new AtomicBoolean();
+        when(webClientService.executeRequest(eq("http://test-url"), eq(DATA_2_5_WEATHER), eq(HttpMethod.GET),
+                eq(WeatherData.class))).thenReturn(Mono.fromSupplier(() -> {
+                    weatherRequested.set(true);
+                    return testWeatherData;
+                }));
+        when(weatherDataRepository.findFirstByPostalCodeAndRequestTimeGreaterThanEqualOrderByRequestTimeDesc(
+                eq("12345"), any(LocalDateTime.class))).thenReturn(Mono.empty());
+        Deadline deadline = Deadline.after(Duration.ofMillis(500), Map.of("weather", Duration.ofSeconds(1)));
+
+        StepVerifier.create(weatherService.getWeatherData(testRequest)
+                        .contextWrite(Context.of(Deadline.class, deadline)))
+                .expectErrorSatisfies(ex -> assertEquals("weather", ((DeadlineExceededException) ex).getStage()))
+                .verify();
+
+        assertFalse(weatherRequested.get());
+        verify(weatherDataRepository, never()).save(any());
+        assertEquals(1, stageTimerCount("get_weather_details", "timeout"));
+        assertEquals(1, fallbackCount("unavailable"));
+    }
+
+    @Test
+    void getWeatherDataSlowUpstreamUnderDeadlineServesStoredObservationTest() {
+        when(weatherServiceProperties.getUrl()).thenReturn("http://test-url");
+        when(weatherServiceUriUtil.prepareGeoCoordinatesUri(testRequest.getPostalCode())).thenReturn(GEO_1_0_ZIP);
+        when(webClientService.executeRequest(eq("http://test-url"), eq(GEO_1_0_ZIP), eq(HttpMethod.GET),
+                eq(Coordinates.class))).thenReturn(Mono.never());
+        when(weatherDataRepository.findFirstByPostalCodeAndRequestTimeGreaterThanEqualOrderByRequestTimeDesc(
+                eq("12345"), any(LocalDateTime.class))).thenReturn(Mono.just(testWeatherData));
+        Deadline deadline = Deadline.after(Duration.ofMillis(300), Map.of("fallback", Duration.ofMillis(100)));
+
+        StepVerifier.create(weatherService.getWeatherData(testRequest)
+                        .contextWrite(Context.of(Deadline.class, deadline)))
+                .assertNext(weatherData -> assertTrue(weatherData.isStale()))
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+
+        assertEquals(1, fallbackCount("served"));
+        assertEquals(1, stageTimerCount("get_coordinates", "timeout"));
+    }
+
+    @Test
+    void getHistoryPastDeadlineIsCancelledTest() {
+        when(weatherDataRepository.findByUsernameOrderByRequestTimeDesc("testUser")).thenReturn(Flux.never());
+        Deadline deadline = Deadline.after(Duration.ofMillis(50), Map.of());
+
+        StepVerifier.create(weatherService.getHistoryByUsername("testUser")
+                        .contextWrite(Context.of(Deadline.class, deadline)))
+                .expectErrorSatisfies(ex -> assertEquals("history", ((DeadlineExceededException) ex).getStage()))
+                .verify(Duration.ofSeconds(5));
     }
 
     @Test
@@ -173,6 +330,45 @@ public class WeatherServiceTest {
                 .verifyComplete();
     }
 
+    @Test
+    void historyETagMatchesLoadedHistoryTest() {
+        when(weatherDataRepository.findHistoryVersionByUsername("testUser"))
+                .thenReturn(Mono.just(new HistoryVersion(1, testWeatherData.getRequestTime())));
+        when(weatherDataRepository.findByUsernameOrderByRequestTimeDesc("testUser"))
+                .thenReturn(Flux.just(testWeatherData));
+        when(weatherDataRepository.findHistoryVersionByPostalCode("99999")).thenReturn(Mono.empty());
+
+        String loaded = HistoryETag.of(weatherService.getHistoryByUsername("testUser").block().getHistory());
+
+        StepVerifier.create(weatherService.getHistoryETagByUsername("testUser"))
+                .expectNext(loaded)
+                .verifyComplete();
+        StepVerifier.create(weatherService.getHistoryETagByPostalCode("99999"))
+                .expectNext(HistoryETag.EMPTY)
+                .verifyComplete();
+    }
+
+    private void givenUpstreamFailure() {
+        when(weatherServiceProperties.getUrl()).thenReturn("http://test-url");
+        when(weatherServiceUriUtil.prepareGeoCoordinatesUri(testRequest.getPostalCode())).thenReturn(GEO_1_0_ZIP);
+        when(webClientService.executeRequest(eq("http://test-url"), eq(GEO_1_0_ZIP), eq(HttpMethod.GET),
+                eq(Coordinates.class)))
+                .thenReturn(Mono.error(WebClientResponseException.create(HttpStatus.SERVICE_UNAVAILABLE.value(),
+                        "Service Unavailable", null, null, null)));
+    }
+
+    private double fallbackCount(String result) {
+        return meterRegistry.get(WeatherPipelineMetrics.FALLBACK_COUNTER).tag("result", result).counter().count();
+    }
+
+    private long stageTimerCount(String stage, String outcome) {
+        return meterRegistry.get(WeatherPipelineMetrics.STAGE_TIMER)
+                .tag("stage", stage)
+                .tag("outcome", outcome)
+                .timer()
+                .count();
+    }
+
     private WeatherData createTestWeatherData() {
         WeatherData.Weather weather = new WeatherData.Weather(800, "Clear", "clear sky", "01d");
         WeatherData.Main main = new WeatherData.Main(72.5, 70.0, 68.0, 75.0, 1013, 65, 1015, 1012);
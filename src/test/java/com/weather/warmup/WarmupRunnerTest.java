@@ -0,0 +1,87 @@
+package com.weather.warmup;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.weather.config.JacksonConfig;
+import com.weather.security.JwtService;
+import com.weather.utils.WarmupProperties;
+import com.weather.utils.WeatherServiceProperties;
+import com.weather.webclient.WebClientService;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+class WarmupRunnerTest {
+
+    private static final String UPSTREAM_URL = "http://upstream.test";
+    private static final String TEST_SECRET =
+            "dK3yL8xR#mP9$vN2cF5jH1qW4tY7*zE6aB0nM3uQ8sW4pX2vB9yN5mC7kD1fG3hJ5nM8tP4rL6wS9xF2aE4bV7";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final WebClientService webClientService = mock(WebClientService.class);
+    private final WarmupProperties properties = new WarmupProperties();
+    private WarmupRunner runner;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        JwtService jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "secret", TEST_SECRET);
+        JacksonConfig jacksonConfig = new JacksonConfig();
+        ObjectMapper objectMapper = jacksonConfig.objectMapper();
+        ServerCodecConfigurer codecConfigurer = ServerCodecConfigurer.create();
+        jacksonConfig.codecCustomizer(objectMapper, jacksonConfig.jsonCodecs(objectMapper)).customize(codecConfigurer);
+        WeatherServiceProperties weatherServiceProperties = new WeatherServiceProperties();
+        weatherServiceProperties.setUrl(UPSTREAM_URL);
+        ObjectProvider<ReactiveMongoTemplate> mongoTemplate = mock(ObjectProvider.class);
+
+        properties.setIterations(50);
+        runner = new WarmupRunner(properties, jwtService, codecConfigurer, webClientService, weatherServiceProperties,
+                mongoTemplate, meterRegistry);
+    }
+
+    @Test
+    void allStepsCompleteWithinBudgetTest() {
+        when(webClientService.preconnect(UPSTREAM_URL, 4)).thenReturn(Mono.just(4L));
+
+        runner.run(new DefaultApplicationArguments());
+
+        for (String step : new String[] { "jwt", "history_mapping", "codecs", "upstream", "mongo" }) {
+            assertEquals(1, stepTimer(step, WarmupRunner.Outcome.COMPLETED).count(), step);
+        }
+        verify(webClientService).preconnect(UPSTREAM_URL, 4);
+    }
+
+    @Test
+    void exhaustedBudgetCutsStepsShortTest() {
+        properties.setBudget(Duration.ofSeconds(2));
+        when(webClientService.preconnect(UPSTREAM_URL, 4)).thenReturn(Mono.never());
+
+        long start = System.nanoTime();
+        runner.run(new DefaultApplicationArguments());
+
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofSeconds(5)) < 0);
+        assertEquals(1, stepTimer("upstream", WarmupRunner.Outcome.BUDGET_EXCEEDED).count());
+        assertEquals(1, stepTimer("mongo", WarmupRunner.Outcome.SKIPPED).count());
+    }
+
+    private Timer stepTimer(String step, WarmupRunner.Outcome outcome) {
+        return meterRegistry.get("weather.warmup").tag("step", step).tag("outcome", outcome.getTagValue()).timer();
+    }
+}
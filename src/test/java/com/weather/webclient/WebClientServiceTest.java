@@ -1,5 +1,9 @@
 package com.weather.webclient;
 
+import com.weather.deadline.Deadline;
+import com.weather.deadline.DeadlineExceededException;
+import com.weather.utils.RetryProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
 import org.junit.jupiter.api.AfterEach;
@@ -7,12 +11,21 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.test.StepVerifier;
+import reactor.util.context.Context;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 
 class WebClientServiceTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private RetryProperties retryProperties;
     private WebClientService webClientService;
     private MockWebServer mockWebServer;
 
@@ -20,7 +33,9 @@ class WebClientServiceTest {
     void setUp() throws IOException {
         mockWebServer = new MockWebServer();
         mockWebServer.start();
-        webClientService = new WebClientService();
+        retryProperties = new RetryProperties();
+        retryProperties.setMinBackoff(Duration.ofMillis(10));
+        webClientService = newWebClientService();
     }
 
     @AfterEach
@@ -37,7 +52,6 @@ class WebClientServiceTest {
         StepVerifier.create(webClientService.executeRequest(
                         mockWebServer.url("/").toString(),
                         "/test",
-                        "trace-id",
                         HttpMethod.GET,
                         String.class
                 ))
@@ -54,11 +68,102 @@ class WebClientServiceTest {
         StepVerifier.create(webClientService.executeRequest(
                         mockWebServer.url("/").toString(),
                         "/test",
-                        "trace-id",
                         HttpMethod.GET,
                         String.class
                 ))
                 .expectError(WebClientResponseException.class)
                 .verify();
     }
+
+    @Test
+    void executeRequestPermanentFailureIsNotRetriedTest() {
+        mockWebServer.enqueue(new MockResponse()
+                .setResponseCode(HttpStatus.UNAUTHORIZED.value())
+                .addHeader("Content-Type", "application/json"));
+
+        StepVerifier.create(webClientService.executeRequest(
+                        mockWebServer.url("/").toString(),
+                        "/test",
+                        HttpMethod.GET,
+                        String.class
+                ))
+                .expectError(WebClientResponseException.Unauthorized.class)
+                .verify();
+
+        assertEquals(1, mockWebServer.getRequestCount());
+        assertEquals(0, retries("attempted"));
+    }
+
+    @Test
+    void executeRequestTransientFailureIsRetriedTest() {
+        mockWebServer.enqueue(new MockResponse().setResponseCode(HttpStatus.SERVICE_UNAVAILABLE.value()));
+        mockWebServer.enqueue(new MockResponse()
+                .setBody("{\"data\": \"test\"}")
+                .addHeader("Content-Type", "application/json"));
+
+        StepVerifier.create(webClientService.executeRequest(
+                        mockWebServer.url("/").toString(),
+                        "/test",
+                        HttpMethod.GET,
+                        String.class
+                ))
+                .expectNext("{\"data\": \"test\"}")
+                .verifyComplete();
+
+        assertEquals(2, mockWebServer.getRequestCount());
+        assertEquals(1, retries("attempted"));
+        assertEquals(1, retries("succeeded"));
+    }
+
+    @Test
+    void executeRequestStopsRetryingWhenBudgetIsExhaustedTest() {
+        retryProperties.setBudgetMaxTokens(1);
+        retryProperties.setBudgetRatio(0);
+        webClientService = newWebClientService();
+        for (int i = 0; i < 3; i++) {
+            mockWebServer.enqueue(new MockResponse().setResponseCode(HttpStatus.BAD_GATEWAY.value()));
+        }
+
+        StepVerifier.create(webClientService.executeRequest(
+                        mockWebServer.url("/").toString(),
+                        "/test",
+                        HttpMethod.GET,
+                        String.class
+                ))
+                .expectError(WebClientResponseException.BadGateway.class)
+                .verify(Duration.ofSeconds(5));
+
+        assertEquals(2, mockWebServer.getRequestCount());
+        assertEquals(1, retries("attempted"));
+        assertEquals(1, retries("budget_exhausted"));
+    }
+
+    @Test
+    void executeRequestStopsRetryingWhenDeadlineCannotCoverBackoffTest() {
+        mockWebServer.enqueue(new MockResponse().setResponseCode(HttpStatus.SERVICE_UNAVAILABLE.value()));
+        Deadline deadline = Deadline.after(Duration.ofMillis(500), Map.of(RetryPolicy.RETRY_STAGE, Duration.ofSeconds(1)));
+
+        StepVerifier.create(webClientService.executeRequest(
+                                mockWebServer.url("/").toString(),
+                                "/test",
+                                HttpMethod.GET,
+                                String.class
+                        ).contextWrite(Context.of(Deadline.class, deadline)))
+                .expectErrorSatisfies(ex -> {
+                    assertEquals(RetryPolicy.RETRY_STAGE, ((DeadlineExceededException) ex).getStage());
+                    assertInstanceOf(WebClientResponseException.class, ex.getCause());
+                })
+                .verify(Duration.ofSeconds(5));
+
+        assertEquals(1, mockWebServer.getRequestCount());
+        assertEquals(1, retries("deadline"));
+    }
+
+    private WebClientService newWebClientService() {
+        return new WebClientService(WebClient.builder(), new RetryPolicy(retryProperties, meterRegistry));
+    }
+
+    private double retries(String result) {
+        return meterRegistry.get("weather.upstream.retries").tag("result", result).counter().count();
+    }
 }
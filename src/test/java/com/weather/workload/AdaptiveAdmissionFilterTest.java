@@ -0,0 +1,72 @@
+package com.weather.workload;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.weather.config.JsonCodecs;
+import com.weather.exception.handler.ErrorResponseWriter;
+
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+@ExtendWith(MockitoExtension.class)
+class AdaptiveAdmissionFilterTest {
+
+    @Mock
+    private AdaptiveConcurrencyLimiter limiter;
+
+    @Mock
+    private WebFilterChain chain;
+
+    private AdaptiveAdmissionFilter admissionFilter;
+    private MockServerWebExchange exchange;
+
+    @BeforeEach
+    void setUp() {
+        admissionFilter = new AdaptiveAdmissionFilter(limiter, new ErrorResponseWriter(new JsonCodecs(new ObjectMapper())));
+        exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/v1/api/weather/history/user/testUser"));
+        when(limiter.applies(any())).thenReturn(true);
+    }
+
+    @Test
+    void admittedRequestReportsLatencyTest() {
+        when(limiter.tryAcquire()).thenReturn(true);
+        when(chain.filter(exchange)).thenReturn(Mono.empty());
+
+        StepVerifier.create(admissionFilter.filter(exchange, chain))
+                .verifyComplete();
+
+        verify(limiter).onComplete(anyLong());
+        verify(limiter, never()).onCancel();
+    }
+
+    @Test
+    void requestAboveLimitReturnsServiceUnavailableTest() {
+        when(limiter.tryAcquire()).thenReturn(false);
+
+        StepVerifier.create(admissionFilter.filter(exchange, chain))
+                .verifyComplete();
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exchange.getResponse().getStatusCode());
+        assertEquals(AdaptiveAdmissionFilter.RETRY_AFTER_SECONDS,
+                exchange.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        verify(chain, never()).filter(any());
+        verify(limiter, never()).onComplete(anyLong());
+    }
+}
@@ -0,0 +1,99 @@
+package com.weather.workload;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.server.PathContainer;
+
+import com.weather.utils.AdmissionControlProperties;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long MILLIS = 1_000_000L;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicLong eventLoopLag = new AtomicLong();
+    private AdmissionControlProperties properties;
+    private AdaptiveConcurrencyLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        properties = new AdmissionControlProperties();
+        properties.setInitialLimit(20);
+        properties.setMinLimit(4);
+        properties.setMaxLimit(100);
+        properties.setMaxEventLoopLag(Duration.ofMillis(50));
+        limiter = new AdaptiveConcurrencyLimiter(properties, eventLoopLag::get, meterRegistry, false);
+    }
+
+    @Test
+    void requestsAboveLimitAreRejectedTest() {
+        for (int i = 0; i < 20; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+
+        assertFalse(limiter.tryAcquire());
+        limiter.onComplete(10 * MILLIS);
+        assertTrue(limiter.tryAcquire());
+        assertEquals(1.0, meterRegistry.get("weather.admission.rejected").counter().count());
+        assertEquals(20.0, meterRegistry.get("weather.admission.in.flight").gauge().value());
+    }
+
+    @Test
+    void limitGrowsWhileLatencyIsFlatAndShrinksWhenItRisesTest() {
+        for (int i = 0; i < 10; i++) {
+            window(limiter.limit(), 10 * MILLIS);
+        }
+        int grown = limiter.limit();
+        assertTrue(grown > 20, "limit " + grown);
+
+        for (int i = 0; i < 10; i++) {
+            window(limiter.limit(), 60 * MILLIS);
+        }
+        assertTrue(limiter.limit() < grown, "limit " + limiter.limit());
+        assertEquals(limiter.limit(), meterRegistry.get("weather.admission.limit").gauge().value(), 0.0);
+    }
+
+    @Test
+    void underusedLimitDoesNotGrowTest() {
+        for (int i = 0; i < 10; i++) {
+            window(5, 10 * MILLIS);
+        }
+
+        assertEquals(20, limiter.limit());
+    }
+
+    @Test
+    void eventLoopLagShrinksLimitDownToFloorTest() {
+        eventLoopLag.set(200 * MILLIS);
+        for (int i = 0; i < 100; i++) {
+            limiter.update();
+        }
+
+        assertEquals(4, limiter.limit());
+    }
+
+    @Test
+    void onlyConfiguredPathsAreControlledTest() {
+        assertTrue(limiter.applies(PathContainer.parsePath("/v1/api/users/register")));
+        assertFalse(limiter.applies(PathContainer.parsePath("/actuator/prometheus")));
+    }
+
+    private void window(int concurrency, long latencyNanos) {
+        for (int i = 0; i < concurrency; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+        for (int i = 0; i < concurrency; i++) {
+            limiter.onComplete(latencyNanos);
+        }
+        limiter.update();
+    }
+}
@@ -0,0 +1,85 @@
+package com.weather.workload;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.weather.config.JsonCodecs;
+import com.weather.exception.handler.ErrorResponseWriter;
+import com.weather.utils.WorkloadIsolationProperties;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+@ExtendWith(MockitoExtension.class)
+class WorkloadIsolationFilterTest {
+
+    @Mock
+    private WebFilterChain chain;
+
+    private WorkloadIsolation workloadIsolation;
+    private WorkloadIsolationFilter workloadIsolationFilter;
+    private MockServerWebExchange exchange;
+
+    @BeforeEach
+    void setUp() {
+        WorkloadIsolationProperties.Workload collect = new WorkloadIsolationProperties.Workload();
+        collect.setPatterns(List.of("/v1/api/weather/info"));
+        collect.setShedAbove(0);
+        WorkloadIsolationProperties properties = new WorkloadIsolationProperties();
+        properties.getWorkloads().put("collect", collect);
+        workloadIsolation = new WorkloadIsolation(properties, new SimpleMeterRegistry());
+        workloadIsolationFilter = new WorkloadIsolationFilter(workloadIsolation,
+                new ErrorResponseWriter(new JsonCodecs(new ObjectMapper())));
+    }
+
+    @AfterEach
+    void tearDown() {
+        workloadIsolation.destroy();
+    }
+
+    @Test
+    void shedRequestReturnsServiceUnavailableTest() {
+        exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/v1/api/weather/info"));
+
+        StepVerifier.create(workloadIsolationFilter.filter(exchange, chain))
+                .verifyComplete();
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exchange.getResponse().getStatusCode());
+        assertEquals(WorkloadIsolationFilter.RETRY_AFTER_SECONDS,
+                exchange.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        StepVerifier.create(exchange.getResponse().getBodyAsString())
+                .expectNextMatches(body -> body.contains("\"status\":503"))
+                .verifyComplete();
+        verify(chain, never()).filter(any());
+    }
+
+    @Test
+    void unclassifiedRequestPassesTest() {
+        exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/actuator/health"));
+        when(chain.filter(exchange)).thenReturn(Mono.empty());
+
+        StepVerifier.create(workloadIsolationFilter.filter(exchange, chain))
+                .verifyComplete();
+
+        verify(chain).filter(exchange);
+    }
+}
@@ -0,0 +1,140 @@
+package com.weather.workload;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.server.PathContainer;
+
+import com.weather.utils.WorkloadIsolationProperties;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+class WorkloadIsolationTest {
+
+    private static final PathContainer COLLECT = PathContainer.parsePath("/v1/api/weather/info");
+    private static final PathContainer HISTORY = PathContainer.parsePath("/v1/api/weather/history/user/testUser");
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private WorkloadIsolationProperties properties;
+    private WorkloadIsolation workloadIsolation;
+
+    @BeforeEach
+    void setUp() {
+        properties = new WorkloadIsolationProperties();
+        properties.setCapacity(4);
+        properties.getWorkloads().put("history", workload("/v1/api/weather/history/**", 2, 1, 1.0));
+        properties.getWorkloads().put("collect", workload("/v1/api/weather/info", 1, 1, 0.5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        workloadIsolation.destroy();
+    }
+
+    @Test
+    void queuedRequestRunsWhenSlotIsReleasedTest() {
+        properties.getWorkloads().get("collect").setShedAbove(1.0);
+        workloadIsolation = new WorkloadIsolation(properties, meterRegistry);
+        Sinks.Empty<Void> running = Sinks.empty();
+        Sinks.Empty<Void> queued = Sinks.empty();
+        workloadIsolation.execute(COLLECT, running.asMono()).subscribe();
+        Disposable waiting = workloadIsolation.execute(COLLECT, Mono.defer(() -> {
+            queued.tryEmitEmpty();
+            return Mono.empty();
+        })).subscribe();
+
+        assertEquals(1.0, gauge("weather.workload.queued", "collect"));
+        StepVerifier.create(workloadIsolation.execute(COLLECT, Mono.empty()))
+                .expectErrorSatisfies(ex -> assertEquals(WorkloadIsolation.Rejection.QUEUE_FULL,
+                        ((WorkloadRejectedException) ex).getRejection()))
+                .verify();
+
+        running.tryEmitEmpty();
+        StepVerifier.create(queued.asMono()).verifyComplete();
+        assertTrue(waiting.isDisposed());
+        assertEquals(0.0, gauge("weather.workload.in.flight", "collect"));
+        assertEquals(1.0, rejected("collect", WorkloadIsolation.Rejection.QUEUE_FULL));
+    }
+
+    @Test
+    void queuedRequestTimesOutTest() {
+        properties.getWorkloads().get("collect").setQueueTimeout(Duration.ofMillis(50));
+        workloadIsolation = new WorkloadIsolation(properties, meterRegistry);
+        Disposable running = workloadIsolation.execute(COLLECT, Mono.never()).subscribe();
+
+        StepVerifier.create(workloadIsolation.execute(COLLECT, Mono.empty()))
+                .expectError(WorkloadRejectedException.class)
+                .verify(Duration.ofSeconds(5));
+
+        assertEquals(0.0, gauge("weather.workload.queued", "collect"));
+        assertEquals(1.0, rejected("collect", WorkloadIsolation.Rejection.QUEUE_TIMEOUT));
+        running.dispose();
+        assertEquals(0.0, gauge("weather.workload.in.flight", "collect"));
+    }
+
+    @Test
+    void lowerPriorityClassIsShedFirstTest() {
+        workloadIsolation = new WorkloadIsolation(properties, meterRegistry);
+        Disposable first = workloadIsolation.execute(HISTORY, Mono.never()).subscribe();
+        Disposable second = workloadIsolation.execute(HISTORY, Mono.never()).subscribe();
+
+        StepVerifier.create(workloadIsolation.execute(COLLECT, Mono.empty()))
+                .expectErrorSatisfies(ex -> assertEquals(WorkloadIsolation.Rejection.SHED,
+                        ((WorkloadRejectedException) ex).getRejection()))
+                .verify();
+        Disposable third = workloadIsolation.execute(HISTORY, Mono.never()).subscribe();
+
+        assertEquals(2.0, gauge("weather.workload.in.flight", "history"));
+        assertEquals(1.0, gauge("weather.workload.queued", "history"));
+        assertEquals(1.0, rejected("collect", WorkloadIsolation.Rejection.SHED));
+        List.of(first, second, third).forEach(Disposable::dispose);
+    }
+
+    @Test
+    void dedicatedSchedulerAndUnmatchedPathsTest() {
+        properties.getWorkloads().get("collect").setSchedulerThreads(1);
+        workloadIsolation = new WorkloadIsolation(properties, meterRegistry);
+        AtomicReference<String> thread = new AtomicReference<>();
+
+        StepVerifier.create(workloadIsolation.execute(COLLECT,
+                Mono.fromRunnable(() -> thread.set(Thread.currentThread().getName()))))
+                .verifyComplete();
+        assertTrue(thread.get().startsWith("workload-collect"), thread.get());
+
+        Mono<Void> unmatched = Mono.empty();
+        assertEquals(unmatched, workloadIsolation.execute(PathContainer.parsePath("/actuator/health"), unmatched));
+    }
+
+    private double gauge(String name, String workload) {
+        return meterRegistry.get(name).tag("workload", workload).gauge().value();
+    }
+
+    private double rejected(String workload, WorkloadIsolation.Rejection rejection) {
+        return meterRegistry.get("weather.workload.rejected")
+                .tag("workload", workload)
+                .tag("reason", rejection.getTagValue())
+                .counter()
+                .count();
+    }
+
+    private static WorkloadIsolationProperties.Workload workload(String pattern, int maxConcurrency, int maxQueue,
+            double shedAbove) {
+        WorkloadIsolationProperties.Workload workload = new WorkloadIsolationProperties.Workload();
+        workload.setPatterns(List.of(pattern));
+        workload.setMaxConcurrency(maxConcurrency);
+        workload.setMaxQueue(maxQueue);
+        workload.setShedAbove(shedAbove);
+        return workload;
+    }
+}